@@ -0,0 +1,102 @@
+package com.airline.booking.demo.bench;
+
+import com.airline.booking.demo.feature.bookings.repository.entity.Booking;
+import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import com.airline.booking.demo.feature.passengers.repository.entity.Passenger;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class Fixtures {
+
+    public static final OffsetDateTime NOW = OffsetDateTime.of(2026, 5, 1, 10, 30, 0, 0, ZoneOffset.UTC);
+
+    private Fixtures() {
+        // Empty Constructor
+    }
+
+    public static Flight flight() {
+        final Flight flight = new Flight();
+        flight.setId(42L);
+        flight.setFlightNumber("EK205");
+        flight.setAirlineId(1L);
+        flight.setDepartureAirport("DXB");
+        flight.setArrivalAirport("LHR");
+        flight.setDepartureTime(NOW.plusDays(3));
+        flight.setArrivalTime(NOW.plusDays(3).plusHours(7));
+        flight.setTotalSeats(300);
+        flight.setAvailableSeats(120);
+        flight.setPrice(new BigDecimal("899.99"));
+        flight.setStatus("SCHEDULED");
+        flight.setCreatedAt(NOW);
+        flight.setUpdatedAt(NOW);
+        return flight;
+    }
+
+    public static Booking booking() {
+        final Booking booking = new Booking();
+        booking.setId(7L);
+        booking.setBookingReference("EK20520260501-1");
+        booking.setPassengerId(3L);
+        booking.setFlightId(42L);
+        booking.setSeatNumber("12A");
+        booking.setStatus("CONFIRMED");
+        booking.setTotalAmount(new BigDecimal("899.99"));
+        booking.setBookingDate(NOW);
+        booking.setCreatedAt(NOW);
+        booking.setUpdatedAt(NOW);
+        return booking;
+    }
+
+    public static Passenger passenger() {
+        final Passenger passenger = new Passenger();
+        passenger.setId(3L);
+        passenger.setFirstName("Ada");
+        passenger.setLastName("Lovelace");
+        passenger.setEmail("ada@example.com");
+        passenger.setPhone("+44 20 7946 0000");
+        passenger.setPassportNumber("P1234567");
+        passenger.setDateOfBirth(LocalDate.of(1990, 12, 10));
+        passenger.setCreatedAt(NOW);
+        passenger.setUpdatedAt(NOW);
+        return passenger;
+    }
+
+    public static Map<String, Object> flightColumns() {
+        final LocalDateTime departure = NOW.plusDays(3).toLocalDateTime();
+        final Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("id", 42L);
+        columns.put("flight_number", "EK205");
+        columns.put("airline_id", 1L);
+        columns.put("departure_airport", "DXB");
+        columns.put("arrival_airport", "LHR");
+        columns.put("departure_time", departure);
+        columns.put("arrival_time", departure.plusHours(7));
+        columns.put("available_seats", 120);
+        columns.put("total_seats", 300);
+        columns.put("price", new BigDecimal("899.99"));
+        columns.put("status", "SCHEDULED");
+        columns.put("created_at", NOW.toLocalDateTime());
+        columns.put("updated_at", NOW.toLocalDateTime());
+        return columns;
+    }
+
+    public static Map<String, Object> bookingColumns() {
+        final Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("id", 7L);
+        columns.put("booking_reference", "EK20520260501-1");
+        columns.put("passenger_id", 3L);
+        columns.put("flight_id", 42L);
+        columns.put("seat_number", "12A");
+        columns.put("status", "CONFIRMED");
+        columns.put("total_amount", new BigDecimal("899.99"));
+        columns.put("booking_date", NOW.toLocalDateTime());
+        columns.put("created_at", NOW.toLocalDateTime());
+        columns.put("updated_at", NOW.toLocalDateTime());
+        return columns;
+    }
+}
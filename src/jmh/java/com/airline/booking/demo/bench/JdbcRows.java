@@ -0,0 +1,49 @@
+package com.airline.booking.demo.bench;
+
+import io.vertx.jdbcclient.impl.JDBCRow;
+import io.vertx.jdbcclient.impl.actions.JDBCRowDesc;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.desc.ColumnDescriptor;
+import java.sql.JDBCType;
+import java.util.Map;
+
+// Builds the same Row implementation the H2 / JDBCPool path hands to repositories
+public final class JdbcRows {
+
+    private JdbcRows() {
+        // Empty Constructor
+    }
+
+    public static Row row(final Map<String, Object> columns) {
+        final ColumnDescriptor[] descriptors = columns.keySet().stream()
+                .map(JdbcRows::descriptor)
+                .toArray(ColumnDescriptor[]::new);
+        final JDBCRow row = new JDBCRow(new JDBCRowDesc(descriptors));
+        columns.values().forEach(row::addValue);
+        return row;
+    }
+
+    private static ColumnDescriptor descriptor(final String name) {
+        return new ColumnDescriptor() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public boolean isArray() {
+                return false;
+            }
+
+            @Override
+            public String typeName() {
+                return null;
+            }
+
+            @Override
+            public JDBCType jdbcType() {
+                return JDBCType.OTHER;
+            }
+        };
+    }
+}
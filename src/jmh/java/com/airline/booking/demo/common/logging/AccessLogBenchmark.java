@@ -0,0 +1,137 @@
+package com.airline.booking.demo.common.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+// Logging cost paid on the event loop per request; files go to a temp directory, not logs/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccessLogBenchmark {
+
+    private static final String LEGACY_PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} "
+            + "correlationId=%X{correlationId} method=%X{method} path=%X{path} ip=%X{ip} - %msg%n";
+
+    private LoggerContext context;
+    private Path dir;
+    private Logger legacy;
+    private Logger access;
+    private AccessLog everyRequest;
+    private AccessLog sampled;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        dir = Files.createTempDirectory("access-log-bench");
+
+        // The previous HttpLoggerHandler: HTTP_START and HTTP_END written by the calling thread
+        legacy = context.getLogger("bench.legacy");
+        legacy.setAdditive(false);
+        legacy.setLevel(Level.INFO);
+        legacy.addAppender(file("legacy.log", LEGACY_PATTERN));
+
+        // Same settings as ASYNC_ACCESS in logback.xml
+        final AsyncAppender queue = new AsyncAppender();
+        queue.setContext(context);
+        queue.setName("bench-async-access");
+        queue.setQueueSize(8192);
+        queue.setDiscardingThreshold(0);
+        queue.setNeverBlock(true);
+        queue.addAppender(file("access.log", "%msg%n"));
+        queue.start();
+
+        access = context.getLogger(AccessLog.LOGGER);
+        access.detachAndStopAllAppenders();
+        access.setAdditive(false);
+        access.setLevel(Level.INFO);
+        access.addAppender(queue);
+
+        everyRequest = new AccessLog(1, 1000);
+        sampled = new AccessLog(100, 1000);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        legacy.detachAndStopAllAppenders();
+        access.detachAndStopAllAppenders();
+        try (var files = Files.list(dir)) {
+            for (Path f : files.toList()) {
+                Files.delete(f);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public String uuidId() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String correlationId() {
+        return CorrelationIds.next();
+    }
+
+    @Benchmark
+    public void legacySync() {
+        MDC.put("correlationId", UUID.randomUUID().toString());
+        MDC.put("method", "GET");
+        MDC.put("path", "/flights/42");
+        MDC.put("ip", "127.0.0.1");
+        legacy.info("HTTP_START");
+        legacy.info("HTTP_END status={} durationMs={}", 200, 3L);
+        MDC.clear();
+    }
+
+    @Benchmark
+    public void accessLogAsync() {
+        request(everyRequest);
+    }
+
+    @Benchmark
+    public void accessLogAsyncSampled() {
+        request(sampled);
+    }
+
+    private static void request(final AccessLog accessLog) {
+        final String id = CorrelationIds.next();
+        MDC.put("correlationId", id);
+        accessLog.record(id, "GET", "/flights/42", "127.0.0.1", 200, 340, 3_000_000L);
+        MDC.clear();
+    }
+
+    private FileAppender<ILoggingEvent> file(final String name, final String pattern) {
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(pattern);
+        encoder.start();
+
+        final FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setFile(dir.resolve(name).toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+}
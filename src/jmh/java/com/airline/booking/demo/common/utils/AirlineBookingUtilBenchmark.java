@@ -0,0 +1,41 @@
+package com.airline.booking.demo.common.utils;
+
+import com.airline.booking.demo.bench.Fixtures;
+import com.airline.booking.demo.bench.JdbcRows;
+import io.vertx.sqlclient.Row;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AirlineBookingUtilBenchmark {
+
+    private Row h2Row;
+    private Row pgRow;
+
+    @Setup
+    public void setup() {
+        // H2 hands back LocalDateTime, the reactive PG client OffsetDateTime
+        h2Row = JdbcRows.row(Map.of("created_at", Fixtures.NOW.toLocalDateTime()));
+        pgRow = JdbcRows.row(Map.of("created_at", Fixtures.NOW));
+    }
+
+    @Benchmark
+    public OffsetDateTime fromLocalDateTime() {
+        return AirlineBookingUtil.convertSqlDateTimeToOffset(h2Row, "created_at");
+    }
+
+    @Benchmark
+    public OffsetDateTime fromOffsetDateTime() {
+        return AirlineBookingUtil.convertSqlDateTimeToOffset(pgRow, "created_at");
+    }
+}
@@ -0,0 +1,58 @@
+package com.airline.booking.demo.common.validation;
+
+import com.airline.booking.demo.feature.bookings.dto.BookingRequest;
+import com.airline.booking.demo.feature.flights.dto.FlightRequest;
+import com.airline.booking.demo.feature.passengers.dto.PassengerRequest;
+import io.vertx.core.buffer.Buffer;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Parse plus bean validation, the per-request work RequestValidationHandler.validate does before a handler runs
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RequestValidationBenchmark {
+
+    private RequestValidationHandler handler;
+
+    private Buffer booking;
+    private Buffer flight;
+    private Buffer passengerInvalid;
+
+    @Setup
+    public void setup() {
+        handler = new RequestValidationHandler(new CompiledValidator(new ValidatorProvider()));
+        booking = Buffer.buffer("""
+                {"passengerId":3,"flightId":42,"seatNumber":"12A"}""");
+        flight = Buffer.buffer("""
+                {"flightNumber":"EK205","airlineId":1,"departureAirport":"DXB","arrivalAirport":"LHR",
+                 "departureTime":"2026-05-04T10:30:00","arrivalTime":"2026-05-04T17:30:00",
+                 "totalSeats":300,"availableSeats":300,"price":899.99}""");
+        passengerInvalid = Buffer.buffer("""
+                {"firstName":"Ada","lastName":"","email":"not-an-email","phone":"+44 20 7946 0000",
+                 "passportNumber":"P1234567","dateOfBirth":"1990-12-10"}""");
+    }
+
+    @Benchmark
+    public List<String> bookingRequest() throws IOException {
+        return handler.violations(handler.read(booking, BookingRequest.class));
+    }
+
+    @Benchmark
+    public List<String> flightRequest() throws IOException {
+        return handler.violations(handler.read(flight, FlightRequest.class));
+    }
+
+    @Benchmark
+    public List<String> passengerRequestWithViolations() throws IOException {
+        return handler.violations(handler.read(passengerInvalid, PassengerRequest.class));
+    }
+}
@@ -0,0 +1,93 @@
+package com.airline.booking.demo.common.validation;
+
+import com.airline.booking.demo.feature.bookings.dto.BookingBatchRequest;
+import com.airline.booking.demo.feature.bookings.dto.BookingRequest;
+import com.airline.booking.demo.feature.flights.dto.FlightRequest;
+import com.airline.booking.demo.feature.passengers.dto.PassengerRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// CompiledValidator against the Hibernate Validator call it replaced, on already-parsed request bodies
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ValidationEngineBenchmark {
+
+    private CompiledValidator compiled;
+    private Validator hibernate;
+
+    private BookingRequest booking;
+    private FlightRequest flight;
+    private PassengerRequest passengerInvalid;
+    private BookingBatchRequest batch;
+
+    @Setup
+    public void setup() {
+        final ValidatorProvider provider = new ValidatorProvider();
+        compiled = new CompiledValidator(provider);
+        hibernate = provider.getValidator();
+
+        booking = new BookingRequest(3L, 42L, "12A");
+        flight = new FlightRequest("EK205", 1L, "DXB", "LHR", "2026-05-04T10:30:00Z", "2026-05-04T17:30:00Z",
+                300, 300, new BigDecimal("899.99"));
+        passengerInvalid = new PassengerRequest("Ada", "", "not-an-email", "+44 20 7946 0000", "P1234567",
+                "10-12-1990");
+        final List<BookingRequest> items = new ArrayList<>(50);
+        for (long i = 0; i < 50; i++) {
+            items.add(new BookingRequest(i + 1, 42L, (i + 1) + "A"));
+        }
+        batch = new BookingBatchRequest(items);
+    }
+
+    @Benchmark
+    public List<String> compiledBooking() {
+        return compiled.validate(booking);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookingRequest>> hibernateBooking() {
+        return hibernate.validate(booking);
+    }
+
+    @Benchmark
+    public List<String> compiledFlight() {
+        return compiled.validate(flight);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<FlightRequest>> hibernateFlight() {
+        return hibernate.validate(flight);
+    }
+
+    @Benchmark
+    public List<String> compiledPassengerWithViolations() {
+        return compiled.validate(passengerInvalid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PassengerRequest>> hibernatePassengerWithViolations() {
+        return hibernate.validate(passengerInvalid);
+    }
+
+    @Benchmark
+    public List<String> compiledBatchOf50() {
+        return compiled.validate(batch);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookingBatchRequest>> hibernateBatchOf50() {
+        return hibernate.validate(batch);
+    }
+}
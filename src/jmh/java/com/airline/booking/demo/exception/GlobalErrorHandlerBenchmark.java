@@ -0,0 +1,28 @@
+package com.airline.booking.demo.exception;
+
+import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GlobalErrorHandlerBenchmark {
+
+    @Benchmark
+    public String notFound() {
+        return GlobalErrorHandler.errorBody(ErrorCodeEnum.ENTITY_NOT_FOUND, "Flight not found with id: 42",
+                "3f1c8a52-3e49-4f7e-9d0e-1b7c2f3a9e11", "GET", "/flights/42");
+    }
+
+    @Benchmark
+    public String internalError() {
+        return GlobalErrorHandler.errorBody(ErrorCodeEnum.INTERNAL_ERROR, "Internal server error",
+                "3f1c8a52-3e49-4f7e-9d0e-1b7c2f3a9e11", "POST", "/bookings");
+    }
+}
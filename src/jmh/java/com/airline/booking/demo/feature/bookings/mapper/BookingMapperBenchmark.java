@@ -0,0 +1,41 @@
+package com.airline.booking.demo.feature.bookings.mapper;
+
+import com.airline.booking.demo.bench.Fixtures;
+import com.airline.booking.demo.config.JsonConfig;
+import com.airline.booking.demo.feature.bookings.dto.BookingResponse;
+import com.airline.booking.demo.feature.bookings.repository.entity.Booking;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BookingMapperBenchmark {
+
+    private Booking booking;
+
+    @Setup
+    public void setup() {
+        JsonConfig.register();
+        booking = Fixtures.booking();
+    }
+
+    @Benchmark
+    public BookingResponse toResponse() {
+        return BookingMapper.toResponse(booking);
+    }
+
+    // What ctx.json(...) does with the mapped response
+    @Benchmark
+    public Buffer toResponseEncoded() {
+        return Json.encodeToBuffer(BookingMapper.toResponse(booking));
+    }
+}
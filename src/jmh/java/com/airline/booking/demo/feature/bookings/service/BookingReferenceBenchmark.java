@@ -0,0 +1,37 @@
+package com.airline.booking.demo.feature.bookings.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+// Reference generation per booking; the legacy variant is the old flight number + date format
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BookingReferenceBenchmark {
+
+    private final BookingReferenceGenerator generator =
+            new BookingReferenceGenerator(1, () -> System.currentTimeMillis() / 1000);
+
+    @Benchmark
+    public String legacyFlightAndDate() {
+        return "EK205" + LocalDate.now().toString().replace("-", "");
+    }
+
+    @Benchmark
+    public String generator() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generatorContended() {
+        return generator.next();
+    }
+}
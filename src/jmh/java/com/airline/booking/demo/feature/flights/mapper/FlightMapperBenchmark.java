@@ -0,0 +1,83 @@
+package com.airline.booking.demo.feature.flights.mapper;
+
+import com.airline.booking.demo.bench.Fixtures;
+import com.airline.booking.demo.common.http.PooledJson;
+import com.airline.booking.demo.config.JsonConfig;
+import com.airline.booking.demo.feature.flights.dto.FlightResponse;
+import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField;
+import com.airline.booking.demo.feature.flights.service.FlightSummary;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.EnumSet;
+import java.util.Set;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FlightMapperBenchmark {
+
+    private Flight flight;
+    private FlightSummary summary;
+    private Set<FlightField> projection;
+    private List<Flight> searchRows;
+    private List<FlightSummary> searchResult;
+
+    @Setup
+    public void setup() {
+        JsonConfig.register();
+        flight = Fixtures.flight();
+        summary = FlightSummary.of(flight);
+        projection = EnumSet.of(FlightField.FLIGHT_NUMBER, FlightField.DEPARTURE_TIME, FlightField.AVAILABLE_SEATS);
+        searchRows = new ArrayList<>(50);
+        searchResult = new ArrayList<>(50);
+        for (int i = 0; i < 50; i++) {
+            searchRows.add(flight);
+            searchResult.add(summary);
+        }
+    }
+
+    @Benchmark
+    public FlightResponse toResponse() {
+        return FlightMapper.toResponse(flight);
+    }
+
+    // What ctx.json(...) does with the mapped response
+    @Benchmark
+    public Buffer toResponseEncoded() {
+        return Json.encodeToBuffer(FlightMapper.toResponse(flight));
+    }
+
+    @Benchmark
+    public JsonObject toProjectedJson() {
+        return FlightMapper.toJson(flight, projection);
+    }
+
+    // GET /flights/search before: map to FlightResponse records, then ObjectMapper
+    @Benchmark
+    public Buffer searchOf50Encoded() {
+        return Json.encodeToBuffer(searchRows.stream().map(FlightMapper::toResponse).toList());
+    }
+
+    // GET /flights/search now: generator straight into a pooled buffer, released as the response write would
+    @Benchmark
+    public int searchOf50Pooled() throws IOException {
+        final ByteBuf buf = PooledJson.encodeArray(searchResult, FlightJson::write);
+        final int length = buf.readableBytes();
+        buf.release();
+        return length;
+    }
+}
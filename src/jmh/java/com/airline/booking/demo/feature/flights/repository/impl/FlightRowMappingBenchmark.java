@@ -0,0 +1,35 @@
+package com.airline.booking.demo.feature.flights.repository.impl;
+
+import com.airline.booking.demo.bench.Fixtures;
+import com.airline.booking.demo.bench.JdbcRows;
+import com.airline.booking.demo.common.db.SqlDialect;
+import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import io.vertx.sqlclient.Row;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FlightRowMappingBenchmark {
+
+    private FlightRepositoryImpl repository;
+    private Row row;
+
+    @Setup
+    public void setup() {
+        repository = new FlightRepositoryImpl(null, null, SqlDialect.H2);
+        row = JdbcRows.row(Fixtures.flightColumns());
+    }
+
+    @Benchmark
+    public Flight map() {
+        return repository.map(row);
+    }
+}
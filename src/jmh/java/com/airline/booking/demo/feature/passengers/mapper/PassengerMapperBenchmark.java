@@ -0,0 +1,41 @@
+package com.airline.booking.demo.feature.passengers.mapper;
+
+import com.airline.booking.demo.bench.Fixtures;
+import com.airline.booking.demo.config.JsonConfig;
+import com.airline.booking.demo.feature.passengers.dto.PassengerResponse;
+import com.airline.booking.demo.feature.passengers.repository.entity.Passenger;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PassengerMapperBenchmark {
+
+    private Passenger passenger;
+
+    @Setup
+    public void setup() {
+        JsonConfig.register();
+        passenger = Fixtures.passenger();
+    }
+
+    @Benchmark
+    public PassengerResponse toResponse() {
+        return PassengerMapper.toResponse(passenger);
+    }
+
+    // What ctx.json(...) does with the mapped response
+    @Benchmark
+    public Buffer toResponseEncoded() {
+        return Json.encodeToBuffer(PassengerMapper.toResponse(passenger));
+    }
+}
@@ -0,0 +1,64 @@
+package com.airline.booking.demo.loadtest;
+
+import static com.airline.booking.demo.loadtest.LoadTest.await;
+
+import com.airline.booking.demo.MainVerticle;
+import com.airline.booking.demo.config.ServerOptionsProvider;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+// The application in its own Vertx so client and server never share event loops
+final class AppUnderTest implements AutoCloseable {
+
+    private static final String H2_OPTIONS =
+            ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static int started;
+
+    private final Vertx vertx;
+    private final int port;
+
+    private AppUnderTest(final Vertx vertx, final int port) {
+        this.vertx = vertx;
+        this.port = port;
+    }
+
+    static AppUnderTest start(final LoadConfig cfg, final int instances) {
+        return start(cfg, instances, new JsonObject());
+    }
+
+    // server is merged over application.json's server block, e.g. to switch compression on or off
+    static AppUnderTest start(final LoadConfig cfg, final int instances, final JsonObject server) {
+        return start(cfg, instances, server, new JsonObject());
+    }
+
+    // admission is merged over the admission block, e.g. to compare with admission control off
+    static AppUnderTest start(final LoadConfig cfg, final int instances, final JsonObject server,
+            final JsonObject admission) {
+        final JsonObject overrides = new JsonObject()
+                .put("admission", admission.copy())
+                .put("server", server.copy()
+                        .put("port", cfg.port())
+                        .put("host", "127.0.0.1")
+                        .put("instances", instances))
+                .put("warmup", new JsonObject().put("enabled", cfg.appWarmup()));
+        if (!"prod".equalsIgnoreCase(cfg.profile())) {
+            // A fresh in-memory database per start, so runs never see each other's bookings
+            overrides.put("database", new JsonObject().put("url", "jdbc:h2:mem:loadtest_" + (++started) + H2_OPTIONS));
+        }
+
+        final Vertx vertx = Vertx.vertx(ServerOptionsProvider.vertxOptions());
+        await(vertx.deployVerticle(new MainVerticle(), new DeploymentOptions().setConfig(overrides)));
+        return new AppUnderTest(vertx, cfg.port());
+    }
+
+    int port() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        await(vertx.close());
+    }
+}
@@ -0,0 +1,14 @@
+package com.airline.booking.demo.loadtest;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import java.util.function.Function;
+
+record Call(String name, Function<WebClient, Future<HttpResponse<Buffer>>> request) {
+
+    Future<HttpResponse<Buffer>> send(final WebClient client) {
+        return request.apply(client);
+    }
+}
@@ -0,0 +1,103 @@
+package com.airline.booking.demo.loadtest;
+
+import static com.airline.booking.demo.loadtest.LoadTest.await;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Passengers and flights created through the public API before a scenario starts
+final class Fixture {
+
+    static final String FROM = "LDA";
+    static final String TO = "LDB";
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    private final List<Long> passengerIds;
+    private final List<Long> flightIds;
+
+    private Fixture(final List<Long> passengerIds, final List<Long> flightIds) {
+        this.passengerIds = passengerIds;
+        this.flightIds = flightIds;
+    }
+
+    static Fixture seed(final WebClient client, final int passengers, final int flights, final int seats) {
+        final List<Future<Long>> p = new ArrayList<>(passengers);
+        for (int i = 0; i < passengers; i++) {
+            p.add(createPassenger(client));
+        }
+        final List<Future<Long>> f = new ArrayList<>(flights);
+        for (int i = 0; i < flights; i++) {
+            f.add(createFlight(client, FROM, TO, seats));
+        }
+        return new Fixture(awaitAll(p), awaitAll(f));
+    }
+
+    static Future<Long> createPassenger(final WebClient client) {
+        final int n = SEQ.incrementAndGet();
+        final JsonObject body = new JsonObject()
+                .put("firstName", "Load")
+                .put("lastName", "User" + n)
+                .put("email", "load.user." + n + "." + System.nanoTime() + "@example.com")
+                .put("phone", "+44-20-0000-" + n)
+                .put("passportNumber", "LT" + n)
+                .put("dateOfBirth", "01-01-1990");
+        return created(client.post("/passengers").sendJsonObject(body), "passenger");
+    }
+
+    static Future<Long> createFlight(final WebClient client, final String from, final String to, final int seats) {
+        final int n = SEQ.incrementAndGet();
+        final OffsetDateTime departure = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1 + n % 30)
+                .truncatedTo(ChronoUnit.SECONDS);
+        final JsonObject body = new JsonObject()
+                .put("flightNumber", "LT" + n)
+                .put("airlineId", 1)
+                .put("departureAirport", from)
+                .put("arrivalAirport", to)
+                .put("departureTime", departure.toString())
+                .put("arrivalTime", departure.plusHours(7).toString())
+                .put("totalSeats", seats)
+                .put("availableSeats", seats)
+                .put("price", 499.99);
+        return created(client.post("/flights").sendJsonObject(body), "flight");
+    }
+
+    Long passenger() {
+        return passengerIds.get(ThreadLocalRandom.current().nextInt(passengerIds.size()));
+    }
+
+    Long flight() {
+        return flightIds.get(ThreadLocalRandom.current().nextInt(flightIds.size()));
+    }
+
+    static JsonObject booking(final Long passengerId, final Long flightId) {
+        return new JsonObject()
+                .put("passengerId", passengerId)
+                .put("flightId", flightId)
+                .put("seatNumber", (1 + ThreadLocalRandom.current().nextInt(60)) + "A");
+    }
+
+    private static Future<Long> created(final Future<HttpResponse<Buffer>> response, final String what) {
+        return response.compose(res -> res.statusCode() == 201
+                ? Future.succeededFuture(res.bodyAsJsonObject().getLong("id"))
+                : Future.failedFuture("Failed to create " + what + ": " + res.statusCode() + " " + res.bodyAsString()));
+    }
+
+    private static List<Long> awaitAll(final List<Future<Long>> futures) {
+        final List<Long> ids = new ArrayList<>(futures.size());
+        for (Future<Long> future : futures) {
+            ids.add(await(future));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,63 @@
+package com.airline.booking.demo.loadtest;
+
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The packaged jar in a child JVM, so every start pays class loading, JIT and the DB bootstrap from scratch
+final class ForkedApp implements AutoCloseable {
+
+    private static final long STOP_TIMEOUT_SEC = 10;
+
+    private final Process process;
+
+    private ForkedApp(final Process process) {
+        this.process = process;
+    }
+
+    // jvmOptions go before -jar, e.g. -XX:SharedArchiveFile; stdout and stderr go to log
+    static ForkedApp start(final LoadConfig cfg, final List<String> jvmOptions, final Path log) throws IOException {
+        if (!Files.exists(cfg.jar())) {
+            throw new IllegalStateException(cfg.jar() + " not found, run mvn -Pappcds package first");
+        }
+        final JsonObject overrides = new JsonObject()
+                .put("server", new JsonObject().put("host", "127.0.0.1").put("port", cfg.startupPort()))
+                .put("warmup", new JsonObject().put("enabled", cfg.appWarmup()));
+
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-Dprofile=" + cfg.profile());
+        command.add("-jar");
+        command.add(cfg.jar().toString());
+        command.add("-conf");
+        command.add(overrides.encode());
+
+        Files.createDirectories(log.getParent());
+        return new ForkedApp(new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start());
+    }
+
+    boolean alive() {
+        return process.isAlive();
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            if (!process.waitFor(STOP_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+    }
+}
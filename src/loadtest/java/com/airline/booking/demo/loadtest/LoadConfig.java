@@ -0,0 +1,74 @@
+package com.airline.booking.demo.loadtest;
+
+import java.nio.file.Path;
+import java.util.List;
+
+record LoadConfig(
+        List<String> scenarios,
+        String profile,
+        int port,
+        int instances,
+        int concurrency,
+        int warmupSec,
+        int durationSec,
+        int raceRequests,
+        int raceSeats,
+        int batchSize,
+        int batchRounds,
+        int cancelBookings,
+        int largeRouteFlights,
+        int coldRequests,
+        boolean appWarmup,
+        int overloadSearchUsers,
+        int overloadBookingUsers,
+        int startupRuns,
+        int startupPort,
+        Path jar,
+        Path cdsArchive,
+        double maxErrorRate,
+        String appLogLevel,
+        Path output
+) {
+
+    static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                List.of(System.getProperty("load.scenarios", "search,booking,race,batch,scaling").split(",")),
+                System.getProperty("profile", "dev"),
+                Integer.getInteger("load.port", 18080),
+                Integer.getInteger("load.instances", 0),
+                Integer.getInteger("load.concurrency", 64),
+                Integer.getInteger("load.warmupSec", 5),
+                Integer.getInteger("load.durationSec", 20),
+                Integer.getInteger("load.raceRequests", 1000),
+                Integer.getInteger("load.raceSeats", 100),
+                Integer.getInteger("load.batchSize", 50),
+                Integer.getInteger("load.batchRounds", 10),
+                Integer.getInteger("load.cancelBookings", 400),
+                Integer.getInteger("load.largeRouteFlights", 500),
+                Integer.getInteger("load.coldRequests", 200),
+                Boolean.parseBoolean(System.getProperty("load.appWarmup", "true")),
+                Integer.getInteger("load.overloadSearchUsers", 512),
+                Integer.getInteger("load.overloadBookingUsers", 8),
+                Integer.getInteger("load.startupRuns", 5),
+                Integer.getInteger("load.startupPort", 18081),
+                Path.of(System.getProperty("load.jar", "target/java-vertx-practice-1.0.0.jar")),
+                Path.of(System.getProperty("load.cdsArchive", "target/app.jsa")),
+                Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01")),
+                System.getProperty("load.appLogLevel", "OFF"),
+                Path.of(System.getProperty("load.output", "target/loadtest"))
+        );
+    }
+
+    boolean runs(final String scenario) {
+        return scenarios.contains(scenario);
+    }
+
+    boolean runsAny(final String... names) {
+        for (String name : names) {
+            if (runs(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
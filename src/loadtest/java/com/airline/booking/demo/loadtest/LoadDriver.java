@@ -0,0 +1,50 @@
+package com.airline.booking.demo.loadtest;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.ext.web.client.WebClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Closed loop: each virtual user sends its next request as soon as the previous one completes
+final class LoadDriver {
+
+    private LoadDriver() {
+        // Empty Constructor
+    }
+
+    static Future<Void> run(final WebClient client, final Mix mix, final int users, final long durationMs,
+            final Recorder recorder) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        final List<Future<Void>> loops = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            final Promise<Void> done = Promise.promise();
+            next(client, mix, deadline, recorder, done);
+            loops.add(done.future());
+        }
+        return Future.all(loops).mapEmpty();
+    }
+
+    static Future<Void> once(final WebClient client, final List<Call> calls, final Recorder recorder) {
+        final List<Future<?>> all = new ArrayList<>(calls.size());
+        for (Call call : calls) {
+            all.add(send(client, call, recorder));
+        }
+        return Future.join(all).mapEmpty();
+    }
+
+    private static void next(final WebClient client, final Mix mix, final long deadline, final Recorder recorder,
+            final Promise<Void> done) {
+        if (System.nanoTime() >= deadline) {
+            done.complete();
+            return;
+        }
+        send(client, mix.next(), recorder).onComplete(ar -> next(client, mix, deadline, recorder, done));
+    }
+
+    private static Future<?> send(final WebClient client, final Call call, final Recorder recorder) {
+        final long start = System.nanoTime();
+        return call.send(client).andThen(ar -> recorder.record(call.name(), ar, System.nanoTime() - start));
+    }
+}
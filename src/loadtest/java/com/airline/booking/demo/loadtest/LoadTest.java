@@ -0,0 +1,280 @@
+package com.airline.booking.demo.loadtest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Starts the application in-process (dev profile = H2) and drives it over HTTP; see README "Load tests"
+public final class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final int H2_CONNECTIONS = 2;
+
+    private LoadTest() {
+        // Empty Constructor
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final LoadConfig cfg = LoadConfig.fromSystemProperties();
+        final LoggerContext logging = (LoggerContext) LoggerFactory.getILoggerFactory();
+        logging.getLogger("com.airline.booking.demo").setLevel(Level.toLevel(cfg.appLogLevel()));
+        logging.getLogger(LoadTest.class).setLevel(Level.INFO);
+
+        final int cores = Runtime.getRuntime().availableProcessors();
+        final Vertx clientVertx = Vertx.vertx();
+        final List<Recorder> results = new ArrayList<>();
+        final JsonObject report = new JsonObject()
+                .put("profile", cfg.profile())
+                .put("cores", cores)
+                .put("java", Runtime.version().toString())
+                .put("concurrency", cfg.concurrency());
+
+        try {
+            if (cfg.runs("coldstart")) {
+                results.add(coldStart(clientVertx, cfg));
+            }
+            if (cfg.runs("startup")) {
+                results.addAll(startup(clientVertx, cfg));
+            }
+            if (cfg.runsAny("search", "booking", "race", "batch", "cancel")) {
+                try (AppUnderTest app = AppUnderTest.start(cfg, cfg.instances())) {
+                    final WebClient client = client(clientVertx, cfg, app.port());
+                    if (cfg.runs("search")) {
+                        results.add(run(() -> Scenarios.search(client, cfg, "search")));
+                    }
+                    if (cfg.runs("booking")) {
+                        results.add(run(() -> Scenarios.booking(client, cfg)));
+                    }
+                    if (cfg.runs("race")) {
+                        results.add(run(() -> Scenarios.race(client, cfg)));
+                    }
+                    if (cfg.runs("batch")) {
+                        results.add(run(() -> Scenarios.batch(client, cfg)));
+                    }
+                    if (cfg.runs("cancel")) {
+                        results.add(run(() -> Scenarios.cancel(client, cfg)));
+                    }
+                    client.close();
+                }
+            }
+            if (cfg.runs("server")) {
+                final JsonObject identity = new JsonObject().put("compression", new JsonObject().put("enabled", false));
+                final JsonObject gzip = new JsonObject().put("compression", new JsonObject().put("enabled", true));
+                results.add(serverProfile(clientVertx, cfg, identity, HttpVersion.HTTP_1_1,
+                        c -> Scenarios.largeSearch(c, cfg, "large-search-identity")));
+                results.add(serverProfile(clientVertx, cfg, gzip, HttpVersion.HTTP_1_1,
+                        c -> Scenarios.largeSearch(c, cfg, "large-search-gzip")));
+                results.add(serverProfile(clientVertx, cfg, new JsonObject(), HttpVersion.HTTP_1_1,
+                        c -> Scenarios.smallRequests(c, cfg, "small-http1")));
+                results.add(serverProfile(clientVertx, cfg, new JsonObject(), HttpVersion.HTTP_2,
+                        c -> Scenarios.smallRequests(c, cfg, "small-h2c")));
+            }
+            if (cfg.runs("overload")) {
+                // On first, so the run without admission control gets whatever the JIT learned
+                results.addAll(overload(clientVertx, cfg, true));
+                results.addAll(overload(clientVertx, cfg, false));
+            }
+            if (cfg.runs("scaling")) {
+                final Recorder single = scaling(clientVertx, cfg, 1);
+                final Recorder all = scaling(clientVertx, cfg, cores);
+                results.add(single);
+                results.add(all);
+                report.put("scalingSpeedup", single.throughput() == 0 ? 0
+                        : Math.round(all.throughput() / single.throughput() * 100) / 100.0);
+            }
+        } finally {
+            await(clientVertx.close());
+        }
+
+        final JsonArray scenarios = new JsonArray();
+        results.forEach(r -> scenarios.add(r.toJson()));
+        report.put("scenarios", scenarios);
+
+        Files.createDirectories(cfg.output());
+        Files.writeString(cfg.output().resolve("report.json"), report.encodePrettily());
+        Files.writeString(cfg.output().resolve("report.txt"), summary(report));
+        log.info("Load test report written to {}\n{}", cfg.output().toAbsolutePath(), summary(report));
+
+        check(cfg, results);
+    }
+
+    static <T> T await(final Future<T> future) {
+        return future.toCompletionStage().toCompletableFuture().join();
+    }
+
+    // Has to be the first application this JVM starts, so compare runs with load.appWarmup=true and false
+    private static Recorder coldStart(final Vertx clientVertx, final LoadConfig cfg) {
+        final long start = System.nanoTime();
+        try (AppUnderTest app = AppUnderTest.start(cfg, cfg.instances())) {
+            final long readyNanos = System.nanoTime() - start;
+            final WebClient client = client(clientVertx, cfg, app.port());
+            try {
+                final Recorder recorder = run(() -> Scenarios.coldStart(client, cfg));
+                recorder.extra()
+                        .put("appWarmup", cfg.appWarmup())
+                        .put("readyMs", TimeUnit.NANOSECONDS.toMillis(readyNanos));
+                return recorder;
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    // The packaged jar in fresh JVMs, with the JDK's default class-data archive and then with the AppCDS one
+    private static List<Recorder> startup(final Vertx clientVertx, final LoadConfig cfg) throws IOException {
+        // No keep-alive: a pooled connection to the previous child would only fail the first poll
+        final WebClient client = WebClient.create(clientVertx, new WebClientOptions()
+                .setDefaultHost("127.0.0.1")
+                .setDefaultPort(cfg.startupPort())
+                .setKeepAlive(false));
+        try {
+            final List<Recorder> recorders = new ArrayList<>();
+            recorders.add(run(() -> startupRun(client, cfg, "startup-jar", List.of())));
+            if (Files.exists(cfg.cdsArchive())) {
+                recorders.add(run(() -> startupRun(client, cfg, "startup-appcds",
+                        List.of("-XX:SharedArchiveFile=" + cfg.cdsArchive()))));
+            } else {
+                log.warn("{} not found, skipping the AppCDS run; build it with mvn -Pappcds package",
+                        cfg.cdsArchive());
+            }
+            return recorders;
+        } finally {
+            client.close();
+        }
+    }
+
+    private static Recorder startupRun(final WebClient client, final LoadConfig cfg, final String name,
+            final List<String> jvmOptions) {
+        try {
+            return Scenarios.startup(client, cfg, name, jvmOptions);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Recorder> overload(final Vertx clientVertx, final LoadConfig cfg, final boolean admission) {
+        try (AppUnderTest app = AppUnderTest.start(cfg, cfg.instances(), new JsonObject(),
+                new JsonObject().put("enabled", admission))) {
+            // One connection per virtual user, so the flood really is that many concurrent requests
+            final WebClient client = WebClient.create(clientVertx, new WebClientOptions()
+                    .setDefaultHost("127.0.0.1")
+                    .setDefaultPort(app.port())
+                    .setKeepAlive(true), new PoolOptions()
+                    .setHttp1MaxSize(cfg.overloadSearchUsers() + cfg.overloadBookingUsers()));
+            try {
+                final List<Recorder> recorders = Scenarios.overload(client, cfg,
+                        "overload-admission-" + (admission ? "on" : "off"));
+                recorders.forEach(r -> log.info("{}", r.toJson().encode()));
+                return recorders;
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    private static Recorder scaling(final Vertx clientVertx, final LoadConfig cfg, final int instances) {
+        try (AppUnderTest app = AppUnderTest.start(cfg, instances)) {
+            final WebClient client = client(clientVertx, cfg, app.port());
+            try {
+                return run(() -> Scenarios.search(client, cfg, "scaling-" + instances + "-instances"));
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    // Same closed loop against an application started with a different server block
+    private static Recorder serverProfile(final Vertx clientVertx, final LoadConfig cfg, final JsonObject server,
+            final HttpVersion protocol, final Function<WebClient, Recorder> scenario) {
+        try (AppUnderTest app = AppUnderTest.start(cfg, cfg.instances(), server)) {
+            final WebClient client = client(clientVertx, cfg, app.port(), protocol);
+            try {
+                return run(() -> scenario.apply(client));
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    private static WebClient client(final Vertx vertx, final LoadConfig cfg, final int port) {
+        return client(vertx, cfg, port, HttpVersion.HTTP_1_1);
+    }
+
+    // HTTP/2 goes over prior-knowledge h2c and multiplexes every virtual user onto a couple of connections
+    private static WebClient client(final Vertx vertx, final LoadConfig cfg, final int port,
+            final HttpVersion protocol) {
+        return WebClient.create(vertx, new WebClientOptions()
+                .setDefaultHost("127.0.0.1")
+                .setDefaultPort(port)
+                .setKeepAlive(true)
+                .setProtocolVersion(protocol)
+                .setHttp2ClearTextUpgrade(false), new PoolOptions()
+                .setHttp1MaxSize(cfg.concurrency())
+                .setHttp2MaxSize(H2_CONNECTIONS));
+    }
+
+    private static Recorder run(final Supplier<Recorder> scenario) {
+        final Recorder recorder = scenario.get();
+        log.info("{}", recorder.toJson().encode());
+        return recorder;
+    }
+
+    private static String summary(final JsonObject report) {
+        final StringBuilder out = new StringBuilder();
+        out.append(String.format("profile=%s cores=%d concurrency=%d%n",
+                report.getString("profile"), report.getInteger("cores"), report.getInteger("concurrency")));
+        out.append(String.format("%-26s %9s %10s %9s %9s %9s %8s%n",
+                "scenario", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors"));
+        for (Object o : report.getJsonArray("scenarios")) {
+            final JsonObject s = (JsonObject) o;
+            out.append(String.format("%-26s %9d %10.1f %9.3f %9.3f %9.3f %8d%n",
+                    s.getString("scenario"), s.getLong("requests"), s.getDouble("throughputPerSec"),
+                    s.getDouble("p50Ms"), s.getDouble("p99Ms"), s.getDouble("p999Ms"), s.getLong("errors")));
+            s.getJsonObject("outcomes").forEach(e -> out.append(String.format("    %-40s %d%n", e.getKey(), e.getValue())));
+            if (!s.getJsonObject("details").isEmpty()) {
+                out.append("    ").append(s.getJsonObject("details").encode()).append(System.lineSeparator());
+            }
+        }
+        if (report.containsKey("scalingSpeedup")) {
+            out.append("scaling speedup (all cores / one instance): ").append(report.getDouble("scalingSpeedup"))
+                    .append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    private static void check(final LoadConfig cfg, final List<Recorder> results) {
+        final List<String> failures = new ArrayList<>();
+        for (Recorder r : results) {
+            if (r.errorRate() > cfg.maxErrorRate()) {
+                failures.add(r.scenario() + " error rate " + r.errorRate() + " > " + cfg.maxErrorRate());
+            }
+            if (r.extra().getBoolean("oversold", false) || !r.extra().getBoolean("seatsConsistent", true)) {
+                failures.add(r.scenario() + " seat accounting is wrong: " + r.extra().encode());
+            }
+            if (r.extra().getLong("referenceConflicts", 0L) > 0) {
+                failures.add(r.scenario() + " booking references collided: " + r.extra().encode());
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Load test failed: " + String.join("; ", failures));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.airline.booking.demo.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Weighted request mix; each pick builds a fresh call so bodies and ids can vary
+final class Mix {
+
+    private final List<Supplier<Call>> calls = new ArrayList<>();
+    private final List<Integer> cumulative = new ArrayList<>();
+    private int total;
+
+    Mix add(final int weight, final Supplier<Call> call) {
+        total += weight;
+        calls.add(call);
+        cumulative.add(total);
+        return this;
+    }
+
+    Call next() {
+        final int pick = ThreadLocalRandom.current().nextInt(total);
+        for (int i = 0; i < cumulative.size(); i++) {
+            if (pick < cumulative.get(i)) {
+                return calls.get(i).get();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+}
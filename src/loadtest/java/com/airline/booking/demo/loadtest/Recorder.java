@@ -0,0 +1,107 @@
+package com.airline.booking.demo.loadtest;
+
+import com.airline.booking.demo.common.metrics.LatencyHistogram;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+final class Recorder {
+
+    private final String scenario;
+    private final boolean shedding;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final JsonObject extra = new JsonObject();
+    private long startNanos;
+    private long elapsedNanos;
+
+    Recorder(final String scenario) {
+        this(scenario, false);
+    }
+
+    // shedding: 503 is the admission controller's intended answer for this traffic, counted but not an error
+    Recorder(final String scenario, final boolean shedding) {
+        this.scenario = scenario;
+        this.shedding = shedding;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void stop() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    // 5xx and transport failures are errors; 4xx are expected business outcomes (no seats, bad ids)
+    void record(final String call, final AsyncResult<HttpResponse<Buffer>> ar, final long nanos) {
+        latency.record(nanos);
+        final String outcome;
+        if (ar.succeeded()) {
+            final int status = ar.result().statusCode();
+            outcome = call + " " + status;
+            if (status >= 500 && !(shedding && status == 503)) {
+                errors.increment();
+            }
+        } else {
+            outcome = call + " " + ar.cause().getClass().getSimpleName();
+            errors.increment();
+        }
+        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+    }
+
+    long count(final String outcome) {
+        final LongAdder adder = outcomes.get(outcome);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    JsonObject extra() {
+        return extra;
+    }
+
+    String scenario() {
+        return scenario;
+    }
+
+    long requests() {
+        return latency.count();
+    }
+
+    double errorRate() {
+        return requests() == 0 ? 0 : (double) errors.sum() / requests();
+    }
+
+    double throughput() {
+        return elapsedNanos == 0 ? 0 : requests() / (elapsedNanos / 1e9);
+    }
+
+    JsonObject toJson() {
+        final long[] buckets = latency.snapshot();
+        final JsonObject outcomeJson = new JsonObject();
+        new TreeMap<>(outcomes).forEach((k, v) -> outcomeJson.put(k, v.sum()));
+        return new JsonObject()
+                .put("scenario", scenario)
+                .put("requests", requests())
+                .put("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .put("throughputPerSec", Math.round(throughput() * 10) / 10.0)
+                .put("p50Ms", millis(LatencyHistogram.valueAtQuantile(buckets, 0.5)))
+                .put("p99Ms", millis(LatencyHistogram.valueAtQuantile(buckets, 0.99)))
+                .put("p999Ms", millis(LatencyHistogram.valueAtQuantile(buckets, 0.999)))
+                .put("meanMs", requests() == 0 ? 0 : millis(latency.sumNanos() / requests()))
+                .put("errors", errors.sum())
+                .put("errorRate", errorRate())
+                .put("outcomes", outcomeJson)
+                .put("details", extra);
+    }
+
+    private static double millis(final long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
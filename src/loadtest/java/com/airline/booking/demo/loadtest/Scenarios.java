@@ -0,0 +1,392 @@
+package com.airline.booking.demo.loadtest;
+
+import static com.airline.booking.demo.loadtest.LoadTest.await;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+final class Scenarios {
+
+    // Seeded routes plus the harness route, so the index serves both small and large result sets
+    private static final String[][] SEARCH_ROUTES = {
+            {"DXB", "LHR"}, {"LHR", "DXB"}, {"DXB", "SIN"}, {Fixture.FROM, Fixture.TO}
+    };
+
+    private static final int PASSENGERS = 50;
+    private static final int FLIGHTS = 20;
+    private static final int LARGE_CAPACITY = 1_000_000;
+    private static final Long SEEDED_ID = 1L;
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long STARTUP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private Scenarios() {
+        // Empty Constructor
+    }
+
+    static Recorder search(final WebClient client, final LoadConfig cfg, final String name) {
+        final Fixture fixture = Fixture.seed(client, 1, FLIGHTS, LARGE_CAPACITY);
+        final Mix mix = new Mix()
+                .add(90, Scenarios::searchCall)
+                .add(10, () -> getFlightCall(fixture.flight()));
+        return closedLoop(client, cfg, name, mix);
+    }
+
+    // Every booking lands on one of a few flights, so any reference collision shows up as a 409
+    static Recorder booking(final WebClient client, final LoadConfig cfg) {
+        final Fixture fixture = Fixture.seed(client, PASSENGERS, FLIGHTS, LARGE_CAPACITY);
+        final List<String> references = new ArrayList<>(FLIGHTS);
+        for (int i = 0; i < FLIGHTS; i++) {
+            references.add(await(bookCall(fixture.passenger(), fixture.flight()).send(client))
+                    .bodyAsJsonObject().getString("bookingReference"));
+        }
+        final Mix mix = new Mix()
+                .add(50, () -> bookCall(fixture.passenger(), fixture.flight()))
+                .add(10, () -> getByReferenceCall(references.get(ThreadLocalRandom.current().nextInt(FLIGHTS))))
+                .add(20, () -> getFlightCall(fixture.flight()))
+                .add(20, Scenarios::searchCall);
+        final Recorder recorder = closedLoop(client, cfg, "booking", mix);
+        recorder.extra()
+                .put("created", recorder.count("POST /bookings 201"))
+                .put("referenceConflicts", recorder.count("POST /bookings 409"));
+        return recorder;
+    }
+
+    // Many more concurrent bookings than seats on one flight; none may be oversold
+    static Recorder race(final WebClient client, final LoadConfig cfg) {
+        final Fixture fixture = Fixture.seed(client, PASSENGERS, 0, 0);
+        final Long flightId = await(Fixture.createFlight(client, Fixture.FROM, Fixture.TO, cfg.raceSeats()));
+
+        final List<Call> calls = new ArrayList<>(cfg.raceRequests());
+        for (int i = 0; i < cfg.raceRequests(); i++) {
+            calls.add(bookCall(fixture.passenger(), flightId));
+        }
+
+        final Recorder recorder = new Recorder("race");
+        recorder.start();
+        await(LoadDriver.once(client, calls, recorder));
+        recorder.stop();
+
+        final int available = await(client.get("/flights/" + flightId).send()).bodyAsJsonObject()
+                .getInteger("availableSeats");
+        final long confirmed = recorder.count("POST /bookings 201");
+        recorder.extra()
+                .put("seats", cfg.raceSeats())
+                .put("requests", cfg.raceRequests())
+                .put("confirmed", confirmed)
+                .put("conflicts", recorder.count("POST /bookings 409"))
+                .put("availableSeatsAfter", available)
+                .put("oversold", available < 0 || confirmed > cfg.raceSeats())
+                .put("seatsConsistent", confirmed + available == cfg.raceSeats());
+        return recorder;
+    }
+
+    // One /bookings/batch call against the same bookings sent as concurrent single calls
+    static Recorder batch(final WebClient client, final LoadConfig cfg) {
+        final Fixture fixture = Fixture.seed(client, PASSENGERS, FLIGHTS, LARGE_CAPACITY);
+        final Recorder recorder = new Recorder("batch");
+        long batchNanos = 0;
+        long singleNanos = 0;
+        long batchCreated = 0;
+
+        recorder.start();
+        for (int round = 0; round < cfg.batchRounds(); round++) {
+            final JsonArray items = new JsonArray();
+            final List<Call> singles = new ArrayList<>(cfg.batchSize());
+            for (int i = 0; i < cfg.batchSize(); i++) {
+                final Long passengerId = fixture.passenger();
+                final Long flightId = fixture.flight();
+                items.add(Fixture.booking(passengerId, flightId));
+                singles.add(bookCall(passengerId, flightId));
+            }
+
+            final Call batch = new Call("POST /bookings/batch",
+                    c -> c.post("/bookings/batch").sendJsonObject(new JsonObject().put("bookings", items)));
+            final long start = System.nanoTime();
+            final JsonObject body = await(batch.send(client)
+                    .andThen(ar -> recorder.record(batch.name(), ar, System.nanoTime() - start)))
+                    .bodyAsJsonObject();
+            batchNanos += System.nanoTime() - start;
+            batchCreated += body == null ? 0 : body.getInteger("created", 0);
+
+            final long singleStart = System.nanoTime();
+            await(LoadDriver.once(client, singles, recorder));
+            singleNanos += System.nanoTime() - singleStart;
+        }
+        recorder.stop();
+
+        recorder.extra()
+                .put("rounds", cfg.batchRounds())
+                .put("batchSize", cfg.batchSize())
+                .put("batchWallMs", TimeUnit.NANOSECONDS.toMillis(batchNanos))
+                .put("singlesWallMs", TimeUnit.NANOSECONDS.toMillis(singleNanos))
+                .put("batchCreated", batchCreated)
+                .put("singlesCreated", recorder.count("POST /bookings 201"));
+        return recorder;
+    }
+
+    // Two fully booked flights: one emptied by concurrent DELETE /bookings/:id, the other by POST /flights/:id/cancel
+    static Recorder cancel(final WebClient client, final LoadConfig cfg) {
+        final Fixture fixture = Fixture.seed(client, PASSENGERS, 0, 0);
+        final int seats = cfg.cancelBookings();
+        final Long singlesFlight = await(Fixture.createFlight(client, Fixture.FROM, Fixture.TO, seats));
+        final Long bulkFlight = await(Fixture.createFlight(client, Fixture.FROM, Fixture.TO, seats));
+        final List<Long> singlesBookings = fillFlight(client, fixture, singlesFlight, seats);
+        fillFlight(client, fixture, bulkFlight, seats);
+
+        final List<Call> singles = new ArrayList<>(seats);
+        for (Long id : singlesBookings) {
+            singles.add(new Call("DELETE /bookings/:id", c -> c.delete("/bookings/" + id).send()));
+        }
+        final Call bulk = new Call("POST /flights/:id/cancel", c -> c.post("/flights/" + bulkFlight + "/cancel").send());
+
+        final Recorder recorder = new Recorder("cancel");
+        recorder.start();
+        final long singleStart = System.nanoTime();
+        await(LoadDriver.once(client, singles, recorder));
+        final long singleNanos = System.nanoTime() - singleStart;
+
+        final long bulkStart = System.nanoTime();
+        final JsonObject bulkBody = await(bulk.send(client)
+                .andThen(ar -> recorder.record(bulk.name(), ar, System.nanoTime() - bulkStart)))
+                .bodyAsJsonObject();
+        final long bulkNanos = System.nanoTime() - bulkStart;
+        recorder.stop();
+
+        final int singlesAvailable = availableSeats(client, singlesFlight);
+        final int bulkAvailable = availableSeats(client, bulkFlight);
+        recorder.extra()
+                .put("bookingsPerFlight", seats)
+                .put("singlesWallMs", TimeUnit.NANOSECONDS.toMillis(singleNanos))
+                .put("bulkWallMs", TimeUnit.NANOSECONDS.toMillis(bulkNanos))
+                .put("singlesCancelled", recorder.count("DELETE /bookings/:id 204"))
+                .put("bulkCancelled", bulkBody == null ? 0 : bulkBody.getInteger("cancelledBookings", 0))
+                .put("seatsConsistent", singlesAvailable == seats && bulkAvailable == seats);
+        return recorder;
+    }
+
+    private static List<Long> fillFlight(final WebClient client, final Fixture fixture, final Long flightId,
+            final int seats) {
+        final JsonArray items = new JsonArray();
+        for (int i = 0; i < seats; i++) {
+            items.add(Fixture.booking(fixture.passenger(), flightId));
+        }
+        final JsonObject body = await(client.post("/bookings/batch")
+                .sendJsonObject(new JsonObject().put("bookings", items))).bodyAsJsonObject();
+        final List<Long> ids = new ArrayList<>(seats);
+        for (Object o : body.getJsonArray("results")) {
+            final JsonObject booking = ((JsonObject) o).getJsonObject("booking");
+            if (booking != null) {
+                ids.add(booking.getLong("id"));
+            }
+        }
+        if (ids.size() != seats) {
+            throw new IllegalStateException("Expected " + seats + " bookings on flight " + flightId + ": " + body.encode());
+        }
+        return ids;
+    }
+
+    private static int availableSeats(final WebClient client, final Long flightId) {
+        return await(client.get("/flights/" + flightId).send()).bodyAsJsonObject().getInteger("availableSeats");
+    }
+
+    // One route with a few hundred flights, so every search returns a body of well over 100 KB
+    static Recorder largeSearch(final WebClient client, final LoadConfig cfg, final String name) {
+        Fixture.seed(client, 0, cfg.largeRouteFlights(), LARGE_CAPACITY);
+        final Call search = new Call("GET /flights/search", c -> c.get("/flights/search")
+                .addQueryParam("from", Fixture.FROM)
+                .addQueryParam("to", Fixture.TO)
+                .putHeader("accept-encoding", "gzip")
+                .send());
+
+        final Recorder recorder = closedLoop(client, cfg, name, new Mix().add(1, () -> search));
+        final HttpResponse<Buffer> sample = await(search.send(client));
+        recorder.extra()
+                .put("flights", cfg.largeRouteFlights())
+                .put("contentEncoding", sample.getHeader("content-encoding"))
+                .put("bodyBytes", sample.body().length());
+        return recorder;
+    }
+
+    // The first requests after start-up, one at a time so each latency is the request's own, not queueing.
+    // Only the rows in data.sql are used: seeding through the API would warm the very paths being measured
+    static Recorder coldStart(final WebClient client, final LoadConfig cfg) {
+        final List<Call> cycle = List.of(
+                new Call("GET /flights/search", c -> c.get("/flights/search")
+                        .addQueryParam("from", "DXB").addQueryParam("to", "LHR").send()),
+                new Call("GET /flights/search?limit", c -> c.get("/flights/search")
+                        .addQueryParam("from", "DXB").addQueryParam("to", "LHR").addQueryParam("limit", "10").send()),
+                getFlightCall(SEEDED_ID),
+                new Call("GET /airlines", c -> c.get("/airlines").send()),
+                bookCall(SEEDED_ID, SEEDED_ID));
+
+        final Recorder recorder = new Recorder("coldstart");
+        final JsonObject firstMs = new JsonObject();
+        recorder.start();
+        for (int i = 0; i < cfg.coldRequests(); i++) {
+            final Call call = cycle.get(i % cycle.size());
+            final long start = System.nanoTime();
+            await(call.send(client).andThen(ar -> recorder.record(call.name(), ar, System.nanoTime() - start))
+                    .otherwiseEmpty());
+            if (!firstMs.containsKey(call.name())) {
+                firstMs.put(call.name(), (System.nanoTime() - start) / 1_000 / 1_000.0);
+            }
+        }
+        recorder.stop();
+        recorder.extra().put("firstMs", firstMs);
+        return recorder;
+    }
+
+    // Forks the packaged jar startupRuns times and polls it from the moment the process is spawned. Latencies are
+    // spawn-to-first-200 of a search; readyMs is spawn-to-/ready, which also waits for the route warm-up
+    static Recorder startup(final WebClient client, final LoadConfig cfg, final String name,
+            final List<String> jvmOptions) throws IOException {
+        final Call search = new Call("first GET /flights/search", c -> c.get("/flights/search")
+                .addQueryParam("from", "DXB").addQueryParam("to", "LHR").send());
+        final Call ready = new Call("GET /ready", c -> c.get("/ready").send());
+
+        final Recorder recorder = new Recorder(name);
+        final JsonArray firstMs = new JsonArray();
+        final JsonArray readyMs = new JsonArray();
+        recorder.start();
+        for (int i = 0; i < cfg.startupRuns(); i++) {
+            final long start = System.nanoTime();
+            try (ForkedApp app = ForkedApp.start(cfg, jvmOptions, cfg.output().resolve(name + "-" + i + ".log"))) {
+                final AsyncResult<HttpResponse<Buffer>> first = pollUntilOk(client, search, app, start);
+                recorder.record(search.name(), first, System.nanoTime() - start);
+                firstMs.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                if (pollUntilOk(client, ready, app, start).succeeded()) {
+                    readyMs.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            }
+        }
+        recorder.stop();
+        recorder.extra()
+                .put("jvmOptions", new JsonArray(new ArrayList<>(jvmOptions)))
+                .put("appWarmup", cfg.appWarmup())
+                .put("firstRequestMs", firstMs)
+                .put("firstRequestMedianMs", median(firstMs))
+                .put("readyMs", readyMs)
+                .put("readyMedianMs", median(readyMs));
+        return recorder;
+    }
+
+    private static long median(final JsonArray millis) {
+        if (millis.isEmpty()) {
+            return 0;
+        }
+        final List<Long> sorted = new ArrayList<>();
+        millis.forEach(v -> sorted.add((Long) v));
+        sorted.sort(null);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    // Refused connections and 503s until the child answers 200, exits or runs out of time
+    private static AsyncResult<HttpResponse<Buffer>> pollUntilOk(final WebClient client, final Call call,
+            final ForkedApp app, final long start) {
+        AsyncResult<HttpResponse<Buffer>> last;
+        do {
+            last = await(call.send(client).transform(Future::succeededFuture));
+            if (last.succeeded() && last.result().statusCode() == 200) {
+                return last;
+            }
+            LockSupport.parkNanos(POLL_NANOS);
+        } while (app.alive() && System.nanoTime() - start < STARTUP_TIMEOUT_NANOS);
+        return last;
+    }
+
+    // overloadSearchUsers closed-loop users flood a largeRouteFlights-flight search while overloadBookingUsers keep
+    // booking. Both run together for warmupSec, then are measured for durationSec. Searches may be shed with 503
+    static List<Recorder> overload(final WebClient client, final LoadConfig cfg, final String name) {
+        final Fixture fixture = Fixture.seed(client, PASSENGERS, FLIGHTS, LARGE_CAPACITY);
+        Fixture.seed(client, 0, cfg.largeRouteFlights(), LARGE_CAPACITY);
+        final Call search = new Call("GET /flights/search", c -> c.get("/flights/search")
+                .addQueryParam("from", Fixture.FROM)
+                .addQueryParam("to", Fixture.TO)
+                .send());
+        final Mix searches = new Mix().add(1, () -> search);
+        final Mix bookings = new Mix().add(1, () -> bookCall(fixture.passenger(), fixture.flight()));
+
+        floodWithBookings(client, cfg, searches, bookings, TimeUnit.SECONDS.toMillis(cfg.warmupSec()),
+                new Recorder("warmup", true), new Recorder("warmup"));
+        final Recorder searchRecorder = new Recorder(name + "-search", true);
+        final Recorder bookingRecorder = new Recorder(name + "-booking");
+        floodWithBookings(client, cfg, searches, bookings, TimeUnit.SECONDS.toMillis(cfg.durationSec()),
+                searchRecorder, bookingRecorder);
+
+        final long shed = searchRecorder.count("GET /flights/search 503");
+        searchRecorder.extra()
+                .put("users", cfg.overloadSearchUsers())
+                .put("shed", shed)
+                .put("shedRate", searchRecorder.requests() == 0 ? 0
+                        : Math.round(shed * 1000.0 / searchRecorder.requests()) / 1000.0);
+        bookingRecorder.extra()
+                .put("users", cfg.overloadBookingUsers())
+                .put("created", bookingRecorder.count("POST /bookings 201"))
+                .put("shed", bookingRecorder.count("POST /bookings 503"));
+        return List.of(searchRecorder, bookingRecorder);
+    }
+
+    private static void floodWithBookings(final WebClient client, final LoadConfig cfg, final Mix searches,
+            final Mix bookings, final long durationMs, final Recorder searchRecorder,
+            final Recorder bookingRecorder) {
+        searchRecorder.start();
+        bookingRecorder.start();
+        await(Future.all(
+                LoadDriver.run(client, searches, cfg.overloadSearchUsers(), durationMs, searchRecorder)
+                        .onComplete(ar -> searchRecorder.stop()),
+                LoadDriver.run(client, bookings, cfg.overloadBookingUsers(), durationMs, bookingRecorder)
+                        .onComplete(ar -> bookingRecorder.stop())));
+    }
+
+    // Many tiny requests, where per-request framing and connection handling dominate
+    static Recorder smallRequests(final WebClient client, final LoadConfig cfg, final String name) {
+        final Fixture fixture = Fixture.seed(client, 0, FLIGHTS, LARGE_CAPACITY);
+        final Mix mix = new Mix()
+                .add(50, () -> getFlightCall(fixture.flight()))
+                .add(50, () -> new Call("GET /health", c -> c.get("/health").send()));
+        return closedLoop(client, cfg, name, mix);
+    }
+
+    private static Recorder closedLoop(final WebClient client, final LoadConfig cfg, final String name, final Mix mix) {
+        await(LoadDriver.run(client, mix, cfg.concurrency(), TimeUnit.SECONDS.toMillis(cfg.warmupSec()),
+                new Recorder("warmup")));
+
+        final Recorder recorder = new Recorder(name);
+        recorder.start();
+        await(LoadDriver.run(client, mix, cfg.concurrency(), TimeUnit.SECONDS.toMillis(cfg.durationSec()), recorder));
+        recorder.stop();
+        return recorder;
+    }
+
+    private static Call searchCall() {
+        final String[] route = SEARCH_ROUTES[ThreadLocalRandom.current().nextInt(SEARCH_ROUTES.length)];
+        return new Call("GET /flights/search", c -> c.get("/flights/search")
+                .addQueryParam("from", route[0])
+                .addQueryParam("to", route[1])
+                .send());
+    }
+
+    private static Call getFlightCall(final Long flightId) {
+        return new Call("GET /flights/:id", c -> c.get("/flights/" + flightId).send());
+    }
+
+    private static Call getByReferenceCall(final String reference) {
+        return new Call("GET /bookings/ref/:reference", c -> c.get("/bookings/ref/" + reference).send());
+    }
+
+    private static Call bookCall(final Long passengerId, final Long flightId) {
+        final JsonObject body = Fixture.booking(passengerId, flightId);
+        return new Call("POST /bookings", c -> c.post("/bookings").sendJsonObject(body));
+    }
+}
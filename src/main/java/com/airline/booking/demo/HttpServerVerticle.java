@@ -0,0 +1,142 @@
+package com.airline.booking.demo;
+
+import com.airline.booking.demo.common.admission.AdmissionControl;
+import com.airline.booking.demo.common.admission.AdmissionHandler;
+import com.airline.booking.demo.common.cache.CacheRegistry;
+import com.airline.booking.demo.common.http.Readiness;
+import com.airline.booking.demo.common.http.WarmUpMarker;
+import com.airline.booking.demo.common.logging.AccessLog;
+import com.airline.booking.demo.common.logging.HttpLoggerHandler;
+import com.airline.booking.demo.common.metrics.HttpMetrics;
+import com.airline.booking.demo.common.metrics.HttpMetricsHandler;
+import com.airline.booking.demo.common.metrics.MetricsExporter;
+import com.airline.booking.demo.common.metrics.PrometheusWriter;
+import com.airline.booking.demo.config.ServerOptionsProvider;
+import com.airline.booking.demo.exception.GlobalErrorHandler;
+import com.airline.booking.demo.feature.airlines.AirlineFeature;
+import com.airline.booking.demo.feature.bookings.BookingFeature;
+import com.airline.booking.demo.feature.flights.FlightFeature;
+import com.airline.booking.demo.feature.passengers.PassengerFeature;
+import com.google.inject.Injector;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class HttpServerVerticle extends AbstractVerticle {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpServerVerticle.class);
+
+    private final Injector injector;
+    private final JsonObject config;
+
+    public HttpServerVerticle(final Injector injector, final JsonObject config) {
+        this.injector = injector;
+        this.config = config;
+    }
+
+    @Override
+    public void start(final Promise<Void> startPromise) {
+        initHttpServer()
+                .onSuccess(v -> startPromise.complete())
+                .onFailure(startPromise::fail);
+    }
+
+    private Future<Void> initHttpServer() {
+        final Router router = Router.router(vertx);
+
+        registerWarmUpMarker(router);
+        registerHttpLoggerRoutes(router);
+        final HttpMetricsHandler metricsHandler = registerMetricsRoutes(router);
+
+        registerCoreRoutes(router);
+        registerAdmissionControl(router);
+        registerFeatureModules(router);
+        registerFailureRoutes(router);
+
+        metricsHandler.bindRoutes(router.getRoutes());
+
+        return startHttpServer(router);
+    }
+
+    private void registerCoreRoutes(final Router router) {
+        router.get("/").handler(ctx -> ctx.response().end("Welcome to Airline Booking API"));
+        router.get("/health").handler(ctx -> ctx.response().end("OK"));
+
+        final Readiness readiness = injector.getInstance(Readiness.class);
+        router.get("/ready").handler(ctx -> {
+            if (readiness.isReady()) {
+                ctx.response().end("READY");
+            } else {
+                ctx.response().setStatusCode(503).end("WARMING_UP");
+            }
+        });
+
+        final CacheRegistry caches = injector.getInstance(CacheRegistry.class);
+        router.get("/cache/stats").handler(ctx -> ctx.json(caches.toJson()));
+
+        final MetricsExporter metrics = injector.getInstance(MetricsExporter.class);
+        router.get("/metrics").handler(ctx -> ctx.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, PrometheusWriter.CONTENT_TYPE)
+                .end(metrics.scrape()));
+    }
+
+    private void registerFailureRoutes(final Router router) {
+        router.route().failureHandler(GlobalErrorHandler::handle);
+    }
+
+    // First, so the access log, metrics and admission control can tell warm-up requests apart
+    private void registerWarmUpMarker(final Router router) {
+        router.route().handler(new WarmUpMarker(injector.getInstance(Readiness.class)));
+    }
+
+    private void registerHttpLoggerRoutes(final Router router) {
+        router.route().handler(new HttpLoggerHandler(AccessLog.create(config)));
+    }
+
+    private HttpMetricsHandler registerMetricsRoutes(final Router router) {
+        final HttpMetricsHandler handler = new HttpMetricsHandler(injector.getInstance(HttpMetrics.class));
+        router.route().handler(handler);
+        return handler;
+    }
+
+    // After the core routes, so /health, /ready and /metrics answer however loaded the features are
+    private void registerAdmissionControl(final Router router) {
+        router.route().handler(new AdmissionHandler(vertx, injector.getInstance(AdmissionControl.class)));
+    }
+
+    private void registerFeatureModules(final Router router) {
+        injector.getInstance(AirlineFeature.class).init(router);
+        injector.getInstance(FlightFeature.class).init(router);
+        injector.getInstance(PassengerFeature.class).init(router);
+        injector.getInstance(BookingFeature.class).init(router);
+        log.debug("Feature modules registered");
+    }
+
+    private Future<Void> startHttpServer(final Router router) {
+        final Promise<Void> promise = Promise.promise();
+
+        final HttpServerOptions options = ServerOptionsProvider.create(config);
+
+        vertx.createHttpServer(options)
+                .requestHandler(router)
+                .listen()
+                .onSuccess(server -> {
+                    log.info("HTTP server listening on {}:{} nativeTransport={} h2c={} compression={}",
+                            options.getHost(), server.actualPort(), vertx.isNativeTransportEnabled(),
+                            options.isHttp2ClearTextEnabled(), options.isCompressionSupported());
+                    promise.complete();
+                })
+                .onFailure(err -> {
+                    log.error("Failed to start HTTP server", err);
+                    promise.fail(err);
+                });
+
+        return promise.future();
+    }
+}
@@ -1,6 +1,18 @@
 package com.airline.booking.demo;
 
+import com.airline.booking.demo.config.ConfigProvider;
+import com.airline.booking.demo.config.ServerOptionsProvider;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
+import io.vertx.pgclient.PgConnectOptions;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,13 +20,65 @@ public class Launcher {
 
     private static final Logger log = LoggerFactory.getLogger(Launcher.class);
 
+    // Training run for the AppCDS archive: start, warm up, exit so the JVM dumps the classes it loaded
+    private static final String EXIT_WHEN_READY = "startup.exitWhenReady";
+    // Classes prod needs that a dev run never loads: the reactive PG client and its SCRAM authentication
+    private static final List<String> PROD_DRIVER_CLASSES = List.of(
+            PgConnectOptions.class.getName(), "com.ongres.scram.client.ScramClient");
+
     public static void main(final String... args) {
-        final Vertx vertx = Vertx.vertx();
-        vertx.deployVerticle(new MainVerticle())
-                .onSuccess(id -> log.info("MainVerticle deployed!"))
+        final Vertx vertx = Vertx.vertx(ServerOptionsProvider.vertxOptions());
+        vertx.deployVerticle(new MainVerticle(), new DeploymentOptions().setConfig(ConfigProvider.commandLine(args)))
+                .onSuccess(id -> {
+                    log.info("MainVerticle deployed! readyAfterMs={}", sinceJvmStart());
+                    if (Boolean.getBoolean(EXIT_WHEN_READY)) {
+                        loadProdDriverClasses();
+                        vertx.close().onComplete(ar -> System.exit(0));
+                    }
+                })
                 .onFailure(err -> {
-                    log.error("Failed to start {]", err);
+                    log.error("Failed to start", err);
                     System.exit(1);
                 });
     }
+
+    // The training run has no Postgres to connect to; loading every class of the driver jars archives them anyway
+    private static void loadProdDriverClasses() {
+        int loaded = 0;
+        for (final String anchor : PROD_DRIVER_CLASSES) {
+            try {
+                final Class<?> type = Class.forName(anchor, false, Launcher.class.getClassLoader());
+                final Path jar = Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+                loaded += loadAll(jar, type.getClassLoader());
+            } catch (ClassNotFoundException | URISyntaxException | IOException e) {
+                log.warn("Could not load {} for the archive", anchor, e);
+            }
+        }
+        log.info("Loaded prod driver classes for the archive. count={}", loaded);
+    }
+
+    private static int loadAll(final Path jar, final ClassLoader loader) throws IOException {
+        int loaded = 0;
+        try (JarFile file = new JarFile(jar.toFile())) {
+            for (final JarEntry entry : file.stream().toList()) {
+                final String name = entry.getName();
+                if (!name.endsWith(".class") || name.endsWith("module-info.class")) {
+                    continue;
+                }
+                try {
+                    Class.forName(name.substring(0, name.length() - 6).replace('/', '.'), false, loader);
+                    loaded++;
+                } catch (ClassNotFoundException | LinkageError e) {
+                    // Optional integrations whose dependencies are not on the class path
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static long sinceJvmStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis())
+                .orElse(-1L);
+    }
 }
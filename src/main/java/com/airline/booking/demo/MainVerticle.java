@@ -2,22 +2,22 @@ package com.airline.booking.demo;
 
 import com.airline.booking.demo.bootstrap.AppModule;
 import com.airline.booking.demo.bootstrap.DatabaseBootstrap;
-import com.airline.booking.demo.common.logging.HttpLoggerHandler;
+import com.airline.booking.demo.bootstrap.StartupWarmUp;
 import com.airline.booking.demo.config.ConfigProvider;
 import com.airline.booking.demo.config.JsonConfig;
-import com.airline.booking.demo.exception.GlobalErrorHandler;
-import com.airline.booking.demo.feature.airlines.AirlineFeature;
-import com.airline.booking.demo.feature.bookings.BookingFeature;
-import com.airline.booking.demo.feature.flights.FlightFeature;
-import com.airline.booking.demo.feature.passengers.PassengerFeature;
+import com.airline.booking.demo.feature.bookings.service.BookingReferenceGenerator;
+import com.airline.booking.demo.feature.flights.service.FlightRouteIndex;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.json.JsonObject;
-import io.vertx.ext.web.Router;
-import io.vertx.ext.web.handler.BodyHandler;
+import io.vertx.sqlclient.Pool;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,8 +35,8 @@ public class MainVerticle extends AbstractVerticle {
 
         initConfig()
                 .compose(this::initDI)
-                .compose(this::initDatabaseIfRequired)
-                .compose(this::initHttpServer)
+                .compose(this::prepareConcurrently)
+                .compose(this::warmRoutes)
                 .onSuccess(v -> {
                     log.info("=== Application Started Successfully ===");
                     startPromise.complete();
@@ -49,16 +49,36 @@ public class MainVerticle extends AbstractVerticle {
 
     private Future<JsonObject> initConfig() {
         log.info("Loading configuration...");
-        return ConfigProvider.load(vertx)
+        return ConfigProvider.load(vertx, config())
                 .onSuccess(cfg -> log.info("Configuration loaded: activeProfile={}", resolveProfile(cfg)));
     }
 
     private Future<JsonObject> initDI(final JsonObject config) {
         this.injector = Guice.createInjector(new AppModule(vertx, config));
+        // Create the pools on this context so they are shared by, and outlive, the HTTP verticles
+        injector.getInstance(Pool.class);
+        injector.getInstance(Key.get(Pool.class, Names.named("read-pool")));
+        // Fails here, not on the first booking, when prod has no node id
+        injector.getInstance(BookingReferenceGenerator.class);
         log.info("Dependency Injection initialized");
         return Future.succeededFuture(config);
     }
 
+    // The data path and the HTTP verticles share nothing but the pools, so routers are built and the port is
+    // bound while the schema loads, and the index and statement warm-ups overlap once it has.
+    // /ready stays 503 until warmRoutes, which needs all of it
+    private Future<JsonObject> prepareConcurrently(final JsonObject config) {
+        final long start = System.nanoTime();
+        final Future<JsonObject> data = initDatabaseIfRequired(config)
+                .compose(cfg -> Future.all(warmCaches(cfg), warmStatements(cfg)).map(cfg));
+        final Future<JsonObject> http = deployHttpVerticles(config);
+
+        return Future.all(data, http)
+                .onSuccess(v -> log.info("Database and HTTP verticles ready durationMs={}",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)))
+                .map(config);
+    }
+
     private Future<JsonObject> initDatabaseIfRequired(final JsonObject config) {
         final String profile = resolveProfile(config);
 
@@ -76,63 +96,40 @@ public class MainVerticle extends AbstractVerticle {
                 .map(config);
     }
 
-    private Future<Void> initHttpServer(final JsonObject config) {
-        final Router router = Router.router(vertx);
-
-        registerHttpLoggerRoutes(router);
-
-        router.route().handler(BodyHandler.create());
-
-        registerCoreRoutes(router);
-        registerFeatureModules(router);
-        registerFailureRoutes(router);
-
-        return startHttpServer(router, config);
-    }
-
-    private void registerCoreRoutes(final Router router) {
-        router.get("/").handler(ctx -> ctx.response().end("Welcome to Airline Booking API"));
-        router.get("/health").handler(ctx -> ctx.response().end("OK"));
-        router.get("/ready").handler(ctx -> ctx.response().end("READY"));
+    private Future<JsonObject> warmCaches(final JsonObject config) {
+        return injector.getInstance(FlightRouteIndex.class).warm()
+                .recover(err -> {
+                    // Searches fall back to the database per route, so a failed warm-up is not fatal
+                    log.warn("Flight route index warm-up failed", err);
+                    return Future.succeededFuture();
+                })
+                .map(config);
     }
 
-    private void registerFailureRoutes(final Router router) {
-        router.route().failureHandler(GlobalErrorHandler::handle);
+    private Future<JsonObject> warmStatements(final JsonObject config) {
+        return injector.getInstance(StartupWarmUp.class).warmStatements().map(config);
     }
 
-    private void registerHttpLoggerRoutes(final Router router) {
-        router.route().handler(new HttpLoggerHandler());
+    // Flips /ready once the synthetic requests are done
+    private Future<Void> warmRoutes(final JsonObject config) {
+        return injector.getInstance(StartupWarmUp.class).warmRoutes();
     }
 
+    private Future<JsonObject> deployHttpVerticles(final JsonObject config) {
+        final int instances = resolveInstances(config);
+        log.info("Deploying {} HTTP verticle instance(s)", instances);
 
-    private void registerFeatureModules(final Router router) {
-        injector.getInstance(AirlineFeature.class).init(router);
-        injector.getInstance(FlightFeature.class).init(router);
-        injector.getInstance(PassengerFeature.class).init(router);
-        injector.getInstance(BookingFeature.class).init(router);
-        log.info("Feature modules registered");
+        return vertx.deployVerticle(() -> new HttpServerVerticle(injector, config),
+                        new DeploymentOptions().setInstances(instances))
+                .onSuccess(id -> log.info("HTTP verticles deployed id={} instances={}", id, instances))
+                .onFailure(err -> log.error("Failed to deploy HTTP verticles", err))
+                .map(config);
     }
 
-    private Future<Void> startHttpServer(final Router router, final JsonObject config) {
-        final Promise<Void> promise = Promise.promise();
-
+    static int resolveInstances(final JsonObject config) {
         final JsonObject serverCfg = config.getJsonObject("server", new JsonObject());
-        final int port = serverCfg.getInteger("port", 8080);
-        final String host = serverCfg.getString("host", "0.0.0.0");
-
-        vertx.createHttpServer()
-                .requestHandler(router)
-                .listen(port, host)
-                .onSuccess(server -> {
-                    log.info("HTTP server listening on {}:{}", host, server.actualPort());
-                    promise.complete();
-                })
-                .onFailure(err -> {
-                    log.error("Failed to start HTTP server", err);
-                    promise.fail(err);
-                });
-
-        return promise.future();
+        final int instances = serverCfg.getInteger("instances", 0);
+        return instances > 0 ? instances : Runtime.getRuntime().availableProcessors();
     }
 
     private String resolveProfile(final JsonObject config) {
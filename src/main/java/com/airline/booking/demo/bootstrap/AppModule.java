@@ -1,12 +1,24 @@
 package com.airline.booking.demo.bootstrap;
 
+import com.airline.booking.demo.common.admission.AdmissionControl;
+import com.airline.booking.demo.common.cache.CacheRegistry;
+import com.airline.booking.demo.common.db.InstrumentedPool;
 import com.airline.booking.demo.common.db.ReactiveTx;
+import com.airline.booking.demo.common.db.SqlDialect;
+import com.airline.booking.demo.common.db.SqlNames;
+import com.airline.booking.demo.common.db.StatementCatalog;
+import com.airline.booking.demo.common.http.Readiness;
+import com.airline.booking.demo.common.metrics.DbMetrics;
+import com.airline.booking.demo.common.metrics.HttpMetrics;
+import com.airline.booking.demo.common.metrics.MetricsExporter;
+import com.airline.booking.demo.common.validation.CompiledValidator;
 import com.airline.booking.demo.common.validation.RequestValidationHandler;
 import com.airline.booking.demo.common.validation.ValidationService;
 import com.airline.booking.demo.common.validation.ValidatorProvider;
 import com.airline.booking.demo.config.DbPoolProvider;
 import com.airline.booking.demo.feature.airlines.repository.AirlineRepository;
 import com.airline.booking.demo.feature.airlines.repository.impl.AirlineRepositoryImpl;
+import com.airline.booking.demo.feature.airlines.repository.impl.CachingAirlineRepository;
 import com.airline.booking.demo.feature.bookings.repository.BookingRepository;
 import com.airline.booking.demo.feature.bookings.repository.impl.BookingRepositoryImpl;
 import com.airline.booking.demo.feature.flights.repository.FlightRepository;
@@ -20,6 +32,7 @@ import com.google.inject.name.Named;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Pool;
+import java.util.List;
 
 public class AppModule extends AbstractModule {
 
@@ -38,18 +51,35 @@ public class AppModule extends AbstractModule {
         bind(ReactiveTx.class).in(Singleton.class);
 
         // Repositories
-        bind(AirlineRepository.class).to(AirlineRepositoryImpl.class).in(Singleton.class);
+        bind(AirlineRepositoryImpl.class).in(Singleton.class);
+        bind(AirlineRepository.class).to(CachingAirlineRepository.class).in(Singleton.class);
         bind(FlightRepository.class).to(FlightRepositoryImpl.class).in(Singleton.class);
         bind(PassengerRepository.class).to(PassengerRepositoryImpl.class).in(Singleton.class);
         bind(BookingRepository.class).to(BookingRepositoryImpl.class).in(Singleton.class);
 
+        // Caches
+        bind(CacheRegistry.class).in(Singleton.class);
+
+        // Metrics
+        bind(HttpMetrics.class).in(Singleton.class);
+        bind(DbMetrics.class).in(Singleton.class);
+        bind(MetricsExporter.class).in(Singleton.class);
+
         // Validator
         bind(ValidatorProvider.class).in(Singleton.class);
+        bind(CompiledValidator.class).in(Singleton.class);
         bind(ValidationService.class).in(Singleton.class);
         bind(RequestValidationHandler.class).in(Singleton.class);
 
         // DB bootstrap
         bind(DatabaseBootstrap.class).in(Singleton.class);
+
+        // Warm-up and readiness
+        bind(Readiness.class).in(Singleton.class);
+        bind(StartupWarmUp.class).in(Singleton.class);
+
+        // Admission control
+        bind(AdmissionControl.class).in(Singleton.class);
     }
 
     @Provides
@@ -61,7 +91,43 @@ public class AppModule extends AbstractModule {
 
     @Provides
     @Singleton
-    public Pool providePool(final Vertx vertx, @Named("app-config") final JsonObject config) {
-        return DbPoolProvider.createPool(vertx, config);
+    public Pool providePool(final Vertx vertx, @Named("app-config") final JsonObject config,
+            final DbMetrics metrics) {
+        return InstrumentedPool.wrap(DbPoolProvider.createPool(vertx, config), DbPoolProvider.WRITE_POOL, metrics,
+                sqlNames(), DbPoolProvider.maxPoolSize(config), DbPoolProvider.slowQueryMs(config));
+    }
+
+    // One-shot reads outside a transaction; may point at a replica through database.read
+    @Provides
+    @Singleton
+    @Named("read-pool")
+    public Pool provideReadPool(final Vertx vertx, @Named("app-config") final JsonObject config,
+            final DbMetrics metrics) {
+        final JsonObject readConfig = DbPoolProvider.readConfig(config);
+        return InstrumentedPool.wrap(DbPoolProvider.createPool(vertx, readConfig), DbPoolProvider.READ_POOL, metrics,
+                sqlNames(), DbPoolProvider.maxPoolSize(readConfig), DbPoolProvider.slowQueryMs(config));
+    }
+
+    @Provides
+    @Singleton
+    public SqlDialect provideSqlDialect(@Named("app-config") final JsonObject config) {
+        return DbPoolProvider.resolveDialect(config);
+    }
+
+    // Same repositories as sqlNames(); the warm-up prepares what each of them runs
+    @Provides
+    @Singleton
+    List<StatementCatalog> provideStatementCatalogs(final AirlineRepositoryImpl airlines,
+            final FlightRepositoryImpl flights, final PassengerRepositoryImpl passengers,
+            final BookingRepositoryImpl bookings) {
+        return List.of(airlines, flights, passengers, bookings);
+    }
+
+    private static SqlNames sqlNames() {
+        return SqlNames.scan(
+                AirlineRepositoryImpl.class,
+                FlightRepositoryImpl.class,
+                PassengerRepositoryImpl.class,
+                BookingRepositoryImpl.class);
     }
 }
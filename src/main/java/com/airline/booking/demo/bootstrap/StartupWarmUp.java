@@ -0,0 +1,205 @@
+package com.airline.booking.demo.bootstrap;
+
+import com.airline.booking.demo.common.db.SqlDialect;
+import com.airline.booking.demo.common.db.StatementCatalog;
+import com.airline.booking.demo.common.db.StatementWarmer;
+import com.airline.booking.demo.common.http.Readiness;
+import com.airline.booking.demo.common.http.WarmUpMarker;
+import com.airline.booking.demo.config.DbPoolProvider;
+import com.airline.booking.demo.config.ServerOptionsProvider;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Pool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Prepares every repository statement on every pooled connection, then sends rounds of synthetic requests
+// through the real router so handlers, mappers and JSON writers are compiled before traffic arrives.
+// Only reads and requests that fail validation are sent, so nothing is written. /ready flips at the end
+public class StartupWarmUp {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmUp.class);
+
+    private static final int DEFAULT_ROUNDS = 50;
+    private static final String DEFAULT_FROM = "DXB";
+    private static final String DEFAULT_TO = "LHR";
+    private static final String LOOPBACK = "127.0.0.1";
+    // One connection per call in a round
+    private static final int PARALLEL_CALLS = 8;
+    private static final Buffer EMPTY_OBJECT = Buffer.buffer("{}");
+
+    private final Vertx vertx;
+    private final JsonObject config;
+    private final JsonObject warmup;
+    private final Pool pool;
+    private final Pool readPool;
+    private final SqlDialect dialect;
+    private final List<StatementCatalog> catalogs;
+    private final Readiness readiness;
+
+    private long startNanos;
+    private int statements;
+
+    @Inject
+    public StartupWarmUp(final Vertx vertx, @Named("app-config") final JsonObject config, final Pool pool,
+            @Named("read-pool") final Pool readPool, final SqlDialect dialect, final List<StatementCatalog> catalogs,
+            final Readiness readiness) {
+        this.vertx = vertx;
+        this.config = config;
+        this.warmup = config.getJsonObject("warmup", new JsonObject());
+        this.pool = pool;
+        this.readPool = readPool;
+        this.dialect = dialect;
+        this.catalogs = catalogs;
+        this.readiness = readiness;
+    }
+
+    public boolean enabled() {
+        return warmup.getBoolean("enabled", true);
+    }
+
+    // While the HTTP verticles deploy. A failure only costs the first requests a prepare, so it is not fatal
+    public Future<Void> warmStatements() {
+        startNanos = System.nanoTime();
+        if (!enabled()) {
+            return Future.succeededFuture();
+        }
+        final List<String> write = new ArrayList<>();
+        final List<String> read = new ArrayList<>();
+        for (StatementCatalog catalog : catalogs) {
+            write.addAll(catalog.writeStatements());
+            read.addAll(catalog.readStatements());
+        }
+        final JsonObject readConfig = DbPoolProvider.readConfig(config);
+        final Future<Integer> onWrite = StatementWarmer.warm(pool, DbPoolProvider.maxPoolSize(config), write, dialect);
+        final Future<Integer> onRead = StatementWarmer.warm(readPool, DbPoolProvider.maxPoolSize(readConfig), read,
+                dialect);
+
+        return Future.join(onWrite, onRead)
+                .onSuccess(v -> {
+                    statements = onWrite.result() + onRead.result();
+                    log.info("Prepared statements write={} read={} runs={} durationMs={}",
+                            write.size(), read.size(), statements, elapsedMs());
+                })
+                .otherwise(err -> {
+                    log.warn("Statement warm-up failed", err);
+                    return null;
+                })
+                .mapEmpty();
+    }
+
+    // After the HTTP verticles deploy; always ends with /ready flipped
+    public Future<Void> warmRoutes() {
+        if (!enabled()) {
+            readiness.markReady(0);
+            return Future.succeededFuture();
+        }
+        final HttpServerOptions server = ServerOptionsProvider.create(config);
+        final int rounds = warmup.getInteger("rounds", DEFAULT_ROUNDS);
+        final String route = "/flights/search?from=" + warmup.getString("from", DEFAULT_FROM)
+                + "&to=" + warmup.getString("to", DEFAULT_TO);
+        final HttpClient client = vertx.createHttpClient(new HttpClientOptions()
+                .setDefaultHost(loopback(server.getHost()))
+                .setDefaultPort(server.getPort())
+                .setKeepAlive(true)
+                .setDecompressionSupported(true), new PoolOptions().setHttp1MaxSize(PARALLEL_CALLS));
+        final AtomicInteger serverErrors = new AtomicInteger();
+
+        return firstFlight(client, route)
+                .compose(flightId -> {
+                    final List<Call> calls = calls(route, flightId);
+                    Future<Void> chain = Future.succeededFuture();
+                    for (int i = 0; i < rounds; i++) {
+                        chain = chain.compose(v -> round(client, calls, serverErrors));
+                    }
+                    return chain;
+                })
+                .otherwise(err -> {
+                    log.warn("Route warm-up failed", err);
+                    return null;
+                })
+                .eventually(client::close)
+                .onComplete(ar -> {
+                    readiness.markReady(System.nanoTime() - startNanos);
+                    log.info("Warm-up finished statementRuns={} rounds={} serverErrors={} durationMs={}",
+                            statements, rounds, serverErrors.get(), elapsedMs());
+                });
+    }
+
+    // Reads and bodies that fail validation, so nothing is written. Lookups that miss are left out: they log
+    // a warning each and would bury the startup log
+    static List<Call> calls(final String route, final Long flightId) {
+        final List<Call> calls = new ArrayList<>(PARALLEL_CALLS);
+        calls.add(new Call(HttpMethod.GET, route, null));
+        calls.add(new Call(HttpMethod.GET, route + "&limit=10", null));
+        calls.add(new Call(HttpMethod.GET, route + "&stream=true", null));
+        calls.add(new Call(HttpMethod.GET, "/airlines", null));
+        calls.add(new Call(HttpMethod.POST, "/bookings", EMPTY_OBJECT));
+        calls.add(new Call(HttpMethod.POST, "/bookings/batch", EMPTY_OBJECT));
+        calls.add(new Call(HttpMethod.POST, "/passengers", EMPTY_OBJECT));
+        if (flightId != null) {
+            calls.add(new Call(HttpMethod.GET, "/flights/" + flightId, null));
+        }
+        return calls;
+    }
+
+    static String loopback(final String host) {
+        return "0.0.0.0".equals(host) || "::".equals(host) ? LOOPBACK : host;
+    }
+
+    // Null when the warm-up route has no flights
+    private Future<Long> firstFlight(final HttpClient client, final String route) {
+        return send(client, new Call(HttpMethod.GET, route + "&limit=1", null))
+                .map(body -> {
+                    final JsonArray items = new JsonObject(body).getJsonArray("items", new JsonArray());
+                    return items.isEmpty() ? null : items.getJsonObject(0).getLong("id");
+                })
+                .otherwise((Long) null);
+    }
+
+    private Future<Void> round(final HttpClient client, final List<Call> calls, final AtomicInteger serverErrors) {
+        final List<Future<Buffer>> sent = new ArrayList<>(calls.size());
+        for (Call call : calls) {
+            sent.add(send(client, call).onFailure(err -> serverErrors.incrementAndGet()));
+        }
+        return Future.join(sent).otherwiseEmpty().mapEmpty();
+    }
+
+    private Future<Buffer> send(final HttpClient client, final Call call) {
+        return client.request(call.method(), call.uri())
+                .compose(req -> {
+                    req.putHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+                    req.putHeader(WarmUpMarker.HEADER, readiness.warmUpToken());
+                    if (call.body() == null) {
+                        return req.send();
+                    }
+                    return req.putHeader(HttpHeaders.CONTENT_TYPE, "application/json").send(call.body());
+                })
+                .compose(res -> res.body().compose(body -> res.statusCode() >= 500
+                        ? Future.failedFuture(call.method() + " " + call.uri() + " answered " + res.statusCode())
+                        : Future.succeededFuture(body)));
+    }
+
+    private long elapsedMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    record Call(HttpMethod method, String uri, Buffer body) {
+
+    }
+}
@@ -0,0 +1,212 @@
+package com.airline.booking.demo.common.admission;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// One lane per RouteClass, shared by every HTTP verticle. Each lane has its own latency-driven limit and a
+// bounded queue. Queued requests are admitted in priority order. While a higher lane has requests waiting, a lower
+// lane is held to its minLimit, so a search flood cannot take the capacity bookings need and is still not starved.
+// One lock guards every lane. The critical sections are a few field updates and never run a request
+@Singleton
+public class AdmissionControl {
+
+    public enum Decision { ADMITTED, QUEUED, REJECTED }
+
+    private static final int DEFAULT_RETRY_AFTER_SEC = 1;
+    private static final int DEFAULT_WINDOW_SIZE = 50;
+    private static final int DEFAULT_BASELINE_WINDOWS = 100;
+    private static final double DEFAULT_TOLERANCE = 2.0;
+    private static final double DEFAULT_SMOOTHING = 0.2;
+    private static final int DEFAULT_INITIAL_LIMIT = 32;
+    private static final int DEFAULT_MAX_LIMIT = 256;
+
+    private final boolean enabled;
+    private final int retryAfterSec;
+    private final Lane[] lanes;
+    private final List<LoopLag> probes = new CopyOnWriteArrayList<>();
+
+    @Inject
+    public AdmissionControl(@Named("app-config") final JsonObject config) {
+        final JsonObject admission = config.getJsonObject("admission", new JsonObject());
+        this.enabled = admission.getBoolean("enabled", true);
+        this.retryAfterSec = admission.getInteger("retryAfterSec", DEFAULT_RETRY_AFTER_SEC);
+        this.lanes = new Lane[RouteClass.values().length];
+        // Writes are never shed for loop lag, only when their own queue is over budget
+        lanes[RouteClass.WRITE.ordinal()] = lane(admission, RouteClass.WRITE, 4, 512, 2000, 0);
+        lanes[RouteClass.READ.ordinal()] = lane(admission, RouteClass.READ, 2, 256, 500, 200);
+        lanes[RouteClass.SEARCH.ordinal()] = lane(admission, RouteClass.SEARCH, 2, 128, 250, 100);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public int retryAfterSec() {
+        return retryAfterSec;
+    }
+
+    public long maxWaitMs(final RouteClass routeClass) {
+        return TimeUnit.NANOSECONDS.toMillis(lanes[routeClass.ordinal()].maxWaitNanos);
+    }
+
+    // Reported by each HTTP verticle's probe, for /metrics
+    public void register(final LoopLag probe) {
+        probes.add(probe);
+    }
+
+    public long loopLagNanos() {
+        long max = 0;
+        for (LoopLag probe : probes) {
+            max = Math.max(max, probe.lagNanos());
+        }
+        return max;
+    }
+
+    // loopLagNanos is the caller's event loop; a lane with maxLoopLagMs sheds at once past it.
+    // QUEUED hands onAdmit to the lane, which runs it once a slot frees up, after exit() has released the lock
+    public synchronized Decision enter(final RouteClass routeClass, final long loopLagNanos, final Runnable onAdmit) {
+        final Lane lane = lanes[routeClass.ordinal()];
+        if (lane.maxLagNanos > 0 && loopLagNanos > lane.maxLagNanos) {
+            lane.rejectedLoopLag++;
+            return Decision.REJECTED;
+        }
+        if (lane.waiting.isEmpty() && lane.inFlight < lane.capacity(higherWaiting(routeClass))) {
+            lane.inFlight++;
+            lane.admitted++;
+            return Decision.ADMITTED;
+        }
+        if (lane.waiting.size() >= lane.maxQueue) {
+            lane.rejectedQueueFull++;
+            return Decision.REJECTED;
+        }
+        lane.waiting.add(onAdmit);
+        return Decision.QUEUED;
+    }
+
+    // A queued request ran out of time. False when it has already been admitted
+    public boolean abandon(final RouteClass routeClass, final Runnable onAdmit) {
+        final List<Runnable> admitted = new ArrayList<>();
+        synchronized (this) {
+            final Lane lane = lanes[routeClass.ordinal()];
+            if (!lane.waiting.remove(onAdmit)) {
+                return false;
+            }
+            lane.rejectedTimeout++;
+            // It may have been the last one holding a lower lane back
+            drain(admitted);
+        }
+        admitted.forEach(Runnable::run);
+        return true;
+    }
+
+    // serviceNanos runs from admission to the end of the response
+    public void exit(final RouteClass routeClass, final long serviceNanos) {
+        release(routeClass, serviceNanos);
+    }
+
+    // Gives the slot back without a latency sample, e.g. when the client left while the request was queued
+    public void cancel(final RouteClass routeClass) {
+        release(routeClass, -1);
+    }
+
+    private void release(final RouteClass routeClass, final long serviceNanos) {
+        final List<Runnable> admitted = new ArrayList<>();
+        synchronized (this) {
+            final Lane lane = lanes[routeClass.ordinal()];
+            if (serviceNanos >= 0) {
+                lane.limit.sample(serviceNanos, lane.inFlight);
+            }
+            lane.inFlight--;
+            drain(admitted);
+        }
+        admitted.forEach(Runnable::run);
+    }
+
+    public synchronized List<AdmissionLane> lanes() {
+        final List<AdmissionLane> all = new ArrayList<>(lanes.length);
+        for (Lane lane : lanes) {
+            all.add(new AdmissionLane(lane.routeClass.label(), lane.limit.limit(), lane.inFlight,
+                    lane.waiting.size(), lane.limit.baselineNanos(), lane.admitted, lane.rejectedQueueFull,
+                    lane.rejectedTimeout, lane.rejectedLoopLag));
+        }
+        return all;
+    }
+
+    private void drain(final List<Runnable> admitted) {
+        boolean higherWaiting = false;
+        for (Lane lane : lanes) {
+            final int capacity = lane.capacity(higherWaiting);
+            while (!lane.waiting.isEmpty() && lane.inFlight < capacity) {
+                lane.inFlight++;
+                lane.admitted++;
+                admitted.add(lane.waiting.poll());
+            }
+            higherWaiting |= !lane.waiting.isEmpty();
+        }
+    }
+
+    private boolean higherWaiting(final RouteClass routeClass) {
+        for (int i = 0; i < routeClass.ordinal(); i++) {
+            if (!lanes[i].waiting.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Lane lane(final JsonObject admission, final RouteClass routeClass, final int minLimit,
+            final int maxQueue, final long maxWaitMs, final long maxLoopLagMs) {
+        final JsonObject cfg = admission.getJsonObject(routeClass.label(), new JsonObject());
+        final int floor = Math.max(1, cfg.getInteger("minLimit", minLimit));
+        final GradientLimit limit = new GradientLimit(
+                cfg.getInteger("initialLimit", DEFAULT_INITIAL_LIMIT),
+                floor,
+                cfg.getInteger("maxLimit", DEFAULT_MAX_LIMIT),
+                admission.getInteger("windowSize", DEFAULT_WINDOW_SIZE),
+                admission.getInteger("baselineWindows", DEFAULT_BASELINE_WINDOWS),
+                admission.getDouble("tolerance", DEFAULT_TOLERANCE),
+                admission.getDouble("smoothing", DEFAULT_SMOOTHING));
+        return new Lane(routeClass, limit, floor, cfg.getInteger("maxQueue", maxQueue),
+                TimeUnit.MILLISECONDS.toNanos(cfg.getLong("maxWaitMs", maxWaitMs)),
+                TimeUnit.MILLISECONDS.toNanos(cfg.getLong("maxLoopLagMs", maxLoopLagMs)));
+    }
+
+    private static final class Lane {
+
+        private final RouteClass routeClass;
+        private final GradientLimit limit;
+        private final int minLimit;
+        private final int maxQueue;
+        private final long maxWaitNanos;
+        private final long maxLagNanos;
+        private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+
+        private int inFlight;
+        private long admitted;
+        private long rejectedQueueFull;
+        private long rejectedTimeout;
+        private long rejectedLoopLag;
+
+        private Lane(final RouteClass routeClass, final GradientLimit limit, final int minLimit, final int maxQueue,
+                final long maxWaitNanos, final long maxLagNanos) {
+            this.routeClass = routeClass;
+            this.limit = limit;
+            this.minLimit = minLimit;
+            this.maxQueue = maxQueue;
+            this.maxWaitNanos = maxWaitNanos;
+            this.maxLagNanos = maxLagNanos;
+        }
+
+        private int capacity(final boolean higherWaiting) {
+            final int current = limit.limit();
+            return higherWaiting ? Math.min(current, minLimit) : current;
+        }
+    }
+}
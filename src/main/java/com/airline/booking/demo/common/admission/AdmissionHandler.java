@@ -0,0 +1,99 @@
+package com.airline.booking.demo.common.admission;
+
+import com.airline.booking.demo.common.http.WarmUpMarker;
+import com.airline.booking.demo.exception.GlobalErrorHandler;
+import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+
+// Sits ahead of the feature routers, one per HTTP verticle. Admitted requests go straight on; queued ones wait,
+// paused, until their lane has a slot or maxWaitMs runs out; rejected ones get an immediate 503 with Retry-After.
+// Create it on the verticle's event loop, which its LoopLag probe then measures
+public class AdmissionHandler implements Handler<RoutingContext> {
+
+    private static final String OVERLOADED = "Server is overloaded, retry later";
+
+    private final Vertx vertx;
+    private final AdmissionControl control;
+    private final String retryAfter;
+    private final LoopLag lag;
+
+    public AdmissionHandler(final Vertx vertx, final AdmissionControl control) {
+        this.vertx = vertx;
+        this.control = control;
+        this.retryAfter = Integer.toString(control.retryAfterSec());
+        this.lag = control.enabled() ? LoopLag.start(vertx) : null;
+        if (lag != null) {
+            control.register(lag);
+        }
+    }
+
+    @Override
+    public void handle(final RoutingContext ctx) {
+        // Warm-up requests would skew the lane's latency baseline and only run before /ready anyway
+        if (!control.enabled() || WarmUpMarker.isWarmUp(ctx)) {
+            ctx.next();
+            return;
+        }
+        final RouteClass routeClass = RouteClass.of(ctx.request().method(), ctx.request().path());
+        final Queued queued = new Queued(ctx, routeClass, vertx.getOrCreateContext());
+        switch (control.enter(routeClass, lag.lagNanos(), queued)) {
+            case ADMITTED -> proceed(ctx, routeClass);
+            case QUEUED -> {
+                // BodyHandler resumes it; until then the body stays in the socket rather than being dropped
+                ctx.request().pause();
+                queued.timerId = vertx.setTimer(control.maxWaitMs(routeClass), id -> {
+                    if (control.abandon(routeClass, queued)) {
+                        reject(ctx);
+                    }
+                });
+            }
+            case REJECTED -> reject(ctx);
+        }
+    }
+
+    private void proceed(final RoutingContext ctx, final RouteClass routeClass) {
+        final long start = System.nanoTime();
+        ctx.addEndHandler(ar -> control.exit(routeClass, System.nanoTime() - start));
+        ctx.next();
+    }
+
+    private void reject(final RoutingContext ctx) {
+        if (ctx.response().closed() || ctx.response().ended()) {
+            return;
+        }
+        ctx.response().putHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        GlobalErrorHandler.respond(ctx, ErrorCodeEnum.SERVICE_UNAVAILABLE, OVERLOADED);
+    }
+
+    // Admitted from whichever event loop freed the slot, then continued on the request's own loop.
+    // The timer is set on that loop before the continuation can run there, so cancelling it here is safe
+    private final class Queued implements Runnable {
+
+        private final RoutingContext ctx;
+        private final RouteClass routeClass;
+        private final Context context;
+        private long timerId = -1;
+
+        private Queued(final RoutingContext ctx, final RouteClass routeClass, final Context context) {
+            this.ctx = ctx;
+            this.routeClass = routeClass;
+            this.context = context;
+        }
+
+        @Override
+        public void run() {
+            context.runOnContext(v -> {
+                vertx.cancelTimer(timerId);
+                if (ctx.response().closed()) {
+                    control.cancel(routeClass);
+                } else {
+                    proceed(ctx, routeClass);
+                }
+            });
+        }
+    }
+}
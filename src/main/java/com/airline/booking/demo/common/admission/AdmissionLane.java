@@ -0,0 +1,16 @@
+package com.airline.booking.demo.common.admission;
+
+// Point-in-time view of one lane for /metrics
+public record AdmissionLane(
+        String lane,
+        int limit,
+        int inFlight,
+        int queued,
+        double baselineNanos,
+        long admitted,
+        long rejectedQueueFull,
+        long rejectedTimeout,
+        long rejectedLoopLag
+) {
+
+}
@@ -0,0 +1,79 @@
+package com.airline.booking.demo.common.admission;
+
+// A concurrency limit that follows measured latency. Every windowSize samples, the window's mean is compared with
+// the lowest window mean of the last baselineWindows windows. Within tolerance the limit grows by its square root;
+// beyond it, it shrinks in proportion, at most by half per window. A window that never used half the limit says
+// nothing about the ceiling, so it cannot grow it. Not thread-safe: AdmissionControl calls it under its lock
+final class GradientLimit {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int windowSize;
+    private final double tolerance;
+    private final double smoothing;
+    private final double[] windowMeans;
+
+    private double limit;
+    private int windows;
+    private long windowSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+
+    GradientLimit(final int initialLimit, final int minLimit, final int maxLimit, final int windowSize,
+            final int baselineWindows, final double tolerance, final double smoothing) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.windowSize = Math.max(1, windowSize);
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowMeans = new double[Math.max(1, baselineWindows)];
+        this.limit = clamp(initialLimit);
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    // Lowest recent window mean, 0 until the first window closes
+    double baselineNanos() {
+        final int filled = Math.min(windows, windowMeans.length);
+        double min = 0;
+        for (int i = 0; i < filled; i++) {
+            min = i == 0 ? windowMeans[i] : Math.min(min, windowMeans[i]);
+        }
+        return min;
+    }
+
+    // rttNanos is service time only, queueing excluded; inFlight counts the request being sampled
+    void sample(final long rttNanos, final int inFlight) {
+        windowSum += rttNanos;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        if (windowCount < windowSize) {
+            return;
+        }
+        final double mean = (double) windowSum / windowCount;
+        final boolean used = windowMaxInFlight * 2 >= limit;
+        windowSum = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+
+        windowMeans[windows++ % windowMeans.length] = mean;
+        final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * baselineNanos() / mean));
+        final double target;
+        if (gradient < 1.0) {
+            target = limit * gradient;
+        } else if (used) {
+            target = limit + Math.sqrt(limit);
+        } else {
+            return;
+        }
+        limit = clamp(limit + (target - limit) * smoothing);
+    }
+
+    private double clamp(final double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,40 @@
+package com.airline.booking.demo.common.admission;
+
+import io.vertx.core.Vertx;
+
+// How late a periodic timer fires on one event loop: the time a request that just arrived waits behind the work
+// already queued there. Synchronous handlers never build up in-flight requests, so this is the only queue they show.
+// Jumps to each new peak and halves every tick after
+public final class LoopLag {
+
+    private static final long PROBE_MS = 20;
+    private static final long PROBE_NANOS = PROBE_MS * 1_000_000L;
+
+    private volatile long lagNanos;
+    private long expected;
+
+    LoopLag(final long startNanos) {
+        this.expected = startNanos + PROBE_NANOS;
+    }
+
+    // Call on the event loop to measure; the timer belongs to the caller's verticle and goes away with it
+    public static LoopLag start(final Vertx vertx) {
+        final LoopLag probe = new LoopLag(System.nanoTime());
+        vertx.setPeriodic(PROBE_MS, id -> probe.tick(System.nanoTime()));
+        return probe;
+    }
+
+    public long lagNanos() {
+        return lagNanos;
+    }
+
+    void tick(final long now) {
+        // A fixed-rate timer fires the ticks it missed back to back; those would halve the peak away at once
+        if (now < expected) {
+            return;
+        }
+        final long late = Math.max(0, now - expected);
+        lagNanos = Math.max(late, lagNanos / 2);
+        expected = now + PROBE_NANOS;
+    }
+}
@@ -0,0 +1,30 @@
+package com.airline.booking.demo.common.admission;
+
+import io.vertx.core.http.HttpMethod;
+
+// Admission lanes in priority order. Writes move seats and money, so they are the last to be shed
+public enum RouteClass {
+
+    WRITE("write"),
+    READ("read"),
+    SEARCH("search");
+
+    private static final String SEARCH_PATH = "/flights/search";
+
+    private final String label;
+
+    RouteClass(final String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static RouteClass of(final HttpMethod method, final String path) {
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return WRITE;
+        }
+        return path != null && path.startsWith(SEARCH_PATH) ? SEARCH : READ;
+    }
+}
@@ -0,0 +1,31 @@
+package com.airline.booking.demo.common.cache;
+
+import com.google.inject.Singleton;
+import io.vertx.core.json.JsonObject;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Singleton
+public class CacheRegistry {
+
+    private final Map<String, CacheStats> caches = new ConcurrentHashMap<>();
+
+    public static JsonObject config(final JsonObject appConfig, final String name) {
+        return appConfig.getJsonObject("cache", new JsonObject()).getJsonObject(name, new JsonObject());
+    }
+
+    public CacheStats stats(final String name) {
+        return caches.computeIfAbsent(name, n -> new CacheStats());
+    }
+
+    public Map<String, CacheStats> all() {
+        return new TreeMap<>(caches);
+    }
+
+    public JsonObject toJson() {
+        final JsonObject json = new JsonObject();
+        all().forEach((name, stats) -> json.put(name, stats.toJson()));
+        return json;
+    }
+}
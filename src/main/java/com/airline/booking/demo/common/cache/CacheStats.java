@@ -0,0 +1,62 @@
+package com.airline.booking.demo.common.cache;
+
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class CacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public void evicted() {
+        evictions.increment();
+    }
+
+    public void invalidated() {
+        invalidations.increment();
+    }
+
+    public void expired() {
+        expirations.increment();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    public long expirations() {
+        return expirations.sum();
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+                .put("hits", hits())
+                .put("misses", misses())
+                .put("evictions", evictions())
+                .put("invalidations", invalidations())
+                .put("expirations", expirations());
+    }
+}
@@ -0,0 +1,115 @@
+package com.airline.booking.demo.common.cache;
+
+import com.airline.booking.demo.exception.BusinessServiceException;
+import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Keyed results: a retry while the first call is running joins it, a retry after it succeeded gets the same value.
+// Failures are forgotten so the client can try again. Oldest entries go first, by size and by age.
+public final class IdempotencyStore<V> {
+
+    private static final int DEFAULT_MAX_SIZE = 10_000;
+    private static final long DEFAULT_TTL_SEC = 24 * 60 * 60;
+
+    private record Entry<V>(Object fingerprint, Future<V> result, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final CacheStats stats;
+    private final LongSupplier clock;
+    private final Map<String, Entry<V>> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(final int maxSize, final long ttlSec, final CacheStats stats) {
+        this(maxSize, ttlSec, stats, System::nanoTime);
+    }
+
+    IdempotencyStore(final int maxSize, final long ttlSec, final CacheStats stats, final LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSec);
+        this.stats = stats;
+        this.clock = clock;
+    }
+
+    public static <V> IdempotencyStore<V> create(final JsonObject appConfig, final String name,
+            final CacheRegistry cacheRegistry) {
+        final JsonObject config = CacheRegistry.config(appConfig, name);
+        return new IdempotencyStore<>(config.getInteger("maxSize", DEFAULT_MAX_SIZE),
+                config.getLong("ttlSec", DEFAULT_TTL_SEC), cacheRegistry.stats(name));
+    }
+
+    // fingerprint is what the key was first used for; the same key with another fingerprint is a client bug
+    public Future<V> execute(final String key, final Object fingerprint, final Supplier<Future<V>> action) {
+        final Promise<V> promise = Promise.promise();
+        final Entry<V> entry;
+        synchronized (this) {
+            final long now = clock.getAsLong();
+            expire(now);
+            final Entry<V> existing = entries.get(key);
+            if (existing != null) {
+                stats.hit();
+                return existing.fingerprint().equals(fingerprint)
+                        ? existing.result()
+                        : Future.failedFuture(new BusinessServiceException(ErrorCodeEnum.CONFLICT,
+                                "Idempotency-Key was already used for a different request"));
+            }
+            stats.miss();
+            entry = new Entry<>(fingerprint, promise.future(), now + ttlNanos);
+            entries.put(key, entry);
+            evictOverflow();
+        }
+
+        Future<V> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            result = Future.failedFuture(e);
+        }
+        result.onComplete(ar -> {
+            if (ar.failed()) {
+                forget(key, entry);
+            }
+            promise.handle(ar);
+        });
+        return promise.future();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void forget(final String key, final Entry<V> entry) {
+        if (entries.remove(key, entry)) {
+            stats.invalidated();
+        }
+    }
+
+    // Every entry gets the same ttl, so insertion order is also expiry order
+    private void expire(final long now) {
+        final Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext() && it.next().expiresAt() - now <= 0) {
+            it.remove();
+            stats.expired();
+        }
+    }
+
+    private void evictOverflow() {
+        final Iterator<Entry<V>> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            stats.evicted();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.airline.booking.demo.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class LruCache<K, V> {
+
+    private final CacheStats stats;
+    private final Map<K, V> entries;
+
+    public LruCache(final int maxSize, final CacheStats stats) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.stats = stats;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                if (size() > maxSize) {
+                    stats.evicted();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(final K key) {
+        final V value = entries.get(key);
+        if (value == null) {
+            stats.miss();
+        } else {
+            stats.hit();
+        }
+        return value;
+    }
+
+    public synchronized void put(final K key, final V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void remove(final K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
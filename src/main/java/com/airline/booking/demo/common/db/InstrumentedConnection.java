@@ -0,0 +1,107 @@
+package com.airline.booking.demo.common.db;
+
+import com.airline.booking.demo.common.metrics.PoolMetrics;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.PrepareOptions;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.PreparedStatement;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
+import io.vertx.sqlclient.spi.DatabaseMetadata;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+final class InstrumentedConnection implements SqlConnection, SqlTarget {
+
+    private final SqlConnection delegate;
+    private final PoolMetrics poolMetrics;
+    private final SqlInstrumentation instrumentation;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    InstrumentedConnection(final SqlConnection delegate, final PoolMetrics poolMetrics,
+            final SqlInstrumentation instrumentation) {
+        this.delegate = delegate;
+        this.poolMetrics = poolMetrics;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public SqlClient client() {
+        return delegate;
+    }
+
+    @Override
+    public <R> Future<R> run(final Function<SqlClient, Future<R>> action) {
+        return action.apply(delegate);
+    }
+
+    @Override
+    public Query<RowSet<Row>> query(final String sql) {
+        return new TimedQuery(instrumentation, this, sql);
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(final String sql) {
+        return new TimedPreparedQuery(instrumentation, this, sql, null);
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(final String sql, final PrepareOptions options) {
+        return new TimedPreparedQuery(instrumentation, this, sql, options);
+    }
+
+    @Override
+    public Future<PreparedStatement> prepare(final String sql) {
+        return delegate.prepare(sql);
+    }
+
+    @Override
+    public Future<PreparedStatement> prepare(final String sql, final PrepareOptions options) {
+        return delegate.prepare(sql, options);
+    }
+
+    @Override
+    public SqlConnection exceptionHandler(final Handler<Throwable> handler) {
+        delegate.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public SqlConnection closeHandler(final Handler<Void> handler) {
+        delegate.closeHandler(handler);
+        return this;
+    }
+
+    @Override
+    public Future<Transaction> begin() {
+        return delegate.begin();
+    }
+
+    @Override
+    public Transaction transaction() {
+        return delegate.transaction();
+    }
+
+    @Override
+    public boolean isSSL() {
+        return delegate.isSSL();
+    }
+
+    @Override
+    public DatabaseMetadata databaseMetadata() {
+        return delegate.databaseMetadata();
+    }
+
+    @Override
+    public Future<Void> close() {
+        if (released.compareAndSet(false, true)) {
+            poolMetrics.released();
+        }
+        return delegate.close();
+    }
+}
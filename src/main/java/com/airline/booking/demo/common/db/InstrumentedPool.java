@@ -0,0 +1,90 @@
+package com.airline.booking.demo.common.db;
+
+import com.airline.booking.demo.common.metrics.DbMetrics;
+import com.airline.booking.demo.common.metrics.PoolMetrics;
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.PrepareOptions;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.SqlConnection;
+import java.util.function.Function;
+
+// One-shot pool queries borrow a connection through acquire() so they show up in acquire and in-use counts
+public final class InstrumentedPool implements Pool, SqlTarget {
+
+    private final Pool delegate;
+    private final PoolMetrics poolMetrics;
+    private final SqlInstrumentation instrumentation;
+
+    InstrumentedPool(final Pool delegate, final PoolMetrics poolMetrics, final SqlInstrumentation instrumentation) {
+        this.delegate = delegate;
+        this.poolMetrics = poolMetrics;
+        this.instrumentation = instrumentation;
+    }
+
+    public static Pool wrap(final Pool pool, final String name, final DbMetrics metrics, final SqlNames names,
+            final int maxSize, final long slowQueryMs) {
+        final PoolMetrics poolMetrics = metrics.pool(name);
+        poolMetrics.bind(maxSize, pool::size);
+        return new InstrumentedPool(pool, poolMetrics, new SqlInstrumentation(metrics, names, slowQueryMs));
+    }
+
+    @Override
+    public Future<SqlConnection> getConnection() {
+        return acquire().map(conn -> conn);
+    }
+
+    private Future<InstrumentedConnection> acquire() {
+        final long start = System.nanoTime();
+        poolMetrics.acquireStarted();
+        return delegate.getConnection()
+                .andThen(ar -> {
+                    final long elapsed = System.nanoTime() - start;
+                    if (ar.succeeded()) {
+                        poolMetrics.acquired(elapsed);
+                    } else {
+                        poolMetrics.acquireFailed(elapsed);
+                    }
+                })
+                .map(conn -> new InstrumentedConnection(conn, poolMetrics, instrumentation));
+    }
+
+    @Override
+    public SqlClient client() {
+        return delegate;
+    }
+
+    @Override
+    public <R> Future<R> run(final Function<SqlClient, Future<R>> action) {
+        return acquire().compose(conn -> action.apply(conn.client()).eventually(conn::close));
+    }
+
+    @Override
+    public Query<RowSet<Row>> query(final String sql) {
+        return new TimedQuery(instrumentation, this, sql);
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(final String sql) {
+        return new TimedPreparedQuery(instrumentation, this, sql, null);
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(final String sql, final PrepareOptions options) {
+        return new TimedPreparedQuery(instrumentation, this, sql, options);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Future<Void> close() {
+        return delegate.close();
+    }
+}
@@ -0,0 +1,52 @@
+package com.airline.booking.demo.common.db;
+
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import java.util.function.Function;
+
+public final class MappedReadStream<S, T> implements ReadStream<T> {
+
+    private final ReadStream<S> source;
+    private final Function<S, T> mapper;
+
+    public MappedReadStream(final ReadStream<S> source, final Function<S, T> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public ReadStream<T> exceptionHandler(final Handler<Throwable> handler) {
+        source.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> handler(final Handler<T> handler) {
+        source.handler(handler == null ? null : item -> handler.handle(mapper.apply(item)));
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> pause() {
+        source.pause();
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> resume() {
+        source.resume();
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> fetch(final long amount) {
+        source.fetch(amount);
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> endHandler(final Handler<Void> endHandler) {
+        source.endHandler(endHandler);
+        return this;
+    }
+}
@@ -1,5 +1,6 @@
 package com.airline.booking.demo.common.db;
 
+import com.airline.booking.demo.common.metrics.DbMetrics;
 import com.airline.booking.demo.exception.BusinessServiceException;
 import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
 import com.google.inject.Inject;
@@ -18,10 +19,14 @@ public class ReactiveTx {
     private static final Logger log = LoggerFactory.getLogger(ReactiveTx.class);
 
     private final Pool pool;
+    private final DbMetrics metrics;
+    private final SqlDialect dialect;
 
     @Inject
-    public ReactiveTx(final Pool pool) {
+    public ReactiveTx(final Pool pool, final DbMetrics metrics, final SqlDialect dialect) {
         this.pool = pool;
+        this.metrics = metrics;
+        this.dialect = dialect;
     }
 
     public <T> Future<T> withTx(final Function<SqlConnection, Future<T>> work) {
@@ -30,6 +35,7 @@ public class ReactiveTx {
                 .compose(conn ->
                         conn.begin()
                                 .compose(tx -> runInTx(conn, tx, work))
+                                .eventually(() -> dialect.afterTx(conn))
                                 .onComplete(ar -> conn.close())
                 )
                 .recover(err -> {
@@ -49,14 +55,20 @@ public class ReactiveTx {
             final Transaction tx,
             final Function<SqlConnection, Future<T>> work
     ) {
+        final long start = System.nanoTime();
         return work.apply(conn)
                 .compose(result ->
-                        tx.commit().map(v -> result)
+                        tx.commit()
+                                .onSuccess(v -> metrics.committed(System.nanoTime() - start))
+                                .map(v -> result)
                 )
                 .recover(err ->
                         tx.rollback()
                                 .onFailure(rollbackErr -> log.warn("Rollback failed", rollbackErr))
-                                .transform(v -> Future.failedFuture(err))
+                                .transform(v -> {
+                                    metrics.rolledBack(System.nanoTime() - start);
+                                    return Future.failedFuture(err);
+                                })
                 );
     }
 }
@@ -0,0 +1,45 @@
+package com.airline.booking.demo.common.db;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.SqlConnection;
+
+public enum SqlDialect {
+
+    POSTGRES(true) {
+        @Override
+        public String returning(final String dml) {
+            return dml.strip() + " RETURNING *";
+        }
+    },
+
+    // JDBC rejects row-returning statements inside executeBatch
+    H2(false) {
+        @Override
+        public String returning(final String dml) {
+            return "SELECT * FROM FINAL TABLE (" + dml.strip() + ")";
+        }
+
+        // The JDBC client switches auto-commit back off after commit/rollback, so a pooled connection
+        // would otherwise hold every later one-shot write in a transaction nobody commits
+        @Override
+        public Future<Void> afterTx(final SqlConnection conn) {
+            return conn.query("SET AUTOCOMMIT TRUE").execute().mapEmpty();
+        }
+    };
+
+    private final boolean batchReturning;
+
+    SqlDialect(final boolean batchReturning) {
+        this.batchReturning = batchReturning;
+    }
+
+    public abstract String returning(String dml);
+
+    public Future<Void> afterTx(final SqlConnection conn) {
+        return Future.succeededFuture();
+    }
+
+    public boolean supportsBatchReturning() {
+        return batchReturning;
+    }
+}
@@ -0,0 +1,37 @@
+package com.airline.booking.demo.common.db;
+
+import com.airline.booking.demo.common.metrics.DbMetrics;
+import io.vertx.core.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class SqlInstrumentation {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlInstrumentation.class);
+
+    private final DbMetrics metrics;
+    private final SqlNames names;
+    private final long slowNanos;
+
+    SqlInstrumentation(final DbMetrics metrics, final SqlNames names, final long slowQueryMs) {
+        this.metrics = metrics;
+        this.names = names;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+    }
+
+    <T> Future<T> time(final String sql, final Supplier<Future<T>> query) {
+        final long start = System.nanoTime();
+        return query.get().andThen(ar -> {
+            final long elapsed = System.nanoTime() - start;
+            final String name = names.nameOf(sql);
+            final boolean slow = elapsed >= slowNanos;
+            metrics.query(name, elapsed, ar.succeeded(), slow);
+            if (slow) {
+                log.warn("SLOW_QUERY name={} durationMs={} ok={}",
+                        name, TimeUnit.NANOSECONDS.toMillis(elapsed), ar.succeeded());
+            }
+        });
+    }
+}
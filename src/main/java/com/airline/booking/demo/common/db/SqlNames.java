@@ -0,0 +1,74 @@
+package com.airline.booking.demo.common.db;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Maps SQL text back to the repository constant it came from, e.g. "BookingRepositoryImpl.SQL_INSERT"
+public final class SqlNames {
+
+    public static final String UNNAMED = "unnamed";
+
+    private static final int MAX_CACHED = 1024;
+
+    private final Map<String, String> constants;
+    private final Map<String, String> resolved = new ConcurrentHashMap<>();
+
+    private SqlNames(final Map<String, String> constants) {
+        this.constants = constants;
+    }
+
+    public static SqlNames scan(final Class<?>... owners) {
+        final Map<String, String> constants = new LinkedHashMap<>();
+        for (Class<?> owner : owners) {
+            for (Field field : owner.getDeclaredFields()) {
+                final int mods = field.getModifiers();
+                if (!Modifier.isStatic(mods) || !Modifier.isFinal(mods)
+                        || field.getType() != String.class || !field.getName().startsWith("SQL_")) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    constants.putIfAbsent(((String) field.get(null)).strip(),
+                            owner.getSimpleName() + "." + field.getName());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot read " + owner.getSimpleName() + "." + field.getName(), e);
+                }
+            }
+        }
+        return new SqlNames(Map.copyOf(constants));
+    }
+
+    public String nameOf(final String sql) {
+        final String cached = resolved.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        final String name = lookup(sql);
+        if (resolved.size() < MAX_CACHED) {
+            resolved.put(sql, name);
+        }
+        return name;
+    }
+
+    // Dialect wrappers and built queries embed a constant, so the longest one contained wins
+    private String lookup(final String sql) {
+        final String text = sql.strip();
+        final String exact = constants.get(text);
+        if (exact != null) {
+            return exact;
+        }
+        String best = UNNAMED;
+        int bestLength = 0;
+        for (Map.Entry<String, String> constant : constants.entrySet()) {
+            final String candidate = constant.getKey();
+            if (candidate.length() > bestLength && text.contains(candidate)) {
+                best = constant.getValue();
+                bestLength = candidate.length();
+            }
+        }
+        return best;
+    }
+}
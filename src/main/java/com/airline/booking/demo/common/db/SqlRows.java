@@ -0,0 +1,43 @@
+package com.airline.booking.demo.common.db;
+
+import com.airline.booking.demo.exception.BusinessServiceException;
+import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowIterator;
+import io.vertx.sqlclient.RowSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public final class SqlRows {
+
+    private SqlRows() {
+        // Empty Constructor
+    }
+
+    public static <T> Future<T> first(final RowSet<Row> rows,
+            final Function<Row, T> mapper,
+            final Supplier<String> notFoundMessage) {
+        final RowIterator<Row> it = rows.iterator();
+        if (!it.hasNext()) {
+            return Future.failedFuture(new BusinessServiceException(
+                    ErrorCodeEnum.ENTITY_NOT_FOUND, notFoundMessage.get()));
+        }
+        return Future.succeededFuture(mapper.apply(it.next()));
+    }
+
+    public static <T> T firstOrNull(final RowSet<Row> rows, final Function<Row, T> mapper) {
+        final RowIterator<Row> it = rows.iterator();
+        return it.hasNext() ? mapper.apply(it.next()) : null;
+    }
+
+    public static <T> List<T> list(final RowSet<Row> rows, final Function<Row, T> mapper) {
+        final List<T> list = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            list.add(mapper.apply(row));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,39 @@
+package com.airline.booking.demo.common.db;
+
+import io.vertx.core.Future;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowStream;
+import io.vertx.sqlclient.Tuple;
+import java.util.function.Function;
+
+public final class SqlStreams {
+
+    public static final int DEFAULT_FETCH_SIZE = 256;
+
+    private SqlStreams() {
+        // Empty Constructor
+    }
+
+    public static <T> Future<Void> stream(final Pool pool,
+            final SqlDialect dialect,
+            final String sql,
+            final Tuple params,
+            final Function<Row, T> mapper,
+            final Function<ReadStream<T>, Future<Void>> consumer) {
+        // Postgres only keeps a portal open inside a transaction. Nothing is written, so it is always rolled back.
+        return pool.getConnection()
+                .compose(conn -> conn.begin()
+                        .compose(tx -> conn.prepare(sql)
+                                .compose(ps -> {
+                                    final RowStream<Row> rows = ps.createStream(DEFAULT_FETCH_SIZE, params);
+                                    return consumer.apply(new MappedReadStream<>(rows, mapper))
+                                            .eventually(rows::close)
+                                            .eventually(ps::close);
+                                })
+                                .eventually(tx::rollback))
+                        .eventually(() -> dialect.afterTx(conn))
+                        .eventually(conn::close));
+    }
+}
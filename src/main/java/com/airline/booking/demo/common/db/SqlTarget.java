@@ -0,0 +1,13 @@
+package com.airline.booking.demo.common.db;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.SqlClient;
+import java.util.function.Function;
+
+// Where a timed query runs: a held connection, or a pooled one borrowed for the single call
+interface SqlTarget {
+
+    SqlClient client();
+
+    <R> Future<R> run(Function<SqlClient, Future<R>> action);
+}
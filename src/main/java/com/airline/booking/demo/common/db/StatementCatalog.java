@@ -0,0 +1,14 @@
+package com.airline.booking.demo.common.db;
+
+import java.util.List;
+
+// The exact SQL text a repository sends to each pool, dialect wrappers included, for StatementWarmer.
+// Plain query() calls and streams never reach the prepared-statement cache and are left out
+public interface StatementCatalog {
+
+    // Transactions and reads that must see the latest commit
+    List<String> writeStatements();
+
+    // One-shot reads, possibly against a replica
+    List<String> readStatements();
+}
@@ -0,0 +1,87 @@
+package com.airline.booking.demo.common.db;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Runs every statement once on each pooled connection, so it is parsed and sits in that connection's
+// prepared-statement cache before the first request. The client only caches a statement it executed,
+// so each one runs with all-null parameters in its own transaction that is always rolled back.
+public final class StatementWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementWarmer.class);
+
+    private StatementWarmer() {
+        // Empty Constructor
+    }
+
+    // All connections are held at once, otherwise the pool would hand back the same one every time.
+    // Returns the number of statements run; one that fails still counts, its prepare already happened
+    public static Future<Integer> warm(final Pool pool, final int connections, final List<String> statements,
+            final SqlDialect dialect) {
+        final List<Future<SqlConnection>> borrowed = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            borrowed.add(pool.getConnection());
+        }
+        return Future.join(borrowed).transform(ar -> {
+            final List<SqlConnection> held = new ArrayList<>(connections);
+            for (Future<SqlConnection> conn : borrowed) {
+                if (conn.succeeded()) {
+                    held.add(conn.result());
+                }
+            }
+            if (held.isEmpty()) {
+                return Future.failedFuture(ar.cause());
+            }
+            final List<Future<Integer>> runs = new ArrayList<>(held.size());
+            for (SqlConnection conn : held) {
+                runs.add(runAll(conn, statements, dialect));
+            }
+            return Future.join(runs)
+                    .eventually(() -> Future.join(held.stream().map(SqlConnection::close).toList()))
+                    .map(v -> runs.stream().mapToInt(Future::result).sum());
+        });
+    }
+
+    static int parameterCount(final String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Future<Integer> runAll(final SqlConnection conn, final List<String> statements,
+            final SqlDialect dialect) {
+        Future<Integer> chain = Future.succeededFuture(0);
+        for (String sql : statements) {
+            chain = chain.compose(n -> runOnce(conn, sql).map(n + 1));
+        }
+        return chain.eventually(() -> dialect.afterTx(conn));
+    }
+
+    // Straight to the driver, so warm-up never shows up in the query metrics
+    private static Future<Void> runOnce(final SqlConnection conn, final String sql) {
+        final SqlClient client = conn instanceof SqlTarget target ? target.client() : conn;
+        final Tuple params = Tuple.tuple();
+        for (int i = parameterCount(sql); i > 0; i--) {
+            params.addValue(null);
+        }
+        return conn.begin().compose(tx -> client.preparedQuery(sql).execute(params)
+                .transform(ar -> {
+                    if (ar.failed()) {
+                        // Expected for inserts into NOT NULL columns
+                        log.debug("Warm-up run failed after prepare: {}", ar.cause().getMessage());
+                    }
+                    return tx.rollback();
+                }));
+    }
+}
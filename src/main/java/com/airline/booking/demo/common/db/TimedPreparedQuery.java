@@ -0,0 +1,59 @@
+package com.airline.booking.demo.common.db;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.PrepareOptions;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.SqlResult;
+import io.vertx.sqlclient.Tuple;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+// Times execute/executeBatch; mapping and collecting fall through to the raw client untimed
+final class TimedPreparedQuery implements PreparedQuery<RowSet<Row>> {
+
+    private final SqlInstrumentation instrumentation;
+    private final SqlTarget target;
+    private final String sql;
+    private final PrepareOptions options;
+
+    TimedPreparedQuery(final SqlInstrumentation instrumentation, final SqlTarget target, final String sql,
+            final PrepareOptions options) {
+        this.instrumentation = instrumentation;
+        this.target = target;
+        this.sql = sql;
+        this.options = options;
+    }
+
+    @Override
+    public Future<RowSet<Row>> execute() {
+        return instrumentation.time(sql, () -> target.run(client -> prepared(client).execute()));
+    }
+
+    @Override
+    public Future<RowSet<Row>> execute(final Tuple tuple) {
+        return instrumentation.time(sql, () -> target.run(client -> prepared(client).execute(tuple)));
+    }
+
+    @Override
+    public Future<RowSet<Row>> executeBatch(final List<Tuple> batch) {
+        return instrumentation.time(sql, () -> target.run(client -> prepared(client).executeBatch(batch)));
+    }
+
+    @Override
+    public <R> PreparedQuery<SqlResult<R>> collecting(final Collector<Row, ?, R> collector) {
+        return prepared(target.client()).collecting(collector);
+    }
+
+    @Override
+    public <U> PreparedQuery<RowSet<U>> mapping(final Function<Row, U> mapper) {
+        return prepared(target.client()).mapping(mapper);
+    }
+
+    private PreparedQuery<RowSet<Row>> prepared(final SqlClient client) {
+        return options == null ? client.preparedQuery(sql) : client.preparedQuery(sql, options);
+    }
+}
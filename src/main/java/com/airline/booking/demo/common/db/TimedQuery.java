@@ -0,0 +1,38 @@
+package com.airline.booking.demo.common.db;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlResult;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+// Times execute; mapping and collecting fall through to the raw client untimed
+final class TimedQuery implements Query<RowSet<Row>> {
+
+    private final SqlInstrumentation instrumentation;
+    private final SqlTarget target;
+    private final String sql;
+
+    TimedQuery(final SqlInstrumentation instrumentation, final SqlTarget target, final String sql) {
+        this.instrumentation = instrumentation;
+        this.target = target;
+        this.sql = sql;
+    }
+
+    @Override
+    public Future<RowSet<Row>> execute() {
+        return instrumentation.time(sql, () -> target.run(client -> client.query(sql).execute()));
+    }
+
+    @Override
+    public <R> Query<SqlResult<R>> collecting(final Collector<Row, ?, R> collector) {
+        return target.client().query(sql).collecting(collector);
+    }
+
+    @Override
+    public <U> Query<RowSet<U>> mapping(final Function<Row, U> mapper) {
+        return target.client().query(sql).mapping(mapper);
+    }
+}
@@ -0,0 +1,89 @@
+package com.airline.booking.demo.common.http;
+
+import com.google.common.net.MediaType;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.core.streams.ReadStream;
+import java.util.function.Function;
+
+public final class ChunkedJson {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    // Rows are coalesced into chunks of roughly this size instead of one write per row
+    static final int CHUNK_SIZE = 8 * 1024;
+
+    private ChunkedJson() {
+        // Empty Constructor
+    }
+
+    public static <T> Future<Void> writeArray(final HttpServerResponse response,
+            final ReadStream<T> items,
+            final Function<T, Object> toJson) {
+        return write(response, items, toJson, Framing.ARRAY);
+    }
+
+    public static <T> Future<Void> writeLines(final HttpServerResponse response,
+            final ReadStream<T> items,
+            final Function<T, Object> toJson) {
+        return write(response, items, toJson, Framing.LINES);
+    }
+
+    private static <T> Future<Void> write(final HttpServerResponse response,
+            final ReadStream<T> items,
+            final Function<T, Object> toJson,
+            final Framing framing) {
+        final Promise<Void> done = Promise.promise();
+        final Buffer[] pending = {Buffer.buffer(CHUNK_SIZE).appendString(framing.open)};
+        final boolean[] first = {true};
+
+        response.setChunked(true);
+        response.putHeader("content-type", framing.contentType);
+        response.closeHandler(v -> done.tryFail(new IllegalStateException("Client closed the connection")));
+
+        items.exceptionHandler(done::tryFail);
+        items.endHandler(v -> response.end(pending[0].appendString(framing.close)).onComplete(done));
+        items.handler(item -> {
+            if (!first[0]) {
+                pending[0].appendString(framing.separator);
+            }
+            first[0] = false;
+            pending[0].appendBuffer(Json.encodeToBuffer(toJson.apply(item))).appendString(framing.terminator);
+
+            if (pending[0].length() >= CHUNK_SIZE) {
+                response.write(pending[0]);
+                pending[0] = Buffer.buffer(CHUNK_SIZE);
+                if (response.writeQueueFull()) {
+                    items.pause();
+                    response.drainHandler(d -> items.resume());
+                }
+            }
+        });
+
+        return done.future();
+    }
+
+    private enum Framing {
+
+        ARRAY(MediaType.JSON_UTF_8.toString(), "[", ",", "", "]"),
+        LINES(NDJSON, "", "", "\n", "");
+
+        private final String contentType;
+        private final String open;
+        private final String separator;
+        private final String terminator;
+        private final String close;
+
+        Framing(final String contentType, final String open, final String separator, final String terminator,
+                final String close) {
+            this.contentType = contentType;
+            this.open = open;
+            this.separator = separator;
+            this.terminator = terminator;
+            this.close = close;
+        }
+    }
+}
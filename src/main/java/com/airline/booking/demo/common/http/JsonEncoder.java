@@ -0,0 +1,10 @@
+package com.airline.booking.demo.common.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+
+@FunctionalInterface
+public interface JsonEncoder<T> {
+
+    void encode(JsonGenerator gen, T value) throws IOException;
+}
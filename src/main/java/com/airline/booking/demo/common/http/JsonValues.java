@@ -0,0 +1,105 @@
+package com.airline.booking.demo.common.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+// Nullable writes for JsonEncoder implementations, matching what Jackson would emit for the DTO records
+public final class JsonValues {
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn+HH:MM:SS
+    private static final int MAX_TIMESTAMP_CHARS = 38;
+
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[MAX_TIMESTAMP_CHARS]);
+
+    private JsonValues() {
+        // Empty Constructor
+    }
+
+    public static void writeLong(final JsonGenerator gen, final Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    public static void writeInt(final JsonGenerator gen, final Integer value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    public static void writeDecimal(final JsonGenerator gen, final BigDecimal value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    // Same text as OffsetDateTime.toString(), without building the intermediate String
+    public static void writeTimestamp(final JsonGenerator gen, final OffsetDateTime time) throws IOException {
+        if (time == null) {
+            gen.writeNull();
+            return;
+        }
+        final char[] chars = SCRATCH.get();
+        final int length = format(time, chars);
+        if (length < 0) {
+            gen.writeString(time.toString());
+        } else {
+            gen.writeString(chars, 0, length);
+        }
+    }
+
+    // Returns -1 for years toString() prints with a sign or more than four digits
+    static int format(final OffsetDateTime time, final char[] out) {
+        final int year = time.getYear();
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        int pos = digits(year, 4, out, 0);
+        out[pos++] = '-';
+        pos = digits(time.getMonthValue(), 2, out, pos);
+        out[pos++] = '-';
+        pos = digits(time.getDayOfMonth(), 2, out, pos);
+        out[pos++] = 'T';
+        pos = digits(time.getHour(), 2, out, pos);
+        out[pos++] = ':';
+        pos = digits(time.getMinute(), 2, out, pos);
+
+        final int second = time.getSecond();
+        final int nano = time.getNano();
+        if (second > 0 || nano > 0) {
+            out[pos++] = ':';
+            pos = digits(second, 2, out, pos);
+            if (nano > 0) {
+                out[pos++] = '.';
+                if (nano % 1_000_000 == 0) {
+                    pos = digits(nano / 1_000_000, 3, out, pos);
+                } else if (nano % 1_000 == 0) {
+                    pos = digits(nano / 1_000, 6, out, pos);
+                } else {
+                    pos = digits(nano, 9, out, pos);
+                }
+            }
+        }
+
+        // ZoneOffset caches its id, so this copies rather than formats
+        final String offset = time.getOffset().getId();
+        offset.getChars(0, offset.length(), out, pos);
+        return pos + offset.length();
+    }
+
+    private static int digits(int value, final int width, final char[] out, final int pos) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
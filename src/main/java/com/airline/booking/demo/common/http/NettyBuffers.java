@@ -0,0 +1,29 @@
+package com.airline.booking.demo.common.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.internal.buffer.BufferInternal;
+
+// The only place that reaches into Vert.x internals for buffers: Vert.x 5 has no public way to wrap a Netty ByteBuf
+// or to read a Buffer's bytes without copying them. NettyBuffersSpec pins what the callers rely on, so an upgrade
+// that changes it fails there.
+public final class NettyBuffers {
+
+    private NettyBuffers() {
+        // Empty Constructor
+    }
+
+    // The buffer's own memory, readable from its start; anything else Vert.x hands us is copied
+    public static ByteBuf unwrap(final Buffer buffer) {
+        if (buffer instanceof BufferInternal internal) {
+            return internal.getByteBuf();
+        }
+        return Unpooled.wrappedBuffer(buffer.getBytes());
+    }
+
+    // Shares the memory of body without taking ownership: the caller still releases it
+    public static Buffer wrap(final ByteBuf body) {
+        return BufferInternal.buffer(body);
+    }
+}
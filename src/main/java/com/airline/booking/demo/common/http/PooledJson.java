@@ -0,0 +1,92 @@
+package com.airline.booking.demo.common.http;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.net.MediaType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+// Streams a response body straight into a pooled Netty buffer, skipping DTO records and the reflective ObjectMapper
+public final class PooledJson {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final PooledByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
+
+    // Starting capacity per encoded element; the pooled buffer grows past it when needed
+    static final int BYTES_PER_ITEM = 256;
+
+    private PooledJson() {
+        // Empty Constructor
+    }
+
+    public static <T> void end(final RoutingContext ctx, final T value, final JsonEncoder<T> encoder) {
+        final ByteBuf body;
+        try {
+            body = encode(value, encoder);
+        } catch (IOException | RuntimeException e) {
+            ctx.fail(e);
+            return;
+        }
+        end(ctx.response(), body);
+    }
+
+    public static <T> void endArray(final RoutingContext ctx, final List<T> items, final JsonEncoder<T> encoder) {
+        final ByteBuf body;
+        try {
+            body = encodeArray(items, encoder);
+        } catch (IOException | RuntimeException e) {
+            ctx.fail(e);
+            return;
+        }
+        end(ctx.response(), body);
+    }
+
+    public static <T> ByteBuf encode(final T value, final JsonEncoder<T> encoder) throws IOException {
+        return encode(value, encoder, BYTES_PER_ITEM);
+    }
+
+    public static <T> ByteBuf encodeArray(final List<T> items, final JsonEncoder<T> encoder) throws IOException {
+        return encode(items, arrayOf(encoder), BYTES_PER_ITEM * (items.size() + 1));
+    }
+
+    public static <T> JsonEncoder<List<T>> arrayOf(final JsonEncoder<T> encoder) {
+        return (gen, items) -> {
+            gen.writeStartArray(items, items.size());
+            for (T item : items) {
+                encoder.encode(gen, item);
+            }
+            gen.writeEndArray();
+        };
+    }
+
+    private static <T> ByteBuf encode(final T value, final JsonEncoder<T> encoder, final int capacity)
+            throws IOException {
+        final ByteBuf buf = ALLOCATOR.directBuffer(capacity);
+        final OutputStream out = new ByteBufOutputStream(buf);
+        try (JsonGenerator gen = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            encoder.encode(gen, value);
+        } catch (IOException | RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+        return buf;
+    }
+
+    // NettyBuffers.wrap leaves the buffer ours, so it is released once the write settles
+    private static void end(final HttpServerResponse response, final ByteBuf body) {
+        try {
+            response.putHeader("content-type", MediaType.JSON_UTF_8.toString());
+            response.end(NettyBuffers.wrap(body)).onComplete(ar -> body.release());
+        } catch (RuntimeException e) {
+            body.release();
+            throw e;
+        }
+    }
+}
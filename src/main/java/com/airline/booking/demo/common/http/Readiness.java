@@ -0,0 +1,34 @@
+package com.airline.booking.demo.common.http;
+
+import com.google.inject.Singleton;
+import java.util.UUID;
+
+// Set once startup warm-up is done; until then /ready answers 503 so no traffic reaches a cold instance
+@Singleton
+public class Readiness {
+
+    private volatile boolean ready;
+    private volatile long warmupNanos;
+    private final String warmUpToken = UUID.randomUUID().toString();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long warmupNanos() {
+        return warmupNanos;
+    }
+
+    public String warmUpToken() {
+        return warmUpToken;
+    }
+
+    public boolean isWarmUpToken(final String token) {
+        return !ready && warmUpToken.equals(token);
+    }
+
+    public void markReady(final long warmupNanos) {
+        this.warmupNanos = warmupNanos;
+        this.ready = true;
+    }
+}
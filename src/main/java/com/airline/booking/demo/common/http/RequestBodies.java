@@ -0,0 +1,23 @@
+package com.airline.booking.demo.common.http;
+
+import io.vertx.ext.web.handler.BodyHandler;
+
+// The router's only body reader: routes that take a body install it with their own cap, nothing else buffers
+public final class RequestBodies {
+
+    public static final long ENTITY_MAX_BYTES = 16 * 1024;
+
+    // BookingBatchRequest allows up to 500 items
+    public static final long BATCH_MAX_BYTES = 256 * 1024;
+
+    private RequestBodies() {
+        // Empty Constructor
+    }
+
+    public static BodyHandler capped(final long maxBytes) {
+        // Sized from Content-Length up front, so the body is accumulated without resizing copies
+        return BodyHandler.create(false)
+                .setBodyLimit(maxBytes)
+                .setPreallocateBodyBuffer(true);
+    }
+}
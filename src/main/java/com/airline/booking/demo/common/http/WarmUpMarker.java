@@ -0,0 +1,31 @@
+package com.airline.booking.demo.common.http;
+
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+
+// Flags the synthetic requests StartupWarmUp sends, so HTTP metrics, the access log and admission control leave
+// them out and a deploy does not show up as a burst of 4xx. The header must carry this process's warm-up token
+// and is ignored once the instance is ready, so clients cannot use it to skip admission control
+public class WarmUpMarker implements Handler<RoutingContext> {
+
+    public static final String HEADER = "X-Warm-Up";
+    private static final String WARM_UP = "warmUp";
+
+    private final Readiness readiness;
+
+    public WarmUpMarker(final Readiness readiness) {
+        this.readiness = readiness;
+    }
+
+    public static boolean isWarmUp(final RoutingContext ctx) {
+        return Boolean.TRUE.equals(ctx.get(WARM_UP));
+    }
+
+    @Override
+    public void handle(final RoutingContext ctx) {
+        if (readiness.isWarmUpToken(ctx.request().getHeader(HEADER))) {
+            ctx.put(WARM_UP, Boolean.TRUE);
+        }
+        ctx.next();
+    }
+}
@@ -0,0 +1,87 @@
+package com.airline.booking.demo.common.logging;
+
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// One JSON line per request on the "access" logger, which logback.xml routes through its own async appender
+public class AccessLog {
+
+    public static final String LOGGER = "access";
+
+    private static final long DEFAULT_SLOW_MS = 1000;
+    private static final int LINE_CAPACITY = 256;
+
+    private static final Logger log = LoggerFactory.getLogger(LOGGER);
+    private static final ThreadLocal<StringBuilder> LINE = ThreadLocal.withInitial(() -> new StringBuilder(LINE_CAPACITY));
+
+    private final int sampleEvery;
+    private final long slowNanos;
+    private final AtomicLong successes = new AtomicLong();
+
+    public AccessLog(final int sampleEvery, final long slowMs) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMs);
+    }
+
+    public static AccessLog create(final JsonObject config) {
+        final JsonObject access = config.getJsonObject("accessLog", new JsonObject());
+        return new AccessLog(access.getInteger("sampleEvery", 1), access.getLong("slowMs", DEFAULT_SLOW_MS));
+    }
+
+    public void record(final String correlationId, final String method, final String path, final String ip,
+            final int status, final long bytes, final long nanos) {
+        if (!log.isInfoEnabled() || !sampled(status, nanos)) {
+            return;
+        }
+        final StringBuilder line = LINE.get();
+        line.setLength(0);
+        log.info(format(line, System.currentTimeMillis(), correlationId, method, path, ip, status, bytes, nanos));
+    }
+
+    // Errors and slow requests are always written; fast successes only one in sampleEvery
+    boolean sampled(final int status, final long nanos) {
+        if (status >= 400 || nanos >= slowNanos || sampleEvery == 1) {
+            return true;
+        }
+        return successes.getAndIncrement() % sampleEvery == 0;
+    }
+
+    static String format(final StringBuilder line, final long epochMs, final String correlationId,
+            final String method, final String path, final String ip, final int status, final long bytes,
+            final long nanos) {
+        line.append("{\"ts\":").append(epochMs)
+                .append(",\"id\":");
+        string(line, correlationId);
+        line.append(",\"method\":\"").append(method)
+                .append("\",\"path\":");
+        string(line, path);
+        line.append(",\"status\":").append(status)
+                .append(",\"us\":").append(TimeUnit.NANOSECONDS.toMicros(nanos))
+                .append(",\"bytes\":").append(bytes)
+                .append(",\"ip\":");
+        string(line, ip);
+        return line.append('}').toString();
+    }
+
+    private static void string(final StringBuilder line, final String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < ' ') {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
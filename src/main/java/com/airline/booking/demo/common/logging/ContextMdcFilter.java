@@ -0,0 +1,43 @@
+package com.airline.booking.demo.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import java.util.Objects;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+// Runs on the logging thread before each event is built, so the MDC the event captures is the one of the
+// request whose callback is running, not whichever request last touched this event loop
+public class ContextMdcFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(final Marker marker, final Logger logger, final Level level, final String format,
+            final Object[] params, final Throwable t) {
+        // Level check by hand: logger.isEnabledFor would run the turbo filters again
+        if (level != null && level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            sync();
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    static void sync() {
+        final Context ctx = Vertx.currentContext();
+        if (ctx == null) {
+            // Threads outside Vert.x keep whatever MDC they set themselves
+            return;
+        }
+        final String correlationId = ctx.getLocal(RequestContext.CORRELATION_ID);
+        if (Objects.equals(correlationId, MDC.get(RequestContext.MDC_CORRELATION_ID))) {
+            return;
+        }
+        if (correlationId == null) {
+            MDC.remove(RequestContext.MDC_CORRELATION_ID);
+        } else {
+            MDC.put(RequestContext.MDC_CORRELATION_ID, correlationId);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.airline.booking.demo.common.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class CorrelationIds {
+
+    public static final int MAX_LENGTH = 64;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int LENGTH = 16;
+
+    private CorrelationIds() {
+        // Empty Constructor
+    }
+
+    // 64 random bits are plenty to tell requests apart and, unlike UUID.randomUUID, never touch SecureRandom
+    public static String next() {
+        final char[] id = new char[LENGTH];
+        long bits = ThreadLocalRandom.current().nextLong();
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            id[i] = HEX[(int) (bits & 0xF)];
+            bits >>>= 4;
+        }
+        return new String(id);
+    }
+
+    // Client supplied ids end up in every log line, so anything unusual is replaced
+    public static String accept(final String header) {
+        if (header == null || header.isEmpty() || header.length() > MAX_LENGTH) {
+            return next();
+        }
+        for (int i = 0; i < header.length(); i++) {
+            final char c = header.charAt(i);
+            if (c <= ' ' || c == '"' || c == '\\' || c > '~') {
+                return next();
+            }
+        }
+        return header;
+    }
+}
@@ -1,12 +1,13 @@
 package com.airline.booking.demo.common.logging;
 
+import com.airline.booking.demo.common.http.WarmUpMarker;
 import io.vertx.core.Handler;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.RoutingContext;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 
 public class HttpLoggerHandler implements Handler<RoutingContext> {
 
@@ -15,58 +16,46 @@ public class HttpLoggerHandler implements Handler<RoutingContext> {
     private static final String HDR_CORRELATION_ID = "X-Correlation-Id";
     private static final String HDR_FORWARDED = "X-Forwarded-For";
 
-    private static final String MDC_CORRELATION_ID = "correlationId";
-    private static final String MDC_METHOD = "method";
-    private static final String MDC_PATH = "path";
-    private static final String MDC_IP = "ip";
+    private final AccessLog accessLog;
+
+    public HttpLoggerHandler(final AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
 
     @Override
     public void handle(final RoutingContext ctx) {
 
-        final long startTime = System.currentTimeMillis();
+        final long startTime = System.nanoTime();
         final HttpServerRequest req = ctx.request();
+        final HttpServerResponse response = ctx.response();
 
-        String correlationId = req.getHeader(HDR_CORRELATION_ID);
-        if (correlationId == null || correlationId.isBlank()) {
-            correlationId = UUID.randomUUID().toString();
-        }
-
-        String ip = req.getHeader(HDR_FORWARDED);
-        if (ip == null || ip.isBlank()) {
-            ip = req.remoteAddress() != null ? req.remoteAddress().host() : "unknown";
-        }
-
-        final String method = req.method().name();
-        final String path = req.path();
-
-        MDC.put(MDC_CORRELATION_ID, correlationId);
-        MDC.put(MDC_METHOD, method);
-        MDC.put(MDC_PATH, path);
-        MDC.put(MDC_IP, ip);
-
-        ctx.response().putHeader(HDR_CORRELATION_ID, correlationId);
-
-        log.info("HTTP_START");
+        final String correlationId = CorrelationIds.accept(req.getHeader(HDR_CORRELATION_ID));
 
-        ctx.response().endHandler(v -> {
-            final int status = ctx.response().getStatusCode();
-            final long elapsed = System.currentTimeMillis() - startTime;
+        // Requests run on their own duplicated context, so the id follows this request's callbacks only
+        RequestContext.setCorrelationId(correlationId);
+        response.putHeader(HDR_CORRELATION_ID, correlationId);
 
-            log.info("HTTP_END status={} durationMs={}", status, elapsed);
-
-            MDC.clear();
-        });
+        // response.endHandler is replaced as soon as anything calls addEndHandler, so share the context's list
+        if (!WarmUpMarker.isWarmUp(ctx)) {
+            ctx.addEndHandler(ar -> accessLog.record(correlationId, req.method().name(), req.path(), clientIp(req),
+                    response.getStatusCode(), response.bytesWritten(), System.nanoTime() - startTime));
+        }
 
-        ctx.response().exceptionHandler(err -> {
-            final long elapsed = System.currentTimeMillis() - startTime;
+        response.exceptionHandler(err -> {
+            final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
 
             log.error("HTTP_ERROR status={} durationMs={} message=\"{}\"",
-                    ctx.response().getStatusCode(), elapsed, err.getMessage(), err);
-
-            MDC.clear();
+                    response.getStatusCode(), elapsed, err.getMessage(), err);
         });
 
         ctx.next();
     }
-}
 
+    private static String clientIp(final HttpServerRequest req) {
+        final String forwarded = req.getHeader(HDR_FORWARDED);
+        if (forwarded != null && !forwarded.isBlank()) {
+            return forwarded;
+        }
+        return req.remoteAddress() != null ? req.remoteAddress().host() : "unknown";
+    }
+}
@@ -0,0 +1,31 @@
+package com.airline.booking.demo.common.logging;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.spi.context.storage.ContextLocal;
+
+// Per-request values live on the request's duplicated context, which Vert.x makes current again for every
+// callback of that request: future listeners, timers, pool results and executeBlocking
+public final class RequestContext {
+
+    public static final String MDC_CORRELATION_ID = "correlationId";
+
+    // Vertx sizes each context's local storage when it is created; RequestContextProvider registers this first
+    static final ContextLocal<String> CORRELATION_ID = ContextLocal.registerLocal(String.class);
+
+    private RequestContext() {
+        // Empty Constructor
+    }
+
+    public static void setCorrelationId(final String correlationId) {
+        final Context ctx = Vertx.currentContext();
+        if (ctx != null) {
+            ctx.putLocal(CORRELATION_ID, correlationId);
+        }
+    }
+
+    public static String correlationId() {
+        final Context ctx = Vertx.currentContext();
+        return ctx == null ? null : ctx.getLocal(CORRELATION_ID);
+    }
+}
@@ -0,0 +1,15 @@
+package com.airline.booking.demo.common.logging;
+
+import io.vertx.core.internal.VertxBootstrap;
+import io.vertx.core.spi.VertxServiceProvider;
+
+// Loaded through META-INF/services while every Vertx instance is bootstrapped, before its contexts exist
+public class RequestContextProvider implements VertxServiceProvider {
+
+    @Override
+    public void init(final VertxBootstrap bootstrap) {
+        if (RequestContext.CORRELATION_ID == null) {
+            throw new IllegalStateException("Request context locals are not registered");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.airline.booking.demo.common.metrics;
+
+import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Singleton
+public class DbMetrics {
+
+    private final Map<String, PoolMetrics> pools = new ConcurrentHashMap<>();
+
+    private final Map<String, QueryMetrics> queries = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram txLatency = new LatencyHistogram();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder rollbacks = new LongAdder();
+
+    public PoolMetrics pool(final String name) {
+        return pools.computeIfAbsent(name, PoolMetrics::new);
+    }
+
+    public void query(final String name, final long nanos, final boolean ok, final boolean slow) {
+        QueryMetrics metrics = queries.get(name);
+        if (metrics == null) {
+            metrics = queries.computeIfAbsent(name, QueryMetrics::new);
+        }
+        metrics.latency.record(nanos);
+        if (!ok) {
+            metrics.errors.increment();
+        }
+        if (slow) {
+            metrics.slow.increment();
+        }
+    }
+
+    public void committed(final long nanos) {
+        commits.increment();
+        txLatency.record(nanos);
+    }
+
+    public void rolledBack(final long nanos) {
+        rollbacks.increment();
+        txLatency.record(nanos);
+    }
+
+    public List<PoolMetrics> pools() {
+        final List<PoolMetrics> all = new ArrayList<>(pools.values());
+        all.sort((a, b) -> a.name().compareTo(b.name()));
+        return all;
+    }
+
+    public LatencyHistogram txLatency() {
+        return txLatency;
+    }
+
+    public long commits() {
+        return commits.sum();
+    }
+
+    public long rollbacks() {
+        return rollbacks.sum();
+    }
+
+    public List<QueryMetrics> queries() {
+        final List<QueryMetrics> all = new ArrayList<>(queries.values());
+        all.sort((a, b) -> a.name.compareTo(b.name));
+        return all;
+    }
+
+    public static final class QueryMetrics {
+
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+
+        QueryMetrics(final String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        public long slow() {
+            return slow.sum();
+        }
+    }
+}
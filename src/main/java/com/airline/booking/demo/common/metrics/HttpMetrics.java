@@ -0,0 +1,39 @@
+package com.airline.booking.demo.common.metrics;
+
+import com.google.inject.Singleton;
+import io.vertx.core.http.HttpMethod;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Singleton
+public class HttpMetrics {
+
+    public static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final Map<String, Map<HttpMethod, RouteMetrics>> routes = new ConcurrentHashMap<>();
+
+    public void record(final HttpMethod method, final String route, final int status, final long nanos) {
+        metrics(method, route == null ? UNMATCHED_ROUTE : route).record(status, nanos);
+    }
+
+    public RouteMetrics metrics(final HttpMethod method, final String route) {
+        Map<HttpMethod, RouteMetrics> byMethod = routes.get(route);
+        if (byMethod == null) {
+            byMethod = routes.computeIfAbsent(route, r -> new ConcurrentHashMap<>());
+        }
+        final RouteMetrics metrics = byMethod.get(method);
+        return metrics != null
+                ? metrics
+                : byMethod.computeIfAbsent(method, m -> new RouteMetrics(m.name(), route));
+    }
+
+    public List<RouteMetrics> all() {
+        final List<RouteMetrics> all = new ArrayList<>();
+        routes.values().forEach(byMethod -> all.addAll(byMethod.values()));
+        all.sort(Comparator.comparing(RouteMetrics::route).thenComparing(RouteMetrics::method));
+        return all;
+    }
+}
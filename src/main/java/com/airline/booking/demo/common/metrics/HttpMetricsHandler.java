@@ -0,0 +1,49 @@
+package com.airline.booking.demo.common.metrics;
+
+import com.airline.booking.demo.common.http.WarmUpMarker;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.RoutingContext;
+import java.util.List;
+
+public class HttpMetricsHandler implements Handler<RoutingContext> {
+
+    private final HttpMetrics metrics;
+    private volatile RouteTemplates templates = RouteTemplates.EMPTY;
+
+    public HttpMetricsHandler(final HttpMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void bindRoutes(final List<Route> routes) {
+        this.templates = RouteTemplates.of(routes);
+    }
+
+    @Override
+    public void handle(final RoutingContext ctx) {
+        if (WarmUpMarker.isWarmUp(ctx)) {
+            ctx.next();
+            return;
+        }
+        final long start = System.nanoTime();
+
+        ctx.addEndHandler(ar -> metrics.record(
+                ctx.request().method(),
+                routeOf(ctx),
+                ctx.response().getStatusCode(),
+                System.nanoTime() - start));
+
+        ctx.next();
+    }
+
+    // Failure handlers and 404s run on catch-all routes, so fall back to matching the path ourselves
+    String routeOf(final RoutingContext ctx) {
+        final Route current = ctx.currentRoute();
+        if (current != null && current.getPath() != null && current.isExactPath()) {
+            return current.getPath();
+        }
+        final HttpServerRequest req = ctx.request();
+        return templates.resolve(req.method(), req.path());
+    }
+}
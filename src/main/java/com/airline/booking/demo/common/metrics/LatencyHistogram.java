@@ -0,0 +1,89 @@
+package com.airline.booking.demo.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear buckets: four sub-buckets per power of two, ~8us to ~68s, everything above lands in overflow
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 2;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int MIN_EXPONENT = 13;
+    static final int MAX_EXPONENT = 36;
+    static final int BUCKETS = 1 + (MAX_EXPONENT - MIN_EXPONENT) * SUB_BUCKETS + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sumNanos.add(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sumNanos() {
+        return sumNanos.sum();
+    }
+
+    public long[] snapshot() {
+        final long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    static int indexOf(final long nanos) {
+        if (nanos < (1L << MIN_EXPONENT)) {
+            return 0;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        final int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return 1 + (exponent - MIN_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    // Exclusive upper bound in nanoseconds, Long.MAX_VALUE for the overflow bucket
+    static long upperBoundNanos(final int index) {
+        if (index == 0) {
+            return 1L << MIN_EXPONENT;
+        }
+        if (index == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        final int exponent = MIN_EXPONENT + (index - 1) / SUB_BUCKETS;
+        final int sub = (index - 1) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static boolean isOctaveBoundary(final int index) {
+        return index == 0 || (index < BUCKETS - 1 && (index - 1) % SUB_BUCKETS == SUB_BUCKETS - 1);
+    }
+
+    public static long valueAtQuantile(final long[] snapshot, final double quantile) {
+        long total = 0;
+        for (long c : snapshot) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return i == BUCKETS - 1 ? 1L << MAX_EXPONENT : upperBoundNanos(i);
+            }
+        }
+        return 1L << MAX_EXPONENT;
+    }
+}
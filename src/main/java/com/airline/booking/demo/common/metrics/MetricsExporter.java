@@ -0,0 +1,181 @@
+package com.airline.booking.demo.common.metrics;
+
+import static com.airline.booking.demo.common.metrics.PrometheusWriter.labels;
+
+import com.airline.booking.demo.common.admission.AdmissionControl;
+import com.airline.booking.demo.common.admission.AdmissionLane;
+import com.airline.booking.demo.common.cache.CacheRegistry;
+import com.airline.booking.demo.common.cache.CacheStats;
+import com.airline.booking.demo.common.http.Readiness;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+@Singleton
+public class MetricsExporter {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final String REQUESTS = "http_server_requests_total";
+    private static final String DURATION = "http_server_request_duration_seconds";
+    private static final String DURATION_QUANTILE = "http_server_request_duration_quantile_seconds";
+    private static final String DB_ACQUIRE = "db_pool_acquire_duration_seconds";
+    private static final String DB_QUERY = "db_query_duration_seconds";
+    private static final String DB_TX = "db_tx_duration_seconds";
+
+    private final HttpMetrics http;
+    private final DbMetrics db;
+    private final CacheRegistry caches;
+    private final Readiness readiness;
+    private final AdmissionControl admission;
+
+    @Inject
+    public MetricsExporter(final HttpMetrics http, final DbMetrics db, final CacheRegistry caches,
+            final Readiness readiness, final AdmissionControl admission) {
+        this.http = http;
+        this.db = db;
+        this.caches = caches;
+        this.readiness = readiness;
+        this.admission = admission;
+    }
+
+    public String scrape() {
+        final PrometheusWriter out = new PrometheusWriter();
+        writeHttp(out, http.all());
+        writeDb(out);
+        writeCaches(out, caches.all());
+        writeReadiness(out);
+        writeAdmission(out, admission.lanes());
+        return out.toString();
+    }
+
+    private void writeHttp(final PrometheusWriter out, final List<RouteMetrics> routes) {
+        out.header(REQUESTS, "counter", "Completed HTTP requests by route template and status class.");
+        for (RouteMetrics route : routes) {
+            for (int cls = 0; cls < RouteMetrics.STATUS_CLASSES.length; cls++) {
+                final long count = route.count(cls);
+                if (count > 0) {
+                    out.sample(REQUESTS, labels("method", route.method(), "route", route.route(),
+                            "status", RouteMetrics.STATUS_CLASSES[cls]), count);
+                }
+            }
+        }
+
+        out.header(DURATION, "histogram", "HTTP request latency by route template.");
+        for (RouteMetrics route : routes) {
+            histogram(out, DURATION, labels("method", route.method(), "route", route.route()), route.latency());
+        }
+
+        out.header(DURATION_QUANTILE, "gauge", "HTTP request latency quantiles since start, bucket upper bound.");
+        for (RouteMetrics route : routes) {
+            final long[] buckets = route.latency().snapshot();
+            for (double q : QUANTILES) {
+                out.sample(DURATION_QUANTILE,
+                        labels("method", route.method(), "route", route.route(), "quantile", PrometheusWriter.format(q)),
+                        LatencyHistogram.valueAtQuantile(buckets, q) / NANOS_PER_SECOND);
+            }
+        }
+    }
+
+    private void writeDb(final PrometheusWriter out) {
+        final List<PoolMetrics> pools = db.pools();
+        out.header(DB_ACQUIRE, "histogram", "Time to borrow a connection from the pool.");
+        pools.forEach(p -> histogram(out, DB_ACQUIRE, labels("pool", p.name()), p.acquireLatency()));
+        out.header("db_pool_acquire_failures_total", "counter", "Failed connection acquisitions.");
+        pools.forEach(p -> out.sample("db_pool_acquire_failures_total", labels("pool", p.name()), p.acquireFailures()));
+
+        out.header("db_pool_connections", "gauge", "Pool connections by state.");
+        for (PoolMetrics pool : pools) {
+            out.sample("db_pool_connections", labels("pool", pool.name(), "state", "in_use"), pool.inUse())
+                    .sample("db_pool_connections", labels("pool", pool.name(), "state", "idle"), pool.idle());
+        }
+        out.header("db_pool_waiting", "gauge", "Callers waiting for a connection.");
+        pools.forEach(p -> out.sample("db_pool_waiting", labels("pool", p.name()), p.waiting()));
+        out.header("db_pool_max_size", "gauge", "Configured maximum pool size.");
+        pools.forEach(p -> out.sample("db_pool_max_size", labels("pool", p.name()), p.maxSize()));
+        out.header("db_pool_saturation_ratio", "gauge", "Borrowed connections as a share of the maximum pool size.");
+        pools.forEach(p -> out.sample("db_pool_saturation_ratio", labels("pool", p.name()), p.saturation()));
+
+        final List<DbMetrics.QueryMetrics> queries = db.queries();
+        out.header(DB_QUERY, "histogram", "Query latency by repository SQL constant.");
+        for (DbMetrics.QueryMetrics query : queries) {
+            histogram(out, DB_QUERY, labels("query", query.name()), query.latency());
+        }
+        out.header("db_query_errors_total", "counter", "Failed queries by repository SQL constant.");
+        queries.forEach(q -> out.sample("db_query_errors_total", labels("query", q.name()), q.errors()));
+        out.header("db_query_slow_total", "counter", "Queries slower than database.slowQueryMs.");
+        queries.forEach(q -> out.sample("db_query_slow_total", labels("query", q.name()), q.slow()));
+
+        out.header("db_tx_total", "counter", "Finished transactions by outcome.")
+                .sample("db_tx_total", labels("outcome", "commit"), db.commits())
+                .sample("db_tx_total", labels("outcome", "rollback"), db.rollbacks());
+        out.header(DB_TX, "histogram", "Transaction duration from begin to commit or rollback.");
+        histogram(out, DB_TX, "", db.txLatency());
+    }
+
+    private void histogram(final PrometheusWriter out, final String name, final String labels,
+            final LatencyHistogram histogram) {
+        final String prefix = labels.isEmpty() ? "" : labels + ",";
+        final long[] buckets = histogram.snapshot();
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i];
+            if (LatencyHistogram.isOctaveBoundary(i)) {
+                final double le = LatencyHistogram.upperBoundNanos(i) / NANOS_PER_SECOND;
+                out.sample(name + "_bucket", prefix + "le=\"" + PrometheusWriter.format(le) + "\"", cumulative);
+            }
+        }
+        out.sample(name + "_bucket", prefix + "le=\"+Inf\"", cumulative);
+        out.sample(name + "_sum", labels, histogram.sumNanos() / NANOS_PER_SECOND);
+        out.sample(name + "_count", labels, cumulative);
+    }
+
+    private void writeCaches(final PrometheusWriter out, final Map<String, CacheStats> all) {
+        counter(out, "cache_hits_total", "Cache hits.", all, CacheStats::hits);
+        counter(out, "cache_misses_total", "Cache misses.", all, CacheStats::misses);
+        counter(out, "cache_evictions_total", "Cache evictions.", all, CacheStats::evictions);
+        counter(out, "cache_invalidations_total", "Cache invalidations.", all, CacheStats::invalidations);
+        counter(out, "cache_expirations_total", "Cache entries dropped for age.", all, CacheStats::expirations);
+    }
+
+    private void writeReadiness(final PrometheusWriter out) {
+        out.header("app_ready", "gauge", "1 once startup warm-up has finished and /ready answers 200.")
+                .sample("app_ready", "", readiness.isReady() ? 1 : 0);
+        out.header("app_warmup_duration_seconds", "gauge", "Time spent warming statements and routes at startup.")
+                .sample("app_warmup_duration_seconds", "", readiness.warmupNanos() / NANOS_PER_SECOND);
+    }
+
+    private void writeAdmission(final PrometheusWriter out, final List<AdmissionLane> lanes) {
+        out.header("admission_limit", "gauge", "Current concurrency limit per lane.");
+        lanes.forEach(l -> out.sample("admission_limit", labels("lane", l.lane()), l.limit()));
+        out.header("admission_in_flight", "gauge", "Admitted requests not yet answered per lane.");
+        lanes.forEach(l -> out.sample("admission_in_flight", labels("lane", l.lane()), l.inFlight()));
+        out.header("admission_queued", "gauge", "Requests waiting for a slot per lane.");
+        lanes.forEach(l -> out.sample("admission_queued", labels("lane", l.lane()), l.queued()));
+        out.header("admission_baseline_latency_seconds", "gauge", "Latency the lane's limit is measured against.");
+        lanes.forEach(l -> out.sample("admission_baseline_latency_seconds", labels("lane", l.lane()),
+                l.baselineNanos() / NANOS_PER_SECOND));
+        out.header("admission_admitted_total", "counter", "Requests admitted per lane, directly or from the queue.");
+        lanes.forEach(l -> out.sample("admission_admitted_total", labels("lane", l.lane()), l.admitted()));
+        out.header("admission_rejected_total", "counter", "Requests answered 503 per lane and reason.");
+        for (AdmissionLane lane : lanes) {
+            out.sample("admission_rejected_total", labels("lane", lane.lane(), "reason", "queue_full"),
+                            lane.rejectedQueueFull())
+                    .sample("admission_rejected_total", labels("lane", lane.lane(), "reason", "timeout"),
+                            lane.rejectedTimeout())
+                    .sample("admission_rejected_total", labels("lane", lane.lane(), "reason", "loop_lag"),
+                            lane.rejectedLoopLag());
+        }
+        out.header("admission_event_loop_lag_seconds", "gauge", "Highest recent event-loop lag across HTTP verticles.")
+                .sample("admission_event_loop_lag_seconds", "", admission.loopLagNanos() / NANOS_PER_SECOND);
+    }
+
+    private void counter(final PrometheusWriter out, final String name, final String help,
+            final Map<String, CacheStats> all, final ToLongFunction<CacheStats> value) {
+        out.header(name, "counter", help);
+        all.forEach((cache, stats) -> out.sample(name, labels("cache", cache), value.applyAsLong(stats)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.airline.booking.demo.common.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+// Connection accounting for one pool; DbMetrics keeps one per pool name
+public final class PoolMetrics {
+
+    private final String name;
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final LongAdder acquireFailures = new LongAdder();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private volatile int maxSize;
+    private volatile IntSupplier poolSize = () -> 0;
+
+    PoolMetrics(final String name) {
+        this.name = name;
+    }
+
+    public void bind(final int maxSize, final IntSupplier poolSize) {
+        this.maxSize = maxSize;
+        this.poolSize = poolSize;
+    }
+
+    public void acquireStarted() {
+        waiting.incrementAndGet();
+    }
+
+    public void acquired(final long nanos) {
+        waiting.decrementAndGet();
+        inUse.incrementAndGet();
+        acquireLatency.record(nanos);
+    }
+
+    public void acquireFailed(final long nanos) {
+        waiting.decrementAndGet();
+        acquireFailures.increment();
+        acquireLatency.record(nanos);
+    }
+
+    public void released() {
+        inUse.decrementAndGet();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public LatencyHistogram acquireLatency() {
+        return acquireLatency;
+    }
+
+    public long acquireFailures() {
+        return acquireFailures.sum();
+    }
+
+    public int inUse() {
+        return inUse.get();
+    }
+
+    public int idle() {
+        return Math.max(0, poolSize.getAsInt() - inUse.get());
+    }
+
+    public int waiting() {
+        return waiting.get();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    // Share of the pool's ceiling that is borrowed; callers start queueing once it reaches 1
+    public double saturation() {
+        final int max = maxSize;
+        return max == 0 ? 0 : (double) inUse.get() / max;
+    }
+}
@@ -0,0 +1,68 @@
+package com.airline.booking.demo.common.metrics;
+
+public final class PrometheusWriter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder out = new StringBuilder(4096);
+
+    public PrometheusWriter header(final String name, final String type, final String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    public PrometheusWriter sample(final String name, final String labels, final long value) {
+        line(name, labels).append(value).append('\n');
+        return this;
+    }
+
+    public PrometheusWriter sample(final String name, final String labels, final double value) {
+        line(name, labels).append(format(value)).append('\n');
+        return this;
+    }
+
+    public static String labels(final String... pairs) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            sb.append(sb.isEmpty() ? "" : ",").append(pairs[i]).append("=\"");
+            escape(sb, pairs[i + 1]);
+            sb.append('"');
+        }
+        return sb.toString();
+    }
+
+    public static String format(final double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value)
+                : Double.toString(value);
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private StringBuilder line(final String name, final String labels) {
+        out.append(name);
+        if (labels != null && !labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        return out.append(' ');
+    }
+
+    private static void escape(final StringBuilder sb, final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '"' -> sb.append("\\\"");
+                case '\n' -> sb.append("\\n");
+                default -> sb.append(c);
+            }
+        }
+    }
+}
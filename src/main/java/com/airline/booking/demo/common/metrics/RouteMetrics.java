@@ -0,0 +1,47 @@
+package com.airline.booking.demo.common.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class RouteMetrics {
+
+    static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final String method;
+    private final String route;
+    private final LongAdder[] statusCounts = new LongAdder[STATUS_CLASSES.length];
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    RouteMetrics(final String method, final String route) {
+        this.method = method;
+        this.route = route;
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] = new LongAdder();
+        }
+    }
+
+    public void record(final int status, final long nanos) {
+        statusCounts[statusClass(status)].increment();
+        latency.record(nanos);
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String route() {
+        return route;
+    }
+
+    public long count(final int statusClass) {
+        return statusCounts[statusClass].sum();
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    static int statusClass(final int status) {
+        final int cls = status / 100 - 1;
+        return cls < 0 || cls >= STATUS_CLASSES.length ? STATUS_CLASSES.length - 1 : cls;
+    }
+}
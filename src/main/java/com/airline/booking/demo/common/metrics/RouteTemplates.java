@@ -0,0 +1,70 @@
+package com.airline.booking.demo.common.metrics;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Route;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Resolves a request path back to the template of the first route that can serve it
+final class RouteTemplates {
+
+    static final RouteTemplates EMPTY = new RouteTemplates(List.of());
+
+    private final List<Template> templates;
+
+    private RouteTemplates(final List<Template> templates) {
+        this.templates = templates;
+    }
+
+    static RouteTemplates of(final List<Route> routes) {
+        final List<Template> templates = new ArrayList<>();
+        for (Route route : routes) {
+            final String path = route.getPath();
+            if (path == null || !route.isExactPath()) {
+                continue;
+            }
+            templates.add(new Template(route.methods(), path, path.split("/", -1)));
+        }
+        return new RouteTemplates(List.copyOf(templates));
+    }
+
+    String resolve(final HttpMethod method, final String path) {
+        for (Template template : templates) {
+            if (template.matches(method, path)) {
+                return template.path;
+            }
+        }
+        return null;
+    }
+
+    private record Template(Set<HttpMethod> methods, String path, String[] segments) {
+
+        boolean matches(final HttpMethod method, final String requestPath) {
+            if (methods != null && !methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            int pos = 0;
+            for (int i = 0; i < segments.length; i++) {
+                if (i > 0) {
+                    if (pos >= requestPath.length() || requestPath.charAt(pos) != '/') {
+                        return false;
+                    }
+                    pos++;
+                }
+                int end = requestPath.indexOf('/', pos);
+                if (end < 0) {
+                    end = requestPath.length();
+                }
+                final String segment = segments[i];
+                final boolean param = segment.startsWith(":");
+                if (param ? end == pos : !requestPath.regionMatches(pos, segment, 0, segment.length())
+                        || end - pos != segment.length()) {
+                    return false;
+                }
+                pos = end;
+            }
+            return pos == requestPath.length();
+        }
+    }
+}
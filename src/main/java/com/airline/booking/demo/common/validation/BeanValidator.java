@@ -0,0 +1,10 @@
+package com.airline.booking.demo.common.validation;
+
+import java.util.List;
+
+// Appends "<path><property> <message>" for each violation on bean
+@FunctionalInterface
+interface BeanValidator {
+
+    void validate(Object bean, String path, List<String> violations);
+}
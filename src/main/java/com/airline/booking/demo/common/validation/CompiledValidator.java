@@ -0,0 +1,36 @@
+package com.airline.booking.demo.common.validation;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+
+@Singleton
+public class CompiledValidator {
+
+    private final Validator hibernate;
+
+    private final ClassValue<BeanValidator> compiled = new ClassValue<>() {
+        @Override
+        protected BeanValidator computeValue(final Class<?> type) {
+            return ConstraintCompiler.compile(type, hibernate, compiled::get);
+        }
+    };
+
+    @Inject
+    public CompiledValidator(final ValidatorProvider provider) {
+        this.hibernate = provider.getValidator();
+    }
+
+    // Compiles ahead of the first request; routes call this for their body type at registration
+    public void precompile(final Class<?> type) {
+        compiled.get(type);
+    }
+
+    public List<String> validate(final Object bean) {
+        final List<String> violations = new ArrayList<>(0);
+        compiled.get(bean.getClass()).validate(bean, "", violations);
+        return violations.isEmpty() ? List.of() : violations;
+    }
+}
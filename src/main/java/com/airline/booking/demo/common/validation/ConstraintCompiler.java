@@ -0,0 +1,236 @@
+package com.airline.booking.demo.common.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedParameterizedType;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Turns the constraints of a record into plain checks once, so requests never go through the reflective engine.
+// A property with anything it does not understand (other constraints such as @Email, groups, message templates)
+// is validated by Hibernate Validator on its own; class-level constraints send the whole class there.
+final class ConstraintCompiler {
+
+    private ConstraintCompiler() {
+        // Empty Constructor
+    }
+
+    record Rule(Predicate<Object> valid, String message) {
+    }
+
+    static BeanValidator compile(final Class<?> type, final Validator hibernate,
+            final Function<Class<?>, BeanValidator> nested) {
+        if (!type.isRecord() || hasConstraint(type.getAnnotations())) {
+            return fallback(hibernate);
+        }
+
+        final List<BeanValidator> properties = new ArrayList<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            final Field field;
+            try {
+                field = type.getDeclaredField(component.getName());
+            } catch (NoSuchFieldException e) {
+                return fallback(hibernate);
+            }
+
+            final List<Rule> rules = new ArrayList<>();
+            boolean delegate = false;
+            for (Annotation annotation : field.getAnnotations()) {
+                if (annotation instanceof Valid) {
+                    continue;
+                }
+                final Rule rule = rule(annotation);
+                if (rule == null) {
+                    delegate |= hasConstraint(annotation);
+                    continue;
+                }
+                rules.add(rule);
+            }
+
+            final Class<?> elementType = cascadedElement(field);
+            if (elementType != null) {
+                nested.apply(elementType);
+            }
+            final boolean cascade = field.isAnnotationPresent(Valid.class) || elementType != null;
+            if (delegate) {
+                // validateProperty does not cascade, so a cascaded property keeps the whole class on Hibernate
+                if (cascade) {
+                    return fallback(hibernate);
+                }
+                properties.add(delegated(component.getName(), hibernate));
+                continue;
+            }
+            if (rules.isEmpty() && !cascade) {
+                continue;
+            }
+
+            properties.add(property(component.getName(), accessor(type, component), rules, cascade, nested));
+        }
+
+        return (bean, path, violations) -> {
+            for (BeanValidator property : properties) {
+                property.validate(bean, path, violations);
+            }
+        };
+    }
+
+    private static BeanValidator property(final String name, final Function<Object, Object> accessor,
+            final List<Rule> rules, final boolean cascade, final Function<Class<?>, BeanValidator> nested) {
+        final Rule[] checks = rules.toArray(Rule[]::new);
+        return (bean, path, violations) -> {
+            final Object value = accessor.apply(bean);
+            for (Rule rule : checks) {
+                if (!rule.valid().test(value)) {
+                    violations.add(path + name + " " + rule.message());
+                }
+            }
+            if (cascade && value != null) {
+                cascade(value, path + name, nested, violations);
+            }
+        };
+    }
+
+    // Every constraint of the property, compiled ones included, so each is reported once
+    private static BeanValidator delegated(final String name, final Validator hibernate) {
+        return (bean, path, violations) -> {
+            for (ConstraintViolation<Object> v : hibernate.validateProperty(bean, name)) {
+                violations.add(path + v.getPropertyPath() + " " + v.getMessage());
+            }
+        };
+    }
+
+    private static void cascade(final Object value, final String path, final Function<Class<?>, BeanValidator> nested,
+            final List<String> violations) {
+        if (value instanceof Iterable<?> items) {
+            int i = 0;
+            for (Object item : items) {
+                if (item != null) {
+                    nested.apply(item.getClass()).validate(item, path + "[" + i + "].", violations);
+                }
+                i++;
+            }
+            return;
+        }
+        nested.apply(value.getClass()).validate(value, path + ".", violations);
+    }
+
+    static Rule rule(final Annotation annotation) {
+        if (annotation instanceof NotNull a) {
+            return rule(a.message(), a.groups(), v -> v != null);
+        }
+        if (annotation instanceof NotBlank a) {
+            return rule(a.message(), a.groups(), v -> v != null && !v.toString().trim().isEmpty());
+        }
+        if (annotation instanceof NotEmpty a) {
+            return rule(a.message(), a.groups(), v -> v != null && size(v) > 0);
+        }
+        if (annotation instanceof Size a) {
+            final int min = a.min();
+            final int max = a.max();
+            return rule(a.message(), a.groups(), v -> {
+                if (v == null) {
+                    return true;
+                }
+                final int size = size(v);
+                return size >= min && size <= max;
+            });
+        }
+        return null;
+    }
+
+    private static Rule rule(final String message, final Class<?>[] groups, final Predicate<Object> valid) {
+        // Templates like "{jakarta.validation.constraints.NotNull.message}" need the interpolator, and only
+        // Hibernate knows which groups a request validates
+        if (message.indexOf('{') >= 0 || !defaultGroup(groups)) {
+            return null;
+        }
+        return new Rule(valid, message);
+    }
+
+    private static boolean defaultGroup(final Class<?>[] groups) {
+        return groups.length == 0 || groups.length == 1 && groups[0] == Default.class;
+    }
+
+    private static int size(final Object value) {
+        if (value instanceof CharSequence s) {
+            return s.length();
+        }
+        if (value instanceof Collection<?> c) {
+            return c.size();
+        }
+        if (value instanceof Map<?, ?> m) {
+            return m.size();
+        }
+        return value.getClass().isArray() ? Array.getLength(value) : 1;
+    }
+
+    private static Class<?> cascadedElement(final Field field) {
+        final AnnotatedType type = field.getAnnotatedType();
+        if (type instanceof AnnotatedParameterizedType parameterized) {
+            for (AnnotatedType argument : parameterized.getAnnotatedActualTypeArguments()) {
+                if (argument.isAnnotationPresent(Valid.class) && argument.getType() instanceof Class<?> c) {
+                    return c;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasConstraint(final Annotation... annotations) {
+        for (Annotation annotation : annotations) {
+            final Class<? extends Annotation> type = annotation.annotationType();
+            if (type.isAnnotationPresent(Constraint.class) || type.getSimpleName().equals("List")
+                    && type.getEnclosingClass() != null
+                    && type.getEnclosingClass().isAnnotationPresent(Constraint.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> accessor(final Class<?> type, final RecordComponent component) {
+        try {
+            // DTO records and their accessors are public, so our own lookup can bind them
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle getter = lookup.unreflect(component.getAccessor());
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    getter,
+                    getter.type().wrap());
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot build accessor for " + type.getName() + "." + component.getName(), e);
+        }
+    }
+
+    private static BeanValidator fallback(final Validator hibernate) {
+        return (bean, path, violations) -> {
+            for (ConstraintViolation<Object> v : hibernate.validate(bean)) {
+                violations.add(path + v.getPropertyPath() + " " + v.getMessage());
+            }
+        };
+    }
+}
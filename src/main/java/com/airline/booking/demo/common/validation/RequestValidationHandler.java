@@ -1,44 +1,45 @@
 package com.airline.booking.demo.common.validation;
 
+import com.airline.booking.demo.common.http.NettyBuffers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.google.common.net.MediaType;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
-import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @Singleton
 public class RequestValidationHandler {
 
-    private final Validator validator;
+    private final CompiledValidator validator;
     private final ObjectMapper mapper;
 
     @Inject
-    public RequestValidationHandler(final ValidatorProvider provider) {
-        this.validator = provider.getValidator();
+    public RequestValidationHandler(final CompiledValidator validator) {
+        this.validator = validator;
         this.mapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 
     public <T> Handler<RoutingContext> validate(final Class<T> clazz) {
+        validator.precompile(clazz);
         return ctx -> {
             try {
-                final byte[] bytes = ctx.body().buffer().getBytes();
-                final T body = mapper.readValue(bytes, clazz);
-
-                final var violations = validator.validate(body);
-
-                if (!violations.isEmpty()) {
-                    final var errors = violations.stream()
-                            .map(v -> v.getPropertyPath() + " " + v.getMessage())
-                            .toList();
+                final T body = read(ctx.body().buffer(), clazz);
+                final List<String> errors = violations(body);
 
+                if (!errors.isEmpty()) {
                     ctx.response()
                             .setStatusCode(HttpResponseStatus.BAD_REQUEST.code())
                             .putHeader("content-type", MediaType.JSON_UTF_8.toString())
@@ -63,4 +64,19 @@ public class RequestValidationHandler {
             }
         };
     }
+
+    public <T> T read(final Buffer buffer, final Class<T> clazz) throws IOException {
+        // Parsed in place from the buffer BodyHandler accumulated into, without an intermediate byte[]
+        final ByteBuf body = NettyBuffers.unwrap(buffer);
+        if (body.hasArray()) {
+            return mapper.readValue(body.array(), body.arrayOffset() + body.readerIndex(), body.readableBytes(), clazz);
+        }
+        try (InputStream in = new ByteBufInputStream(body)) {
+            return mapper.readValue(in, clazz);
+        }
+    }
+
+    public <T> List<String> violations(final T body) {
+        return validator.validate(body);
+    }
 }
@@ -4,31 +4,24 @@ import com.airline.booking.demo.exception.BusinessServiceException;
 import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validator;
-import java.util.Set;
+import java.util.List;
 
 
 @Singleton
 public class ValidationService {
 
-    private final Validator validator;
+    private final CompiledValidator validator;
 
     @Inject
-    public ValidationService(final ValidatorProvider provider) {
-        this.validator = provider.getValidator();
+    public ValidationService(final CompiledValidator validator) {
+        this.validator = validator;
     }
 
     public <T> void validate(final T target) {
-        final Set<ConstraintViolation<T>> violations = validator.validate(target);
+        final List<String> violations = validator.validate(target);
 
         if (!violations.isEmpty()) {
-            final String msg = violations.stream()
-                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
-                    .reduce((a, b) -> a + ", " + b)
-                    .orElse("Validation failed");
-
-            throw new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM, msg);
+            throw new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM, String.join(", ", violations));
         }
     }
 }
@@ -4,6 +4,10 @@ import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,7 +15,8 @@ public class ConfigProvider {
 
     private static final Logger log = LoggerFactory.getLogger(ConfigProvider.class);
 
-    public static Future<JsonObject> load(final Vertx vertx) {
+    // Overrides (the deploying verticle's config) win over both files
+    public static Future<JsonObject> load(final Vertx vertx, final JsonObject overrides) {
         final String profile = System.getProperty("profile",
                 System.getenv().getOrDefault("APP_PROFILE", "dev"));
 
@@ -22,12 +27,31 @@ public class ConfigProvider {
                 .recover(err -> Future.succeededFuture(new JsonObject()));
 
         return baseFuture.compose(base -> profileFuture.map(override -> {
-            final JsonObject merged = deepMerge(base, override);
+            final JsonObject merged = deepMerge(deepMerge(base, override), overrides.copy());
             log.info("Final merged config: \n{}", merged.encodePrettily());
             return merged;
         }));
     }
 
+    // "-conf <file or inline JSON>" from the command line becomes the deployment config, i.e. the overrides above
+    public static JsonObject commandLine(final String... args) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("-conf".equals(args[i])) {
+                final String value = args[i + 1].trim();
+                return value.startsWith("{") ? new JsonObject(value) : readFile(Path.of(value));
+            }
+        }
+        return new JsonObject();
+    }
+
+    private static JsonObject readFile(final Path path) {
+        try {
+            return new JsonObject(Files.readString(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read config " + path, e);
+        }
+    }
+
     private static Future<JsonObject> readJson(final Vertx vertx, final String path) {
         return vertx.fileSystem().exists(path).compose(found -> {
             if (!found) {
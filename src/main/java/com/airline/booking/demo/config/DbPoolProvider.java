@@ -1,5 +1,6 @@
 package com.airline.booking.demo.config;
 
+import com.airline.booking.demo.common.db.SqlDialect;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.jdbcclient.JDBCConnectOptions;
@@ -15,29 +16,52 @@ public final class DbPoolProvider {
 
     private static final Logger log = LoggerFactory.getLogger(DbPoolProvider.class);
 
+    public static final String WRITE_POOL = "write";
+    public static final String READ_POOL = "read";
+
+    private static final int DEV_POOL_SIZE = 5;
+    private static final long DEFAULT_SLOW_QUERY_MS = 200;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 256;
+
     private DbPoolProvider() {
     }
 
+    public static SqlDialect resolveDialect(final JsonObject config) {
+        return isReactivePg(config) ? SqlDialect.POSTGRES : SqlDialect.H2;
+    }
+
+    public static int maxPoolSize(final JsonObject config) {
+        if (!isReactivePg(config)) {
+            return DEV_POOL_SIZE;
+        }
+        return config.getJsonObject("database", new JsonObject()).getInteger("maxPoolSize", 10);
+    }
+
+    public static long slowQueryMs(final JsonObject config) {
+        return config.getJsonObject("database", new JsonObject()).getLong("slowQueryMs", DEFAULT_SLOW_QUERY_MS);
+    }
+
+    // database.read overrides any connection setting for the read pool, e.g. a replica host or its own maxPoolSize
+    public static JsonObject readConfig(final JsonObject config) {
+        final JsonObject db = config.getJsonObject("database", new JsonObject()).copy();
+        final Object read = db.remove("read");
+        if (read instanceof JsonObject overrides) {
+            db.mergeIn(overrides);
+        }
+        return config.copy().put("database", db);
+    }
+
     public static Pool createPool(final Vertx vertx, final JsonObject config) {
         final JsonObject db = config.getJsonObject("database", new JsonObject());
-        final String profile = config.getString("profile", "dev");
 
         final String h2Url = db.getString("url",
                 "jdbc:h2:mem:dev_airline;DB_CLOSE_DELAY=-1;CASE_INSENSITIVE_IDENTIFIERS=TRUE");
 
-        if ("prod".equalsIgnoreCase(profile)) {
+        if (isReactivePg(config)) {
             log.info("Production Mode: Creating Pure Reactive PG Pool");
-            PgConnectOptions pgOptions = new PgConnectOptions()
-                    .setPort(db.getInteger("port", 5432))
-                    .setHost(db.getString("host", "localhost"))
-                    .setDatabase(db.getString("database"))
-                    .setUser(db.getString("user"))
-                    .setPassword(db.getString("password"))
-                    .setPipeliningLimit(256);
-
             return PgBuilder.pool()
-                    .connectingTo(pgOptions)
-                    .with(new PoolOptions().setMaxSize(db.getInteger("maxPoolSize", 10)))
+                    .connectingTo(pgConnectOptions(db))
+                    .with(new PoolOptions().setMaxSize(maxPoolSize(config)))
                     .using(vertx)
                     .build();
         }
@@ -48,6 +72,24 @@ public final class DbPoolProvider {
                 .setUser(db.getString("user", "sa"))
                 .setPassword(db.getString("password", ""));
 
-        return JDBCPool.pool(vertx, jdbcOptions, new PoolOptions().setMaxSize(5));
+        return JDBCPool.pool(vertx, jdbcOptions, new PoolOptions().setMaxSize(maxPoolSize(config)));
+    }
+
+    static PgConnectOptions pgConnectOptions(final JsonObject db) {
+        return new PgConnectOptions()
+                .setPort(db.getInteger("port", 5432))
+                .setHost(db.getString("host", "localhost"))
+                .setDatabase(db.getString("database"))
+                .setUser(db.getString("user"))
+                .setPassword(db.getString("password"))
+                .setPipeliningLimit(256)
+                // Each connection keeps its statements prepared; the startup warm-up fills this cache
+                .setCachePreparedStatements(true)
+                .setPreparedStatementCacheMaxSize(
+                        db.getInteger("preparedStatementCacheMaxSize", DEFAULT_STATEMENT_CACHE_SIZE));
+    }
+
+    private static boolean isReactivePg(final JsonObject config) {
+        return "prod".equalsIgnoreCase(config.getString("profile", "dev"));
     }
 }
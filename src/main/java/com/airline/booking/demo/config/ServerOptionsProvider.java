@@ -0,0 +1,57 @@
+package com.airline.booking.demo.config;
+
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.Http2Settings;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+
+public final class ServerOptionsProvider {
+
+    public static final String NATIVE_TRANSPORT_PROPERTY = "server.nativeTransport";
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final String DEFAULT_HOST = "0.0.0.0";
+    private static final int DEFAULT_COMPRESSION_LEVEL = 1;
+    private static final int DEFAULT_COMPRESSION_MIN_BYTES = 1024;
+
+    private ServerOptionsProvider() {
+        // Empty Constructor
+    }
+
+    // The transport is fixed when Vertx is created, before any config file is read, so it is a system property
+    public static VertxOptions vertxOptions() {
+        final String nativeTransport = System.getProperty(NATIVE_TRANSPORT_PROPERTY, "true");
+        return new VertxOptions().setPreferNativeTransport(Boolean.parseBoolean(nativeTransport));
+    }
+
+    public static HttpServerOptions create(final JsonObject config) {
+        final JsonObject server = config.getJsonObject("server", new JsonObject());
+        final JsonObject http2 = server.getJsonObject("http2", new JsonObject());
+        final JsonObject compression = server.getJsonObject("compression", new JsonObject());
+
+        return new HttpServerOptions()
+                .setPort(server.getInteger("port", DEFAULT_PORT))
+                .setHost(server.getString("host", DEFAULT_HOST))
+                .setTcpNoDelay(server.getBoolean("tcpNoDelay", true))
+                .setTcpFastOpen(server.getBoolean("tcpFastOpen", false))
+                .setTcpQuickAck(server.getBoolean("tcpQuickAck", false))
+                .setReusePort(server.getBoolean("reusePort", false))
+                .setTcpKeepAlive(server.getBoolean("tcpKeepAlive", false))
+                // Also bounds how long an idle keep-alive connection is held open; 0 keeps it forever
+                .setIdleTimeout(server.getInteger("idleTimeoutSec", 0))
+                .setIdleTimeoutUnit(TimeUnit.SECONDS)
+                .setHttp2ClearTextEnabled(http2.getBoolean("clearText", true))
+                .setInitialSettings(new Http2Settings()
+                        .setMaxConcurrentStreams(http2.getLong("maxConcurrentStreams",
+                                Http2Settings.DEFAULT_MAX_CONCURRENT_STREAMS))
+                        .setInitialWindowSize(http2.getInteger("initialWindowSize",
+                                Http2Settings.DEFAULT_INITIAL_WINDOW_SIZE)))
+                .setHttp2ConnectionWindowSize(http2.getInteger("connectionWindowSize",
+                        HttpServerOptions.DEFAULT_HTTP2_CONNECTION_WINDOW_SIZE))
+                .setCompressionSupported(compression.getBoolean("enabled", false))
+                .setCompressionLevel(compression.getInteger("level", DEFAULT_COMPRESSION_LEVEL))
+                // Small bodies cost more to deflate than they save on the wire
+                .setCompressionContentSizeThreshold(compression.getInteger("minBytes", DEFAULT_COMPRESSION_MIN_BYTES));
+    }
+}
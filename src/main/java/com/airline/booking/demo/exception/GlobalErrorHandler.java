@@ -1,5 +1,6 @@
 package com.airline.booking.demo.exception;
 
+import com.airline.booking.demo.common.logging.RequestContext;
 import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
 import com.airline.booking.demo.exception.dto.ErrorResponse;
 import com.google.common.net.MediaType;
@@ -10,7 +11,6 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
 
 public class GlobalErrorHandler {
 
@@ -19,16 +19,19 @@ public class GlobalErrorHandler {
     public static void handle(final RoutingContext ctx) {
 
         Throwable failure = ctx.failure();
-        if (failure == null) {
+        if (failure == null && ctx.statusCode() == ErrorCodeEnum.PAYLOAD_TOO_LARGE.getHttpStatus().code()) {
+            // BodyHandler fails with a bare 413 once a body passes the route's cap
+            failure = new BusinessServiceException(ErrorCodeEnum.PAYLOAD_TOO_LARGE, "Request body too large");
+        } else if (failure == null) {
             failure = new BusinessServiceException(
                     ErrorCodeEnum.INTERNAL_ERROR,
                     "Unknown server error"
             );
         }
 
-        final String correlationId = getKey(ctx, "correlationId", MDC.get("correlationId"));
-        final String method = getKey(ctx, "method", MDC.get("method"));
-        final String path = getKey(ctx, "path", MDC.get("path"));
+        final String correlationId = getKey(ctx, "correlationId", RequestContext.correlationId());
+        final String method = getKey(ctx, "method", ctx.request().method().name());
+        final String path = getKey(ctx, "path", ctx.request().path());
 
         if (ctx.response().ended() || ctx.response().headWritten()) {
             log.error("Failure after response committed correlationId={} method={} path={} msg={}",
@@ -62,6 +65,14 @@ public class GlobalErrorHandler {
                 correlationId, method, path);
     }
 
+    // The same error body without a failure or a log line, for responses written on purpose under load
+    public static void respond(final RoutingContext ctx, final ErrorPrinter code, final String message) {
+        writeErrorResponse(ctx, code, message,
+                getKey(ctx, "correlationId", RequestContext.correlationId()),
+                getKey(ctx, "method", ctx.request().method().name()),
+                getKey(ctx, "path", ctx.request().path()));
+    }
+
     private static void writeErrorResponse(
             final RoutingContext ctx,
             final ErrorPrinter code,
@@ -71,6 +82,20 @@ public class GlobalErrorHandler {
             final String path
     ) {
 
+        ctx.response()
+                .setStatusCode(code.getHttpStatus().code())
+                .putHeader("content-type", MediaType.JSON_UTF_8.toString())
+                .end(errorBody(code, message, correlationId, method, path));
+    }
+
+    static String errorBody(
+            final ErrorPrinter code,
+            final String message,
+            final String correlationId,
+            final String method,
+            final String path
+    ) {
+
         final String timestamp = OffsetDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
 
         final ErrorResponse error = ErrorResponse.builder()
@@ -89,10 +114,7 @@ public class GlobalErrorHandler {
                 .timestamp(timestamp)
                 .build();
 
-        ctx.response()
-                .setStatusCode(code.getHttpStatus().code())
-                .putHeader("content-type", MediaType.JSON_UTF_8.toString())
-                .end(Json.encode(error));
+        return Json.encode(error);
     }
 
     private static String getKey(final RoutingContext ctx, final String key, final String fallback) {
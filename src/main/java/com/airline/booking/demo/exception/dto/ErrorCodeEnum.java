@@ -10,7 +10,9 @@ public enum ErrorCodeEnum implements ErrorPrinter {
     DATABASE_ERROR(HttpResponseStatus.BAD_REQUEST),
     ENTITY_NOT_FOUND(HttpResponseStatus.NOT_FOUND),
     INVALID_PARAM(HttpResponseStatus.BAD_REQUEST),
-    CONFLICT(HttpResponseStatus.CONFLICT);
+    PAYLOAD_TOO_LARGE(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE),
+    CONFLICT(HttpResponseStatus.CONFLICT),
+    SERVICE_UNAVAILABLE(HttpResponseStatus.SERVICE_UNAVAILABLE);
 
     private final HttpResponseStatus httpStatus;
 
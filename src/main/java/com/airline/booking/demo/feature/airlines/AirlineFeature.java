@@ -1,11 +1,11 @@
 package com.airline.booking.demo.feature.airlines;
 
+import com.airline.booking.demo.common.http.RequestBodies;
 import com.airline.booking.demo.common.validation.RequestValidationHandler;
 import com.airline.booking.demo.feature.airlines.dto.AirlineRequest;
 import com.airline.booking.demo.feature.airlines.handler.AirlineHandler;
 import com.google.inject.Inject;
 import io.vertx.ext.web.Router;
-import io.vertx.ext.web.handler.BodyHandler;
 
 public class AirlineFeature {
 
@@ -20,11 +20,10 @@ public class AirlineFeature {
     }
 
     public void init(final Router router) {
-        router.route("/airlines*").handler(BodyHandler.create());
-
         router.get("/airlines").handler(handler::getAll);
         router.get("/airlines/:id").handler(handler::getById);
         router.post("/airlines")
+                .handler(RequestBodies.capped(RequestBodies.ENTITY_MAX_BYTES))
                 .handler(requestValidationHandler.validate(AirlineRequest.class))
                 .handler(handler::create);
     }
@@ -1,6 +1,8 @@
 package com.airline.booking.demo.feature.airlines.handler;
 
+import com.airline.booking.demo.common.http.PooledJson;
 import com.airline.booking.demo.feature.airlines.dto.AirlineRequest;
+import com.airline.booking.demo.feature.airlines.mapper.AirlineJson;
 import com.airline.booking.demo.feature.airlines.mapper.AirlineMapper;
 import com.airline.booking.demo.feature.airlines.service.AirlineService;
 import com.google.common.net.MediaType;
@@ -20,8 +22,7 @@ public class AirlineHandler {
 
     public void getAll(final RoutingContext ctx) {
         airlineService.getAll()
-                .map(list -> list.stream().map(AirlineMapper::toResponse).toList())
-                .onSuccess(ctx::json)
+                .onSuccess(list -> PooledJson.endArray(ctx, list, AirlineJson::write))
                 .onFailure(ctx::fail);
     }
 
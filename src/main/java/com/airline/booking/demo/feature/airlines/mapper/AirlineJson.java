@@ -0,0 +1,34 @@
+package com.airline.booking.demo.feature.airlines.mapper;
+
+import static com.airline.booking.demo.common.http.JsonValues.writeLong;
+
+import com.airline.booking.demo.feature.airlines.repository.entity.Airline;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+
+// Writes the same document as AirlineResponse, field by field
+public final class AirlineJson {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString COUNTRY = new SerializedString("country");
+
+    private AirlineJson() {
+        // Empty Constructor
+    }
+
+    public static void write(final JsonGenerator gen, final Airline airline) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        writeLong(gen, airline.getId());
+        gen.writeFieldName(CODE);
+        gen.writeString(airline.getCode());
+        gen.writeFieldName(NAME);
+        gen.writeString(airline.getName());
+        gen.writeFieldName(COUNTRY);
+        gen.writeString(airline.getCountry());
+        gen.writeEndObject();
+    }
+}
@@ -15,4 +15,16 @@ public class Airline {
     private String country;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
+
+    // Caches hand out copies, so a caller that changes one cannot change it for everyone
+    public Airline copy() {
+        final Airline copy = new Airline();
+        copy.setId(id);
+        copy.setCode(code);
+        copy.setName(name);
+        copy.setCountry(country);
+        copy.setCreatedAt(createdAt);
+        copy.setUpdatedAt(updatedAt);
+        return copy;
+    }
 }
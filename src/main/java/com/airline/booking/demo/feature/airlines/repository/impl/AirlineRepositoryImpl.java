@@ -2,13 +2,15 @@ package com.airline.booking.demo.feature.airlines.repository.impl;
 
 import static com.airline.booking.demo.common.utils.AirlineBookingUtil.convertSqlDateTimeToOffset;
 
-import com.airline.booking.demo.exception.BusinessServiceException;
+import com.airline.booking.demo.common.db.SqlDialect;
+import com.airline.booking.demo.common.db.SqlRows;
+import com.airline.booking.demo.common.db.StatementCatalog;
 import com.airline.booking.demo.exception.PgErrorMapper;
-import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
 import com.airline.booking.demo.feature.airlines.repository.AirlineRepository;
 import com.airline.booking.demo.feature.airlines.repository.entity.Airline;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import io.vertx.core.Future;
 import io.vertx.sqlclient.Pool;
 import io.vertx.sqlclient.Row;
@@ -16,10 +18,9 @@ import io.vertx.sqlclient.SqlClient;
 import io.vertx.sqlclient.SqlConnection;
 import io.vertx.sqlclient.Tuple;
 import java.util.List;
-import java.util.stream.StreamSupport;
 
 @Singleton
-public class AirlineRepositoryImpl implements AirlineRepository {
+public class AirlineRepositoryImpl implements AirlineRepository, StatementCatalog {
 
     private static final String SQL_INSERT = """
                 INSERT INTO airlines (code, name, country) VALUES (?, ?, ?)
@@ -48,54 +49,57 @@ public class AirlineRepositoryImpl implements AirlineRepository {
             """;
 
     private final Pool pool;
+    private final Pool readPool;
+    private final String sqlInsertReturning;
+    private final String sqlUpdateReturning;
 
     @Inject
-    public AirlineRepositoryImpl(final Pool pool) {
+    public AirlineRepositoryImpl(final Pool pool, @Named("read-pool") final Pool readPool,
+            final SqlDialect dialect) {
         this.pool = pool;
+        this.readPool = readPool;
+        this.sqlInsertReturning = dialect.returning(SQL_INSERT);
+        this.sqlUpdateReturning = dialect.returning(SQL_UPDATE);
+    }
+
+    @Override
+    public List<String> writeStatements() {
+        return List.of(sqlInsertReturning, sqlUpdateReturning);
+    }
+
+    @Override
+    public List<String> readStatements() {
+        return List.of(SQL_SELECT_BY_ID, SQL_SELECT_BY_CODE);
     }
 
     @Override
     public Future<Airline> findById(final Long id) {
-        return pool.preparedQuery(SQL_SELECT_BY_ID)
+        return readPool.preparedQuery(SQL_SELECT_BY_ID)
                 .execute(Tuple.of(id))
-                .compose(rows -> {
-                    if (!rows.iterator().hasNext()) {
-                        return Future.failedFuture(new BusinessServiceException(
-                                ErrorCodeEnum.ENTITY_NOT_FOUND, "Airline not found with id: " + id));
-                    }
-                    return Future.succeededFuture(map(rows.iterator().next()));
-                })
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Airline not found with id: " + id))
                 .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query airline")));
     }
 
     @Override
     public Future<Airline> findByCode(final String code) {
-        return pool.preparedQuery(SQL_SELECT_BY_CODE)
+        return readPool.preparedQuery(SQL_SELECT_BY_CODE)
                 .execute(Tuple.of(code))
-                .compose(rows -> {
-                    if (!rows.iterator().hasNext()) {
-                        return Future.failedFuture(new BusinessServiceException(
-                                ErrorCodeEnum.ENTITY_NOT_FOUND, "Airline not found with code: " + code));
-                    }
-                    return Future.succeededFuture(map(rows.iterator().next()));
-                })
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Airline not found with code: " + code))
                 .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query airline")));
     }
 
     @Override
     public Future<Airline> findByCodeOptional(final String code) {
-        return pool.preparedQuery(SQL_SELECT_BY_CODE)
+        return readPool.preparedQuery(SQL_SELECT_BY_CODE)
                 .execute(Tuple.of(code))
-                .map(rows -> rows.iterator().hasNext() ? map(rows.iterator().next()) : null)
+                .map(rows -> SqlRows.firstOrNull(rows, this::map))
                 .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query airline")));
     }
 
     @Override
     public Future<List<Airline>> findAll() {
-        return pool.query(SQL_SELECT_ALL).execute()
-                .map(rows -> StreamSupport.stream(rows.spliterator(), false)
-                        .map(this::map)
-                        .toList())
+        return readPool.query(SQL_SELECT_ALL).execute()
+                .map(rows -> SqlRows.list(rows, this::map))
                 .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to fetch airlines")));
     }
 
@@ -112,38 +116,18 @@ public class AirlineRepositoryImpl implements AirlineRepository {
 
     private Future<Airline> insert(final SqlConnection conn, final Airline airline) {
         return conn
-                .preparedQuery(SQL_INSERT)
+                .preparedQuery(sqlInsertReturning)
                 .execute(Tuple.of(airline.getCode(), airline.getName(), airline.getCountry()))
-                .compose(v -> conn
-                        .query("SELECT lastval() AS id")
-                        .execute()
-                )
-                .compose(rows -> {
-                    final Long id = rows.iterator().next().getLong("id");
-                    return findById(conn, id);
-                })
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Airline insert returned no row"))
                 .recover(err -> Future.failedFuture(
                         PgErrorMapper.map(err, "Failed to insert airline")));
     }
 
-    private Future<Airline> findById(final SqlConnection conn, final Long id) {
-        return conn.preparedQuery(SQL_SELECT_BY_ID)
-                .execute(Tuple.of(id))
-                .compose(rows -> {
-                    if (!rows.iterator().hasNext()) {
-                        return Future.failedFuture(
-                                new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND,
-                                        "Airline not found with id: " + id));
-                    }
-                    return Future.succeededFuture(map(rows.iterator().next()));
-                });
-    }
-
-
     private Future<Airline> update(final SqlClient client, final Airline airline) {
-        return client.preparedQuery(SQL_UPDATE)
+        return client.preparedQuery(sqlUpdateReturning)
                 .execute(Tuple.of(airline.getName(), airline.getCountry(), airline.getCode()))
-                .compose(v -> findByCode(airline.getCode()))
+                .compose(rows -> SqlRows.first(rows, this::map,
+                        () -> "Airline not found with code: " + airline.getCode()))
                 .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to update airline")));
     }
 
@@ -0,0 +1,153 @@
+package com.airline.booking.demo.feature.airlines.repository.impl;
+
+import com.airline.booking.demo.common.cache.CacheRegistry;
+import com.airline.booking.demo.common.cache.CacheStats;
+import com.airline.booking.demo.common.cache.LruCache;
+import com.airline.booking.demo.feature.airlines.repository.AirlineRepository;
+import com.airline.booking.demo.feature.airlines.repository.entity.Airline;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Singleton
+public class CachingAirlineRepository implements AirlineRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingAirlineRepository.class);
+
+    static final String CACHE_NAME = "airlines";
+    private static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final AirlineRepository delegate;
+    private final CacheStats stats;
+    private final LruCache<Long, Airline> byId;
+    private final LruCache<String, Airline> byCode;
+
+    // Entries, and the snapshot's elements, are copies the cache owns; every hit hands out a fresh copy
+
+    // Bumped on every write so a load that raced with an invalidation is not published
+    private final AtomicLong generation = new AtomicLong();
+    private volatile List<Airline> allSnapshot;
+
+    @Inject
+    public CachingAirlineRepository(final AirlineRepositoryImpl delegate,
+            final CacheRegistry cacheRegistry,
+            @Named("app-config") final JsonObject config) {
+        this(delegate, cacheRegistry.stats(CACHE_NAME), resolveMaxSize(config));
+    }
+
+    CachingAirlineRepository(final AirlineRepository delegate, final CacheStats stats, final int maxSize) {
+        this.delegate = delegate;
+        this.stats = stats;
+        this.byId = new LruCache<>(maxSize, stats);
+        this.byCode = new LruCache<>(maxSize, stats);
+    }
+
+    static int resolveMaxSize(final JsonObject config) {
+        final int maxSize = CacheRegistry.config(config, CACHE_NAME).getInteger("maxSize", DEFAULT_MAX_SIZE);
+        return maxSize > 0 ? maxSize : DEFAULT_MAX_SIZE;
+    }
+
+    @Override
+    public Future<Airline> findById(final Long id) {
+        final Airline cached = byId.get(id);
+        if (cached != null) {
+            return Future.succeededFuture(cached.copy());
+        }
+        final long gen = generation.get();
+        return delegate.findById(id).onSuccess(a -> remember(gen, a));
+    }
+
+    @Override
+    public Future<Airline> findByCode(final String code) {
+        final Airline cached = byCode.get(code);
+        if (cached != null) {
+            return Future.succeededFuture(cached.copy());
+        }
+        final long gen = generation.get();
+        return delegate.findByCode(code).onSuccess(a -> remember(gen, a));
+    }
+
+    @Override
+    public Future<Airline> findByCodeOptional(final String code) {
+        final Airline cached = byCode.get(code);
+        if (cached != null) {
+            return Future.succeededFuture(cached.copy());
+        }
+        final long gen = generation.get();
+        return delegate.findByCodeOptional(code).onSuccess(a -> {
+            if (a != null) {
+                remember(gen, a);
+            }
+        });
+    }
+
+    @Override
+    public Future<List<Airline>> findAll() {
+        final List<Airline> snapshot = allSnapshot;
+        if (snapshot != null) {
+            stats.hit();
+            return Future.succeededFuture(copies(snapshot));
+        }
+        stats.miss();
+        final long gen = generation.get();
+        return delegate.findAll().map(list -> {
+            final List<Airline> loaded = copies(list);
+            synchronized (this) {
+                if (generation.get() == gen) {
+                    allSnapshot = loaded;
+                    loaded.forEach(a -> remember(gen, a));
+                }
+            }
+            return list;
+        });
+    }
+
+    @Override
+    public Future<Airline> save(final Airline airline) {
+        return delegate.save(airline).onComplete(ar -> invalidate());
+    }
+
+    // Inside a transaction, invalidating before commit would let a concurrent read cache the old row again
+    @Override
+    public Future<Airline> save(final SqlConnection conn, final Airline airline) {
+        return delegate.save(conn, airline).onComplete(ar -> invalidateAfter(conn.transaction()));
+    }
+
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        allSnapshot = null;
+        byId.clear();
+        byCode.clear();
+        stats.invalidated();
+        log.debug("Airline cache invalidated");
+    }
+
+    private void invalidateAfter(final Transaction tx) {
+        if (tx == null) {
+            invalidate();
+        } else {
+            tx.completion().onComplete(ar -> invalidate());
+        }
+    }
+
+    private synchronized void remember(final long gen, final Airline airline) {
+        if (generation.get() != gen) {
+            return;
+        }
+        final Airline owned = airline.copy();
+        byId.put(owned.getId(), owned);
+        byCode.put(owned.getCode(), owned);
+    }
+
+    private static List<Airline> copies(final List<Airline> airlines) {
+        return airlines.stream().map(Airline::copy).toList();
+    }
+}
@@ -26,7 +26,7 @@ public class AirlineService {
     }
 
     public Future<Airline> create(final AirlineRequest request) {
-        log.info("Create airline request received: code={}", request.code());
+        log.debug("Create airline request received: code={}", request.code());
 
         return airlineRepository.findByCodeOptional(request.code())
                 .compose(existing -> {
@@ -51,14 +51,14 @@ public class AirlineService {
     public Future<List<Airline>> getAll() {
         log.debug("Fetching all airlines");
         return airlineRepository.findAll()
-                .onSuccess(list -> log.info("Fetched {} airlines", list.size()))
+                .onSuccess(list -> log.debug("Fetched {} airlines", list.size()))
                 .onFailure(err -> log.error("Failed to fetch airlines", err));
     }
 
     public Future<Airline> getById(final Long id) {
         log.debug("Fetching airline by id={}", id);
         return airlineRepository.findById(id)
-                .onSuccess(a -> log.info("Fetched airline: id={}", a.getId()))
+                .onSuccess(a -> log.debug("Fetched airline: id={}", a.getId()))
                 .onFailure(err -> log.error("Failed to fetch airline id={}", id, err));
     }
 }
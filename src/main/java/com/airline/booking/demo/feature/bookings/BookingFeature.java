@@ -1,11 +1,12 @@
 package com.airline.booking.demo.feature.bookings;
 
+import com.airline.booking.demo.common.http.RequestBodies;
 import com.airline.booking.demo.common.validation.RequestValidationHandler;
+import com.airline.booking.demo.feature.bookings.dto.BookingBatchRequest;
 import com.airline.booking.demo.feature.bookings.dto.BookingRequest;
 import com.airline.booking.demo.feature.bookings.handler.BookingHandler;
 import com.google.inject.Inject;
 import io.vertx.ext.web.Router;
-import io.vertx.ext.web.handler.BodyHandler;
 
 public class BookingFeature {
 
@@ -20,13 +21,21 @@ public class BookingFeature {
     }
 
     public void init(final Router router) {
-        router.route("/bookings*").handler(BodyHandler.create());
-
         router.post("/bookings")
+                .handler(RequestBodies.capped(RequestBodies.ENTITY_MAX_BYTES))
                 .handler(requestValidationHandler.validate(BookingRequest.class))
                 .handler(handler::create);
 
+        router.post("/bookings/batch")
+                .handler(RequestBodies.capped(RequestBodies.BATCH_MAX_BYTES))
+                .handler(requestValidationHandler.validate(BookingBatchRequest.class))
+                .handler(handler::createBatch);
+
+        router.get("/bookings/ref/:reference").handler(handler::getByReference);
         router.get("/bookings/:id").handler(handler::getById);
         router.delete("/bookings/:id").handler(handler::cancel);
+
+        // Lives with bookings: it cancels a flight's bookings, the flight itself is left as it is
+        router.post("/flights/:id/cancel").handler(handler::cancelFlight);
     }
 }
@@ -0,0 +1,10 @@
+package com.airline.booking.demo.feature.bookings.dto;
+
+public record BookingBatchItemResponse(
+        int index,
+        String status,
+        BookingResponse booking,
+        String error
+) {
+
+}
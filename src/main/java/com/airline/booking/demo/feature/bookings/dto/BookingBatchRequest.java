@@ -0,0 +1,14 @@
+package com.airline.booking.demo.feature.bookings.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BookingBatchRequest(
+        @NotEmpty(message = "cant' be null or empty")
+        @Size(max = 500, message = "can't contain more than 500 bookings")
+        List<@Valid BookingRequest> bookings
+) {
+
+}
@@ -0,0 +1,11 @@
+package com.airline.booking.demo.feature.bookings.dto;
+
+import java.util.List;
+
+public record BookingBatchResponse(
+        int created,
+        int failed,
+        List<BookingBatchItemResponse> results
+) {
+
+}
@@ -0,0 +1,8 @@
+package com.airline.booking.demo.feature.bookings.dto;
+
+public record FlightCancellationResponse(
+        Long flightId,
+        int cancelledBookings
+) {
+
+}
@@ -1,5 +1,8 @@
 package com.airline.booking.demo.feature.bookings.handler;
 
+import com.airline.booking.demo.exception.BusinessServiceException;
+import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
+import com.airline.booking.demo.feature.bookings.dto.BookingBatchRequest;
 import com.airline.booking.demo.feature.bookings.dto.BookingRequest;
 import com.airline.booking.demo.feature.bookings.mapper.BookingMapper;
 import com.airline.booking.demo.feature.bookings.service.BookingService;
@@ -11,6 +14,9 @@ import io.vertx.ext.web.RoutingContext;
 
 public class BookingHandler {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
     private final BookingService bookingService;
 
     @Inject
@@ -19,26 +25,63 @@ public class BookingHandler {
     }
 
     public void getById(final RoutingContext ctx) {
-        final Long id = Long.valueOf(ctx.pathParam("id"));
-        bookingService.getById(id)
+        try {
+            final long id = Long.parseLong(ctx.pathParam("id"));
+            bookingService.getById(id)
+                    .map(BookingMapper::toResponse)
+                    .onSuccess(ctx::json)
+                    .onFailure(ctx::fail);
+
+        } catch (NumberFormatException e) {
+            ctx.fail(new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM, "Invalid booking id"));
+        }
+    }
+
+    public void getByReference(final RoutingContext ctx) {
+        bookingService.getByReference(ctx.pathParam("reference"))
                 .map(BookingMapper::toResponse)
                 .onSuccess(ctx::json)
                 .onFailure(ctx::fail);
     }
 
     public void cancel(final RoutingContext ctx) {
-        final Long id = Long.valueOf(ctx.pathParam("id"));
-        bookingService.cancel(id)
-                .onSuccess(v -> ctx.response()
-                        .setStatusCode(HttpResponseStatus.NO_CONTENT.code())
-                        .end())
-                .onFailure(ctx::fail);
+        try {
+            final long id = Long.parseLong(ctx.pathParam("id"));
+            bookingService.cancel(id)
+                    .onSuccess(v -> ctx.response()
+                            .setStatusCode(HttpResponseStatus.NO_CONTENT.code())
+                            .end())
+                    .onFailure(ctx::fail);
+
+        } catch (NumberFormatException e) {
+            ctx.fail(new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM, "Invalid booking id"));
+        }
+    }
+
+    public void cancelFlight(final RoutingContext ctx) {
+        try {
+            final long flightId = Long.parseLong(ctx.pathParam("id"));
+            bookingService.cancelFlight(flightId)
+                    .map(cancelled -> BookingMapper.toFlightCancellationResponse(flightId, cancelled))
+                    .onSuccess(ctx::json)
+                    .onFailure(ctx::fail);
+
+        } catch (NumberFormatException e) {
+            ctx.fail(new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM, "Invalid flight id"));
+        }
     }
 
     public void create(final RoutingContext ctx) {
         final BookingRequest req = ctx.get("validated_body");
+        final String idempotencyKey = ctx.request().getHeader(IDEMPOTENCY_KEY);
+        if (idempotencyKey != null
+                && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            ctx.fail(new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM,
+                    IDEMPOTENCY_KEY + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters"));
+            return;
+        }
 
-        bookingService.create(req)
+        bookingService.create(req, idempotencyKey)
                 .map(BookingMapper::toResponse)
                 .onSuccess(resp -> {
                     final var response = ctx.response();
@@ -49,4 +92,18 @@ public class BookingHandler {
                 .onFailure(ctx::fail);
 
     }
+
+    public void createBatch(final RoutingContext ctx) {
+        final BookingBatchRequest req = ctx.get("validated_body");
+
+        bookingService.createBatch(req.bookings())
+                .map(BookingMapper::toBatchResponse)
+                .onSuccess(resp -> {
+                    final var response = ctx.response();
+                    response.setStatusCode(HttpResponseStatus.OK.code());
+                    response.putHeader("content-type", MediaType.JSON_UTF_8.toString());
+                    response.end(Json.encode(resp));
+                })
+                .onFailure(ctx::fail);
+    }
 }
@@ -1,8 +1,14 @@
 package com.airline.booking.demo.feature.bookings.mapper;
 
+import com.airline.booking.demo.feature.bookings.dto.BookingBatchItemResponse;
+import com.airline.booking.demo.feature.bookings.dto.BookingBatchResponse;
 import com.airline.booking.demo.feature.bookings.dto.BookingRequest;
 import com.airline.booking.demo.feature.bookings.dto.BookingResponse;
+import com.airline.booking.demo.feature.bookings.dto.FlightCancellationResponse;
 import com.airline.booking.demo.feature.bookings.repository.entity.Booking;
+import com.airline.booking.demo.feature.bookings.service.BookingBatchResult;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class BookingMapper {
 
@@ -32,4 +38,23 @@ public final class BookingMapper {
                 booking.getUpdatedAt()
         );
     }
+
+    public static FlightCancellationResponse toFlightCancellationResponse(final Long flightId, final int cancelled) {
+        return new FlightCancellationResponse(flightId, cancelled);
+    }
+
+    public static BookingBatchResponse toBatchResponse(final List<BookingBatchResult> results) {
+        final List<BookingBatchItemResponse> items = new ArrayList<>(results.size());
+        int created = 0;
+        for (BookingBatchResult result : results) {
+            if (result.succeeded()) {
+                created++;
+                items.add(new BookingBatchItemResponse(result.index(), "CREATED",
+                        toResponse(result.booking()), null));
+            } else {
+                items.add(new BookingBatchItemResponse(result.index(), "FAILED", null, result.error()));
+            }
+        }
+        return new BookingBatchResponse(created, results.size() - created, items);
+    }
 }
@@ -2,8 +2,10 @@ package com.airline.booking.demo.feature.bookings.repository;
 
 import com.airline.booking.demo.feature.bookings.repository.entity.Booking;
 import io.vertx.core.Future;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.sqlclient.SqlConnection;
 import java.util.List;
+import java.util.function.Function;
 
 public interface BookingRepository {
 
@@ -11,9 +13,19 @@ public interface BookingRepository {
 
     Future<Booking> save(SqlConnection conn, Booking booking);
 
+    Future<List<Booking>> saveAll(SqlConnection conn, List<Booking> bookings);
+
+    Future<Booking> cancel(SqlConnection conn, Long id);
+
+    Future<List<String>> cancelByFlightId(SqlConnection conn, Long flightId);
+
     Future<Booking> findById(Long id);
 
     Future<Booking> findById(SqlConnection conn, Long id);
 
-    Future<List<Booking>> findByPassengerId(SqlConnection conn, Long passengerId);
+    Future<Booking> findByReference(String reference);
+
+    Future<Booking> findByIdempotencyKey(String idempotencyKey);
+
+    Future<Void> streamByPassengerId(Long passengerId, Function<ReadStream<Booking>, Future<Void>> consumer);
 }
@@ -16,7 +16,26 @@ public class Booking {
     private String seatNumber;
     private String status;
     private BigDecimal totalAmount;
+    // Written on insert only; not selected back
+    private String idempotencyKey;
     private OffsetDateTime bookingDate;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
+
+    // Caches hand out copies, so a caller that changes one cannot change it for everyone
+    public Booking copy() {
+        final Booking copy = new Booking();
+        copy.setId(id);
+        copy.setBookingReference(bookingReference);
+        copy.setPassengerId(passengerId);
+        copy.setFlightId(flightId);
+        copy.setSeatNumber(seatNumber);
+        copy.setStatus(status);
+        copy.setTotalAmount(totalAmount);
+        copy.setIdempotencyKey(idempotencyKey);
+        copy.setBookingDate(bookingDate);
+        copy.setCreatedAt(createdAt);
+        copy.setUpdatedAt(updatedAt);
+        return copy;
+    }
 }
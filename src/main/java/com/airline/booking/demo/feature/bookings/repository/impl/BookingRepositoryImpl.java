@@ -2,24 +2,31 @@ package com.airline.booking.demo.feature.bookings.repository.impl;
 
 import static com.airline.booking.demo.common.utils.AirlineBookingUtil.convertSqlDateTimeToOffset;
 
-import com.airline.booking.demo.exception.BusinessServiceException;
+import com.airline.booking.demo.common.db.SqlDialect;
+import com.airline.booking.demo.common.db.SqlRows;
+import com.airline.booking.demo.common.db.SqlStreams;
+import com.airline.booking.demo.common.db.StatementCatalog;
 import com.airline.booking.demo.exception.PgErrorMapper;
-import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
 import com.airline.booking.demo.feature.bookings.repository.BookingRepository;
 import com.airline.booking.demo.feature.bookings.repository.entity.Booking;
+import com.airline.booking.demo.feature.bookings.repository.entity.BookingStatus;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import io.vertx.core.Future;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.sqlclient.Pool;
 import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.SqlConnection;
 import io.vertx.sqlclient.Tuple;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 @Singleton
-public class BookingRepositoryImpl implements BookingRepository {
+public class BookingRepositoryImpl implements BookingRepository, StatementCatalog {
 
     private static final String SQL_SELECT_BY_ID = """
                 SELECT id, booking_reference, passenger_id, flight_id, seat_number,
@@ -27,14 +34,26 @@ public class BookingRepositoryImpl implements BookingRepository {
                 FROM bookings WHERE id = ?
             """;
 
-    private static final String SQL_SELECT_BY_PASSENGER = """
+    private static final String SQL_SELECT_BY_REFERENCE = """
                 SELECT id, booking_reference, passenger_id, flight_id, seat_number,
                        status, total_amount, booking_date, created_at, updated_at
-                FROM bookings WHERE passenger_id = ?
+                FROM bookings WHERE booking_reference = ?
+            """;
+
+    private static final String SQL_SELECT_BY_IDEMPOTENCY_KEY = """
+                SELECT id, booking_reference, passenger_id, flight_id, seat_number,
+                       status, total_amount, booking_date, created_at, updated_at
+                FROM bookings WHERE idempotency_key = ?
+            """;
+
+    private static final String SQL_STREAM_BY_PASSENGER = """
+                SELECT id, booking_reference, passenger_id, flight_id, seat_number,
+                       status, total_amount, booking_date, created_at, updated_at
+                FROM bookings WHERE passenger_id = ? ORDER BY id
             """;
 
     private static final String SQL_INSERT =
-            "INSERT INTO bookings (booking_reference, passenger_id, flight_id, seat_number, status, total_amount) VALUES (?, ?, ?, ?, ?, ?)";
+            "INSERT INTO bookings (booking_reference, passenger_id, flight_id, seat_number, status, total_amount, idempotency_key) VALUES (?, ?, ?, ?, ?, ?, ?)";
 
     private static final String SQL_UPDATE = """
                 UPDATE bookings SET
@@ -42,11 +61,46 @@ public class BookingRepositoryImpl implements BookingRepository {
                 WHERE id = ?
             """;
 
+    // Guarded on the current status, so a repeated cancel changes nothing and releases no second seat
+    private static final String SQL_CANCEL = """
+                UPDATE bookings SET status = ?, updated_at = CURRENT_TIMESTAMP
+                WHERE id = ? AND status = ?
+            """;
+
+    private static final String SQL_CANCEL_BY_FLIGHT = """
+                UPDATE bookings SET status = ?, updated_at = CURRENT_TIMESTAMP
+                WHERE flight_id = ? AND status = ?
+            """;
+
     private final Pool pool;
+    private final Pool readPool;
+    private final SqlDialect dialect;
+    private final String sqlInsertReturning;
+    private final String sqlUpdateReturning;
+    private final String sqlCancelReturning;
+    private final String sqlCancelByFlightReturning;
 
     @Inject
-    public BookingRepositoryImpl(final Pool pool) {
+    public BookingRepositoryImpl(final Pool pool, @Named("read-pool") final Pool readPool,
+            final SqlDialect dialect) {
         this.pool = pool;
+        this.readPool = readPool;
+        this.dialect = dialect;
+        this.sqlInsertReturning = dialect.returning(SQL_INSERT);
+        this.sqlUpdateReturning = dialect.returning(SQL_UPDATE);
+        this.sqlCancelReturning = dialect.returning(SQL_CANCEL);
+        this.sqlCancelByFlightReturning = dialect.returning(SQL_CANCEL_BY_FLIGHT);
+    }
+
+    @Override
+    public List<String> writeStatements() {
+        return List.of(sqlInsertReturning, sqlUpdateReturning, sqlCancelReturning, sqlCancelByFlightReturning,
+                SQL_SELECT_BY_ID, SQL_SELECT_BY_IDEMPOTENCY_KEY);
+    }
+
+    @Override
+    public List<String> readStatements() {
+        return List.of(SQL_SELECT_BY_ID, SQL_SELECT_BY_REFERENCE);
     }
 
     @Override
@@ -60,9 +114,55 @@ public class BookingRepositoryImpl implements BookingRepository {
         return booking.getId() == null ? insert(conn, booking) : update(conn, booking);
     }
 
+    @Override
+    public Future<List<Booking>> saveAll(final SqlConnection conn, final List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return Future.succeededFuture(List.of());
+        }
+        if (!dialect.supportsBatchReturning()) {
+            return insertEach(conn, bookings);
+        }
+
+        final List<Tuple> batch = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            batch.add(insertTuple(booking));
+        }
+
+        return conn.preparedQuery(sqlInsertReturning)
+                .executeBatch(batch)
+                .map(rows -> {
+                    final List<Booking> saved = new ArrayList<>(bookings.size());
+                    for (RowSet<Row> rs = rows; rs != null; rs = rs.next()) {
+                        for (Row row : rs) {
+                            saved.add(map(row));
+                        }
+                    }
+                    return saved;
+                })
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to insert bookings")));
+    }
+
+    // Null when the booking does not exist or was already cancelled
+    @Override
+    public Future<Booking> cancel(final SqlConnection conn, final Long id) {
+        return conn.preparedQuery(sqlCancelReturning)
+                .execute(Tuple.of(BookingStatus.CANCELLED.name(), id, BookingStatus.CONFIRMED.name()))
+                .map(rows -> SqlRows.firstOrNull(rows, this::map))
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to cancel booking")));
+    }
+
+    // References of the bookings this call cancelled, so only those cache entries are dropped
+    @Override
+    public Future<List<String>> cancelByFlightId(final SqlConnection conn, final Long flightId) {
+        return conn.preparedQuery(sqlCancelByFlightReturning)
+                .execute(Tuple.of(BookingStatus.CANCELLED.name(), flightId, BookingStatus.CONFIRMED.name()))
+                .map(rows -> SqlRows.list(rows, row -> row.getString("booking_reference")))
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to cancel bookings")));
+    }
+
     @Override
     public Future<Booking> findById(final Long id) {
-        return pool.getConnection()
+        return readPool.getConnection()
                 .compose(conn -> findById(conn, id).onComplete(ar -> conn.close()));
     }
 
@@ -70,62 +170,75 @@ public class BookingRepositoryImpl implements BookingRepository {
     public Future<Booking> findById(final SqlConnection conn, final Long id) {
         return conn.preparedQuery(SQL_SELECT_BY_ID)
                 .execute(Tuple.of(id))
-                .compose(rows -> {
-                    if (!rows.iterator().hasNext()) {
-                        return Future.failedFuture(new BusinessServiceException(
-                                ErrorCodeEnum.ENTITY_NOT_FOUND, "Booking not found with id: " + id));
-                    }
-                    return Future.succeededFuture(map(rows.iterator().next()));
-                })
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Booking not found with id: " + id))
                 .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query booking")));
     }
 
     @Override
-    public Future<List<Booking>> findByPassengerId(SqlConnection conn, Long passengerId) {
-        return conn.preparedQuery(SQL_SELECT_BY_PASSENGER)
-                .execute(Tuple.of(passengerId))
-                .map(rows -> {
-                    final List<Booking> list = new ArrayList<>();
-                    for (Row row : rows) {
-                        list.add(map(row));
-                    }
-                    return list;
-                })
-                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query bookings")));
+    public Future<Booking> findByReference(final String reference) {
+        return readPool.preparedQuery(SQL_SELECT_BY_REFERENCE)
+                .execute(Tuple.of(reference))
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Booking not found with reference: " + reference))
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query booking")));
+    }
+
+    // Write pool: the booking a retry is looking for may have been committed moments ago, ahead of any replica
+    @Override
+    public Future<Booking> findByIdempotencyKey(final String idempotencyKey) {
+        return pool.preparedQuery(SQL_SELECT_BY_IDEMPOTENCY_KEY)
+                .execute(Tuple.of(idempotencyKey))
+                .map(rows -> SqlRows.firstOrNull(rows, this::map))
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query booking")));
+    }
+
+    @Override
+    public Future<Void> streamByPassengerId(final Long passengerId,
+            final Function<ReadStream<Booking>, Future<Void>> consumer) {
+        return SqlStreams.stream(readPool, dialect, SQL_STREAM_BY_PASSENGER, Tuple.of(passengerId), this::map, consumer)
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to stream bookings")));
     }
 
     private Future<Booking> insert(final SqlConnection conn, final Booking booking) {
         return conn
-                .preparedQuery(SQL_INSERT)
-                .execute(Tuple.of(
-                        booking.getBookingReference(), booking.getPassengerId(), booking.getFlightId(),
-                        booking.getSeatNumber(), booking.getStatus(), booking.getTotalAmount()
-                ))
-                .compose(v -> conn
-                        .query("SELECT lastval() AS id")
-                        .execute()
-                )
-                .compose(rows -> {
-                    final Long id = rows.iterator().next().getLong("id");
-                    return findById(conn, id);
-                })
+                .preparedQuery(sqlInsertReturning)
+                .execute(insertTuple(booking))
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Booking insert returned no row"))
                 .recover(err -> Future.failedFuture(
                         PgErrorMapper.map(err, "Failed to insert booking")));
     }
 
+    private Future<List<Booking>> insertEach(final SqlConnection conn, final List<Booking> bookings) {
+        Future<List<Booking>> chain = Future.succeededFuture(new ArrayList<>(bookings.size()));
+        for (Booking booking : bookings) {
+            chain = chain.compose(saved -> insert(conn, booking).map(b -> {
+                saved.add(b);
+                return saved;
+            }));
+        }
+        return chain;
+    }
+
+    private Tuple insertTuple(final Booking booking) {
+        return Tuple.of(
+                booking.getBookingReference(), booking.getPassengerId(), booking.getFlightId(),
+                booking.getSeatNumber(), booking.getStatus(), booking.getTotalAmount(), booking.getIdempotencyKey()
+        );
+    }
+
     private Future<Booking> update(final SqlConnection conn, final Booking booking) {
-        return conn.preparedQuery(SQL_UPDATE)
+        return conn.preparedQuery(sqlUpdateReturning)
                 .execute(Tuple.of(
                         booking.getStatus(),
                         booking.getSeatNumber(),
                         booking.getTotalAmount(),
                         booking.getId()
                 ))
-                .compose(v -> findById(conn, booking.getId()))
+                .compose(rows -> SqlRows.first(rows, this::map,
+                        () -> "Booking not found with id: " + booking.getId()))
                 .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to update booking")));
     }
 
-    private Booking map(final Row row) {
+    Booking map(final Row row) {
         final Booking booking = new Booking();
         booking.setId(row.getLong("id"));
         booking.setBookingReference(row.getString("booking_reference"));
@@ -0,0 +1,18 @@
+package com.airline.booking.demo.feature.bookings.service;
+
+import com.airline.booking.demo.feature.bookings.repository.entity.Booking;
+
+public record BookingBatchResult(int index, Booking booking, String error) {
+
+    public static BookingBatchResult created(final int index, final Booking booking) {
+        return new BookingBatchResult(index, booking, null);
+    }
+
+    public static BookingBatchResult failed(final int index, final String error) {
+        return new BookingBatchResult(index, null, error);
+    }
+
+    public boolean succeeded() {
+        return booking != null;
+    }
+}
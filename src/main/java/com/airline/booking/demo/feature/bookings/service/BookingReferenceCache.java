@@ -0,0 +1,78 @@
+package com.airline.booking.demo.feature.bookings.service;
+
+import com.airline.booking.demo.common.cache.CacheRegistry;
+import com.airline.booking.demo.common.cache.CacheStats;
+import com.airline.booking.demo.common.cache.LruCache;
+import com.airline.booking.demo.feature.bookings.repository.entity.Booking;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Bookings by reference. New bookings are added on commit, status changes remove the entry.
+// Entries are copies the cache owns and every hit hands out a fresh copy, so callers may change what they get
+@Singleton
+public class BookingReferenceCache {
+
+    static final String CACHE_NAME = "bookingRefs";
+    private static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final CacheStats stats;
+    private final LruCache<String, Booking> byReference;
+
+    // Bumped on every invalidation so a load that raced with it is not published
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    public BookingReferenceCache(final CacheRegistry cacheRegistry, @Named("app-config") final JsonObject config) {
+        this(cacheRegistry.stats(CACHE_NAME), resolveMaxSize(config));
+    }
+
+    BookingReferenceCache(final CacheStats stats, final int maxSize) {
+        this.stats = stats;
+        this.byReference = new LruCache<>(maxSize, stats);
+    }
+
+    static int resolveMaxSize(final JsonObject config) {
+        final int maxSize = CacheRegistry.config(config, CACHE_NAME).getInteger("maxSize", DEFAULT_MAX_SIZE);
+        return maxSize > 0 ? maxSize : DEFAULT_MAX_SIZE;
+    }
+
+    public Future<Booking> get(final String reference, final Function<String, Future<Booking>> loader) {
+        final Booking cached = byReference.get(reference);
+        if (cached != null) {
+            return Future.succeededFuture(cached.copy());
+        }
+        final long gen = generation.get();
+        return loader.apply(reference).onSuccess(b -> remember(gen, b));
+    }
+
+    // Called after the insert committed, so the entry is current
+    public void put(final Booking booking) {
+        byReference.put(booking.getBookingReference(), booking.copy());
+    }
+
+    public synchronized void invalidate(final String reference) {
+        generation.incrementAndGet();
+        byReference.remove(reference);
+        stats.invalidated();
+    }
+
+    public synchronized void invalidateAll(final Collection<String> references) {
+        generation.incrementAndGet();
+        for (String reference : references) {
+            byReference.remove(reference);
+        }
+        stats.invalidated();
+    }
+
+    private synchronized void remember(final long gen, final Booking booking) {
+        if (generation.get() == gen) {
+            byReference.put(booking.getBookingReference(), booking.copy());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.airline.booking.demo.feature.bookings.service;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import io.vertx.core.json.JsonObject;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// 60 bits written as 12 Crockford base32 characters: seconds since 2025 (32), node (10), counter (18).
+// References never repeat on one node, so two nodes only collide if they share a node id.
+@Singleton
+public class BookingReferenceGenerator {
+
+    static final int LENGTH = 12;
+    static final int MAX_NODE = (1 << 10) - 1;
+    static final String NODE_ID_ENV = "NODE_ID";
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final long EPOCH_SEC = 1_735_689_600L;
+    private static final int NODE_BITS = 10;
+    private static final int COUNTER_BITS = 18;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final long node;
+    private final LongSupplier clockSec;
+
+    // seconds << COUNTER_BITS | counter. A full counter carries into the next second instead of waiting for it,
+    // and a clock that steps back keeps counting from the last value
+    private final AtomicLong last = new AtomicLong();
+
+    @Inject
+    public BookingReferenceGenerator(@Named("app-config") final JsonObject config) {
+        this(resolveNode(config, System.getenv()), () -> System.currentTimeMillis() / 1000);
+    }
+
+    BookingReferenceGenerator(final int node, final LongSupplier clockSec) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("bookings.nodeId must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node;
+        this.clockSec = clockSec;
+    }
+
+    // bookings.nodeId, else NODE_ID (e.g. a StatefulSet pod index). Instances sharing an id issue the same
+    // references, so where bookings.requireNodeId is set (prod) a missing id fails the start; dev runs one node
+    static int resolveNode(final JsonObject config, final Map<String, String> env) {
+        final JsonObject bookings = config.getJsonObject("bookings", new JsonObject());
+        final Integer node = bookings.getInteger("nodeId");
+        if (node != null) {
+            return node;
+        }
+        final String fromEnv = env.get(NODE_ID_ENV);
+        if (fromEnv != null && !fromEnv.isBlank()) {
+            try {
+                return Integer.parseInt(fromEnv.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(NODE_ID_ENV + " must be a number: " + fromEnv, e);
+            }
+        }
+        if (bookings.getBoolean("requireNodeId", false)) {
+            throw new IllegalStateException("bookings.nodeId or " + NODE_ID_ENV + " must be set to an id unique to "
+                    + "this instance");
+        }
+        return 0;
+    }
+
+    public String next() {
+        final long now = (clockSec.getAsLong() - EPOCH_SEC) << COUNTER_BITS;
+        long prev;
+        long seq;
+        do {
+            prev = last.get();
+            seq = Math.max(prev + 1, now);
+        } while (!last.compareAndSet(prev, seq));
+
+        long bits = (seq >>> COUNTER_BITS) << (NODE_BITS + COUNTER_BITS) | node << COUNTER_BITS | (seq & COUNTER_MASK);
+        final char[] ref = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            ref[i] = ALPHABET[(int) (bits & 31)];
+            bits >>>= 5;
+        }
+        return new String(ref);
+    }
+}
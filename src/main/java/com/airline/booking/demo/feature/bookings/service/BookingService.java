@@ -1,5 +1,7 @@
 package com.airline.booking.demo.feature.bookings.service;
 
+import com.airline.booking.demo.common.cache.CacheRegistry;
+import com.airline.booking.demo.common.cache.IdempotencyStore;
 import com.airline.booking.demo.common.db.ReactiveTx;
 import com.airline.booking.demo.exception.BusinessServiceException;
 import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
@@ -8,13 +10,26 @@ import com.airline.booking.demo.feature.bookings.repository.BookingRepository;
 import com.airline.booking.demo.feature.bookings.repository.entity.Booking;
 import com.airline.booking.demo.feature.bookings.repository.entity.BookingStatus;
 import com.airline.booking.demo.feature.flights.repository.FlightRepository;
+import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import com.airline.booking.demo.feature.flights.repository.entity.FlightStatus;
+import com.airline.booking.demo.feature.flights.service.FlightRouteIndex;
 import com.airline.booking.demo.feature.passengers.repository.PassengerRepository;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.sqlclient.SqlConnection;
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,103 +38,318 @@ public class BookingService {
 
     private static final Logger log = LoggerFactory.getLogger(BookingService.class);
 
+    static final String IDEMPOTENCY_CACHE = "idempotency";
+
     private final ReactiveTx tx;
     private final FlightRepository flightRepository;
     private final BookingRepository bookingRepository;
     private final PassengerRepository passengerRepository;
+    private final FlightRouteIndex routeIndex;
+    private final IdempotencyStore<Booking> idempotency;
+    private final BookingReferenceGenerator referenceGenerator;
+    private final BookingReferenceCache referenceCache;
 
     @Inject
     public BookingService(final ReactiveTx tx,
             final FlightRepository flightRepository,
             final BookingRepository bookingRepository,
-            final PassengerRepository passengerRepository) {
+            final PassengerRepository passengerRepository,
+            final FlightRouteIndex routeIndex,
+            final CacheRegistry cacheRegistry,
+            @Named("app-config") final JsonObject config,
+            final BookingReferenceGenerator referenceGenerator,
+            final BookingReferenceCache referenceCache) {
+        this(tx, flightRepository, bookingRepository, passengerRepository, routeIndex,
+                IdempotencyStore.create(config, IDEMPOTENCY_CACHE, cacheRegistry), referenceGenerator, referenceCache);
+    }
+
+    BookingService(final ReactiveTx tx,
+            final FlightRepository flightRepository,
+            final BookingRepository bookingRepository,
+            final PassengerRepository passengerRepository,
+            final FlightRouteIndex routeIndex,
+            final IdempotencyStore<Booking> idempotency,
+            final BookingReferenceGenerator referenceGenerator,
+            final BookingReferenceCache referenceCache) {
         this.tx = tx;
         this.flightRepository = flightRepository;
         this.bookingRepository = bookingRepository;
         this.passengerRepository = passengerRepository;
+        this.routeIndex = routeIndex;
+        this.idempotency = idempotency;
+        this.referenceGenerator = referenceGenerator;
+        this.referenceCache = referenceCache;
     }
 
     public Future<Booking> getById(final Long id) {
         log.debug("Fetching booking id={}", id);
 
         return bookingRepository.findById(id)
-                .onSuccess(b -> log.info("Fetched booking id={} status={}", b.getId(), b.getStatus()))
+                .onSuccess(b -> log.debug("Fetched booking id={} status={}", b.getId(), b.getStatus()))
                 .onFailure(err -> log.error("Failed to fetch booking id={}", id, err));
     }
 
+    public Future<Booking> getByReference(final String reference) {
+        log.debug("Fetching booking reference={}", reference);
+
+        return referenceCache.get(reference, bookingRepository::findByReference)
+                .onFailure(err -> log.error("Failed to fetch booking reference={}", reference, err));
+    }
+
     public Future<Booking> create(final BookingRequest req) {
+        return book(req, null);
+    }
+
+    // Retries are answered from memory; after a restart the unique idempotency_key column still finds the original
+    public Future<Booking> create(final BookingRequest req, final String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return book(req, null);
+        }
+        return idempotency.execute(idempotencyKey, req, () -> bookingRepository.findByIdempotencyKey(idempotencyKey)
+                .compose(existing -> existing == null ? book(req, idempotencyKey) : replay(existing, req)));
+    }
+
+    private Future<Booking> replay(final Booking existing, final BookingRequest req) {
+        if (existing.getPassengerId().equals(req.passengerId()) && existing.getFlightId().equals(req.flightId())
+                && existing.getSeatNumber().equals(req.seatNumber())) {
+            log.debug("Replaying booking id={} for a repeated Idempotency-Key", existing.getId());
+            return Future.succeededFuture(existing);
+        }
+        return Future.failedFuture(new BusinessServiceException(ErrorCodeEnum.CONFLICT,
+                "Idempotency-Key was already used for a different request"));
+    }
+
+    private Future<Booking> book(final BookingRequest req, final String idempotencyKey) {
         final Long passengerId = req.passengerId();
         final Long flightId = req.flightId();
         final String seat = req.seatNumber();
 
-        log.info("Creating booking passengerId={}, flightId={}, seat={}", passengerId, flightId, seat);
-
-        return passengerRepository.findById(passengerId)
-                .onSuccess(p -> log.debug("Passenger validation passed: id={}", passengerId))
-                .onFailure(err -> log.error("Passenger not found id={}", passengerId, err))
-                .compose(p -> tx.withTx(conn ->
-                        flightRepository.findByIdForUpdate(conn, flightId)
-                                .onSuccess(flight -> log.debug("Locked flight id={} availableSeats={}", flightId,
-                                        flight.getAvailableSeats()))
-                                .compose(flight -> {
-                                    if (flight.getAvailableSeats() <= 0) {
-                                        log.warn("Booking failed: no seats left for flightId={}", flightId);
-                                        return Future.failedFuture(new BusinessServiceException(
-                                                ErrorCodeEnum.INVALID_PARAM,
-                                                "No seats available for flight " + flightId
-                                        ));
-                                    }
-
-                                    flight.setAvailableSeats(flight.getAvailableSeats() - 1);
-
-                                    final Booking b = new Booking();
-                                    b.setPassengerId(passengerId);
-                                    b.setFlightId(flightId);
-                                    b.setSeatNumber(seat);
-                                    b.setStatus(BookingStatus.CONFIRMED.name());
-                                    b.setTotalAmount(flight.getPrice() != null ? flight.getPrice() : BigDecimal.ZERO);
-                                    b.setBookingReference(generateBookingRef(flight.getFlightNumber()));
-
-                                    log.debug("Booking entity prepared: passengerId={}, flightId={}, reference={}",
-                                            passengerId, flightId, b.getBookingReference());
-
-                                    return flightRepository.save(conn, flight)
-                                            .onSuccess(f -> log.debug("Flight availability updated id={}", f.getId()))
-                                            .compose(saved -> bookingRepository.save(conn, b))
-                                            .onSuccess(saved -> log.info("Booking created id={} reference={}",
-                                                    saved.getId(), saved.getBookingReference()))
-                                            .onFailure(err -> log.error(
-                                                    "Booking creation failed passengerId={}, flightId={}",
-                                                    passengerId, flightId, err));
-                                })
-                ));
-    }
-
-    private String generateBookingRef(final String flightNumber) {
-        return flightNumber + LocalDate.now().toString().replace("-", "");
+        log.debug("Creating booking passengerId={}, flightId={}, seat={}", passengerId, flightId, seat);
+
+        // The passenger is checked on the transaction's connection, so one created just before is never missed
+        return tx.withTx(conn ->
+                passengerRepository.findById(conn, passengerId)
+                        .onSuccess(p -> log.debug("Passenger validation passed: id={}", passengerId))
+                        .onFailure(err -> log.error("Passenger not found id={}", passengerId, err))
+                        .compose(p -> flightRepository.findById(conn, flightId))
+                        .compose(flight -> {
+                            if (isCancelled(flight)) {
+                                log.warn("Booking failed: flightId={} is cancelled", flightId);
+                                return flightCancelled(flightId);
+                            }
+                            if (flight.getAvailableSeats() <= 0) {
+                                log.warn("Booking failed: no seats left for flightId={}", flightId);
+                                return noSeatsAvailable(flightId);
+                            }
+
+                            final Booking b = newBooking(req, flight);
+                            b.setIdempotencyKey(idempotencyKey);
+
+                            log.debug("Booking entity prepared: passengerId={}, flightId={}, reference={}",
+                                    passengerId, flightId, b.getBookingReference());
+
+                            // The seat decrement runs last so the flight row lock is only held until commit
+                            return bookingRepository.save(conn, b)
+                                    .compose(saved -> flightRepository.reserveSeat(conn, flightId)
+                                            .compose(reserved -> reserved
+                                                    ? Future.succeededFuture(saved)
+                                                    : noSeatsAvailable(flightId)))
+                                    .onSuccess(saved -> log.info("Booking created id={} reference={}",
+                                            saved.getId(), saved.getBookingReference()))
+                                    .onFailure(err -> log.error(
+                                            "Booking creation failed passengerId={}, flightId={}",
+                                            passengerId, flightId, err));
+                        })
+        )
+                .onSuccess(saved -> {
+                    routeIndex.adjustSeats(flightId, -1);
+                    referenceCache.put(saved);
+                });
+    }
+
+    public Future<List<BookingBatchResult>> createBatch(final List<BookingRequest> requests) {
+        log.debug("Creating booking batch size={}", requests.size());
+
+        // Sorted so concurrent batches always lock flights in the same order
+        final Set<Long> passengerIds = new TreeSet<>();
+        final Set<Long> flightIds = new TreeSet<>();
+        for (BookingRequest req : requests) {
+            passengerIds.add(req.passengerId());
+            flightIds.add(req.flightId());
+        }
+
+        return tx.withTx(conn ->
+                passengerRepository.findExistingIds(conn, passengerIds)
+                        .compose(known -> lockFlights(conn, flightIds)
+                                .compose(flights -> insertBatch(conn, requests, known, flights))))
+                .onSuccess(results -> log.info("Booking batch completed size={} created={}", results.size(),
+                        results.stream().filter(BookingBatchResult::succeeded).count()))
+                .onSuccess(this::reserveIndexedSeats)
+                .onFailure(err -> log.error("Booking batch failed size={}", requests.size(), err));
+    }
+
+    private void reserveIndexedSeats(final List<BookingBatchResult> results) {
+        final Map<Long, Integer> bookedByFlight = new HashMap<>();
+        for (BookingBatchResult result : results) {
+            if (result.succeeded()) {
+                bookedByFlight.merge(result.booking().getFlightId(), 1, Integer::sum);
+            }
+        }
+        bookedByFlight.forEach((flightId, seats) -> routeIndex.adjustSeats(flightId, -seats));
     }
 
+    private Future<Map<Long, Flight>> lockFlights(final SqlConnection conn, final Set<Long> flightIds) {
+        Future<Map<Long, Flight>> chain = Future.succeededFuture(new HashMap<>());
+        for (Long id : flightIds) {
+            chain = chain.compose(locked -> flightRepository.findByIdForUpdate(conn, id)
+                    .map(flight -> {
+                        locked.put(id, flight);
+                        return locked;
+                    })
+                    .recover(err -> isNotFound(err) ? Future.succeededFuture(locked) : Future.failedFuture(err)));
+        }
+        return chain;
+    }
+
+    private Future<List<BookingBatchResult>> insertBatch(final SqlConnection conn,
+            final List<BookingRequest> requests,
+            final Set<Long> knownPassengers,
+            final Map<Long, Flight> flights) {
+        final BookingBatchResult[] results = new BookingBatchResult[requests.size()];
+        final List<Booking> accepted = new ArrayList<>();
+        final List<Integer> acceptedIndexes = new ArrayList<>();
+        final Map<Long, Integer> seatsByFlight = new HashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            final BookingRequest req = requests.get(i);
+            final Flight flight = flights.get(req.flightId());
+
+            if (!knownPassengers.contains(req.passengerId())) {
+                results[i] = BookingBatchResult.failed(i, "Passenger not found with id: " + req.passengerId());
+            } else if (flight == null) {
+                results[i] = BookingBatchResult.failed(i, "Flight not found with id: " + req.flightId());
+            } else if (isCancelled(flight)) {
+                results[i] = BookingBatchResult.failed(i, "Flight " + req.flightId() + " is cancelled");
+            } else if (seatsByFlight.getOrDefault(req.flightId(), 0) >= flight.getAvailableSeats()) {
+                results[i] = BookingBatchResult.failed(i, "No seats available for flight " + req.flightId());
+            } else {
+                seatsByFlight.merge(req.flightId(), 1, Integer::sum);
+                accepted.add(newBooking(req, flight));
+                acceptedIndexes.add(i);
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return Future.succeededFuture(Arrays.asList(results));
+        }
+
+        return bookingRepository.saveAll(conn, accepted)
+                .compose(saved -> flightRepository.reserveSeats(conn, seatsByFlight)
+                        .compose(reserved -> {
+                            if (!reserved) {
+                                return Future.failedFuture(new BusinessServiceException(
+                                        ErrorCodeEnum.CONFLICT,
+                                        "Seat inventory changed while booking batch was processed"
+                                ));
+                            }
+                            for (int j = 0; j < saved.size(); j++) {
+                                final int index = acceptedIndexes.get(j);
+                                results[index] = BookingBatchResult.created(index, saved.get(j));
+                            }
+                            return Future.succeededFuture(Arrays.asList(results));
+                        }));
+    }
+
+    private Booking newBooking(final BookingRequest req, final Flight flight) {
+        final Booking b = new Booking();
+        b.setPassengerId(req.passengerId());
+        b.setFlightId(req.flightId());
+        b.setSeatNumber(req.seatNumber());
+        b.setStatus(BookingStatus.CONFIRMED.name());
+        b.setTotalAmount(flight.getPrice() != null ? flight.getPrice() : BigDecimal.ZERO);
+        b.setBookingReference(referenceGenerator.next());
+        return b;
+    }
+
+    private boolean isCancelled(final Flight flight) {
+        return FlightStatus.CANCELED.name().equals(flight.getStatus());
+    }
+
+    private boolean isNotFound(final Throwable err) {
+        return err instanceof BusinessServiceException ex && ex.getErrorEnum() == ErrorCodeEnum.ENTITY_NOT_FOUND;
+    }
+
+    private <T> Future<T> noSeatsAvailable(final Long flightId) {
+        return Future.failedFuture(new BusinessServiceException(
+                ErrorCodeEnum.INVALID_PARAM,
+                "No seats available for flight " + flightId
+        ));
+    }
+
+    private <T> Future<T> flightCancelled(final Long flightId) {
+        return Future.failedFuture(new BusinessServiceException(
+                ErrorCodeEnum.CONFLICT,
+                "Flight " + flightId + " is cancelled"
+        ));
+    }
+
+    // Cancelling twice is a no-op; the seat goes back only on the call that changed the status
     public Future<Void> cancel(final Long id) {
-        log.info("Cancelling booking id={}", id);
+        log.debug("Cancelling booking id={}", id);
 
         return tx.withTx(conn ->
-                bookingRepository.findById(conn, id)
-                        .onFailure(err -> log.error("Cancel failed: booking not found id={}", id, err))
-                        .compose(b -> {
-                            b.setStatus(BookingStatus.CANCELLED.name());
-                            return bookingRepository.save(conn, b)
-                                    .onSuccess(x -> log.info("Booking cancelled id={}", id))
-                                    .onFailure(err -> log.error("Failed to cancel booking id={}", id, err))
-                                    .mapEmpty();
-                        })
-        );
+                bookingRepository.cancel(conn, id)
+                        .compose(cancelled -> cancelled == null
+                                ? bookingRepository.findById(conn, id).map(existing -> (Booking) null)
+                                : flightRepository.releaseSeats(conn, cancelled.getFlightId(), 1).map(r -> cancelled))
+        )
+                .onSuccess(cancelled -> {
+                    if (cancelled != null) {
+                        log.info("Booking cancelled id={}", id);
+                        routeIndex.adjustSeats(cancelled.getFlightId(), 1);
+                        referenceCache.invalidate(cancelled.getBookingReference());
+                    }
+                })
+                .onFailure(err -> log.error("Failed to cancel booking id={}", id, err))
+                .mapEmpty();
+    }
+
+    // Set-based updates in one transaction, however many bookings the flight has. The flight row is locked
+    // first: a booking that already reserved its seat commits before the bulk cancel and is cancelled with
+    // the rest, and one that reserves later finds the flight cancelled.
+    public Future<Integer> cancelFlight(final Long flightId) {
+        log.debug("Cancelling flightId={} and all its bookings", flightId);
+
+        return tx.withTx(conn ->
+                flightRepository.findByIdForUpdate(conn, flightId)
+                        .compose(locked -> bookingRepository.cancelByFlightId(conn, flightId))
+                        .compose(references -> (references.isEmpty()
+                                ? Future.succeededFuture(true)
+                                : flightRepository.releaseSeats(conn, flightId, references.size()))
+                                .compose(r -> flightRepository.cancel(conn, flightId))
+                                .map(flight -> new CancelledFlight(flight, references)))
+        )
+                .onSuccess(cancelled -> {
+                    log.info("Cancelled flightId={} with {} bookings", flightId, cancelled.references().size());
+                    routeIndex.upsert(cancelled.flight());
+                    if (!cancelled.references().isEmpty()) {
+                        referenceCache.invalidateAll(cancelled.references());
+                    }
+                })
+                .onFailure(err -> log.error("Failed to cancel flightId={}", flightId, err))
+                .map(cancelled -> cancelled.references().size());
+    }
+
+    public Future<Void> streamByPassenger(final Long passengerId,
+            final Function<ReadStream<Booking>, Future<Void>> consumer) {
+        log.debug("Streaming bookings by passengerId={}", passengerId);
+
+        return bookingRepository.streamByPassengerId(passengerId, consumer)
+                .onSuccess(v -> log.debug("Streamed bookings for passengerId={}", passengerId))
+                .onFailure(err -> log.error("Failed to stream bookings for passengerId={}", passengerId, err));
     }
 
-    public Future<List<Booking>> findByPassenger(final Long passengerId) {
-        log.debug("Fetching bookings by passengerId={}", passengerId);
+    private record CancelledFlight(Flight flight, List<String> references) {
 
-        return tx.withTx(conn -> bookingRepository.findByPassengerId(conn, passengerId))
-                .onSuccess(list -> log.info("Found {} bookings for passengerId={}", list.size(), passengerId))
-                .onFailure(err -> log.error("Failed to fetch bookings for passengerId={}", passengerId, err));
     }
 }
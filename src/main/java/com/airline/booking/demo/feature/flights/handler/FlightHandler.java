@@ -1,18 +1,34 @@
 package com.airline.booking.demo.feature.flights.handler;
 
+import com.airline.booking.demo.common.http.ChunkedJson;
+import com.airline.booking.demo.common.http.PooledJson;
 import com.airline.booking.demo.exception.BusinessServiceException;
 import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
 import com.airline.booking.demo.feature.flights.dto.FlightRequest;
+import com.airline.booking.demo.feature.flights.mapper.FlightJson;
 import com.airline.booking.demo.feature.flights.mapper.FlightMapper;
+import com.airline.booking.demo.feature.flights.repository.FlightCursor;
+import com.airline.booking.demo.feature.flights.repository.FlightSearchCriteria;
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField;
 import com.airline.booking.demo.feature.flights.service.FlightService;
 import com.google.common.net.MediaType;
 import com.google.inject.Inject;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.json.Json;
 import io.vertx.ext.web.RoutingContext;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 public class FlightHandler {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final List<String> PAGE_PARAMS = List.of("limit", "cursor", "departureFrom", "departureTo", "fields");
+
     private final FlightService flightService;
 
     @Inject
@@ -39,8 +55,8 @@ public class FlightHandler {
     }
 
     public void search(final RoutingContext ctx) {
-        final String from = ctx.queryParam("from").stream().findFirst().orElse(null);
-        final String to = ctx.queryParam("to").stream().findFirst().orElse(null);
+        final String from = queryParam(ctx, "from");
+        final String to = queryParam(ctx, "to");
 
         if (from == null || to == null) {
             ctx.fail(new BusinessServiceException(
@@ -50,11 +66,86 @@ public class FlightHandler {
             return;
         }
 
-        flightService.search(from, to)
-                .onSuccess(list -> ctx.json(
-                        list.stream().map(FlightMapper::toResponse).toList()
-                ))
-                .onFailure(ctx::fail);
+        final boolean stream = Boolean.parseBoolean(queryParam(ctx, "stream"));
+        if (!stream && PAGE_PARAMS.stream().allMatch(p -> queryParam(ctx, p) == null)) {
+            flightService.search(from, to)
+                    .onSuccess(list -> PooledJson.endArray(ctx, list, FlightJson::write))
+                    .onFailure(ctx::fail);
+            return;
+        }
+
+        final FlightSearchCriteria criteria;
+        try {
+            criteria = toCriteria(ctx, from, to, stream);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            ctx.fail(new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM, e.getMessage()));
+            return;
+        }
+
+        if (stream) {
+            streamSearch(ctx, criteria);
+        } else {
+            flightService.searchPage(criteria)
+                    .onSuccess(page -> PooledJson.end(ctx, page,
+                            (gen, p) -> FlightJson.writePage(gen, p, criteria.fields())))
+                    .onFailure(ctx::fail);
+        }
+    }
+
+    private void streamSearch(final RoutingContext ctx, final FlightSearchCriteria criteria) {
+        final HttpServerResponse response = ctx.response();
+
+        flightService.streamSearch(criteria, flights ->
+                        ChunkedJson.writeArray(response, flights, f -> FlightMapper.toJson(f, criteria.fields())))
+                .onFailure(err -> {
+                    // Once the first chunk is out the status is committed, so the only signal left is a broken stream
+                    if (response.headWritten()) {
+                        response.reset();
+                    } else {
+                        ctx.fail(err);
+                    }
+                });
+    }
+
+    private FlightSearchCriteria toCriteria(final RoutingContext ctx, final String from, final String to,
+            final boolean stream) {
+        final String limitParam = queryParam(ctx, "limit");
+        Integer limit = stream ? null : DEFAULT_PAGE_SIZE;
+        if (limitParam != null) {
+            limit = Integer.parseInt(limitParam);
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+        }
+
+        final String cursor = queryParam(ctx, "cursor");
+        final String departureFrom = queryParam(ctx, "departureFrom");
+        final String departureTo = queryParam(ctx, "departureTo");
+
+        return new FlightSearchCriteria(
+                from,
+                to,
+                departureFrom != null ? LocalDate.parse(departureFrom) : null,
+                departureTo != null ? LocalDate.parse(departureTo) : null,
+                cursor != null ? FlightCursor.decode(cursor) : null,
+                limit,
+                parseFields(queryParam(ctx, "fields"))
+        );
+    }
+
+    private Set<FlightField> parseFields(final String fields) {
+        if (fields == null || fields.isBlank()) {
+            return FlightField.ALL;
+        }
+        final Set<FlightField> selected = EnumSet.noneOf(FlightField.class);
+        for (String name : fields.split(",")) {
+            selected.add(FlightField.fromJsonName(name.strip()));
+        }
+        return selected;
+    }
+
+    private String queryParam(final RoutingContext ctx, final String name) {
+        return ctx.queryParam(name).stream().findFirst().orElse(null);
     }
 
     public void create(final RoutingContext ctx) {
@@ -0,0 +1,101 @@
+package com.airline.booking.demo.feature.flights.mapper;
+
+import static com.airline.booking.demo.common.http.JsonValues.writeDecimal;
+import static com.airline.booking.demo.common.http.JsonValues.writeInt;
+import static com.airline.booking.demo.common.http.JsonValues.writeLong;
+import static com.airline.booking.demo.common.http.JsonValues.writeTimestamp;
+
+import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField;
+import com.airline.booking.demo.feature.flights.service.FlightPage;
+import com.airline.booking.demo.feature.flights.service.FlightSummary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.util.Set;
+
+// Writes the same documents FlightMapper.toJson produces, field by field
+public final class FlightJson {
+
+    private static final SerializedString[] NAMES = new SerializedString[FlightField.values().length];
+    private static final SerializedString ITEMS = new SerializedString("items");
+    private static final SerializedString NEXT_CURSOR = new SerializedString("nextCursor");
+
+    static {
+        for (FlightField field : FlightField.values()) {
+            NAMES[field.ordinal()] = new SerializedString(field.jsonName());
+        }
+    }
+
+    private FlightJson() {
+        // Empty Constructor
+    }
+
+    // The FlightField.SUMMARY fields, in the same order toJson writes them
+    public static void write(final JsonGenerator gen, final FlightSummary s) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(name(FlightField.ID));
+        writeLong(gen, s.id());
+        gen.writeFieldName(name(FlightField.FLIGHT_NUMBER));
+        gen.writeString(s.flightNumber());
+        gen.writeFieldName(name(FlightField.AIRLINE_ID));
+        writeLong(gen, s.airlineId());
+        gen.writeFieldName(name(FlightField.DEPARTURE_AIRPORT));
+        gen.writeString(s.departureAirport());
+        gen.writeFieldName(name(FlightField.ARRIVAL_AIRPORT));
+        gen.writeString(s.arrivalAirport());
+        gen.writeFieldName(name(FlightField.DEPARTURE_TIME));
+        writeTimestamp(gen, s.departureTime());
+        gen.writeFieldName(name(FlightField.ARRIVAL_TIME));
+        writeTimestamp(gen, s.arrivalTime());
+        gen.writeFieldName(name(FlightField.AVAILABLE_SEATS));
+        writeInt(gen, s.availableSeats());
+        gen.writeFieldName(name(FlightField.PRICE));
+        writeDecimal(gen, s.price());
+        gen.writeFieldName(name(FlightField.STATUS));
+        gen.writeString(s.status());
+        gen.writeEndObject();
+    }
+
+    public static void write(final JsonGenerator gen, final Flight f, final Set<FlightField> fields)
+            throws IOException {
+        gen.writeStartObject();
+        for (FlightField field : fields) {
+            gen.writeFieldName(name(field));
+            switch (field) {
+                case ID -> writeLong(gen, f.getId());
+                case FLIGHT_NUMBER -> gen.writeString(f.getFlightNumber());
+                case AIRLINE_ID -> writeLong(gen, f.getAirlineId());
+                case DEPARTURE_AIRPORT -> gen.writeString(f.getDepartureAirport());
+                case ARRIVAL_AIRPORT -> gen.writeString(f.getArrivalAirport());
+                case DEPARTURE_TIME -> writeTimestamp(gen, f.getDepartureTime());
+                case ARRIVAL_TIME -> writeTimestamp(gen, f.getArrivalTime());
+                case TOTAL_SEATS -> writeInt(gen, f.getTotalSeats());
+                case AVAILABLE_SEATS -> writeInt(gen, f.getAvailableSeats());
+                case PRICE -> writeDecimal(gen, f.getPrice());
+                case STATUS -> gen.writeString(f.getStatus());
+                case CREATED_AT -> writeTimestamp(gen, f.getCreatedAt());
+                case UPDATED_AT -> writeTimestamp(gen, f.getUpdatedAt());
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    public static void writePage(final JsonGenerator gen, final FlightPage page, final Set<FlightField> fields)
+            throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ITEMS);
+        gen.writeStartArray(page.flights(), page.flights().size());
+        for (Flight flight : page.flights()) {
+            write(gen, flight, fields);
+        }
+        gen.writeEndArray();
+        gen.writeFieldName(NEXT_CURSOR);
+        gen.writeString(page.next() != null ? page.next().encode() : null);
+        gen.writeEndObject();
+    }
+
+    private static SerializedString name(final FlightField field) {
+        return NAMES[field.ordinal()];
+    }
+}
@@ -3,8 +3,11 @@ package com.airline.booking.demo.feature.flights.mapper;
 import com.airline.booking.demo.feature.flights.dto.FlightRequest;
 import com.airline.booking.demo.feature.flights.dto.FlightResponse;
 import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField;
 import com.airline.booking.demo.feature.flights.repository.entity.FlightStatus;
+import io.vertx.core.json.JsonObject;
 import java.time.OffsetDateTime;
+import java.util.Set;
 
 public final class FlightMapper {
 
@@ -43,4 +46,30 @@ public final class FlightMapper {
                 f.getUpdatedAt() != null ? f.getUpdatedAt().toString() : null
         );
     }
+
+    public static JsonObject toJson(final Flight f, final Set<FlightField> fields) {
+        final JsonObject json = new JsonObject();
+        for (FlightField field : fields) {
+            json.put(field.jsonName(), switch (field) {
+                case ID -> f.getId();
+                case FLIGHT_NUMBER -> f.getFlightNumber();
+                case AIRLINE_ID -> f.getAirlineId();
+                case DEPARTURE_AIRPORT -> f.getDepartureAirport();
+                case ARRIVAL_AIRPORT -> f.getArrivalAirport();
+                case DEPARTURE_TIME -> toText(f.getDepartureTime());
+                case ARRIVAL_TIME -> toText(f.getArrivalTime());
+                case TOTAL_SEATS -> f.getTotalSeats();
+                case AVAILABLE_SEATS -> f.getAvailableSeats();
+                case PRICE -> f.getPrice();
+                case STATUS -> f.getStatus();
+                case CREATED_AT -> toText(f.getCreatedAt());
+                case UPDATED_AT -> toText(f.getUpdatedAt());
+            });
+        }
+        return json;
+    }
+
+    private static String toText(final OffsetDateTime time) {
+        return time != null ? time.toString() : null;
+    }
 }
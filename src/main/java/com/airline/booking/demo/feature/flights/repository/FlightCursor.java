@@ -0,0 +1,32 @@
+package com.airline.booking.demo.feature.flights.repository;
+
+import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+public record FlightCursor(LocalDateTime departureTime, long id) {
+
+    public static FlightCursor after(final Flight flight) {
+        return new FlightCursor(
+                flight.getDepartureTime().withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime(),
+                flight.getId()
+        );
+    }
+
+    public static FlightCursor decode(final String token) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int sep = raw.lastIndexOf('|');
+            return new FlightCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        final String raw = departureTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
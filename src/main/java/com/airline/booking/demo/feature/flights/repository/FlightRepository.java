@@ -2,18 +2,40 @@ package com.airline.booking.demo.feature.flights.repository;
 
 import com.airline.booking.demo.feature.flights.repository.entity.Flight;
 import io.vertx.core.Future;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.sqlclient.SqlConnection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public interface FlightRepository {
 
     Future<Flight> findById(Long id);
 
-    Future<List<Flight>> findByRoute(String from, String to);
+    // Only the FlightField.SUMMARY columns are selected; the rest stay null
+    Future<List<Flight>> findSummariesByRoute(String from, String to);
+
+    Future<List<Flight>> findAllSummaries();
+
+    Future<List<Flight>> search(FlightSearchCriteria criteria);
+
+    Future<Void> stream(FlightSearchCriteria criteria, Function<ReadStream<Flight>, Future<Void>> consumer);
 
     Future<Flight> save(Flight flight);
 
+    Future<Flight> findById(SqlConnection conn, Long id);
+
     Future<Flight> findByIdForUpdate(SqlConnection conn, Long id);
 
+    Future<Boolean> reserveSeat(SqlConnection conn, Long id);
+
+    Future<Boolean> reserveSeats(SqlConnection conn, Map<Long, Integer> seatsByFlight);
+
+    // Capped at total_seats, so a release can never leave more seats than the aircraft has
+    Future<Boolean> releaseSeats(SqlConnection conn, Long id, int seats);
+
+    // Returns the updated row; a cancelled flight takes no further seat reservations
+    Future<Flight> cancel(SqlConnection conn, Long id);
+
     Future<Flight> save(SqlConnection conn, Flight flight);
 }
@@ -0,0 +1,20 @@
+package com.airline.booking.demo.feature.flights.repository;
+
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField;
+import java.time.LocalDate;
+import java.util.Set;
+
+public record FlightSearchCriteria(
+        String from,
+        String to,
+        LocalDate departureFrom,
+        LocalDate departureTo,
+        FlightCursor after,
+        Integer limit,
+        Set<FlightField> fields
+) {
+
+    public FlightSearchCriteria withLimit(final Integer newLimit) {
+        return new FlightSearchCriteria(from, to, departureFrom, departureTo, after, newLimit, fields);
+    }
+}
@@ -0,0 +1,58 @@
+package com.airline.booking.demo.feature.flights.repository.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public enum FlightField {
+
+    ID("id", "id"),
+    FLIGHT_NUMBER("flightNumber", "flight_number"),
+    AIRLINE_ID("airlineId", "airline_id"),
+    DEPARTURE_AIRPORT("departureAirport", "departure_airport"),
+    ARRIVAL_AIRPORT("arrivalAirport", "arrival_airport"),
+    DEPARTURE_TIME("departureTime", "departure_time"),
+    ARRIVAL_TIME("arrivalTime", "arrival_time"),
+    TOTAL_SEATS("totalSeats", "total_seats"),
+    AVAILABLE_SEATS("availableSeats", "available_seats"),
+    PRICE("price", "price"),
+    STATUS("status", "status"),
+    CREATED_AT("createdAt", "created_at"),
+    UPDATED_AT("updatedAt", "updated_at");
+
+    public static final Set<FlightField> ALL = EnumSet.allOf(FlightField.class);
+    // What GET /flights/search lists without fields=, and all the route index keeps per flight
+    public static final Set<FlightField> SUMMARY = EnumSet.complementOf(EnumSet.of(TOTAL_SEATS, CREATED_AT, UPDATED_AT));
+
+    private final String jsonName;
+    private final String column;
+
+    FlightField(final String jsonName, final String column) {
+        this.jsonName = jsonName;
+        this.column = column;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    public static FlightField fromJsonName(final String name) {
+        for (FlightField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown flight field: " + name);
+    }
+
+    // The keyset columns are always selected so the next cursor can be built
+    public static String selectList(final Set<FlightField> fields) {
+        final Set<FlightField> selected = EnumSet.of(ID, DEPARTURE_TIME);
+        selected.addAll(fields);
+        return selected.stream().map(FlightField::column).collect(Collectors.joining(", "));
+    }
+}
@@ -2,28 +2,67 @@ package com.airline.booking.demo.feature.flights.repository.impl;
 
 import static com.airline.booking.demo.common.utils.AirlineBookingUtil.convertSqlDateTimeToOffset;
 
-import com.airline.booking.demo.exception.BusinessServiceException;
+import com.airline.booking.demo.common.db.SqlDialect;
+import com.airline.booking.demo.common.db.SqlRows;
+import com.airline.booking.demo.common.db.SqlStreams;
+import com.airline.booking.demo.common.db.StatementCatalog;
 import com.airline.booking.demo.exception.PgErrorMapper;
-import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
 import com.airline.booking.demo.feature.flights.repository.FlightRepository;
+import com.airline.booking.demo.feature.flights.repository.FlightSearchCriteria;
 import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField;
+import com.airline.booking.demo.feature.flights.repository.entity.FlightStatus;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import io.vertx.core.Future;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.sqlclient.Pool;
 import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.SqlConnection;
 import io.vertx.sqlclient.Tuple;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @Singleton
-public class FlightRepositoryImpl implements FlightRepository {
+public class FlightRepositoryImpl implements FlightRepository, StatementCatalog {
 
     private static final String SQL_SELECT_BY_ID = "SELECT * FROM flights WHERE id = ?";
-    private static final String SQL_SELECT_ROUTE = "SELECT * FROM flights WHERE departure_airport=? AND arrival_airport=?";
+    private static final String SQL_SELECT_ALL_SUMMARIES =
+            "SELECT " + FlightField.selectList(FlightField.SUMMARY) + " FROM flights";
+    private static final String SQL_SELECT_ROUTE_SUMMARIES =
+            SQL_SELECT_ALL_SUMMARIES + " WHERE departure_airport=? AND arrival_airport=?";
+    private static final String SQL_SEARCH_FROM = " FROM flights WHERE departure_airport = ? AND arrival_airport = ?";
     private static final String SQL_SELECT_FOR_UPDATE = "SELECT * FROM flights WHERE id=? FOR UPDATE";
 
+    // A booking that waited on a bulk cancel's row lock re-checks the status and finds the flight cancelled
+    private static final String SQL_RESERVE_SEAT = """
+                UPDATE flights SET
+                    available_seats = available_seats - 1, updated_at = CURRENT_TIMESTAMP
+                WHERE id = ? AND available_seats > 0 AND status <> ?
+            """;
+
+    private static final String SQL_RESERVE_SEATS = """
+                UPDATE flights SET
+                    available_seats = available_seats - ?, updated_at = CURRENT_TIMESTAMP
+                WHERE id = ? AND available_seats >= ? AND status <> ?
+            """;
+
+    private static final String SQL_RELEASE_SEATS = """
+                UPDATE flights SET
+                    available_seats = LEAST(total_seats, available_seats + ?), updated_at = CURRENT_TIMESTAMP
+                WHERE id = ?
+            """;
+
+    private static final String SQL_CANCEL = """
+                UPDATE flights SET status = ?, updated_at = CURRENT_TIMESTAMP
+                WHERE id = ?
+            """;
+
     private static final String SQL_INSERT =
             "INSERT INTO flights (" +
                     "flight_number, airline_id, departure_airport, arrival_airport, " +
@@ -39,53 +78,139 @@ public class FlightRepositoryImpl implements FlightRepository {
             """;
 
     private final Pool pool;
+    private final Pool readPool;
+    private final SqlDialect dialect;
+    private final String sqlInsertReturning;
+    private final String sqlUpdateReturning;
+    private final String sqlCancelReturning;
 
     @Inject
-    public FlightRepositoryImpl(final Pool pool) {
+    public FlightRepositoryImpl(final Pool pool, @Named("read-pool") final Pool readPool,
+            final SqlDialect dialect) {
         this.pool = pool;
+        this.readPool = readPool;
+        this.dialect = dialect;
+        this.sqlInsertReturning = dialect.returning(SQL_INSERT);
+        this.sqlUpdateReturning = dialect.returning(SQL_UPDATE);
+        this.sqlCancelReturning = dialect.returning(SQL_CANCEL);
+    }
+
+    @Override
+    public List<String> writeStatements() {
+        return List.of(sqlInsertReturning, sqlUpdateReturning, SQL_SELECT_BY_ID, SQL_SELECT_FOR_UPDATE,
+                SQL_RESERVE_SEAT, SQL_RESERVE_SEATS, SQL_RELEASE_SEATS, sqlCancelReturning);
+    }
+
+    // Search SQL is built per request; the first page over all fields is the shape nearly every caller sends
+    @Override
+    public List<String> readStatements() {
+        final FlightSearchCriteria firstPage = new FlightSearchCriteria(null, null, null, null, null, 1, FlightField.ALL);
+        return List.of(SQL_SELECT_BY_ID, SQL_SELECT_ROUTE_SUMMARIES, searchQuery(firstPage).sql());
     }
 
     @Override
     public Future<Flight> findById(final Long id) {
-        return pool.preparedQuery(SQL_SELECT_BY_ID)
+        return readPool.preparedQuery(SQL_SELECT_BY_ID)
                 .execute(Tuple.of(id))
-                .compose(rows -> {
-                    if (!rows.iterator().hasNext()) {
-                        return Future.failedFuture(
-                                new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND,
-                                        "Flight not found with id: " + id)
-                        );
-                    }
-                    return Future.succeededFuture(map(rows.iterator().next()));
-                })
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Flight not found with id: " + id))
                 .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query flight")));
     }
 
     @Override
-    public Future<List<Flight>> findByRoute(final String from, final String to) {
-        return pool.preparedQuery(SQL_SELECT_ROUTE)
+    public Future<List<Flight>> findSummariesByRoute(final String from, final String to) {
+        return readPool.preparedQuery(SQL_SELECT_ROUTE_SUMMARIES)
                 .execute(Tuple.of(from, to))
-                .map(rows -> {
-                    final List<Flight> list = new ArrayList<>();
-                    rows.forEach(r -> list.add(map(r)));
-                    return list;
-                })
+                .map(rows -> SqlRows.list(rows, row -> mapProjected(row, FlightField.SUMMARY)))
                 .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query flights")));
     }
 
+    @Override
+    public Future<List<Flight>> findAllSummaries() {
+        return readPool.query(SQL_SELECT_ALL_SUMMARIES).execute()
+                .map(rows -> SqlRows.list(rows, row -> mapProjected(row, FlightField.SUMMARY)))
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to fetch flights")));
+    }
+
+    @Override
+    public Future<List<Flight>> search(final FlightSearchCriteria criteria) {
+        final SearchQuery query = searchQuery(criteria);
+        return readPool.preparedQuery(query.sql())
+                .execute(query.params())
+                .map(rows -> SqlRows.list(rows, row -> mapProjected(row, criteria.fields())))
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to search flights")));
+    }
+
+    @Override
+    public Future<Void> stream(final FlightSearchCriteria criteria,
+            final Function<ReadStream<Flight>, Future<Void>> consumer) {
+        final SearchQuery query = searchQuery(criteria);
+        return SqlStreams.stream(readPool, dialect, query.sql(), query.params(),
+                        row -> mapProjected(row, criteria.fields()), consumer)
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to stream flights")));
+    }
+
+    private SearchQuery searchQuery(final FlightSearchCriteria criteria) {
+        final StringBuilder sql = new StringBuilder("SELECT ")
+                .append(FlightField.selectList(criteria.fields()))
+                .append(SQL_SEARCH_FROM);
+        final Tuple params = Tuple.of(criteria.from(), criteria.to());
+
+        if (criteria.departureFrom() != null) {
+            sql.append(" AND departure_time >= ?");
+            params.addLocalDateTime(criteria.departureFrom().atStartOfDay());
+        }
+        if (criteria.departureTo() != null) {
+            sql.append(" AND departure_time < ?");
+            params.addLocalDateTime(criteria.departureTo().plusDays(1).atStartOfDay());
+        }
+        if (criteria.after() != null) {
+            sql.append(" AND (departure_time, id) > (?, ?)");
+            params.addLocalDateTime(criteria.after().departureTime());
+            params.addLong(criteria.after().id());
+        }
+
+        sql.append(" ORDER BY departure_time, id");
+        if (criteria.limit() != null) {
+            sql.append(" LIMIT ?");
+            params.addInteger(criteria.limit());
+        }
+        return new SearchQuery(sql.toString(), params);
+    }
+
     @Override
     public Future<Flight> findByIdForUpdate(final SqlConnection conn, final Long id) {
         return conn.preparedQuery(SQL_SELECT_FOR_UPDATE)
                 .execute(Tuple.of(id))
-                .compose(rows -> {
-                    if (!rows.iterator().hasNext()) {
-                        return Future.failedFuture(
-                                new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND,
-                                        "Flight not found with id: " + id)
-                        );
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Flight not found with id: " + id));
+    }
+
+    @Override
+    public Future<Boolean> reserveSeat(final SqlConnection conn, final Long id) {
+        return conn.preparedQuery(SQL_RESERVE_SEAT)
+                .execute(Tuple.of(id, FlightStatus.CANCELED.name()))
+                .map(rows -> rows.rowCount() == 1)
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to reserve seat")));
+    }
+
+    @Override
+    public Future<Boolean> reserveSeats(final SqlConnection conn, final Map<Long, Integer> seatsByFlight) {
+        if (seatsByFlight.isEmpty()) {
+            return Future.succeededFuture(true);
+        }
+
+        final List<Tuple> batch = new ArrayList<>(seatsByFlight.size());
+        seatsByFlight.forEach((id, seats) -> batch.add(Tuple.of(seats, id, seats, FlightStatus.CANCELED.name())));
+
+        return conn.preparedQuery(SQL_RESERVE_SEATS)
+                .executeBatch(batch)
+                .map(rows -> {
+                    int updated = 0;
+                    for (RowSet<Row> rs = rows; rs != null; rs = rs.next()) {
+                        updated += rs.rowCount();
                     }
-                    return Future.succeededFuture(map(rows.iterator().next()));
-                });
+                    return updated == seatsByFlight.size();
+                })
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to reserve seats")));
     }
 
     @Override
@@ -94,46 +219,49 @@ public class FlightRepositoryImpl implements FlightRepository {
                 .compose(conn -> save(conn, flight).onComplete(ar -> conn.close()));
     }
 
+    @Override
+    public Future<Boolean> releaseSeats(final SqlConnection conn, final Long id, final int seats) {
+        return conn.preparedQuery(SQL_RELEASE_SEATS)
+                .execute(Tuple.of(seats, id))
+                .map(rows -> rows.rowCount() == 1)
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to release seats")));
+    }
+
+    @Override
+    public Future<Flight> cancel(final SqlConnection conn, final Long id) {
+        return conn.preparedQuery(sqlCancelReturning)
+                .execute(Tuple.of(FlightStatus.CANCELED.name(), id))
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Flight not found with id: " + id))
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to cancel flight")));
+    }
+
     @Override
     public Future<Flight> save(final SqlConnection conn, final Flight flight) {
         return flight.getId() == null ? insert(conn, flight) : update(conn, flight);
     }
 
     private Future<Flight> insert(final SqlConnection conn, final Flight flight) {
-        return conn.preparedQuery(SQL_INSERT)
+        return conn.preparedQuery(sqlInsertReturning)
                 .execute(Tuple.of(
                         flight.getFlightNumber(), flight.getAirlineId(), flight.getDepartureAirport(),
                         flight.getArrivalAirport(),
                         flight.getDepartureTime(), flight.getArrivalTime(), flight.getAvailableSeats(),
                         flight.getTotalSeats(), flight.getPrice(), flight.getStatus()
                 ))
-                .compose(v -> conn
-                        .query("SELECT lastval() AS id")
-                        .execute()
-                )
-                .compose(rows -> {
-                    final Long id = rows.iterator().next().getLong("id");
-                    return findById(conn, id);
-                })
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Flight insert returned no row"))
                 .recover(err -> Future.failedFuture(
                         PgErrorMapper.map(err, "Failed to insert flight")));
     }
 
-    private Future<Flight> findById(final SqlConnection conn, final Long id) {
+    @Override
+    public Future<Flight> findById(final SqlConnection conn, final Long id) {
         return conn.preparedQuery(SQL_SELECT_BY_ID)
                 .execute(Tuple.of(id))
-                .compose(rows -> {
-                    if (!rows.iterator().hasNext()) {
-                        return Future.failedFuture(
-                                new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND,
-                                        "Flight not found with id: " + id));
-                    }
-                    return Future.succeededFuture(map(rows.iterator().next()));
-                });
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Flight not found with id: " + id));
     }
 
     private Future<Flight> update(final SqlConnection conn, final Flight flight) {
-        return conn.preparedQuery(SQL_UPDATE)
+        return conn.preparedQuery(sqlUpdateReturning)
                 .execute(Tuple.of(
                         flight.getFlightNumber(), flight.getAirlineId(), flight.getDepartureAirport(),
                         flight.getArrivalAirport(),
@@ -141,11 +269,41 @@ public class FlightRepositoryImpl implements FlightRepository {
                         flight.getTotalSeats(), flight.getPrice(), flight.getStatus(),
                         flight.getId()
                 ))
-                .compose(v -> findById(flight.getId()))
+                .compose(rows -> SqlRows.first(rows, this::map,
+                        () -> "Flight not found with id: " + flight.getId()))
                 .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to update flight")));
     }
 
-    private Flight map(final Row row) {
+    private Flight mapProjected(final Row row, final Set<FlightField> fields) {
+        final Flight flight = new Flight();
+        flight.setId(row.getLong("id"));
+        flight.setDepartureTime(convertSqlDateTimeToOffset(row, "departure_time"));
+        for (FlightField field : fields) {
+            switch (field) {
+                case FLIGHT_NUMBER -> flight.setFlightNumber(row.getString("flight_number"));
+                case AIRLINE_ID -> flight.setAirlineId(row.getLong("airline_id"));
+                case DEPARTURE_AIRPORT -> flight.setDepartureAirport(row.getString("departure_airport"));
+                case ARRIVAL_AIRPORT -> flight.setArrivalAirport(row.getString("arrival_airport"));
+                case ARRIVAL_TIME -> flight.setArrivalTime(convertSqlDateTimeToOffset(row, "arrival_time"));
+                case TOTAL_SEATS -> flight.setTotalSeats(row.getInteger("total_seats"));
+                case AVAILABLE_SEATS -> flight.setAvailableSeats(row.getInteger("available_seats"));
+                case PRICE -> flight.setPrice(row.getBigDecimal("price"));
+                case STATUS -> flight.setStatus(row.getString("status"));
+                case CREATED_AT -> flight.setCreatedAt(convertSqlDateTimeToOffset(row, "created_at"));
+                case UPDATED_AT -> flight.setUpdatedAt(convertSqlDateTimeToOffset(row, "updated_at"));
+                case ID, DEPARTURE_TIME -> {
+                    // Always mapped above
+                }
+            }
+        }
+        return flight;
+    }
+
+    private record SearchQuery(String sql, Tuple params) {
+
+    }
+
+    Flight map(final Row row) {
         final Flight flight = new Flight();
         flight.setId(row.getLong("id"));
         flight.setFlightNumber(row.getString("flight_number"));
@@ -0,0 +1,9 @@
+package com.airline.booking.demo.feature.flights.service;
+
+import com.airline.booking.demo.feature.flights.repository.FlightCursor;
+import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import java.util.List;
+
+public record FlightPage(List<Flight> flights, FlightCursor next) {
+
+}
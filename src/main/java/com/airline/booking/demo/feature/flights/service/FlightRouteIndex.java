@@ -0,0 +1,181 @@
+package com.airline.booking.demo.feature.flights.service;
+
+import com.airline.booking.demo.common.cache.CacheRegistry;
+import com.airline.booking.demo.common.cache.CacheStats;
+import com.airline.booking.demo.feature.flights.repository.FlightRepository;
+import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Singleton
+public class FlightRouteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRouteIndex.class);
+
+    static final String CACHE_NAME = "flightRoutes";
+    private static final long DEFAULT_TTL_MS = 30_000;
+    private static final int DEFAULT_MAX_ROUTES = 10_000;
+
+    private final FlightRepository flightRepository;
+    private final CacheStats stats;
+    private final long ttlNanos;
+    private final int maxRoutes;
+    private final LongSupplier clock;
+
+    private final Map<RouteKey, RouteEntry> routes = new ConcurrentHashMap<>();
+    private final Map<Long, RouteKey> routeByFlight = new ConcurrentHashMap<>();
+    // One database load per route at a time; concurrent misses join it
+    private final Map<RouteKey, Future<List<FlightSummary>>> loading = new ConcurrentHashMap<>();
+
+    @Inject
+    public FlightRouteIndex(final FlightRepository flightRepository,
+            final CacheRegistry cacheRegistry,
+            @Named("app-config") final JsonObject config) {
+        this(flightRepository, cacheRegistry.stats(CACHE_NAME), CacheRegistry.config(config, CACHE_NAME),
+                System::nanoTime);
+    }
+
+    FlightRouteIndex(final FlightRepository flightRepository,
+            final CacheStats stats,
+            final JsonObject cacheConfig,
+            final LongSupplier clock) {
+        this.flightRepository = flightRepository;
+        this.stats = stats;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(cacheConfig.getLong("ttlMs", DEFAULT_TTL_MS));
+        this.maxRoutes = cacheConfig.getInteger("maxRoutes", DEFAULT_MAX_ROUTES);
+        this.clock = clock;
+    }
+
+    public Future<Void> warm() {
+        return flightRepository.findAllSummaries().map(flights -> {
+            final long now = clock.getAsLong();
+            final Map<RouteKey, List<FlightSummary>> grouped = new HashMap<>();
+            for (Flight flight : flights) {
+                grouped.computeIfAbsent(RouteKey.of(flight), k -> new ArrayList<>()).add(FlightSummary.of(flight));
+            }
+            grouped.forEach((key, summaries) -> publish(key, summaries, now));
+            log.info("Flight route index warmed routes={} flights={}", grouped.size(), flights.size());
+            return null;
+        });
+    }
+
+    public Future<List<FlightSummary>> search(final String from, final String to) {
+        final RouteKey key = new RouteKey(from, to);
+        final long now = clock.getAsLong();
+        final RouteEntry entry = routes.get(key);
+
+        if (entry != null && now - entry.loadedAt() < ttlNanos) {
+            stats.hit();
+            return Future.succeededFuture(entry.flights());
+        }
+
+        stats.miss();
+        if (entry != null) {
+            stats.expired();
+        }
+
+        final Future<List<FlightSummary>> load = loading.computeIfAbsent(key, k -> flightRepository.findSummariesByRoute(from, to)
+                .map(flights -> publish(key, flights.stream().map(FlightSummary::of).toList(), now)));
+        load.onComplete(ar -> loading.remove(key, load));
+        return load;
+    }
+
+    public void upsert(final Flight flight) {
+        final FlightSummary summary = FlightSummary.of(flight);
+        final RouteKey key = RouteKey.of(flight);
+        final RouteKey previous = routeByFlight.put(flight.getId(), key);
+
+        if (previous != null && !previous.equals(key)) {
+            routes.computeIfPresent(previous, (k, e) -> e.replace(flight.getId(), null));
+        }
+        if (routes.computeIfPresent(key, (k, e) -> e.replace(flight.getId(), summary)) == null) {
+            // The new route is not indexed; its load will map the flight
+            routeByFlight.remove(flight.getId(), key);
+        }
+    }
+
+    public void adjustSeats(final Long flightId, final int delta) {
+        final RouteKey key = routeByFlight.get(flightId);
+        if (key == null) {
+            return;
+        }
+        routes.computeIfPresent(key, (k, e) -> e.adjustSeats(flightId, delta));
+    }
+
+    private List<FlightSummary> publish(final RouteKey key, final List<FlightSummary> summaries, final long loadedAt) {
+        final List<FlightSummary> sorted = summaries.stream().sorted(FlightSummary.BY_DEPARTURE).toList();
+
+        // Unknown routes beyond the cap are served but not indexed, so arbitrary from/to pairs cannot grow the map
+        if (routes.size() >= maxRoutes && !routes.containsKey(key)) {
+            return sorted;
+        }
+
+        sorted.forEach(s -> routeByFlight.put(s.id(), key));
+        final RouteEntry previous = routes.put(key, new RouteEntry(sorted, loadedAt));
+        if (previous != null) {
+            forgetMissing(key, previous.flights(), sorted);
+        }
+        return sorted;
+    }
+
+    // Flights the reload no longer has on this route; a flight that moved is already mapped to its new route
+    private void forgetMissing(final RouteKey key, final List<FlightSummary> before, final List<FlightSummary> after) {
+        final Set<Long> kept = new HashSet<>(after.size());
+        after.forEach(s -> kept.add(s.id()));
+        for (FlightSummary s : before) {
+            if (!kept.contains(s.id())) {
+                routeByFlight.remove(s.id(), key);
+            }
+        }
+    }
+
+    int mappedFlights() {
+        return routeByFlight.size();
+    }
+
+    record RouteKey(String from, String to) {
+
+        static RouteKey of(final Flight flight) {
+            return new RouteKey(flight.getDepartureAirport(), flight.getArrivalAirport());
+        }
+    }
+
+    record RouteEntry(List<FlightSummary> flights, long loadedAt) {
+
+        RouteEntry replace(final Long flightId, final FlightSummary summary) {
+            final List<FlightSummary> updated = new ArrayList<>(flights.size() + 1);
+            for (FlightSummary s : flights) {
+                if (!s.id().equals(flightId)) {
+                    updated.add(s);
+                }
+            }
+            if (summary != null) {
+                updated.add(summary);
+                updated.sort(FlightSummary.BY_DEPARTURE);
+            }
+            return new RouteEntry(List.copyOf(updated), loadedAt);
+        }
+
+        RouteEntry adjustSeats(final Long flightId, final int delta) {
+            final List<FlightSummary> updated = new ArrayList<>(flights.size());
+            for (FlightSummary s : flights) {
+                updated.add(s.id().equals(flightId) ? s.withAvailableSeats(s.availableSeats() + delta) : s);
+            }
+            return new RouteEntry(List.copyOf(updated), loadedAt);
+        }
+    }
+}
@@ -4,13 +4,17 @@ import com.airline.booking.demo.exception.BusinessServiceException;
 import com.airline.booking.demo.feature.airlines.repository.AirlineRepository;
 import com.airline.booking.demo.feature.flights.dto.FlightRequest;
 import com.airline.booking.demo.feature.flights.mapper.FlightMapper;
+import com.airline.booking.demo.feature.flights.repository.FlightCursor;
 import com.airline.booking.demo.feature.flights.repository.FlightRepository;
+import com.airline.booking.demo.feature.flights.repository.FlightSearchCriteria;
 import com.airline.booking.demo.feature.flights.repository.entity.Flight;
 import com.airline.booking.demo.feature.flights.repository.entity.FlightStatus;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.vertx.core.Future;
+import io.vertx.core.streams.ReadStream;
 import java.util.List;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,12 +25,15 @@ public class FlightService {
 
     private final FlightRepository flightRepository;
     private final AirlineRepository airlineRepository;
+    private final FlightRouteIndex routeIndex;
 
     @Inject
     public FlightService(final FlightRepository flightRepository,
-            final AirlineRepository airlineRepository) {
+            final AirlineRepository airlineRepository,
+            final FlightRouteIndex routeIndex) {
         this.flightRepository = flightRepository;
         this.airlineRepository = airlineRepository;
+        this.routeIndex = routeIndex;
     }
 
     public Future<Flight> getById(final Long id) {
@@ -34,14 +41,35 @@ public class FlightService {
         return flightRepository.findById(id);
     }
 
-    public Future<List<Flight>> search(final String from, final String to) {
+    public Future<List<FlightSummary>> search(final String from, final String to) {
         log.debug("Searching flights from={} to={}", from, to);
-        return flightRepository.findByRoute(from, to)
+        return routeIndex.search(from, to)
                 .onSuccess(list ->
-                        log.info("Found {} flights from={} to={}", list.size(), from, to)
+                        log.debug("Found {} flights from={} to={}", list.size(), from, to)
                 );
     }
 
+    public Future<FlightPage> searchPage(final FlightSearchCriteria criteria) {
+        log.debug("Searching flight page from={} to={} limit={}", criteria.from(), criteria.to(), criteria.limit());
+
+        // One extra row tells us whether another page exists without a COUNT query
+        return flightRepository.search(criteria.withLimit(criteria.limit() + 1))
+                .map(flights -> {
+                    if (flights.size() <= criteria.limit()) {
+                        return new FlightPage(flights, null);
+                    }
+                    final List<Flight> page = flights.subList(0, criteria.limit());
+                    return new FlightPage(page, FlightCursor.after(page.getLast()));
+                });
+    }
+
+    public Future<Void> streamSearch(final FlightSearchCriteria criteria,
+            final Function<ReadStream<Flight>, Future<Void>> consumer) {
+        log.debug("Streaming flights from={} to={}", criteria.from(), criteria.to());
+        return flightRepository.stream(criteria, consumer)
+                .onFailure(err -> log.error("Flight stream failed from={} to={}", criteria.from(), criteria.to(), err));
+    }
+
     public Future<Flight> create(final FlightRequest req) {
         log.debug("Creating flight number={} airlineId={}",
                 req.flightNumber(), req.airlineId());
@@ -61,6 +89,7 @@ public class FlightService {
 
                     return flightRepository.save(flight);
                 })
+                .onSuccess(routeIndex::upsert)
                 .onFailure(err -> {
                     if (!(err instanceof BusinessServiceException)) {
                         log.error("Unexpected error creating flight", err);
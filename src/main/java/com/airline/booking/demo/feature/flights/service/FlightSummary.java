@@ -0,0 +1,44 @@
+package com.airline.booking.demo.feature.flights.service;
+
+import com.airline.booking.demo.feature.flights.repository.entity.Flight;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+
+// The FlightField.SUMMARY columns of a flight, as the route index keeps and /flights/search lists them
+public record FlightSummary(
+        Long id,
+        String flightNumber,
+        Long airlineId,
+        String departureAirport,
+        String arrivalAirport,
+        OffsetDateTime departureTime,
+        OffsetDateTime arrivalTime,
+        Integer availableSeats,
+        BigDecimal price,
+        String status
+) {
+
+    public static final Comparator<FlightSummary> BY_DEPARTURE =
+            Comparator.comparing(FlightSummary::departureTime).thenComparing(FlightSummary::id);
+
+    public static FlightSummary of(final Flight f) {
+        return new FlightSummary(
+                f.getId(),
+                f.getFlightNumber(),
+                f.getAirlineId(),
+                f.getDepartureAirport(),
+                f.getArrivalAirport(),
+                f.getDepartureTime(),
+                f.getArrivalTime(),
+                f.getAvailableSeats(),
+                f.getPrice(),
+                f.getStatus()
+        );
+    }
+
+    public FlightSummary withAvailableSeats(final int seats) {
+        return new FlightSummary(id, flightNumber, airlineId, departureAirport, arrivalAirport,
+                departureTime, arrivalTime, seats, price, status);
+    }
+}
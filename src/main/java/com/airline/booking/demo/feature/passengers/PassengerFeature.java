@@ -1,11 +1,11 @@
 package com.airline.booking.demo.feature.passengers;
 
+import com.airline.booking.demo.common.http.RequestBodies;
 import com.airline.booking.demo.common.validation.RequestValidationHandler;
 import com.airline.booking.demo.feature.passengers.dto.PassengerRequest;
 import com.airline.booking.demo.feature.passengers.handler.PassengerHandler;
 import com.google.inject.Inject;
 import io.vertx.ext.web.Router;
-import io.vertx.ext.web.handler.BodyHandler;
 
 public class PassengerFeature {
 
@@ -20,9 +20,8 @@ public class PassengerFeature {
     }
 
     public void init(final Router router) {
-        router.route("/passengers*").handler(BodyHandler.create());
-
         router.post("/passengers")
+                .handler(RequestBodies.capped(RequestBodies.ENTITY_MAX_BYTES))
                 .handler(requestValidationHandler.validate(PassengerRequest.class))
                 .handler(handler::create);
 
@@ -1,7 +1,9 @@
 package com.airline.booking.demo.feature.passengers.handler;
 
+import com.airline.booking.demo.common.http.ChunkedJson;
 import com.airline.booking.demo.exception.BusinessServiceException;
 import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
+import com.airline.booking.demo.feature.bookings.mapper.BookingMapper;
 import com.airline.booking.demo.feature.bookings.service.BookingService;
 import com.airline.booking.demo.feature.passengers.dto.PassengerRequest;
 import com.airline.booking.demo.feature.passengers.mapper.PassengerMapper;
@@ -10,6 +12,8 @@ import com.google.common.net.MediaType;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.json.Json;
 import io.vertx.ext.web.RoutingContext;
 
@@ -28,11 +32,21 @@ public class PassengerHandler {
     public void getBookings(final RoutingContext ctx) {
         try {
             final long id = Long.parseLong(ctx.pathParam("id"));
+            final HttpServerResponse response = ctx.response();
+            final String accept = ctx.request().getHeader(HttpHeaders.ACCEPT);
+            final boolean ndjson = accept != null && accept.contains(ChunkedJson.NDJSON);
 
             passengerService.getById(id)
-                    .compose(v -> bookingService.findByPassenger(id))
-                    .onSuccess(ctx::json)
-                    .onFailure(ctx::fail);
+                    .compose(v -> bookingService.streamByPassenger(id, bookings -> ndjson
+                            ? ChunkedJson.writeLines(response, bookings, BookingMapper::toResponse)
+                            : ChunkedJson.writeArray(response, bookings, BookingMapper::toResponse)))
+                    .onFailure(err -> {
+                        if (response.headWritten()) {
+                            response.reset();
+                        } else {
+                            ctx.fail(err);
+                        }
+                    });
 
         } catch (NumberFormatException e) {
             ctx.fail(new BusinessServiceException(
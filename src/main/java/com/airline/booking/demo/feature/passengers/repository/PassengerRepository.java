@@ -3,6 +3,7 @@ package com.airline.booking.demo.feature.passengers.repository;
 import com.airline.booking.demo.feature.passengers.repository.entity.Passenger;
 import io.vertx.core.Future;
 import io.vertx.sqlclient.SqlConnection;
+import java.util.Set;
 
 public interface PassengerRepository {
 
@@ -11,4 +12,8 @@ public interface PassengerRepository {
     Future<Passenger> save(SqlConnection conn, Passenger p);
 
     Future<Passenger> findById(Long id);
+
+    Future<Passenger> findById(SqlConnection conn, Long id);
+
+    Future<Set<Long>> findExistingIds(SqlConnection conn, Set<Long> ids);
 }
@@ -2,25 +2,34 @@ package com.airline.booking.demo.feature.passengers.repository.impl;
 
 import static com.airline.booking.demo.common.utils.AirlineBookingUtil.convertSqlDateTimeToOffset;
 
-import com.airline.booking.demo.exception.BusinessServiceException;
+import com.airline.booking.demo.common.db.SqlDialect;
+import com.airline.booking.demo.common.db.SqlRows;
+import com.airline.booking.demo.common.db.StatementCatalog;
 import com.airline.booking.demo.exception.PgErrorMapper;
-import com.airline.booking.demo.exception.dto.ErrorCodeEnum;
 import com.airline.booking.demo.feature.passengers.repository.PassengerRepository;
 import com.airline.booking.demo.feature.passengers.repository.entity.Passenger;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import io.vertx.core.Future;
 import io.vertx.sqlclient.Pool;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.SqlConnection;
 import io.vertx.sqlclient.Tuple;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Singleton
-public class PassengerRepositoryImpl implements PassengerRepository {
+public class PassengerRepositoryImpl implements PassengerRepository, StatementCatalog {
 
     private static final String SQL_SELECT_BY_ID =
             "SELECT * FROM passengers WHERE id = ?";
 
+    // One round trip for a whole batch; an array parameter keeps it a single prepared statement whatever the size
+    private static final String SQL_SELECT_EXISTING_IDS =
+            "SELECT id FROM passengers WHERE id = ANY(?)";
+
     private static final String SQL_INSERT =
             "INSERT INTO passengers (first_name, last_name, email, phone, passport_number, date_of_birth) " +
                     "VALUES (?, ?, ?, ?, ?, ?)";
@@ -30,25 +39,61 @@ public class PassengerRepositoryImpl implements PassengerRepository {
                     "updated_at=CURRENT_TIMESTAMP WHERE id=?";
 
     private final Pool pool;
+    private final Pool readPool;
+    private final String sqlInsertReturning;
+    private final String sqlUpdateReturning;
 
     @Inject
-    public PassengerRepositoryImpl(final Pool pool) {
+    public PassengerRepositoryImpl(final Pool pool, @Named("read-pool") final Pool readPool,
+            final SqlDialect dialect) {
         this.pool = pool;
+        this.readPool = readPool;
+        this.sqlInsertReturning = dialect.returning(SQL_INSERT);
+        this.sqlUpdateReturning = dialect.returning(SQL_UPDATE);
+    }
+
+    @Override
+    public List<String> writeStatements() {
+        return List.of(sqlInsertReturning, sqlUpdateReturning, SQL_SELECT_BY_ID, SQL_SELECT_EXISTING_IDS);
+    }
+
+    @Override
+    public List<String> readStatements() {
+        return List.of(SQL_SELECT_BY_ID);
     }
 
     @Override
     public Future<Passenger> findById(final Long id) {
-        return pool.preparedQuery(SQL_SELECT_BY_ID)
+        return readPool.preparedQuery(SQL_SELECT_BY_ID)
+                .execute(Tuple.of(id))
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Passenger not found with id: " + id))
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query passenger")));
+    }
+
+    // On the caller's write connection, so a passenger created a moment ago is found whatever the replica lag
+    @Override
+    public Future<Passenger> findById(final SqlConnection conn, final Long id) {
+        return conn.preparedQuery(SQL_SELECT_BY_ID)
                 .execute(Tuple.of(id))
-                .compose(rows -> {
-                    if (!rows.iterator().hasNext()) {
-                        return Future.failedFuture(
-                                new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND,
-                                        "Passenger not found with id: " + id));
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Passenger not found with id: " + id))
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query passenger")));
+    }
+
+    @Override
+    public Future<Set<Long>> findExistingIds(final SqlConnection conn, final Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Future.succeededFuture(Set.of());
+        }
+        return conn.preparedQuery(SQL_SELECT_EXISTING_IDS)
+                .execute(Tuple.of(ids.toArray(new Long[0])))
+                .map(rows -> {
+                    final Set<Long> existing = new HashSet<>(rows.size());
+                    for (Row row : rows) {
+                        existing.add(row.getLong("id"));
                     }
-                    return Future.succeededFuture(map(rows.iterator().next()));
+                    return existing;
                 })
-                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query passenger")));
+                .recover(err -> Future.failedFuture(PgErrorMapper.map(err, "Failed to query passengers")));
     }
 
 
@@ -65,41 +110,25 @@ public class PassengerRepositoryImpl implements PassengerRepository {
     }
 
     private Future<Passenger> insert(final SqlConnection conn, final Passenger passenger) {
-        return conn.preparedQuery(SQL_INSERT)
+        return conn.preparedQuery(sqlInsertReturning)
                 .execute(Tuple.of(
                         passenger.getFirstName(), passenger.getLastName(), passenger.getEmail(),
                         passenger.getPhone(), passenger.getPassportNumber(), passenger.getDateOfBirth()
                 ))
-                .compose(v -> conn.query("SELECT lastval() AS id").execute())
-                .compose(rows -> {
-                    final Long id = rows.iterator().next().getLong("id");
-                    return findById(conn, id);
-                })
+                .compose(rows -> SqlRows.first(rows, this::map, () -> "Passenger insert returned no row"))
                 .recover(err -> Future.failedFuture(
                         PgErrorMapper.map(err, "Failed to insert passenger")));
     }
 
-    private Future<Passenger> findById(final SqlConnection conn, final Long id) {
-        return conn.preparedQuery(SQL_SELECT_BY_ID)
-                .execute(Tuple.of(id))
-                .compose(rows -> {
-                    if (!rows.iterator().hasNext()) {
-                        return Future.failedFuture(
-                                new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND,
-                                        "Passenger not found with id: " + id));
-                    }
-                    return Future.succeededFuture(map(rows.iterator().next()));
-                });
-    }
-
     private Future<Passenger> update(final SqlConnection conn, final Passenger passenger) {
-        return conn.preparedQuery(SQL_UPDATE)
+        return conn.preparedQuery(sqlUpdateReturning)
                 .execute(Tuple.of(
                         passenger.getFirstName(), passenger.getLastName(), passenger.getEmail(),
                         passenger.getPhone(), passenger.getPassportNumber(), passenger.getDateOfBirth(),
                         passenger.getId()
                 ))
-                .compose(v -> findById(conn, passenger.getId()))
+                .compose(rows -> SqlRows.first(rows, this::map,
+                        () -> "Passenger not found with id: " + passenger.getId()))
                 .recover(err -> Future.failedFuture(
                         PgErrorMapper.map(err, "Failed to update passenger")));
     }
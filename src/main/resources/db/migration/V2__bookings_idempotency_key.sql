@@ -0,0 +1,4 @@
+-- Upgrades a bookings table created before Idempotency-Key support (schema.sql already has both).
+-- Run once against an existing database before deploying; NULL keys never collide, so old rows need no backfill.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(64);
+ALTER TABLE bookings ADD CONSTRAINT uq_bookings_idempotency_key UNIQUE (idempotency_key);
@@ -0,0 +1,4 @@
+-- Adds the route search index to a flights table created before it (schema.sql already has it).
+-- CONCURRENTLY keeps flights writable while it builds; it cannot run inside a transaction, so run the file as is.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_flights_route_departure
+    ON flights(departure_airport, arrival_airport, departure_time, id);
@@ -59,8 +59,10 @@ CREATE TABLE bookings (
     seat_number VARCHAR(10),
     status VARCHAR(20) NOT NULL DEFAULT 'CONFIRMED',
     total_amount DECIMAL(10,2) NOT NULL,
+    idempotency_key VARCHAR(64),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_bookings_idempotency_key UNIQUE (idempotency_key),
     FOREIGN KEY (passenger_id) REFERENCES passengers(id) ON DELETE CASCADE,
     FOREIGN KEY (flight_id) REFERENCES flights(id) ON DELETE CASCADE
 );
@@ -69,6 +71,7 @@ CREATE TABLE bookings (
 CREATE INDEX idx_flights_route ON flights(departure_airport, arrival_airport);
 CREATE INDEX idx_flights_airline ON flights(airline_id);
 CREATE INDEX idx_flights_departure_time ON flights(departure_time);
+CREATE INDEX idx_flights_route_departure ON flights(departure_airport, arrival_airport, departure_time, id);
 CREATE INDEX idx_bookings_passenger ON bookings(passenger_id);
 CREATE INDEX idx_bookings_flight ON bookings(flight_id);
 CREATE INDEX idx_bookings_reference ON bookings(booking_reference);
\ No newline at end of file
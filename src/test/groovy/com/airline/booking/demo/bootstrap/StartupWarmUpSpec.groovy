@@ -0,0 +1,65 @@
+package com.airline.booking.demo.bootstrap
+
+import com.airline.booking.demo.common.db.SqlDialect
+import com.airline.booking.demo.common.db.StatementCatalog
+import com.airline.booking.demo.common.http.Readiness
+import io.vertx.core.Vertx
+import io.vertx.core.http.HttpMethod
+import io.vertx.core.json.JsonObject
+import io.vertx.sqlclient.Pool
+import spock.lang.Specification
+
+class StartupWarmUpSpec extends Specification {
+
+    Vertx vertx = Mock()
+    Pool pool = Mock()
+    Pool readPool = Mock()
+    StatementCatalog catalog = Mock()
+    Readiness readiness = new Readiness()
+
+    def "a disabled warm-up should touch no pool and report ready straight away"() {
+        given:
+        def config = new JsonObject().put("warmup", new JsonObject().put("enabled", false))
+        def warmUp = new StartupWarmUp(vertx, config, pool, readPool, SqlDialect.H2, [catalog], readiness)
+
+        when:
+        warmUp.warmStatements()
+        warmUp.warmRoutes()
+
+        then:
+        0 * pool._
+        0 * readPool._
+        0 * vertx._
+        readiness.ready
+        readiness.warmupNanos() == 0
+    }
+
+    def "readiness should stay off until warm-up has finished"() {
+        expect:
+        !new Readiness().ready
+    }
+
+    def "calls should only read or send bodies that fail validation"() {
+        when:
+        def calls = StartupWarmUp.calls("/flights/search?from=DXB&to=LHR", flightId)
+
+        then:
+        calls.findAll { it.method() == HttpMethod.POST }.every { it.body().toString() == "{}" }
+        calls.findAll { it.method() != HttpMethod.POST }.every { it.method() == HttpMethod.GET }
+        calls.any { it.uri() == "/flights/7" } == (flightId != null)
+
+        where:
+        flightId << [7L, null]
+    }
+
+    def "loopback should replace wildcard hosts only"() {
+        expect:
+        StartupWarmUp.loopback(host) == expected
+
+        where:
+        host        || expected
+        "0.0.0.0"   || "127.0.0.1"
+        "::"        || "127.0.0.1"
+        "localhost" || "localhost"
+    }
+}
@@ -0,0 +1,152 @@
+package com.airline.booking.demo.common.admission
+
+import io.vertx.core.http.HttpMethod
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+
+import static com.airline.booking.demo.common.admission.AdmissionControl.Decision.ADMITTED
+import static com.airline.booking.demo.common.admission.AdmissionControl.Decision.QUEUED
+import static com.airline.booking.demo.common.admission.AdmissionControl.Decision.REJECTED
+
+class AdmissionControlSpec extends Specification {
+
+    static JsonObject lane(int limit, int maxQueue) {
+        new JsonObject().put("initialLimit", limit).put("minLimit", limit).put("maxLimit", limit)
+                .put("maxQueue", maxQueue).put("maxWaitMs", 100)
+    }
+
+    AdmissionControl control = new AdmissionControl(new JsonObject().put("admission", new JsonObject()
+            .put("write", lane(1, 2))
+            .put("read", lane(1, 2))
+            .put("search", lane(1, 1))))
+
+    def "RouteClass should put reads, searches and everything else in their lanes"() {
+        expect:
+        RouteClass.of(method, path) == expected
+
+        where:
+        method            | path                      || expected
+        HttpMethod.GET    | "/flights/search"         || RouteClass.SEARCH
+        HttpMethod.HEAD   | "/flights/search"         || RouteClass.SEARCH
+        HttpMethod.GET    | "/flights/7"              || RouteClass.READ
+        HttpMethod.GET    | "/bookings/ref/ABC123"    || RouteClass.READ
+        HttpMethod.POST   | "/bookings"               || RouteClass.WRITE
+        HttpMethod.DELETE | "/bookings/7"             || RouteClass.WRITE
+        HttpMethod.POST   | "/flights/search"         || RouteClass.WRITE
+        HttpMethod.GET    | null                      || RouteClass.READ
+    }
+
+    def "defaults should apply when the admission block is missing"() {
+        given:
+        def defaults = new AdmissionControl(new JsonObject())
+
+        expect:
+        defaults.enabled()
+        defaults.retryAfterSec() == 1
+        defaults.maxWaitMs(RouteClass.WRITE) == 2000
+        defaults.maxWaitMs(RouteClass.SEARCH) == 250
+        defaults.lanes()*.lane() == ["write", "read", "search"]
+        defaults.lanes()*.limit() == [32, 32, 32]
+    }
+
+    def "enter should admit up to the limit, then queue, then reject"() {
+        expect:
+        control.enter(RouteClass.SEARCH, 0, {}) == ADMITTED
+        control.enter(RouteClass.SEARCH, 0, {}) == QUEUED
+        control.enter(RouteClass.SEARCH, 0, {}) == REJECTED
+
+        and:
+        def search = control.lanes().find { it.lane() == "search" }
+        search.inFlight() == 1
+        search.queued() == 1
+        search.admitted() == 1
+        search.rejectedQueueFull() == 1
+    }
+
+    def "enter should shed at once past a lane's loop lag budget, and writes by default never"() {
+        given:
+        def defaults = new AdmissionControl(new JsonObject())
+        def ms = 1_000_000L
+
+        expect:
+        defaults.enter(RouteClass.SEARCH, 99 * ms, {}) == ADMITTED
+        defaults.enter(RouteClass.SEARCH, 101 * ms, {}) == REJECTED
+        defaults.enter(RouteClass.READ, 101 * ms, {}) == ADMITTED
+        defaults.enter(RouteClass.READ, 201 * ms, {}) == REJECTED
+        defaults.enter(RouteClass.WRITE, 10_000 * ms, {}) == ADMITTED
+
+        and:
+        defaults.lanes()*.rejectedLoopLag() == [0, 1, 1]
+    }
+
+    def "exit should hand the slot to the next queued request in the lane"() {
+        given:
+        def admitted = []
+        control.enter(RouteClass.READ, 0, {})
+        control.enter(RouteClass.READ, 0, { admitted << "second" })
+
+        when:
+        control.exit(RouteClass.READ, 1_000_000L)
+
+        then:
+        admitted == ["second"]
+        control.lanes().find { it.lane() == "read" }.inFlight() == 1
+    }
+
+    def "queued writes should hold searches to their minLimit until they are admitted"() {
+        given:
+        def order = []
+        def control = new AdmissionControl(new JsonObject().put("admission", new JsonObject()
+                .put("write", lane(1, 2))
+                .put("search", lane(1, 2).put("initialLimit", 2).put("maxLimit", 2))))
+        control.enter(RouteClass.WRITE, 0, {})
+        control.enter(RouteClass.WRITE, 0, { order << "write" })
+
+        expect: "one search still gets through, the second slot is held back while a write waits"
+        control.enter(RouteClass.SEARCH, 0, {}) == ADMITTED
+        control.enter(RouteClass.SEARCH, 0, { order << "search" }) == QUEUED
+
+        when:
+        control.exit(RouteClass.WRITE, 1_000_000L)
+
+        then:
+        order == ["write", "search"]
+        control.lanes().find { it.lane() == "search" }.inFlight() == 2
+    }
+
+    def "abandon should drop a queued request once and let lower lanes through"() {
+        given:
+        def order = []
+        def control = new AdmissionControl(new JsonObject().put("admission", new JsonObject()
+                .put("write", lane(1, 2))
+                .put("search", lane(1, 2).put("initialLimit", 2).put("maxLimit", 2))))
+        Runnable write = { order << "write" }
+        control.enter(RouteClass.WRITE, 0, {})
+        control.enter(RouteClass.WRITE, 0, write)
+        control.enter(RouteClass.SEARCH, 0, {})
+        control.enter(RouteClass.SEARCH, 0, { order << "search" })
+
+        when:
+        def first = control.abandon(RouteClass.WRITE, write)
+        def second = control.abandon(RouteClass.WRITE, write)
+
+        then:
+        first
+        !second
+        order == ["search"]
+        control.lanes().find { it.lane() == "write" }.rejectedTimeout() == 1
+    }
+
+    def "cancel should free the slot without a latency sample"() {
+        given:
+        control.enter(RouteClass.READ, 0, {})
+
+        when:
+        control.cancel(RouteClass.READ)
+
+        then:
+        def read = control.lanes().find { it.lane() == "read" }
+        read.inFlight() == 0
+        read.baselineNanos() == 0
+    }
+}
@@ -0,0 +1,185 @@
+package com.airline.booking.demo.common.admission
+
+import com.airline.booking.demo.common.http.Readiness
+import com.airline.booking.demo.common.http.WarmUpMarker
+import com.airline.booking.demo.exception.GlobalErrorHandler
+import io.vertx.core.Future
+import io.vertx.core.Vertx
+import io.vertx.core.buffer.Buffer
+import io.vertx.core.http.HttpClient
+import io.vertx.core.http.HttpClientResponse
+import io.vertx.core.http.HttpMethod
+import io.vertx.core.http.HttpServer
+import io.vertx.core.json.JsonObject
+import io.vertx.ext.web.Router
+import io.vertx.ext.web.RoutingContext
+import io.vertx.ext.web.handler.BodyHandler
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.TimeUnit
+
+class AdmissionHandlerSpec extends Specification {
+
+    static JsonObject lane(int maxQueue, long maxWaitMs) {
+        new JsonObject().put("initialLimit", 1).put("minLimit", 1).put("maxLimit", 1)
+                .put("maxQueue", maxQueue).put("maxWaitMs", maxWaitMs)
+    }
+
+    Vertx vertx
+    HttpServer server
+    HttpClient client
+    AdmissionControl control
+    Readiness readiness = new Readiness()
+    Queue<RoutingContext> held = new ConcurrentLinkedQueue<>()
+
+    def setup() {
+        vertx = Vertx.vertx()
+        control = new AdmissionControl(new JsonObject().put("admission", new JsonObject()
+                .put("retryAfterSec", 3)
+                .put("write", lane(1, 5_000))
+                .put("read", lane(1, 100))
+                .put("search", lane(0, 100))))
+
+        final Router router = Router.router(vertx)
+        router.route().handler(new WarmUpMarker(readiness))
+        router.get("/health").handler { it.response().end("OK") }
+        router.route().handler(new AdmissionHandler(vertx, control))
+        router.route("/hold").handler { held.add(it) }
+        router.get("/flights/search").handler { held.add(it) }
+        router.get("/read").handler { it.response().end("read") }
+        router.post("/echo").handler(BodyHandler.create()).handler { it.response().end(it.body().buffer()) }
+        router.route().failureHandler(GlobalErrorHandler::handle)
+        server = vertx.createHttpServer().requestHandler(router).listen(0).await(10, TimeUnit.SECONDS)
+        client = vertx.createHttpClient()
+    }
+
+    def cleanup() {
+        vertx?.close()?.await(10, TimeUnit.SECONDS)
+    }
+
+    def "a queued write should keep its body and run once the slot frees"() {
+        given:
+        def hold = send(HttpMethod.POST, "/hold")
+        waitForHeld(1)
+
+        when:
+        def echo = send(HttpMethod.POST, "/echo", Buffer.buffer('{"seat":"12A"}'))
+        Thread.sleep(50)
+
+        then:
+        !echo.isComplete()
+        control.lanes().find { it.lane() == "write" }.queued() == 1
+
+        when:
+        held.poll().response().end("released")
+
+        then:
+        hold.await(5, TimeUnit.SECONDS).status == 200
+        def response = echo.await(5, TimeUnit.SECONDS)
+        response.status == 200
+        response.body == '{"seat":"12A"}'
+    }
+
+    def "a full queue should answer 503 with Retry-After at once"() {
+        given:
+        send(HttpMethod.GET, "/flights/search")
+        waitForHeld(1)
+
+        when:
+        def response = send(HttpMethod.GET, "/flights/search").await(5, TimeUnit.SECONDS)
+
+        then:
+        response.status == 503
+        response.retryAfter == "3"
+        new JsonObject(response.body).getInteger("code") == 503
+        control.lanes().find { it.lane() == "search" }.rejectedQueueFull() == 1
+    }
+
+    def "a request queued past maxWaitMs should get a 503"() {
+        given:
+        send(HttpMethod.GET, "/hold")
+        waitForHeld(1)
+
+        when:
+        def response = send(HttpMethod.GET, "/read").await(5, TimeUnit.SECONDS)
+
+        then:
+        response.status == 503
+        control.lanes().find { it.lane() == "read" }.rejectedTimeout() == 1
+    }
+
+    def "routes ahead of the handler should answer however full the lanes are"() {
+        given:
+        send(HttpMethod.GET, "/hold")
+        waitForHeld(1)
+
+        expect:
+        send(HttpMethod.GET, "/health").await(5, TimeUnit.SECONDS).status == 200
+    }
+
+    def "the slot should come back when the response ends"() {
+        given:
+        send(HttpMethod.GET, "/hold")
+        waitForHeld(1)
+        held.poll().response().end()
+
+        when:
+        def response = send(HttpMethod.GET, "/read").await(5, TimeUnit.SECONDS)
+
+        then:
+        response.status == 200
+        control.lanes().find { it.lane() == "read" }.inFlight() == 0
+    }
+
+    def "a warm-up request should pass a full lane without being counted"() {
+        given:
+        send(HttpMethod.GET, "/flights/search")
+        waitForHeld(1)
+
+        when:
+        def forged = send(HttpMethod.GET, "/flights/search", null, "guess").await(5, TimeUnit.SECONDS)
+        send(HttpMethod.GET, "/flights/search", null, readiness.warmUpToken())
+
+        then:
+        forged.status == 503
+        waitForHeld(2)
+        def search = control.lanes().find { it.lane() == "search" }
+        search.admitted() == 1
+        search.inFlight() == 1
+    }
+
+    // The body is read in the same callback as the response; later the client would already have dropped it
+    private Future<Reply> send(HttpMethod method, String uri, Buffer body = null, String warmUpToken = null) {
+        client.request(method, server.actualPort(), "127.0.0.1", uri)
+                .compose { req ->
+                    if (warmUpToken != null) {
+                        req.putHeader(WarmUpMarker.HEADER, warmUpToken)
+                    }
+                    body == null ? req.send() : req.send(body)
+                }
+                .compose { HttpClientResponse res ->
+                    res.body().map { new Reply(res.statusCode(), res.getHeader("Retry-After"), it.toString()) }
+                }
+    }
+
+    static class Reply {
+        final int status
+        final String retryAfter
+        final String body
+
+        Reply(int status, String retryAfter, String body) {
+            this.status = status
+            this.retryAfter = retryAfter
+            this.body = body
+        }
+    }
+
+    private void waitForHeld(int count) {
+        def deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5)
+        while (held.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5)
+        }
+        assert held.size() == count
+    }
+}
@@ -0,0 +1,99 @@
+package com.airline.booking.demo.common.admission
+
+import spock.lang.Specification
+
+class GradientLimitSpec extends Specification {
+
+    static final long MS = 1_000_000L
+
+    def "limit should start clamped to its bounds"() {
+        expect:
+        new GradientLimit(initial, 2, 50, 10, 10, 2.0, 1.0).limit() == expected
+
+        where:
+        initial || expected
+        1       || 2
+        20      || 20
+        500     || 50
+    }
+
+    def "limit should grow by its square root while latency stays within tolerance and the limit is used"() {
+        given:
+        def limit = new GradientLimit(16, 2, 100, 10, 10, 2.0, 1.0)
+
+        when:
+        10.times { limit.sample(MS, 16) }
+
+        then:
+        limit.limit() == 20
+        limit.baselineNanos() == MS
+    }
+
+    def "limit should not grow while less than half of it is used"() {
+        given:
+        def limit = new GradientLimit(16, 2, 100, 10, 10, 2.0, 1.0)
+
+        when:
+        10.times { limit.sample(MS, 4) }
+
+        then:
+        limit.limit() == 16
+    }
+
+    def "limit should shrink in proportion once latency passes tolerance, at most by half"() {
+        given:
+        def limit = new GradientLimit(40, 2, 100, 10, 10, 2.0, 1.0)
+        10.times { limit.sample(MS, 40) }
+        def grown = limit.limit()
+
+        when:
+        10.times { limit.sample(3 * MS, 40) }
+
+        then: "the baseline stays at the best window"
+        limit.baselineNanos() == MS
+
+        and: "2 x 1ms / 3ms = 0.66"
+        limit.limit() == (int) (grown * 2 / 3)
+
+        when:
+        10.times { limit.sample(100 * MS, 40) }
+
+        then:
+        limit.limit() == (int) (grown * 2 / 3 / 2)
+    }
+
+    def "limit should never drop below minLimit"() {
+        given:
+        def limit = new GradientLimit(8, 3, 100, 1, 100, 1.0, 1.0)
+        limit.sample(MS, 8)
+
+        when:
+        20.times { limit.sample(1000 * MS, 8) }
+
+        then:
+        limit.limit() == 3
+    }
+
+    def "smoothing should move only part of the way to the new limit"() {
+        given:
+        def limit = new GradientLimit(16, 2, 100, 1, 10, 2.0, 0.5)
+
+        when:
+        limit.sample(MS, 16)
+
+        then: "16 + (16 + 4 - 16) * 0.5"
+        limit.limit() == 18
+    }
+
+    def "baseline should forget windows older than baselineWindows"() {
+        given:
+        def limit = new GradientLimit(16, 2, 100, 1, 3, 2.0, 1.0)
+        limit.sample(MS, 1)
+
+        when:
+        3.times { limit.sample(5 * MS, 1) }
+
+        then:
+        limit.baselineNanos() == 5 * MS
+    }
+}
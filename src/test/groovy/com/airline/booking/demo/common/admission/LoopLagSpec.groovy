@@ -0,0 +1,56 @@
+package com.airline.booking.demo.common.admission
+
+import io.vertx.core.Vertx
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.TimeUnit
+
+class LoopLagSpec extends Specification {
+
+    static final long MS = 1_000_000L
+
+    def "tick should jump to a new peak and halve after it"() {
+        given:
+        def now = 0L
+        def lag = new LoopLag(now)
+
+        when: "the timer fired 100ms late"
+        lag.tick(now + 120 * MS)
+
+        then:
+        lag.lagNanos() == 100 * MS
+
+        when: "a missed tick catches up"
+        lag.tick(now + 121 * MS)
+
+        then:
+        lag.lagNanos() == 100 * MS
+
+        when: "the next one on time"
+        lag.tick(now + 140 * MS)
+
+        then:
+        lag.lagNanos() == 50 * MS
+    }
+
+    def "a blocked event loop should show up as lag"() {
+        given:
+        def vertx = Vertx.vertx()
+        def context = vertx.getOrCreateContext()
+        LoopLag lag = null
+        context.runOnContext { lag = LoopLag.start(vertx) }
+        Thread.sleep(50)
+
+        when:
+        context.runOnContext { Thread.sleep(150) }
+
+        then:
+        new PollingConditions(timeout: 2, delay: 0.005).eventually {
+            assert lag.lagNanos() >= 100 * MS
+        }
+
+        cleanup:
+        vertx.close().await(10, TimeUnit.SECONDS)
+    }
+}
@@ -0,0 +1,130 @@
+package com.airline.booking.demo.common.cache
+
+import com.airline.booking.demo.exception.BusinessServiceException
+import com.airline.booking.demo.exception.dto.ErrorCodeEnum
+import io.vertx.core.Future
+import io.vertx.core.Promise
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class IdempotencyStoreSpec extends Specification {
+
+    CacheStats stats = new CacheStats()
+    long now = 0
+    IdempotencyStore<String> store = new IdempotencyStore<>(2, 60, stats, { now })
+
+    def "a retry while the first call is running joins it"() {
+        given:
+        def promise = Promise.<String> promise()
+        def calls = 0
+
+        when:
+        def first = store.execute("k", "req", { calls++; promise.future() })
+        def retry = store.execute("k", "req", { calls++; Future.succeededFuture("other") })
+
+        then:
+        calls == 1
+        !retry.isComplete()
+
+        when:
+        promise.complete("booked")
+
+        then:
+        first.result() == "booked"
+        retry.result() == "booked"
+        stats.hits() == 1
+        stats.misses() == 1
+    }
+
+    def "a retry after success gets the stored value"() {
+        given:
+        store.execute("k", "req", { Future.succeededFuture("booked") })
+
+        when:
+        def retry = store.execute("k", "req", { Future.succeededFuture("again") })
+
+        then:
+        retry.result() == "booked"
+    }
+
+    def "a failed call is forgotten so the client can retry"() {
+        given:
+        def first = store.execute("k", "req", { Future.failedFuture(new RuntimeException("db down")) })
+
+        when:
+        def retry = store.execute("k", "req", { Future.succeededFuture("booked") })
+
+        then:
+        first.cause().message == "db down"
+        retry.result() == "booked"
+        stats.invalidations() == 1
+    }
+
+    def "an action that throws fails the call and is forgotten"() {
+        when:
+        def first = store.execute("k", "req", { throw new IllegalStateException("boom") })
+
+        then:
+        first.cause().message == "boom"
+        store.size() == 0
+    }
+
+    def "the same key with another request is a conflict"() {
+        given:
+        store.execute("k", "req", { Future.succeededFuture("booked") })
+
+        when:
+        def other = store.execute("k", "other", { Future.succeededFuture("again") })
+
+        then:
+        other.failed()
+        other.cause() instanceof BusinessServiceException
+        (other.cause() as BusinessServiceException).errorEnum == ErrorCodeEnum.CONFLICT
+    }
+
+    def "entries expire after the ttl"() {
+        given:
+        store.execute("k", "req", { Future.succeededFuture("booked") })
+
+        when:
+        now += TimeUnit.SECONDS.toNanos(61)
+        def later = store.execute("k", "req", { Future.succeededFuture("again") })
+
+        then:
+        later.result() == "again"
+        stats.expirations() == 1
+        stats.evictions() == 0
+    }
+
+    def "the oldest entry is dropped when the store is full"() {
+        given:
+        store.execute("a", "req", { Future.succeededFuture("1") })
+        store.execute("b", "req", { Future.succeededFuture("2") })
+
+        when:
+        store.execute("c", "req", { Future.succeededFuture("3") })
+
+        then:
+        store.size() == 2
+        stats.evictions() == 1
+        store.execute("a", "req", { Future.succeededFuture("new") }).result() == "new"
+    }
+
+    def "create should read size and ttl from the cache block"() {
+        given:
+        def config = new JsonObject().put("cache", new JsonObject()
+                .put("idempotency", new JsonObject().put("maxSize", 1)))
+        def registry = new CacheRegistry()
+        def configured = IdempotencyStore.<String> create(config, "idempotency", registry)
+
+        when:
+        configured.execute("a", "req", { Future.succeededFuture("1") })
+        configured.execute("b", "req", { Future.succeededFuture("2") })
+
+        then:
+        configured.size() == 1
+        registry.stats("idempotency").evictions() == 1
+    }
+}
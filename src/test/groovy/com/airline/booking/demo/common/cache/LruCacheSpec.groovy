@@ -0,0 +1,82 @@
+package com.airline.booking.demo.common.cache
+
+import spock.lang.Specification
+
+class LruCacheSpec extends Specification {
+
+    CacheStats stats = new CacheStats()
+
+    def "get should count hits and misses"() {
+        given:
+        def cache = new LruCache<String, Integer>(2, stats)
+        cache.put("a", 1)
+
+        expect:
+        cache.get("a") == 1
+        cache.get("b") == null
+        stats.hits() == 1
+        stats.misses() == 1
+    }
+
+    def "put should evict the least recently used entry when full"() {
+        given:
+        def cache = new LruCache<String, Integer>(2, stats)
+        cache.put("a", 1)
+        cache.put("b", 2)
+        cache.get("a")
+
+        when:
+        cache.put("c", 3)
+
+        then:
+        cache.size() == 2
+        stats.evictions() == 1
+        cache.get("b") == null
+        cache.get("a") == 1
+        cache.get("c") == 3
+    }
+
+    def "clear should drop every entry"() {
+        given:
+        def cache = new LruCache<String, Integer>(2, stats)
+        cache.put("a", 1)
+
+        when:
+        cache.clear()
+
+        then:
+        cache.size() == 0
+    }
+
+    def "remove should drop one entry"() {
+        given:
+        def cache = new LruCache<String, Integer>(2, stats)
+        cache.put("a", 1)
+        cache.put("b", 2)
+
+        when:
+        cache.remove("a")
+
+        then:
+        cache.size() == 1
+        cache.get("b") == 2
+    }
+
+    def "constructor should reject a non-positive size"() {
+        when:
+        new LruCache<String, Integer>(0, stats)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "registry should share stats by name and render them as json"() {
+        given:
+        def registry = new CacheRegistry()
+        registry.stats("airlines").hit()
+
+        expect:
+        registry.stats("airlines").is(registry.stats("airlines"))
+        registry.toJson().getJsonObject("airlines").getLong("hits") == 1L
+    }
+}
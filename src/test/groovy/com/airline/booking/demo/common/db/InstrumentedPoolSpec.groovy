@@ -0,0 +1,126 @@
+package com.airline.booking.demo.common.db
+
+import com.airline.booking.demo.common.metrics.DbMetrics
+import com.airline.booking.demo.common.metrics.PoolMetrics
+import io.vertx.core.Future
+import io.vertx.sqlclient.Pool
+import io.vertx.sqlclient.PreparedQuery
+import io.vertx.sqlclient.Query
+import io.vertx.sqlclient.Row
+import io.vertx.sqlclient.RowSet
+import io.vertx.sqlclient.SqlConnection
+import io.vertx.sqlclient.Tuple
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class InstrumentedPoolSpec extends Specification {
+
+    static class SampleRepository {
+        private static final String SQL_SELECT_BY_ID = "SELECT * FROM sample WHERE id = ?"
+    }
+
+    Pool raw = Mock()
+    SqlConnection conn = Mock()
+    PreparedQuery<RowSet<Row>> query = Mock()
+    RowSet<Row> rows = Mock()
+    DbMetrics metrics = new DbMetrics()
+
+    Pool pool = InstrumentedPool.wrap(raw, "write", metrics, SqlNames.scan(SampleRepository), 4, 60_000)
+    PoolMetrics poolMetrics = metrics.pool("write")
+
+    private static <T> T await(final Future<T> fut) {
+        return fut.toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS)
+    }
+
+    def "getConnection should track acquire latency and in-use until close"() {
+        given:
+        raw.getConnection() >> Future.succeededFuture(conn)
+        raw.size() >> 3
+
+        when:
+        def borrowed = await(pool.getConnection())
+
+        then:
+        poolMetrics.inUse() == 1
+        poolMetrics.idle() == 2
+        poolMetrics.waiting() == 0
+        poolMetrics.maxSize() == 4
+        poolMetrics.acquireLatency().count() == 1
+        poolMetrics.saturation() == 0.25d
+
+        when:
+        borrowed.close()
+        borrowed.close()
+
+        then:
+        2 * conn.close() >> Future.succeededFuture()
+        poolMetrics.inUse() == 0
+    }
+
+    def "getConnection should count failed acquisitions"() {
+        given:
+        raw.getConnection() >> Future.failedFuture(new RuntimeException("pool closed"))
+
+        when:
+        await(pool.getConnection())
+
+        then:
+        thrown(Exception)
+        poolMetrics.acquireFailures() == 1
+        poolMetrics.waiting() == 0
+        poolMetrics.inUse() == 0
+    }
+
+    def "connection queries should be timed under their SQL constant"() {
+        given:
+        raw.getConnection() >> Future.succeededFuture(conn)
+        conn.preparedQuery("SELECT * FROM sample WHERE id = ?") >> query
+        query.execute(_ as Tuple) >>> [Future.succeededFuture(rows), Future.failedFuture(new RuntimeException("boom"))]
+
+        when:
+        def borrowed = await(pool.getConnection())
+        await(borrowed.preparedQuery("SELECT * FROM sample WHERE id = ?").execute(Tuple.of(1)))
+        await(borrowed.preparedQuery("SELECT * FROM sample WHERE id = ?").execute(Tuple.of(2)))
+
+        then:
+        thrown(Exception)
+        def stats = metrics.queries().find { it.name() == "SampleRepository.SQL_SELECT_BY_ID" }
+        stats.latency().count() == 2
+        stats.errors() == 1
+        stats.slow() == 0
+    }
+
+    def "pool queries should borrow and release a connection"() {
+        given:
+        raw.getConnection() >> Future.succeededFuture(conn)
+        conn.preparedQuery("SELECT * FROM sample WHERE id = ?") >> query
+        query.execute(_ as Tuple) >> Future.succeededFuture(rows)
+
+        when:
+        def result = await(pool.preparedQuery("SELECT * FROM sample WHERE id = ?").execute(Tuple.of(1)))
+
+        then:
+        result.is(rows)
+        1 * conn.close() >> Future.succeededFuture()
+        poolMetrics.inUse() == 0
+        poolMetrics.acquireLatency().count() == 1
+        metrics.queries()*.name() == ["SampleRepository.SQL_SELECT_BY_ID"]
+    }
+
+    def "queries over the slow threshold should be counted"() {
+        given:
+        def slowPool = InstrumentedPool.wrap(raw, "write", metrics, SqlNames.scan(SampleRepository), 4, 0)
+        raw.getConnection() >> Future.succeededFuture(conn)
+        conn.close() >> Future.succeededFuture()
+        conn.query("SELECT 1") >> Stub(Query) {
+            execute() >> Future.succeededFuture(rows)
+        }
+
+        when:
+        await(slowPool.query("SELECT 1").execute())
+
+        then:
+        metrics.queries().find { it.name() == SqlNames.UNNAMED }.slow() == 1
+    }
+}
@@ -0,0 +1,74 @@
+package com.airline.booking.demo.common.db
+
+import com.airline.booking.demo.common.metrics.DbMetrics
+import io.vertx.core.Future
+import io.vertx.core.Vertx
+import io.vertx.jdbcclient.JDBCConnectOptions
+import io.vertx.jdbcclient.JDBCPool
+import io.vertx.sqlclient.Pool
+import io.vertx.sqlclient.PoolOptions
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+// Against a real one-connection H2 pool: the JDBC client turns auto-commit off again after commit/rollback
+class ReactiveTxH2Spec extends Specification {
+
+    static final String URL = "jdbc:h2:mem:reactive_tx_h2_spec;DB_CLOSE_DELAY=-1"
+
+    @Shared Vertx vertx
+    @Shared Pool pool
+    @Shared Pool observer
+
+    ReactiveTx reactiveTx = new ReactiveTx(pool, new DbMetrics(), SqlDialect.H2)
+
+    def setupSpec() {
+        vertx = Vertx.vertx()
+        pool = JDBCPool.pool(vertx, new JDBCConnectOptions().setJdbcUrl(URL), new PoolOptions().setMaxSize(1))
+        observer = JDBCPool.pool(vertx, new JDBCConnectOptions().setJdbcUrl(URL), new PoolOptions().setMaxSize(1))
+        await(pool.query("CREATE TABLE seats (id INT PRIMARY KEY)").execute())
+    }
+
+    def cleanupSpec() {
+        vertx?.close()?.await(10, TimeUnit.SECONDS)
+    }
+
+    def setup() {
+        await(pool.query("DELETE FROM seats").execute())
+    }
+
+    private static <T> T await(final Future<T> fut) {
+        return fut.toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS)
+    }
+
+    private int committedRows() {
+        return await(observer.query("SELECT COUNT(*) FROM seats").execute()).iterator().next().getInteger(0)
+    }
+
+    def "a one-shot write on a connection that ran a transaction should be committed at once"() {
+        given: "The pool's only connection has run a committed transaction"
+        await(reactiveTx.withTx { conn -> conn.query("INSERT INTO seats VALUES (1)").execute().mapEmpty() })
+
+        when: "The same connection runs a write outside any transaction"
+        await(pool.query("INSERT INTO seats VALUES (2)").execute())
+
+        then: "Another connection sees it"
+        committedRows() == 2
+    }
+
+    def "a later rollback on the same connection should not take earlier one-shot writes with it"() {
+        given:
+        await(reactiveTx.withTx { conn -> conn.query("INSERT INTO seats VALUES (1)").execute().mapEmpty() })
+        await(pool.query("INSERT INTO seats VALUES (2)").execute())
+
+        when: "The next transaction on that connection rolls back"
+        await(reactiveTx.withTx { conn ->
+            conn.query("INSERT INTO seats VALUES (3)").execute()
+                    .compose { Future.failedFuture(new IllegalStateException("boom")) }
+        }.otherwise((Object) null))
+
+        then: "Only its own insert is undone"
+        committedRows() == 2
+    }
+}
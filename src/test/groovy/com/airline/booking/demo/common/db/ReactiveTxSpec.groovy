@@ -1,9 +1,13 @@
 package com.airline.booking.demo.common.db
 
+import com.airline.booking.demo.common.metrics.DbMetrics
 import com.airline.booking.demo.exception.BusinessServiceException
 import com.airline.booking.demo.exception.dto.ErrorCodeEnum
 import io.vertx.core.Future
 import io.vertx.sqlclient.Pool
+import io.vertx.sqlclient.Query
+import io.vertx.sqlclient.Row
+import io.vertx.sqlclient.RowSet
 import io.vertx.sqlclient.SqlConnection
 import io.vertx.sqlclient.Transaction
 import spock.lang.Specification
@@ -16,7 +20,9 @@ class ReactiveTxSpec extends Specification {
     SqlConnection conn = Mock()
     Transaction tx = Mock()
 
-    ReactiveTx reactiveTx = new ReactiveTx(pool)
+    DbMetrics metrics = new DbMetrics()
+
+    ReactiveTx reactiveTx = new ReactiveTx(pool, metrics, SqlDialect.POSTGRES)
 
     private static <T> T await(final Future<T> fut) {
         return fut.toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS)
@@ -41,6 +47,9 @@ class ReactiveTxSpec extends Specification {
         1 * tx.commit() >> Future.succeededFuture()
         1 * conn.close() >> Future.succeededFuture()
         0 * tx.rollback()
+        metrics.commits() == 1
+        metrics.rollbacks() == 0
+        metrics.txLatency().count() == 1
     }
 
     def "propagates BusinessServiceException and triggers rollback"() {
@@ -63,6 +72,8 @@ class ReactiveTxSpec extends Specification {
         1 * tx.rollback() >> Future.succeededFuture()
         1 * conn.close() >> Future.succeededFuture()
         0 * tx.commit()
+        metrics.rollbacks() == 1
+        metrics.commits() == 0
     }
 
     def "wraps unexpected exceptions in BusinessServiceException"() {
@@ -117,4 +128,24 @@ class ReactiveTxSpec extends Specification {
         def ex = thrown(Exception)
         1 * conn.close() >> Future.succeededFuture()
     }
+
+    def "restores auto-commit on H2 before the connection goes back to the pool"() {
+        given: "An H2 transaction that commits"
+        def h2Tx = new ReactiveTx(pool, metrics, SqlDialect.H2)
+        Query<RowSet<Row>> reset = Mock()
+        pool.getConnection() >> Future.succeededFuture(conn)
+        conn.begin() >> Future.succeededFuture(tx)
+        tx.commit() >> Future.succeededFuture()
+
+        when:
+        def result = await(h2Tx.withTx { c -> Future.succeededFuture("ok") })
+
+        then: "Auto-commit is switched back on, then the connection is closed"
+        result == "ok"
+        1 * conn.query("SET AUTOCOMMIT TRUE") >> reset
+        1 * reset.execute() >> Future.succeededFuture(Mock(RowSet))
+
+        then:
+        1 * conn.close() >> Future.succeededFuture()
+    }
 }
@@ -0,0 +1,19 @@
+package com.airline.booking.demo.common.db
+
+import spock.lang.Specification
+
+class SqlDialectSpec extends Specification {
+
+    def "POSTGRES appends RETURNING to the statement"() {
+        expect:
+        SqlDialect.POSTGRES.returning("""
+                UPDATE flights SET status = ? WHERE id = ?
+            """) == "UPDATE flights SET status = ? WHERE id = ? RETURNING *"
+    }
+
+    def "H2 wraps the statement in a FINAL TABLE select"() {
+        expect:
+        SqlDialect.H2.returning("INSERT INTO airlines (code) VALUES (?)") ==
+                "SELECT * FROM FINAL TABLE (INSERT INTO airlines (code) VALUES (?))"
+    }
+}
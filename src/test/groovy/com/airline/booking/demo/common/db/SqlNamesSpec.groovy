@@ -0,0 +1,35 @@
+package com.airline.booking.demo.common.db
+
+import spock.lang.Specification
+
+class SqlNamesSpec extends Specification {
+
+    static class SampleRepository {
+        private static final String SQL_SELECT_ALL = "SELECT * FROM sample"
+        private static final String SQL_INSERT = """
+                INSERT INTO sample (name) VALUES (?)
+            """
+        private static final String SQL_FILTER = " FROM sample WHERE name = ?"
+        private static final String NOT_SQL = "SELECT 1"
+    }
+
+    SqlNames names = SqlNames.scan(SampleRepository)
+
+    def "nameOf should resolve the constant a statement came from"() {
+        expect:
+        names.nameOf(sql) == expected
+
+        where:
+        sql                                                              || expected
+        "SELECT * FROM sample"                                           || "SampleRepository.SQL_SELECT_ALL"
+        "  INSERT INTO sample (name) VALUES (?)\n"                       || "SampleRepository.SQL_INSERT"
+        SqlDialect.H2.returning("INSERT INTO sample (name) VALUES (?)")  || "SampleRepository.SQL_INSERT"
+        "SELECT id, name FROM sample WHERE name = ? ORDER BY id LIMIT ?" || "SampleRepository.SQL_FILTER"
+        "SELECT 1"                                                       || SqlNames.UNNAMED
+    }
+
+    def "nameOf should return the same name on repeated lookups"() {
+        expect:
+        names.nameOf("SELECT * FROM sample") == names.nameOf("SELECT * FROM sample")
+    }
+}
@@ -0,0 +1,100 @@
+package com.airline.booking.demo.common.db
+
+import io.vertx.core.Future
+import io.vertx.sqlclient.Pool
+import io.vertx.sqlclient.PreparedQuery
+import io.vertx.sqlclient.Query
+import io.vertx.sqlclient.Row
+import io.vertx.sqlclient.RowSet
+import io.vertx.sqlclient.SqlConnection
+import io.vertx.sqlclient.Transaction
+import io.vertx.sqlclient.Tuple
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class StatementWarmerSpec extends Specification {
+
+    Pool pool = Mock()
+    SqlConnection first = Mock()
+    SqlConnection second = Mock()
+    Transaction tx = Mock()
+    PreparedQuery<RowSet<Row>> query = Mock()
+    Query<RowSet<Row>> autocommit = Mock()
+
+    private static <T> T await(final Future<T> fut) {
+        return fut.toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS)
+    }
+
+    def setup() {
+        [first, second].each { conn ->
+            conn.begin() >> Future.succeededFuture(tx)
+            conn.preparedQuery(_ as String) >> query
+        }
+        tx.rollback() >> Future.succeededFuture()
+        autocommit.execute() >> Future.succeededFuture(Mock(RowSet))
+    }
+
+    def "warm should run every statement on each held connection and roll every run back"() {
+        when:
+        def runs = await(StatementWarmer.warm(pool, 2, ["SELECT 1 WHERE 1 = ?", "UPDATE t SET a = ? WHERE id = ?"],
+                SqlDialect.POSTGRES))
+
+        then:
+        2 * pool.getConnection() >>> [Future.succeededFuture(first), Future.succeededFuture(second)]
+        2 * first.preparedQuery(_ as String) >> query
+        2 * second.preparedQuery(_ as String) >> query
+        2 * query.execute({ Tuple t -> t.size() == 1 && t.getValue(0) == null }) >> Future.succeededFuture(Mock(RowSet))
+        2 * query.execute({ Tuple t -> t.size() == 2 }) >> Future.succeededFuture(Mock(RowSet))
+        4 * tx.rollback() >> Future.succeededFuture()
+        0 * tx.commit()
+        1 * first.close() >> Future.succeededFuture()
+        1 * second.close() >> Future.succeededFuture()
+        runs == 4
+    }
+
+    def "a statement that fails to execute should still be rolled back and the rest should run"() {
+        given:
+        pool.getConnection() >> Future.succeededFuture(first)
+
+        when:
+        def runs = await(StatementWarmer.warm(pool, 1, ["INSERT INTO t (a) VALUES (?)", "SELECT 1"], SqlDialect.H2))
+
+        then:
+        1 * query.execute({ Tuple t -> t.size() == 1 }) >> Future.failedFuture(new RuntimeException("NOT NULL"))
+        1 * query.execute({ Tuple t -> t.size() == 0 }) >> Future.succeededFuture(Mock(RowSet))
+        2 * tx.rollback() >> Future.succeededFuture()
+        1 * first.query("SET AUTOCOMMIT TRUE") >> autocommit
+        1 * first.close() >> Future.succeededFuture()
+        runs == 2
+    }
+
+    def "warm should use the connections it got and fail only when it got none"() {
+        given:
+        pool.getConnection() >>> [Future.succeededFuture(first), Future.failedFuture(new RuntimeException("pool down"))]
+        query.execute(_ as Tuple) >> Future.succeededFuture(Mock(RowSet))
+        first.close() >> Future.succeededFuture()
+
+        expect:
+        await(StatementWarmer.warm(pool, 2, ["SELECT 1"], SqlDialect.POSTGRES)) == 1
+
+        when:
+        def failing = Mock(Pool) { getConnection() >> Future.failedFuture(new RuntimeException("pool down")) }
+        await(StatementWarmer.warm(failing, 2, ["SELECT 1"], SqlDialect.POSTGRES))
+
+        then:
+        def e = thrown(Exception)
+        e.message.contains("pool down")
+    }
+
+    def "parameterCount should count placeholders"() {
+        expect:
+        StatementWarmer.parameterCount(sql) == count
+
+        where:
+        sql                                              || count
+        "SELECT * FROM flights"                          || 0
+        "SELECT * FROM flights WHERE id = ?"             || 1
+        "UPDATE f SET a = a - ? WHERE id = ? AND a >= ?" || 3
+    }
+}
@@ -0,0 +1,86 @@
+package com.airline.booking.demo.common.http
+
+import io.vertx.core.Future
+import io.vertx.core.Handler
+import io.vertx.core.buffer.Buffer
+import io.vertx.core.http.HttpServerResponse
+import io.vertx.core.streams.ReadStream
+import spock.lang.Specification
+
+class ChunkedJsonSpec extends Specification {
+
+    HttpServerResponse response = Mock()
+    ReadStream<Integer> items = Mock()
+
+    Handler<Integer> itemHandler
+    Handler<Void> endHandler
+    Handler<Throwable> errorHandler
+
+    def setup() {
+        items.handler(_) >> { Handler h -> itemHandler = h; items }
+        items.endHandler(_) >> { Handler h -> endHandler = h; items }
+        items.exceptionHandler(_) >> { Handler h -> errorHandler = h; items }
+    }
+
+    def "writeArray should frame items as one json array"() {
+        given:
+        Buffer written = null
+        response.end(_ as Buffer) >> { Buffer b -> written = b; Future.succeededFuture() }
+
+        when:
+        def done = ChunkedJson.writeArray(response, items, { [n: it] })
+        itemHandler.handle(1)
+        itemHandler.handle(2)
+        endHandler.handle(null)
+
+        then:
+        1 * response.setChunked(true)
+        done.succeeded()
+        written.toString() == '[{"n":1},{"n":2}]'
+    }
+
+    def "writeArray should write an empty array when there are no items"() {
+        given:
+        Buffer written = null
+        response.end(_ as Buffer) >> { Buffer b -> written = b; Future.succeededFuture() }
+
+        when:
+        ChunkedJson.writeArray(response, items, { it })
+        endHandler.handle(null)
+
+        then:
+        written.toString() == "[]"
+    }
+
+    def "writeArray should flush full chunks and pause until the response drains"() {
+        given:
+        Handler<Void> drain = null
+        response.writeQueueFull() >> true
+        response.drainHandler(_) >> { Handler h -> drain = h; response }
+        def big = "x" * ChunkedJson.CHUNK_SIZE
+
+        when:
+        ChunkedJson.writeArray(response, items, { big })
+        itemHandler.handle(1)
+
+        then:
+        1 * response.write(_ as Buffer)
+        1 * items.pause()
+
+        when:
+        drain.handle(null)
+
+        then:
+        1 * items.resume()
+    }
+
+    def "writeArray should fail when the source fails"() {
+        when:
+        def done = ChunkedJson.writeArray(response, items, { it })
+        errorHandler.handle(new RuntimeException("cursor closed"))
+
+        then:
+        done.failed()
+        done.cause().message == "cursor closed"
+    }
+}
@@ -0,0 +1,61 @@
+package com.airline.booking.demo.common.http
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.OffsetDateTime
+
+class JsonValuesSpec extends Specification {
+
+    @Unroll
+    def "format should match OffsetDateTime.toString for #text"() {
+        given:
+        def time = OffsetDateTime.parse(text)
+        def chars = new char[38]
+
+        when:
+        def length = JsonValues.format(time, chars)
+
+        then:
+        new String(chars, 0, length) == time.toString()
+
+        where:
+        text << [
+                "2026-02-10T10:00:00Z",
+                "2026-02-10T10:00:05Z",
+                "2026-02-10T10:00:00.5Z",
+                "2026-02-10T10:00:00.123456Z",
+                "2026-02-10T10:00:00.123456789Z",
+                "2026-02-10T23:59:59.000000001+02:00",
+                "0999-01-01T00:00:00-05:30",
+                "9999-12-31T23:59:59+18:00",
+        ]
+    }
+
+    def "format should defer to toString for years outside four digits"() {
+        expect:
+        JsonValues.format(OffsetDateTime.parse("+10000-01-01T00:00:00Z"), new char[38]) == -1
+    }
+
+    def "writers should emit the same document Jackson would for the record"() {
+        given:
+        def time = OffsetDateTime.parse("2026-02-10T10:00:00.250+01:00")
+
+        when:
+        def buf = PooledJson.encode([time, null, 7L, null, new BigDecimal("12.50")]) { gen, values ->
+            gen.writeStartArray()
+            JsonValues.writeTimestamp(gen, values[0])
+            JsonValues.writeTimestamp(gen, values[1])
+            JsonValues.writeLong(gen, values[2])
+            JsonValues.writeInt(gen, values[3])
+            JsonValues.writeDecimal(gen, values[4])
+            gen.writeEndArray()
+        }
+
+        then:
+        buf.toString(java.nio.charset.StandardCharsets.UTF_8) == '["2026-02-10T10:00:00.250+01:00",null,7,null,12.50]'
+
+        cleanup:
+        buf?.release()
+    }
+}
@@ -0,0 +1,52 @@
+package com.airline.booking.demo.common.http
+
+import io.netty.buffer.Unpooled
+import io.vertx.core.buffer.Buffer
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+// Guards the Vert.x internals behind NettyBuffers; a failure here means an upgrade changed them
+class NettyBuffersSpec extends Specification {
+
+    def "unwrap shares the buffer's memory instead of copying it"() {
+        given:
+        def buffer = Buffer.buffer("abc")
+
+        when:
+        def bytes = NettyBuffers.unwrap(buffer)
+        bytes.setByte(bytes.readerIndex(), (byte) 'x')
+
+        then:
+        buffer.toString() == "xbc"
+        bytes.readableBytes() == 3
+    }
+
+    def "unwrap leaves the buffer's own indexes alone"() {
+        given:
+        def buffer = Buffer.buffer("abc")
+
+        when:
+        NettyBuffers.unwrap(buffer).skipBytes(2)
+
+        then:
+        buffer.length() == 3
+        NettyBuffers.unwrap(buffer).toString(StandardCharsets.UTF_8) == "abc"
+    }
+
+    def "wrap shares memory from the reader index and leaves the caller owning it"() {
+        given:
+        def body = Unpooled.directBuffer().writeBytes("xxabc".getBytes(StandardCharsets.UTF_8)).skipBytes(2)
+
+        when:
+        def buffer = NettyBuffers.wrap(body)
+        body.setByte(2, (byte) 'A')
+
+        then:
+        buffer.toString() == "Abc"
+        body.refCnt() == 1
+
+        cleanup:
+        body.release()
+    }
+}
@@ -0,0 +1,79 @@
+package com.airline.booking.demo.common.http
+
+import io.netty.buffer.ByteBuf
+import io.vertx.core.Future
+import io.vertx.core.Promise
+import io.vertx.core.buffer.Buffer
+import io.vertx.core.http.HttpServerResponse
+import io.vertx.ext.web.RoutingContext
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class PooledJsonSpec extends Specification {
+
+    RoutingContext ctx = Mock()
+    HttpServerResponse response = Mock()
+
+    def setup() {
+        ctx.response() >> response
+    }
+
+    def "encodeArray should write every item into one pooled buffer"() {
+        when:
+        ByteBuf buf = PooledJson.encodeArray([1, 2, 3]) { gen, n -> gen.writeNumber(n as int) }
+
+        then:
+        buf.toString(StandardCharsets.UTF_8) == '[1,2,3]'
+        buf.refCnt() == 1
+
+        cleanup:
+        buf?.release()
+    }
+
+    def "endArray should release the body only once the write has settled"() {
+        given:
+        def written = Promise.<Void> promise()
+        Buffer body = null
+        ByteBuf view = null
+
+        when:
+        PooledJson.endArray(ctx, ["a", "b"]) { gen, s -> gen.writeString(s) }
+
+        then:
+        1 * response.putHeader("content-type", _ as String)
+        1 * response.end(_ as Buffer) >> { Buffer b -> body = b; view = NettyBuffers.unwrap(b); written.future() }
+        body.toString() == '["a","b"]'
+        view.refCnt() == 1
+
+        when:
+        written.complete()
+
+        then:
+        view.refCnt() == 0
+    }
+
+    def "end should fail the request when the encoder throws"() {
+        given:
+        def boom = new IllegalStateException("boom")
+
+        when:
+        PooledJson.end(ctx, "x") { gen, s -> throw boom }
+
+        then:
+        1 * ctx.fail(boom)
+        0 * response.end(_)
+    }
+
+    def "end should release the body when the response rejects the write"() {
+        given:
+        ByteBuf view = null
+
+        when:
+        PooledJson.end(ctx, "x") { gen, s -> gen.writeString(s) }
+
+        then:
+        1 * response.end(_ as Buffer) >> { Buffer b -> view = NettyBuffers.unwrap(b); Future.failedFuture("closed") }
+        view.refCnt() == 0
+    }
+}
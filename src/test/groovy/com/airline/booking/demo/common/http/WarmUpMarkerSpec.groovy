@@ -0,0 +1,70 @@
+package com.airline.booking.demo.common.http
+
+import io.vertx.core.http.HttpServerRequest
+import io.vertx.ext.web.RoutingContext
+import spock.lang.Specification
+
+class WarmUpMarkerSpec extends Specification {
+
+    Readiness readiness = new Readiness()
+    WarmUpMarker marker = new WarmUpMarker(readiness)
+    RoutingContext ctx = Mock()
+    HttpServerRequest request = Mock()
+
+    def setup() {
+        ctx.request() >> request
+    }
+
+    def "a request carrying the warm-up token should be marked"() {
+        given:
+        request.getHeader(WarmUpMarker.HEADER) >> readiness.warmUpToken()
+
+        when:
+        marker.handle(ctx)
+
+        then:
+        1 * ctx.put("warmUp", true)
+        1 * ctx.next()
+    }
+
+    def "any other header value should be ignored"() {
+        given:
+        request.getHeader(WarmUpMarker.HEADER) >> header
+
+        when:
+        marker.handle(ctx)
+
+        then:
+        0 * ctx.put(_, _)
+        1 * ctx.next()
+
+        where:
+        header << [null, "", "not-the-token"]
+    }
+
+    def "the token should stop working once the instance is ready"() {
+        given:
+        request.getHeader(WarmUpMarker.HEADER) >> readiness.warmUpToken()
+        readiness.markReady(1)
+
+        when:
+        marker.handle(ctx)
+
+        then:
+        0 * ctx.put(_, _)
+        1 * ctx.next()
+    }
+
+    def "isWarmUp should read the mark from the context"() {
+        given:
+        ctx.get("warmUp") >> mark
+
+        expect:
+        WarmUpMarker.isWarmUp(ctx) == expected
+
+        where:
+        mark || expected
+        true || true
+        null || false
+    }
+}
@@ -0,0 +1,58 @@
+package com.airline.booking.demo.common.logging
+
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class AccessLogSpec extends Specification {
+
+    def "format should write one JSON object with escaped strings"() {
+        when:
+        def line = AccessLog.format(new StringBuilder(), 1_700_000_000_000L, "abc", "GET",
+                '/flights/"x"\\y', null, 200, 42, TimeUnit.MILLISECONDS.toNanos(3))
+
+        then:
+        line == '{"ts":1700000000000,"id":"abc","method":"GET","path":"/flights/\\"x\\"\\\\y","status":200,"us":3000,"bytes":42,"ip":null}'
+        new JsonObject(line).getString("path") == '/flights/"x"\\y'
+    }
+
+    def "format should escape control characters"() {
+        expect:
+        new JsonObject(AccessLog.format(new StringBuilder(), 0, "id", "GET", "/a\nb", "ip", 200, 0, 0))
+                .getString("path") == "/a\nb"
+    }
+
+    def "fast successes should be sampled one in sampleEvery"() {
+        given:
+        def accessLog = new AccessLog(4, 1000)
+
+        expect:
+        (1..8).count { accessLog.sampled(200, 1_000) } == 2
+    }
+
+    def "errors and slow requests should always be written"() {
+        given:
+        def accessLog = new AccessLog(1_000, 1000)
+        accessLog.sampled(200, 1_000)
+
+        expect:
+        accessLog.sampled(status, nanos)
+
+        where:
+        status | nanos
+        404    | 1_000
+        500    | 1_000
+        200    | TimeUnit.SECONDS.toNanos(2)
+    }
+
+    def "create should read the accessLog block"() {
+        given:
+        def accessLog = AccessLog.create(new JsonObject().put("accessLog", new JsonObject().put("sampleEvery", 2)))
+
+        expect:
+        accessLog.sampled(200, 0)
+        !accessLog.sampled(200, 0)
+        accessLog.sampled(200, 0)
+    }
+}
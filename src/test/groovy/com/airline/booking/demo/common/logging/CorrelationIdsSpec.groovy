@@ -0,0 +1,25 @@
+package com.airline.booking.demo.common.logging
+
+import spock.lang.Specification
+
+class CorrelationIdsSpec extends Specification {
+
+    def "next should return 16 lowercase hex characters"() {
+        expect:
+        (1..100).every { CorrelationIds.next() ==~ /[0-9a-f]{16}/ }
+        (1..1000).collect { CorrelationIds.next() }.toSet().size() == 1000
+    }
+
+    def "accept should keep well formed client ids"() {
+        expect:
+        CorrelationIds.accept("req-42_abc.DEF") == "req-42_abc.DEF"
+    }
+
+    def "accept should replace missing or unsafe ids"() {
+        expect:
+        CorrelationIds.accept(header) ==~ /[0-9a-f]{16}/
+
+        where:
+        header << [null, "", "has space", 'quote"', "new\nline", "x" * 65]
+    }
+}
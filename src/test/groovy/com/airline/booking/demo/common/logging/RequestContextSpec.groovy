@@ -0,0 +1,139 @@
+package com.airline.booking.demo.common.logging
+
+import ch.qos.logback.classic.Level
+import ch.qos.logback.classic.LoggerContext
+import ch.qos.logback.classic.spi.ILoggingEvent
+import ch.qos.logback.core.AppenderBase
+import io.vertx.core.Future
+import io.vertx.core.Vertx
+import io.vertx.core.http.HttpClientOptions
+import io.vertx.core.http.HttpMethod
+import io.vertx.core.http.HttpServer
+import io.vertx.core.http.PoolOptions
+import io.vertx.ext.web.Router
+import io.vertx.jdbcclient.JDBCConnectOptions
+import io.vertx.jdbcclient.JDBCPool
+import io.vertx.sqlclient.Pool
+import org.slf4j.LoggerFactory
+import org.slf4j.MDC
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+
+class RequestContextSpec extends Specification {
+
+    static final int REQUESTS = 2_000
+
+    static class CapturingAppender extends AppenderBase<ILoggingEvent> {
+        final Queue<ILoggingEvent> events = new ConcurrentLinkedQueue<>()
+
+        @Override
+        protected void append(final ILoggingEvent event) {
+            // Freeze the MDC on the logging thread, as AsyncAppender does
+            event.prepareForDeferredProcessing()
+            events.add(event)
+        }
+    }
+
+    @Shared Vertx vertx
+    @Shared Pool pool
+    @Shared HttpServer server
+    @Shared CapturingAppender appender = new CapturingAppender()
+    @Shared ch.qos.logback.classic.Logger log
+
+    def setupSpec() {
+        final LoggerContext logging = (LoggerContext) LoggerFactory.getILoggerFactory()
+        assert logging.turboFilterList.any { it instanceof ContextMdcFilter }
+        appender.context = logging
+        appender.start()
+        log = logging.getLogger("request-context-spec")
+        log.additive = false
+        log.level = Level.INFO
+        log.addAppender(appender)
+
+        vertx = Vertx.vertx()
+        pool = JDBCPool.pool(vertx, new JDBCConnectOptions().setJdbcUrl("jdbc:h2:mem:request_context_spec;DB_CLOSE_DELAY=-1"),
+                new io.vertx.sqlclient.PoolOptions().setMaxSize(4))
+
+        final Router router = Router.router(vertx)
+        router.route().handler(new HttpLoggerHandler(new AccessLog(Integer.MAX_VALUE, Long.MAX_VALUE)))
+        router.get("/work").handler { ctx ->
+            final String id = ctx.request().getHeader("X-Correlation-Id")
+            log.info("start {}", id)
+            vertx.timer(ThreadLocalRandom.current().nextInt(1, 4))
+                    .compose { log.info("timer {}", id); pool.query("SELECT 1").execute() }
+                    .compose { log.info("pool {}", id); vertx.executeBlocking { log.info("worker {}", id); id } }
+                    .compose { log.info("blocking {}", id); Future.succeededFuture(id) }
+                    .onSuccess { log.info("end {}", id); ctx.response().end(RequestContext.correlationId()) }
+                    .onFailure(ctx.&fail)
+        }
+        server = vertx.createHttpServer().requestHandler(router).listen(0).await(10, TimeUnit.SECONDS)
+    }
+
+    def cleanupSpec() {
+        log.detachAppender(appender)
+        vertx?.close()?.await(10, TimeUnit.SECONDS)
+    }
+
+    def "every log line of interleaved requests should carry its own correlation id"() {
+        given:
+        appender.events.clear()
+        def client = vertx.createHttpClient(new HttpClientOptions().setKeepAlive(true),
+                new PoolOptions().setHttp1MaxSize(64))
+
+        when:
+        def responses = (1..REQUESTS).collect { n ->
+            client.request(HttpMethod.GET, server.actualPort(), "localhost", "/work")
+                    .compose { req -> req.putHeader("X-Correlation-Id", "req-" + n).send() }
+                    .compose { resp -> resp.body().map { [resp.getHeader("X-Correlation-Id"), it.toString()] } }
+        }
+        def bodies = Future.all(responses).await(60, TimeUnit.SECONDS).list()
+
+        then:
+        bodies.every { it[0] == it[1] }
+        appender.events.size() == REQUESTS * 6
+        appender.events.findAll { it.MDCPropertyMap[RequestContext.MDC_CORRELATION_ID] != it.argumentArray[0] }
+                .collect { it.formattedMessage + " mdc=" + it.MDCPropertyMap }
+                .take(5) == []
+
+        cleanup:
+        client.close()
+    }
+
+    def "logging on a context without a request should drop the previous request's id"() {
+        given:
+        appender.events.clear()
+        def context = vertx.orCreateContext
+
+        when:
+        Future.future { p ->
+            context.runOnContext {
+                MDC.put(RequestContext.MDC_CORRELATION_ID, "stale")
+                log.info("idle")
+                p.complete()
+            }
+        }.await(5, TimeUnit.SECONDS)
+
+        then:
+        appender.events*.MDCPropertyMap*.get(RequestContext.MDC_CORRELATION_ID) == [null]
+    }
+
+    def "threads outside Vert.x should keep their own MDC"() {
+        given:
+        appender.events.clear()
+        MDC.put(RequestContext.MDC_CORRELATION_ID, "main-thread")
+
+        when:
+        log.info("plain")
+
+        then:
+        appender.events*.MDCPropertyMap*.get(RequestContext.MDC_CORRELATION_ID) == ["main-thread"]
+        RequestContext.correlationId() == null
+
+        cleanup:
+        MDC.remove(RequestContext.MDC_CORRELATION_ID)
+    }
+}
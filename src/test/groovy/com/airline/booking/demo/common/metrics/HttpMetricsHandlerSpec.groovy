@@ -0,0 +1,100 @@
+package com.airline.booking.demo.common.metrics
+
+import io.vertx.core.Handler
+import io.vertx.core.http.HttpMethod
+import io.vertx.core.http.HttpServerRequest
+import io.vertx.core.http.HttpServerResponse
+import io.vertx.ext.web.Route
+import io.vertx.ext.web.RoutingContext
+import spock.lang.Specification
+
+class HttpMetricsHandlerSpec extends Specification {
+
+    HttpMetrics metrics = new HttpMetrics()
+    HttpMetricsHandler handler = new HttpMetricsHandler(metrics)
+
+    def setup() {
+        handler.bindRoutes([
+                route(null, false, null),
+                route("/flights", false, null),
+                route("/flights/search", true, [HttpMethod.GET] as Set),
+                route("/flights/:id", true, [HttpMethod.GET] as Set),
+                route("/flights", true, [HttpMethod.POST] as Set),
+        ])
+    }
+
+    def "handle should leave warm-up requests out"() {
+        given:
+        def ctx = context(HttpMethod.GET, "/flights/42", route("/flights/:id", true, null), 400)
+        ctx.get("warmUp") >> true
+
+        when:
+        handler.handle(ctx)
+
+        then:
+        0 * ctx.addEndHandler(_)
+        1 * ctx.next()
+    }
+
+    def "handle should record status and latency under the current route template"() {
+        given:
+        def ctx = context(HttpMethod.GET, "/flights/42", route("/flights/:id", true, null), 200)
+        Handler endHandler = null
+        ctx.addEndHandler(_) >> { args -> endHandler = args[0]; 0 }
+
+        when:
+        handler.handle(ctx)
+        endHandler.handle(null)
+
+        then:
+        def recorded = metrics.metrics(HttpMethod.GET, "/flights/:id")
+        recorded.count(1) == 1
+        recorded.latency().count() == 1
+    }
+
+    def "routeOf should resolve templates when the failure handler is current"() {
+        expect:
+        handler.routeOf(context(method, path, route(null, false, null), 500)) == expected
+
+        where:
+        method          | path              || expected
+        HttpMethod.GET  | "/flights/search" || "/flights/search"
+        HttpMethod.GET  | "/flights/7"      || "/flights/:id"
+        HttpMethod.POST | "/flights"        || "/flights"
+        HttpMethod.GET  | "/flights"        || null
+        HttpMethod.GET  | "/flights/7/x"    || null
+        HttpMethod.GET  | "/nope"           || null
+    }
+
+    def "record should bucket unknown routes and odd statuses"() {
+        when:
+        metrics.record(HttpMethod.GET, null, 404, 1_000L)
+        metrics.record(HttpMethod.GET, null, 999, 1_000L)
+
+        then:
+        def unmatched = metrics.metrics(HttpMethod.GET, HttpMetrics.UNMATCHED_ROUTE)
+        unmatched.count(3) == 1
+        unmatched.count(4) == 1
+    }
+
+    private RoutingContext context(HttpMethod method, String path, Route current, int status) {
+        def req = Stub(HttpServerRequest)
+        req.method() >> method
+        req.path() >> path
+        def resp = Stub(HttpServerResponse)
+        resp.getStatusCode() >> status
+        def ctx = Mock(RoutingContext)
+        ctx.request() >> req
+        ctx.response() >> resp
+        ctx.currentRoute() >> current
+        return ctx
+    }
+
+    private Route route(String path, boolean exact, Set<HttpMethod> methods) {
+        def route = Stub(Route)
+        route.getPath() >> path
+        route.isExactPath() >> exact
+        route.methods() >> methods
+        return route
+    }
+}
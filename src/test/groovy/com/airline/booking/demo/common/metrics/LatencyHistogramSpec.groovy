@@ -0,0 +1,58 @@
+package com.airline.booking.demo.common.metrics
+
+import spock.lang.Specification
+
+class LatencyHistogramSpec extends Specification {
+
+    def "indexOf should place a value below its bucket upper bound"() {
+        expect:
+        def index = LatencyHistogram.indexOf(nanos)
+        nanos < LatencyHistogram.upperBoundNanos(index)
+        index == 0 || nanos >= LatencyHistogram.upperBoundNanos(index - 1)
+
+        where:
+        nanos << [0L, 1_000L, 8_192L, 10_000L, 1_000_000L, 2_500_000L, 999_999_999L, 60_000_000_000L]
+    }
+
+    def "values beyond the last octave should land in overflow"() {
+        expect:
+        LatencyHistogram.indexOf(Long.MAX_VALUE) == LatencyHistogram.BUCKETS - 1
+        LatencyHistogram.upperBoundNanos(LatencyHistogram.BUCKETS - 1) == Long.MAX_VALUE
+    }
+
+    def "octave boundaries should be powers of two"() {
+        expect:
+        (0..<LatencyHistogram.BUCKETS)
+                .findAll { LatencyHistogram.isOctaveBoundary(it) }
+                .every { Long.bitCount(LatencyHistogram.upperBoundNanos(it)) == 1 }
+    }
+
+    def "record should track count, sum and buckets"() {
+        given:
+        def histogram = new LatencyHistogram()
+
+        when:
+        histogram.record(1_000_000L)
+        histogram.record(3_000_000L)
+        histogram.record(-5L)
+
+        then:
+        histogram.count() == 3
+        histogram.sumNanos() == 4_000_000L
+        histogram.snapshot().sum() == 3
+        histogram.snapshot()[0] == 1
+    }
+
+    def "valueAtQuantile should return the bucket bound holding the rank"() {
+        given:
+        def histogram = new LatencyHistogram()
+        99.times { histogram.record(1_000_000L) }
+        histogram.record(500_000_000L)
+        def snapshot = histogram.snapshot()
+
+        expect:
+        LatencyHistogram.valueAtQuantile(snapshot, 0.5) == LatencyHistogram.upperBoundNanos(LatencyHistogram.indexOf(1_000_000L))
+        LatencyHistogram.valueAtQuantile(snapshot, 0.999) == LatencyHistogram.upperBoundNanos(LatencyHistogram.indexOf(500_000_000L))
+        LatencyHistogram.valueAtQuantile(new long[LatencyHistogram.BUCKETS], 0.99) == 0
+    }
+}
@@ -0,0 +1,127 @@
+package com.airline.booking.demo.common.metrics
+
+import com.airline.booking.demo.common.admission.AdmissionControl
+import com.airline.booking.demo.common.admission.RouteClass
+import com.airline.booking.demo.common.cache.CacheRegistry
+import com.airline.booking.demo.common.http.Readiness
+import io.vertx.core.http.HttpMethod
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+
+class MetricsExporterSpec extends Specification {
+
+    HttpMetrics http = new HttpMetrics()
+    DbMetrics db = new DbMetrics()
+    CacheRegistry caches = new CacheRegistry()
+    Readiness readiness = new Readiness()
+    AdmissionControl admission = new AdmissionControl(new JsonObject().put("admission", new JsonObject()
+            .put("search", new JsonObject().put("initialLimit", 1).put("minLimit", 1).put("maxQueue", 0))))
+    MetricsExporter exporter = new MetricsExporter(http, db, caches, readiness, admission)
+
+    def "scrape should render route counters, histograms and quantiles"() {
+        given:
+        http.record(HttpMethod.GET, "/flights/:id", 200, 2_000_000L)
+        http.record(HttpMethod.GET, "/flights/:id", 404, 3_000_000L)
+
+        when:
+        def text = exporter.scrape()
+
+        then:
+        text.contains('# TYPE http_server_requests_total counter')
+        text.contains('http_server_requests_total{method="GET",route="/flights/:id",status="2xx"} 1')
+        text.contains('http_server_requests_total{method="GET",route="/flights/:id",status="4xx"} 1')
+        text.contains('http_server_request_duration_seconds_bucket{method="GET",route="/flights/:id",le="+Inf"} 2')
+        text.contains('http_server_request_duration_seconds_count{method="GET",route="/flights/:id"} 2')
+        text.contains('http_server_request_duration_seconds_sum{method="GET",route="/flights/:id"} 0.005')
+        text.contains('http_server_request_duration_quantile_seconds{method="GET",route="/flights/:id",quantile="0.99"}')
+        !text.contains('status="5xx"')
+    }
+
+    def "histogram buckets should be cumulative"() {
+        given:
+        http.record(HttpMethod.POST, "/bookings", 201, 10_000L)
+        http.record(HttpMethod.POST, "/bookings", 201, 1_000_000_000L)
+
+        when:
+        def counts = exporter.scrape().readLines()
+                .findAll { it.startsWith('http_server_request_duration_seconds_bucket') }
+                .collect { it.substring(it.lastIndexOf(' ') + 1) as long }
+
+        then:
+        counts == counts.toSorted()
+        counts.first() == 0
+        counts.last() == 2
+    }
+
+    def "scrape should export cache stats"() {
+        given:
+        caches.stats("airlines").hit()
+        caches.stats("airlines").miss()
+
+        when:
+        def text = exporter.scrape()
+
+        then:
+        text.contains('cache_hits_total{cache="airlines"} 1')
+        text.contains('cache_misses_total{cache="airlines"} 1')
+    }
+
+    def "scrape should label pool metrics by pool name"() {
+        given:
+        db.pool("write").bind(4, { -> 2 })
+        db.pool("read").bind(8, { -> 8 })
+        db.pool("read").acquireStarted()
+        db.pool("read").acquired(1_000_000L)
+        db.pool("read").acquireStarted()
+
+        when:
+        def text = exporter.scrape()
+
+        then:
+        text.contains('db_pool_connections{pool="read",state="in_use"} 1')
+        text.contains('db_pool_connections{pool="read",state="idle"} 7')
+        text.contains('db_pool_waiting{pool="read"} 1')
+        text.contains('db_pool_max_size{pool="write"} 4')
+        text.contains('db_pool_saturation_ratio{pool="read"} 0.125')
+        text.contains('db_pool_saturation_ratio{pool="write"} 0')
+        text.contains('db_pool_acquire_duration_seconds_count{pool="read"} 1')
+    }
+
+    def "labels should escape quotes and backslashes"() {
+        expect:
+        PrometheusWriter.labels("route", 'a"b\\c') == 'route="a\\"b\\\\c"'
+    }
+
+    def "scrape should report readiness and the warm-up duration"() {
+        expect:
+        exporter.scrape().contains('app_ready 0')
+
+        when:
+        readiness.markReady(1_500_000_000L)
+        def text = exporter.scrape()
+
+        then:
+        text.contains('app_ready 1')
+        text.contains('app_warmup_duration_seconds 1.5')
+    }
+
+    def "scrape should report admission lanes"() {
+        given:
+        admission.enter(RouteClass.SEARCH, 0, {})
+        admission.enter(RouteClass.SEARCH, 0, {})
+
+        when:
+        def text = exporter.scrape()
+
+        then:
+        text.contains('admission_limit{lane="search"} 1')
+        text.contains('admission_limit{lane="write"} 32')
+        text.contains('admission_in_flight{lane="search"} 1')
+        text.contains('admission_queued{lane="search"} 0')
+        text.contains('admission_admitted_total{lane="search"} 1')
+        text.contains('admission_rejected_total{lane="search",reason="queue_full"} 1')
+        text.contains('admission_rejected_total{lane="search",reason="timeout"} 0')
+        text.contains('admission_rejected_total{lane="search",reason="loop_lag"} 0')
+        text.contains('admission_event_loop_lag_seconds 0')
+    }
+}
@@ -0,0 +1,112 @@
+package com.airline.booking.demo.common.validation
+
+import com.airline.booking.demo.feature.airlines.dto.AirlineRequest
+import com.airline.booking.demo.feature.bookings.dto.BookingBatchRequest
+import com.airline.booking.demo.feature.bookings.dto.BookingRequest
+import com.airline.booking.demo.feature.flights.dto.FlightRequest
+import com.airline.booking.demo.feature.passengers.dto.PassengerRequest
+import jakarta.validation.Validator
+import jakarta.validation.constraints.Email
+import jakarta.validation.constraints.Min
+import jakarta.validation.constraints.NotBlank
+import jakarta.validation.constraints.NotNull
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class CompiledValidatorSpec extends Specification {
+
+    @Shared
+    ValidatorProvider provider = new ValidatorProvider()
+
+    @Shared
+    CompiledValidator validator = new CompiledValidator(provider)
+
+    static record Templated(@NotNull String name) {}
+
+    interface OnUpdate {}
+
+    static record Grouped(@NotNull(groups = OnUpdate, message = "required on update") String name,
+                          @NotBlank(message = "blank") String code) {}
+
+    static record Contact(@NotBlank(message = "blank") String name,
+                          @NotBlank(message = "blank") @Email(message = "Invalid") String email) {}
+
+    static class Unsupported {
+        @Min(value = 1, message = "too small")
+        int count
+    }
+
+    private List<String> hibernate(Object bean) {
+        provider.validator.validate(bean).collect { "${it.propertyPath} ${it.message}".toString() }
+    }
+
+    @Unroll
+    def "matches Hibernate Validator for #bean"() {
+        expect:
+        validator.validate(bean) as Set == hibernate(bean) as Set
+
+        where:
+        bean << [
+                new BookingRequest(1L, 2L, "12A"),
+                new BookingRequest(null, null, "  "),
+                new AirlineRequest("EK", "", null),
+                new PassengerRequest("Ada", "Lovelace", "ada@example.com", "+44", "P1", "10-12-1990"),
+                new PassengerRequest("", null, "not-an-email", "", "", null),
+                new FlightRequest(null, null, "", "", "", "", null, null, null),
+                new BookingBatchRequest([]),
+                new BookingBatchRequest(null),
+                new BookingBatchRequest([new BookingRequest(1L, 2L, "1A"), new BookingRequest(null, 2L, "")]),
+                new BookingBatchRequest((1..501).collect { new BookingRequest(1L, 2L, "1A") })
+        ]
+    }
+
+    def "reports nested batch items with their index"() {
+        expect:
+        validator.validate(new BookingBatchRequest([new BookingRequest(1L, 2L, "1A"), new BookingRequest(1L, null, "1A")])) ==
+                ["bookings[1].flightId cant' be null or empty"]
+    }
+
+    def "returns an empty list for a valid bean"() {
+        expect:
+        validator.validate(new BookingRequest(1L, 2L, "12A")).isEmpty()
+    }
+
+    def "falls back to Hibernate for message templates and non-record beans"() {
+        expect:
+        validator.validate(new Templated((String) null)) == hibernate(new Templated((String) null))
+        validator.validate(new Unsupported(count: 0)) == ["count too small"]
+    }
+
+    def "ignores constraints outside the default group, like Hibernate"() {
+        given:
+        def bean = new Grouped(null, "")
+
+        expect:
+        validator.validate(bean) == ["code blank"]
+        validator.validate(bean) as Set == hibernate(bean) as Set
+    }
+
+    def "hands only the @Email property to Hibernate"() {
+        given:
+        Validator hibernate = Mock()
+        def bean = new Contact("", "nope")
+        def compiled = ConstraintCompiler.compile(Contact, hibernate, { Class<?> t -> null })
+        def violations = []
+
+        when:
+        compiled.validate(bean, "", violations)
+
+        then:
+        1 * hibernate.validateProperty(bean, "email") >> ([] as Set)
+        0 * hibernate.validate(_)
+        violations == ["name blank"]
+    }
+
+    def "reports each constraint of a delegated property once"() {
+        expect:
+        validator.validate(new Contact("Ada", "")) == ["email blank"]
+        validator.validate(new Contact("Ada", "nope")) == ["email Invalid"]
+        validator.validate(new Contact("Ada", "ada@example.com")).isEmpty()
+    }
+}
@@ -0,0 +1,47 @@
+package com.airline.booking.demo.common.validation
+
+import com.airline.booking.demo.common.http.NettyBuffers
+import com.airline.booking.demo.feature.bookings.dto.BookingRequest
+import io.netty.buffer.Unpooled
+import io.vertx.core.buffer.Buffer
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class RequestValidationHandlerSpec extends Specification {
+
+    static final String BOOKING = '{"passengerId":3,"flightId":42,"seatNumber":"12A"}'
+
+    RequestValidationHandler handler = new RequestValidationHandler(new CompiledValidator(new ValidatorProvider()))
+
+    def "reads a heap buffer in place"() {
+        when:
+        def req = handler.read(Buffer.buffer(BOOKING), BookingRequest)
+
+        then:
+        req == new BookingRequest(3L, 42L, "12A")
+    }
+
+    def "honours the reader index of a sliced buffer"() {
+        given: "A body that starts part-way into its backing array"
+        def bytes = ("xxxx" + BOOKING).getBytes(StandardCharsets.UTF_8)
+        def buffer = NettyBuffers.wrap(Unpooled.wrappedBuffer(bytes).skipBytes(4))
+
+        expect:
+        handler.read(buffer, BookingRequest) == new BookingRequest(3L, 42L, "12A")
+    }
+
+    def "reads a direct buffer through a stream"() {
+        given:
+        def direct = Unpooled.directBuffer().writeBytes(BOOKING.getBytes(StandardCharsets.UTF_8))
+
+        expect:
+        handler.read(NettyBuffers.wrap(direct), BookingRequest) == new BookingRequest(3L, 42L, "12A")
+    }
+
+    def "reports bean validation violations"() {
+        expect:
+        handler.violations(new BookingRequest(null, 42L, "")) as Set ==
+                ["passengerId cant' be null or empty", "seatNumber cant' be null or empty"] as Set
+    }
+}
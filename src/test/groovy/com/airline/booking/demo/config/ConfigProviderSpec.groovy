@@ -0,0 +1,50 @@
+package com.airline.booking.demo.config
+
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ConfigProviderSpec extends Specification {
+
+    @TempDir
+    Path dir
+
+    def "commandLine should be empty without -conf"() {
+        expect:
+        ConfigProvider.commandLine() == new JsonObject()
+        ConfigProvider.commandLine("--other", "x") == new JsonObject()
+        ConfigProvider.commandLine("-conf") == new JsonObject()
+    }
+
+    def "commandLine should parse inline JSON"() {
+        when:
+        def config = ConfigProvider.commandLine("-conf", '{"server":{"host":"0.0.0.0","port":9090}}')
+
+        then:
+        config.getJsonObject("server").getString("host") == "0.0.0.0"
+        config.getJsonObject("server").getInteger("port") == 9090
+    }
+
+    def "commandLine should read a JSON file"() {
+        given:
+        def file = dir.resolve("overrides.json")
+        Files.writeString(file, '{"warmup":{"enabled":false}}')
+
+        when:
+        def config = ConfigProvider.commandLine("-conf", file.toString())
+
+        then:
+        !config.getJsonObject("warmup").getBoolean("enabled")
+    }
+
+    def "commandLine should fail on a missing file"() {
+        when:
+        ConfigProvider.commandLine("-conf", dir.resolve("missing.json").toString())
+
+        then:
+        thrown(UncheckedIOException)
+    }
+}
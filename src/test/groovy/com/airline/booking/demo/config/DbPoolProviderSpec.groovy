@@ -0,0 +1,65 @@
+package com.airline.booking.demo.config
+
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+
+class DbPoolProviderSpec extends Specification {
+
+    def "readConfig should overlay database.read on the write settings"() {
+        given:
+        def config = new JsonObject()
+                .put("profile", "prod")
+                .put("database", new JsonObject()
+                        .put("host", "primary")
+                        .put("user", "app")
+                        .put("maxPoolSize", 10)
+                        .put("read", new JsonObject().put("host", "replica").put("maxPoolSize", 24)))
+
+        when:
+        def read = DbPoolProvider.readConfig(config)
+
+        then:
+        read.getJsonObject("database").getString("host") == "replica"
+        read.getJsonObject("database").getString("user") == "app"
+        !read.getJsonObject("database").containsKey("read")
+        DbPoolProvider.maxPoolSize(read) == 24
+        DbPoolProvider.maxPoolSize(config) == 10
+        config.getJsonObject("database").getString("host") == "primary"
+    }
+
+    def "readConfig should reuse the write settings when no read block is configured"() {
+        given:
+        def config = new JsonObject().put("database", new JsonObject().put("url", "jdbc:h2:mem:x"))
+
+        expect:
+        DbPoolProvider.readConfig(config).getJsonObject("database") == config.getJsonObject("database")
+    }
+
+    def "a read pool size is only configured where the pool honours it"() {
+        given:
+        def base = resource("application.json")
+        def prod = base.copy().mergeIn(resource("application-prod.json"), true).put("profile", "prod")
+
+        expect: "H2 sizes every pool itself, so the shared config sets no read block"
+        !base.getJsonObject("database").containsKey("read")
+        DbPoolProvider.maxPoolSize(DbPoolProvider.readConfig(base)) == 5
+
+        and:
+        DbPoolProvider.maxPoolSize(DbPoolProvider.readConfig(prod)) == 16
+        DbPoolProvider.maxPoolSize(prod) == 10
+    }
+
+    private static JsonObject resource(final String name) {
+        new JsonObject(DbPoolProviderSpec.getResourceAsStream("/" + name).text)
+    }
+
+    def "pgConnectOptions should keep prepared statements cached per connection"() {
+        expect:
+        def db = new JsonObject().put("database", "airline").put("user", "app").put("password", "secret")
+        def options = DbPoolProvider.pgConnectOptions(db)
+        options.cachePreparedStatements
+        options.preparedStatementCacheMaxSize == 256
+        DbPoolProvider.pgConnectOptions(db.copy().put("preparedStatementCacheMaxSize", 64))
+                .preparedStatementCacheMaxSize == 64
+    }
+}
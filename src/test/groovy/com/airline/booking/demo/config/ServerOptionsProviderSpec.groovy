@@ -0,0 +1,81 @@
+package com.airline.booking.demo.config
+
+import io.vertx.core.http.Http2Settings
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class ServerOptionsProviderSpec extends Specification {
+
+    def "create should fall back to defaults when the server block is missing"() {
+        when:
+        def options = ServerOptionsProvider.create(new JsonObject())
+
+        then:
+        options.port == 8080
+        options.host == "0.0.0.0"
+        options.tcpNoDelay
+        !options.tcpFastOpen
+        !options.reusePort
+        options.idleTimeout == 0
+        options.http2ClearTextEnabled
+        options.initialSettings.maxConcurrentStreams == Http2Settings.DEFAULT_MAX_CONCURRENT_STREAMS
+        !options.compressionSupported
+    }
+
+    def "create should map the server block onto the options"() {
+        given:
+        def config = new JsonObject().put("server", new JsonObject()
+                .put("port", 9090)
+                .put("host", "127.0.0.1")
+                .put("tcpNoDelay", false)
+                .put("tcpFastOpen", true)
+                .put("tcpQuickAck", true)
+                .put("reusePort", true)
+                .put("idleTimeoutSec", 30)
+                .put("http2", new JsonObject()
+                        .put("clearText", false)
+                        .put("maxConcurrentStreams", 250)
+                        .put("initialWindowSize", 1048576)
+                        .put("connectionWindowSize", 4194304))
+                .put("compression", new JsonObject()
+                        .put("enabled", true)
+                        .put("level", 4)
+                        .put("minBytes", 2048)))
+
+        when:
+        def options = ServerOptionsProvider.create(config)
+
+        then:
+        options.port == 9090
+        options.host == "127.0.0.1"
+        !options.tcpNoDelay
+        options.tcpFastOpen
+        options.tcpQuickAck
+        options.reusePort
+        options.idleTimeout == 30
+        options.idleTimeoutUnit == TimeUnit.SECONDS
+        !options.http2ClearTextEnabled
+        options.initialSettings.maxConcurrentStreams == 250
+        options.initialSettings.initialWindowSize == 1048576
+        options.http2ConnectionWindowSize == 4194304
+        options.compressionSupported
+        options.compressionLevel == 4
+        options.compressionContentSizeThreshold == 2048
+    }
+
+    def "vertxOptions should prefer the native transport unless it is switched off"() {
+        expect:
+        ServerOptionsProvider.vertxOptions().preferNativeTransport
+
+        when:
+        System.setProperty(ServerOptionsProvider.NATIVE_TRANSPORT_PROPERTY, "false")
+
+        then:
+        !ServerOptionsProvider.vertxOptions().preferNativeTransport
+
+        cleanup:
+        System.clearProperty(ServerOptionsProvider.NATIVE_TRANSPORT_PROPERTY)
+    }
+}
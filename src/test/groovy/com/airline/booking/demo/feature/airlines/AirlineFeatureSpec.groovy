@@ -13,7 +13,6 @@ import spock.lang.Subject
 class AirlineFeatureSpec extends Specification {
 
     Router router = Mock()
-    Route routeWildcard = Mock()
     Route routeGetAll = Mock()
     Route routeGetById = Mock()
     Route routePost = Mock()
@@ -31,11 +30,7 @@ class AirlineFeatureSpec extends Specification {
         when:
         feature.init(router)
 
-        then: "BodyHandler is registered on the wildcard route"
-        1 * router.route("/airlines*") >> routeWildcard
-        1 * routeWildcard.handler(_ as BodyHandler) >> routeWildcard
-
-        and: "GET routes are registered"
+        then: "GET routes are registered"
         1 * router.get("/airlines") >> routeGetAll
         1 * routeGetAll.handler(_ as Handler) >> routeGetAll
 
@@ -46,6 +41,7 @@ class AirlineFeatureSpec extends Specification {
         1 * requestValidationHandler.validate(AirlineRequest.class) >> validationHandler
         1 * router.post("/airlines") >> routePost
 
+        1 * routePost.handler(_ as BodyHandler) >> routePost
         1 * routePost.handler(validationHandler) >> routePost
 
         1 * routePost.handler(_ as Handler) >> routePost
@@ -1,5 +1,6 @@
 package com.airline.booking.demo.feature.airlines.repository.impl
 
+import com.airline.booking.demo.common.db.SqlDialect
 import com.airline.booking.demo.feature.airlines.repository.entity.Airline
 import io.vertx.core.Future
 import io.vertx.sqlclient.*
@@ -19,7 +20,7 @@ class AirlineRepositoryImplSpec extends Specification {
     Row row = Mock(Row)
 
     @Subject
-    AirlineRepositoryImpl repository = new AirlineRepositoryImpl(pool)
+    AirlineRepositoryImpl repository = new AirlineRepositoryImpl(pool, pool, SqlDialect.POSTGRES)
 
     def setup() {
         pool.getConnection() >> Future.succeededFuture(connection)
@@ -72,8 +73,9 @@ class AirlineRepositoryImplSpec extends Specification {
 
     def "findAll should return list of airlines"() {
         given:
-        def list = [row, row]
-        rowSet.spliterator() >> list.spliterator()
+        rowSet.iterator() >> rowIterator
+        rowIterator.hasNext() >>> [true, true, false]
+        rowIterator.next() >> row
 
         when:
         def result = repository.findAll()
@@ -84,22 +86,13 @@ class AirlineRepositoryImplSpec extends Specification {
         result.result()[0].code == "TH"
     }
 
-    def "save should perform insert when ID is null"() {
+    def "save should perform insert returning the generated row when ID is null"() {
         given:
         Airline airline = new Airline(code: "TH", name: "Thai Airways")
 
-        def insertIterator = Mock(RowIterator)
-        def findIterator = Mock(RowIterator)
-
-        insertIterator.hasNext() >>> [true, false]
-        insertIterator.next() >> row
-
-        findIterator.hasNext() >>> [true, false]
-        findIterator.next() >> row
-
-        row.getLong("id") >>> [5L, 5L]
-
-        rowSet.iterator() >> { insertIterator } >> { findIterator }
+        rowSet.iterator() >> rowIterator
+        rowIterator.hasNext() >>> [true, false]
+        rowIterator.next() >> row
 
         when:
         def result = repository.save(airline)
@@ -107,6 +100,8 @@ class AirlineRepositoryImplSpec extends Specification {
         then:
         result.succeeded()
         result.result().code == "TH"
+        1 * connection.preparedQuery(SqlDialect.POSTGRES.returning(AirlineRepositoryImpl.SQL_INSERT)) >> preparedQuery
+        0 * connection.query(_)
         1 * connection.close()
     }
 
@@ -0,0 +1,194 @@
+package com.airline.booking.demo.feature.airlines.repository.impl
+
+import com.airline.booking.demo.common.cache.CacheStats
+import com.airline.booking.demo.feature.airlines.repository.AirlineRepository
+import com.airline.booking.demo.feature.airlines.repository.entity.Airline
+import io.vertx.core.Future
+import io.vertx.core.Promise
+import io.vertx.core.json.JsonObject
+import io.vertx.sqlclient.SqlConnection
+import io.vertx.sqlclient.Transaction
+import spock.lang.Specification
+import spock.lang.Subject
+
+class CachingAirlineRepositorySpec extends Specification {
+
+    AirlineRepository delegate = Mock()
+    CacheStats stats = new CacheStats()
+
+    @Subject
+    CachingAirlineRepository repository = new CachingAirlineRepository(delegate, stats, 16)
+
+    def airline = new Airline(id: 1L, code: "SA", name: "South Air")
+
+    def "findAll should load once and serve the snapshot from memory"() {
+        when:
+        def first = repository.findAll()
+        def second = repository.findAll()
+
+        then:
+        1 * delegate.findAll() >> Future.succeededFuture([airline])
+        first.result()*.code == ["SA"]
+        second.result()*.code == ["SA"]
+        stats.misses() == 1
+        stats.hits() == 1
+    }
+
+    def "findAll should warm the id and code lookups"() {
+        given:
+        delegate.findAll() >> Future.succeededFuture([airline])
+        repository.findAll()
+
+        when:
+        def byId = repository.findById(1L)
+        def byCode = repository.findByCode("SA")
+
+        then:
+        0 * delegate.findById(_)
+        0 * delegate.findByCode(_)
+        byId.result().name == "South Air"
+        byCode.result().id == 1L
+    }
+
+    def "findById should cache the loaded airline"() {
+        when:
+        repository.findById(1L)
+        def cached = repository.findById(1L)
+
+        then:
+        1 * delegate.findById(1L) >> Future.succeededFuture(airline)
+        cached.result().code == "SA"
+    }
+
+    def "changing an airline the cache handed out should not change the cached one"() {
+        given:
+        delegate.findAll() >> Future.succeededFuture([airline])
+        repository.findAll()
+
+        when: "Callers change the loaded instance and every copy they are served"
+        airline.name = "Loaded"
+        repository.findById(1L).result().name = "Changed"
+        repository.findAll().result()[0].name = "Changed"
+
+        then:
+        repository.findById(1L).result().name == "South Air"
+        repository.findByCode("SA").result().name == "South Air"
+        repository.findAll().result()*.name == ["South Air"]
+    }
+
+    def "findById should not cache failures"() {
+        when:
+        def first = repository.findById(1L)
+        def second = repository.findById(1L)
+
+        then:
+        2 * delegate.findById(1L) >> Future.failedFuture(new RuntimeException("db down"))
+        first.failed()
+        second.failed()
+    }
+
+    def "findByCodeOptional should not cache a missing airline"() {
+        when:
+        def first = repository.findByCodeOptional("XX")
+        def second = repository.findByCodeOptional("XX")
+
+        then:
+        2 * delegate.findByCodeOptional("XX") >> Future.succeededFuture(null)
+        first.result() == null
+        second.result() == null
+    }
+
+    def "findByCodeOptional should serve cached airlines"() {
+        given:
+        delegate.findByCode("SA") >> Future.succeededFuture(airline)
+        repository.findByCode("SA")
+
+        when:
+        def result = repository.findByCodeOptional("SA")
+
+        then:
+        0 * delegate.findByCodeOptional(_)
+        result.result().code == "SA"
+    }
+
+    def "save should invalidate every cached view"() {
+        given:
+        delegate.findAll() >> Future.succeededFuture([airline])
+        repository.findAll()
+
+        when:
+        repository.save(new Airline(code: "NB")).result()
+        repository.findById(1L)
+
+        then:
+        1 * delegate.save(_ as Airline) >> Future.succeededFuture(new Airline(id: 2L, code: "NB"))
+        1 * delegate.findById(1L) >> Future.succeededFuture(airline)
+        stats.invalidations() == 1
+    }
+
+    def "save on a connection outside a transaction should invalidate at once"() {
+        given:
+        def conn = Mock(SqlConnection)
+        delegate.findAll() >> Future.succeededFuture([airline])
+        repository.findAll()
+
+        when:
+        repository.save(conn, airline)
+        repository.findAll()
+
+        then:
+        1 * delegate.save(conn, airline) >> Future.succeededFuture(airline)
+        stats.invalidations() == 1
+        stats.misses() == 2
+    }
+
+    def "save within a transaction should invalidate only once it has committed"() {
+        given:
+        def committed = Promise.<Void> promise()
+        def tx = Mock(Transaction) { completion() >> committed.future() }
+        def conn = Mock(SqlConnection) { transaction() >> tx }
+        delegate.findById(1L) >> Future.succeededFuture(airline)
+        delegate.save(conn, airline) >> Future.succeededFuture(airline)
+
+        when:
+        repository.save(conn, airline)
+
+        then:
+        stats.invalidations() == 0
+
+        when: "a read before the commit is cached, then dropped by the commit"
+        repository.findById(1L)
+        committed.complete()
+        repository.findById(1L)
+
+        then:
+        stats.invalidations() == 1
+        stats.misses() == 2
+    }
+
+    def "a load that races with a write should not be published"() {
+        given:
+        def pending = Promise.<List<Airline>> promise()
+        delegate.findAll() >>> [pending.future(), Future.succeededFuture([airline])]
+        delegate.save(_ as Airline) >> Future.succeededFuture(airline)
+
+        when:
+        def stale = repository.findAll()
+        repository.save(airline)
+        pending.complete([new Airline(id: 1L, code: "OLD")])
+        def fresh = repository.findAll()
+
+        then:
+        stale.result()*.code == ["OLD"]
+        fresh.result()*.code == ["SA"]
+    }
+
+    def "resolveMaxSize should read cache.airlines.maxSize and fall back to the default"() {
+        expect:
+        CachingAirlineRepository.resolveMaxSize(new JsonObject().put("cache",
+                new JsonObject().put("airlines", new JsonObject().put("maxSize", 8)))) == 8
+        CachingAirlineRepository.resolveMaxSize(new JsonObject()) == 1024
+        CachingAirlineRepository.resolveMaxSize(new JsonObject().put("cache",
+                new JsonObject().put("airlines", new JsonObject().put("maxSize", 0)))) == 1024
+    }
+}
@@ -1,6 +1,7 @@
 package com.airline.booking.demo.feature.bookings
 
 import com.airline.booking.demo.common.validation.RequestValidationHandler
+import com.airline.booking.demo.feature.bookings.dto.BookingBatchRequest
 import com.airline.booking.demo.feature.bookings.dto.BookingRequest
 import com.airline.booking.demo.feature.bookings.handler.BookingHandler
 import io.vertx.core.Handler
@@ -13,10 +14,12 @@ import spock.lang.Subject
 class BookingFeatureSpec extends Specification {
 
     Router router = Mock()
-    Route routeWildcard = Mock()
     Route routePost = Mock()
+    Route routeBatch = Mock()
     Route routeGetById = Mock()
+    Route routeGetByReference = Mock()
     Route routeDelete = Mock()
+    Route routeCancelFlight = Mock()
 
     BookingHandler handler = Mock()
     RequestValidationHandler requestValidationHandler = Mock()
@@ -27,21 +30,30 @@ class BookingFeatureSpec extends Specification {
     def "should register booking routes and handlers correctly"() {
         given: "A dummy validation handler"
         def validationHandler = Mock(Handler)
+        def batchValidationHandler = Mock(Handler)
 
         when: "The feature is initialized"
         feature.init(router)
 
-        then: "BodyHandler is registered on the wildcard route"
-        1 * router.route("/bookings*") >> routeWildcard
-        1 * routeWildcard.handler(_ as BodyHandler) >> routeWildcard
-
-        and: "POST route is registered with validation and create handler"
+        then: "POST route is registered with validation and create handler"
         1 * requestValidationHandler.validate(BookingRequest.class) >> validationHandler
         1 * router.post("/bookings") >> routePost
 
+        1 * routePost.handler(_ as BodyHandler) >> routePost
         1 * routePost.handler(validationHandler) >> routePost
         1 * routePost.handler(_ as Handler) >> routePost
 
+        and: "Batch POST route is registered with its own validation"
+        1 * requestValidationHandler.validate(BookingBatchRequest.class) >> batchValidationHandler
+        1 * router.post("/bookings/batch") >> routeBatch
+        1 * routeBatch.handler(_ as BodyHandler) >> routeBatch
+        1 * routeBatch.handler(batchValidationHandler) >> routeBatch
+        1 * routeBatch.handler(_ as Handler) >> routeBatch
+
+        and: "GET route is registered for getByReference"
+        1 * router.get("/bookings/ref/:reference") >> routeGetByReference
+        1 * routeGetByReference.handler(_ as Handler) >> routeGetByReference
+
         and: "GET route is registered for getById"
         1 * router.get("/bookings/:id") >> routeGetById
         1 * routeGetById.handler(_ as Handler) >> routeGetById
@@ -49,5 +61,9 @@ class BookingFeatureSpec extends Specification {
         and: "DELETE route is registered for cancel"
         1 * router.delete("/bookings/:id") >> routeDelete
         1 * routeDelete.handler(_ as Handler) >> routeDelete
+
+        and: "POST route is registered for cancelling a flight's bookings"
+        1 * router.post("/flights/:id/cancel") >> routeCancelFlight
+        1 * routeCancelFlight.handler(_ as Handler) >> routeCancelFlight
     }
 }
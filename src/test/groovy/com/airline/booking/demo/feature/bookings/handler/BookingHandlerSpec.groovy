@@ -1,12 +1,17 @@
 package com.airline.booking.demo.feature.bookings.handler
 
+import com.airline.booking.demo.exception.BusinessServiceException
+import com.airline.booking.demo.exception.dto.ErrorCodeEnum
+import com.airline.booking.demo.feature.bookings.dto.BookingBatchRequest
 import com.airline.booking.demo.feature.bookings.dto.BookingRequest
 import com.airline.booking.demo.feature.bookings.mapper.BookingMapper
 import com.airline.booking.demo.feature.bookings.repository.entity.Booking
+import com.airline.booking.demo.feature.bookings.service.BookingBatchResult
 import com.airline.booking.demo.feature.bookings.service.BookingService
 import com.google.common.net.MediaType
 import io.netty.handler.codec.http.HttpResponseStatus
 import io.vertx.core.Future
+import io.vertx.core.http.HttpServerRequest
 import io.vertx.core.http.HttpServerResponse
 import io.vertx.core.json.Json
 import io.vertx.ext.web.RoutingContext
@@ -17,6 +22,26 @@ class BookingHandlerSpec extends Specification {
     BookingService bookingService = Mock()
     BookingHandler handler = new BookingHandler(bookingService)
     RoutingContext ctx = Mock()
+    HttpServerRequest request = Mock()
+
+    def setup() {
+        ctx.request() >> request
+    }
+
+    def "#method should fail with INVALID_PARAM for a non-numeric id"() {
+        given:
+        ctx.pathParam("id") >> "abc"
+
+        when:
+        handler."$method"(ctx)
+
+        then:
+        1 * ctx.fail({ it instanceof BusinessServiceException && it.errorEnum == ErrorCodeEnum.INVALID_PARAM })
+        0 * bookingService._
+
+        where:
+        method << ["getById", "cancel", "cancelFlight"]
+    }
 
     def "create should return 201 and json payload"() {
         given:
@@ -27,7 +52,7 @@ class BookingHandlerSpec extends Specification {
         def response = Mock(HttpServerResponse)
         ctx.response() >> response
 
-        bookingService.create(req) >> Future.succeededFuture(booking)
+        bookingService.create(req, null) >> Future.succeededFuture(booking)
 
         when:
         handler.create(ctx)
@@ -38,6 +63,36 @@ class BookingHandlerSpec extends Specification {
         1 * response.end(Json.encode(BookingMapper.toResponse(booking)))
     }
 
+    def "create should pass the Idempotency-Key header to the service"() {
+        given:
+        def req = new BookingRequest(1L, 2L, "1LAX")
+        ctx.get("validated_body") >> req
+        request.getHeader("Idempotency-Key") >> "order-42"
+        ctx.response() >> Mock(HttpServerResponse)
+
+        when:
+        handler.create(ctx)
+
+        then:
+        1 * bookingService.create(req, "order-42") >> Future.succeededFuture(new Booking(id: 10L))
+    }
+
+    def "create should reject a blank or oversized Idempotency-Key"() {
+        given:
+        ctx.get("validated_body") >> new BookingRequest(1L, 2L, "1LAX")
+        request.getHeader("Idempotency-Key") >> key
+
+        when:
+        handler.create(ctx)
+
+        then:
+        1 * ctx.fail({ it instanceof BusinessServiceException && it.errorEnum == ErrorCodeEnum.INVALID_PARAM })
+        0 * bookingService.create(_, _)
+
+        where:
+        key << [" ", "k" * 65]
+    }
+
     def "getById should return 200 and json payload"() {
         given:
         ctx.pathParam("id") >> "7"
@@ -52,6 +107,20 @@ class BookingHandlerSpec extends Specification {
         1 * ctx.json(BookingMapper.toResponse(booking))
     }
 
+    def "getByReference should return 200 and json payload"() {
+        given:
+        ctx.pathParam("reference") >> "0K4ZQ1X2A3B4"
+
+        def booking = new Booking(id: 7L, bookingReference: "0K4ZQ1X2A3B4")
+        bookingService.getByReference("0K4ZQ1X2A3B4") >> Future.succeededFuture(booking)
+
+        when:
+        handler.getByReference(ctx)
+
+        then:
+        1 * ctx.json(BookingMapper.toResponse(booking))
+    }
+
     def "cancel should return 204 with no content"() {
         given:
         ctx.pathParam("id") >> "5"
@@ -69,13 +138,25 @@ class BookingHandlerSpec extends Specification {
         1 * response.end()
     }
 
+    def "cancelFlight should return the number of cancelled bookings"() {
+        given:
+        ctx.pathParam("id") >> "20"
+        bookingService.cancelFlight(20L) >> Future.succeededFuture(400)
+
+        when:
+        handler.cancelFlight(ctx)
+
+        then:
+        1 * ctx.json(BookingMapper.toFlightCancellationResponse(20L, 400))
+    }
+
     def "create should call ctx.fail on error"() {
         given:
         def req = new BookingRequest(1L, 2L, "1LAX")
         ctx.get("validated_body") >> req
 
         def ex = new RuntimeException("fail")
-        bookingService.create(req) >> Future.failedFuture(ex)
+        bookingService.create(req, null) >> Future.failedFuture(ex)
 
         when:
         handler.create(ctx)
@@ -83,4 +164,42 @@ class BookingHandlerSpec extends Specification {
         then:
         1 * ctx.fail(ex)
     }
+
+    def "createBatch should return 200 with per-item results"() {
+        given:
+        def req = new BookingBatchRequest([new BookingRequest(1L, 2L, "1A"), new BookingRequest(1L, 2L, "1B")])
+        ctx.get("validated_body") >> req
+
+        def response = Mock(HttpServerResponse)
+        ctx.response() >> response
+
+        def results = [
+                BookingBatchResult.created(0, new Booking(id: 10L)),
+                BookingBatchResult.failed(1, "No seats available for flight 2")
+        ]
+        bookingService.createBatch(req.bookings()) >> Future.succeededFuture(results)
+
+        when:
+        handler.createBatch(ctx)
+
+        then:
+        1 * response.setStatusCode(HttpResponseStatus.OK.code())
+        1 * response.putHeader("content-type", MediaType.JSON_UTF_8.toString())
+        1 * response.end(Json.encode(BookingMapper.toBatchResponse(results)))
+    }
+
+    def "createBatch should call ctx.fail on error"() {
+        given:
+        def req = new BookingBatchRequest([new BookingRequest(1L, 2L, "1A")])
+        ctx.get("validated_body") >> req
+
+        def ex = new RuntimeException("fail")
+        bookingService.createBatch(req.bookings()) >> Future.failedFuture(ex)
+
+        when:
+        handler.createBatch(ctx)
+
+        then:
+        1 * ctx.fail(ex)
+    }
 }
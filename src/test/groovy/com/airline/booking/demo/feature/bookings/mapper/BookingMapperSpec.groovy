@@ -3,6 +3,7 @@ package com.airline.booking.demo.feature.bookings.mapper
 import com.airline.booking.demo.feature.bookings.dto.BookingRequest
 import com.airline.booking.demo.feature.bookings.dto.BookingResponse
 import com.airline.booking.demo.feature.bookings.repository.entity.Booking
+import com.airline.booking.demo.feature.bookings.service.BookingBatchResult
 import spock.lang.Specification
 
 import java.time.OffsetDateTime
@@ -70,4 +71,27 @@ class BookingMapperSpec extends Specification {
         then:
         thrown(NullPointerException)
     }
+
+    def "toBatchResponse should count created and failed items"() {
+        given:
+        def booking = new Booking(id: 5L, bookingReference: "SA123-1", status: "CONFIRMED")
+        def results = [
+                BookingBatchResult.created(0, booking),
+                BookingBatchResult.failed(1, "Passenger not found with id: 11")
+        ]
+
+        when:
+        def resp = BookingMapper.toBatchResponse(results)
+
+        then:
+        resp.created() == 1
+        resp.failed() == 1
+        resp.results()[0].status() == "CREATED"
+        resp.results()[0].booking().id() == 5L
+        resp.results()[0].error() == null
+        resp.results()[1].index() == 1
+        resp.results()[1].status() == "FAILED"
+        resp.results()[1].booking() == null
+        resp.results()[1].error() == "Passenger not found with id: 11"
+    }
 }
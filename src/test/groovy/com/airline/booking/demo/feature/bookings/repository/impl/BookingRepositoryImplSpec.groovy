@@ -1,5 +1,6 @@
 package com.airline.booking.demo.feature.bookings.repository.impl
 
+import com.airline.booking.demo.common.db.SqlDialect
 import com.airline.booking.demo.exception.BusinessServiceException
 import com.airline.booking.demo.feature.bookings.repository.entity.Booking
 import io.vertx.core.Future
@@ -8,7 +9,6 @@ import spock.lang.Specification
 import spock.lang.Subject
 
 import java.time.OffsetDateTime
-import java.util.function.Consumer
 
 class BookingRepositoryImplSpec extends Specification {
 
@@ -17,7 +17,7 @@ class BookingRepositoryImplSpec extends Specification {
     Row row = Mock(Row)
 
     @Subject
-    BookingRepositoryImpl repository = new BookingRepositoryImpl(pool)
+    BookingRepositoryImpl repository = new BookingRepositoryImpl(pool, pool, SqlDialect.POSTGRES)
 
     def setup() {
         pool.getConnection() >> Future.succeededFuture(connection)
@@ -60,67 +60,136 @@ class BookingRepositoryImplSpec extends Specification {
         result.result().id == 1L
     }
 
-    def "findByPassengerId should map multiple rows to a list"() {
+    def "update should return the updated booking in a single statement"() {
         given:
-        def selectQuery = Mock(PreparedQuery)
+        def booking = new Booking(
+                id: 99L,
+                status: "CANCELLED",
+                seatNumber: "22B",
+                totalAmount: new BigDecimal("150.00")
+        )
+
+        def updateQuery = Mock(PreparedQuery)
         def rs = Mock(RowSet)
         def it = Mock(RowIterator)
 
-        connection.preparedQuery(BookingRepositoryImpl.SQL_SELECT_BY_PASSENGER) >> selectQuery
-        selectQuery.execute(_ as Tuple) >> Future.succeededFuture(rs)
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_UPDATE)) >> updateQuery
+        updateQuery.execute(_ as Tuple) >> Future.succeededFuture(rs)
 
         rs.iterator() >> it
-        it.hasNext() >>> [true, true, false]
-        it.next() >>> [row, row]
+        it.hasNext() >>> [true, false]
+        it.next() >> row
 
-        rs.forEach(_ as Consumer) >> { consumer ->
-            consumer.accept(row)
-            consumer.accept(row)
-        }
+        when:
+        def future = repository.save(connection, booking)
+
+        then:
+        future.succeeded()
+        future.result().id == 1L
+        future.result().status == "CONFIRMED"
+        0 * connection.preparedQuery(BookingRepositoryImpl.SQL_SELECT_BY_ID)
+    }
+
+    def "cancel should flip only a confirmed booking and return it"() {
+        given:
+        def cancelQuery = Mock(PreparedQuery)
+        def rs = Mock(RowSet)
+        def it = Mock(RowIterator)
+
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_CANCEL)) >> cancelQuery
+        rs.iterator() >> it
+        it.hasNext() >>> [true, false]
+        it.next() >> row
 
         when:
-        def result = repository.findByPassengerId(connection, 10L)
+        def future = repository.cancel(connection, 1L)
 
         then:
-        result.succeeded()
-        result.result().size() == 2
-        result.result()[0].id == 1L
+        1 * cancelQuery.execute({ Tuple t -> t.getString(0) == "CANCELLED" && t.getLong(1) == 1L && t.getString(2) == "CONFIRMED" }) >>
+                Future.succeededFuture(rs)
+        future.result().id == 1L
     }
 
-    def "update should execute update and then return updated booking"() {
+    def "cancel should return null when nothing was confirmed under that id"() {
         given:
-        def booking = new Booking(
-                id: 99L,
-                status: "CANCELLED",
-                seatNumber: "22B",
-                totalAmount: new BigDecimal("150.00")
-        )
+        def cancelQuery = Mock(PreparedQuery)
+        def rs = Mock(RowSet)
+        def it = Mock(RowIterator)
 
-        def updateQuery = Mock(PreparedQuery)
-        def selectQuery = Mock(PreparedQuery)
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_CANCEL)) >> cancelQuery
+        cancelQuery.execute(_ as Tuple) >> Future.succeededFuture(rs)
+        rs.iterator() >> it
+        it.hasNext() >> false
+
+        when:
+        def future = repository.cancel(connection, 1L)
+
+        then:
+        future.succeeded()
+        future.result() == null
+    }
+
+    def "cancelByFlightId should return the references of the cancelled bookings"() {
+        given:
+        def cancelQuery = Mock(PreparedQuery)
         def rs = Mock(RowSet)
+        def first = Mock(Row)
+        def second = Mock(Row)
+
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_CANCEL_BY_FLIGHT)) >> cancelQuery
+        first.getString("booking_reference") >> "R1"
+        second.getString("booking_reference") >> "R2"
         def it = Mock(RowIterator)
+        rs.size() >> 2
+        rs.iterator() >> it
+        it.hasNext() >>> [true, true, false]
+        it.next() >>> [first, second]
 
-        connection.preparedQuery(BookingRepositoryImpl.SQL_UPDATE) >> updateQuery
-        connection.preparedQuery(BookingRepositoryImpl.SQL_SELECT_BY_ID) >> selectQuery
+        when:
+        def future = repository.cancelByFlightId(connection, 20L)
 
-        updateQuery.execute(_ as Tuple) >> Future.succeededFuture(Mock(RowSet))
+        then:
+        1 * cancelQuery.execute({ Tuple t -> t.getLong(1) == 20L }) >> Future.succeededFuture(rs)
+        future.result() == ["R1", "R2"]
+    }
 
-        selectQuery.execute(_ as Tuple) >> Future.succeededFuture(rs)
+    def "cancelByFlightId should map DB errors via recover"() {
+        given:
+        def cancelQuery = Mock(PreparedQuery)
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_CANCEL_BY_FLIGHT)) >> cancelQuery
+        cancelQuery.execute(_ as Tuple) >> Future.failedFuture(new RuntimeException("DB failure"))
+
+        when:
+        def future = repository.cancelByFlightId(connection, 20L)
+
+        then:
+        future.failed()
+        future.cause().message.contains("Failed to cancel bookings")
+    }
+
+    def "update should fail with ENTITY_NOT_FOUND when no row is updated"() {
+        given:
+        def booking = new Booking(id: 99L, status: "CANCELLED")
+
+        def updateQuery = Mock(PreparedQuery)
+        def rs = Mock(RowSet)
+        def it = Mock(RowIterator)
+
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_UPDATE)) >> updateQuery
+        updateQuery.execute(_ as Tuple) >> Future.succeededFuture(rs)
         rs.iterator() >> it
-        it.hasNext() >>> [true, false]
-        it.next() >> row
+        it.hasNext() >> false
 
         when:
         def future = repository.save(connection, booking)
 
         then:
-        future.succeeded()
-        future.result().id == 1L
-        future.result().status == "CONFIRMED"
+        future.failed()
+        future.cause() instanceof BusinessServiceException
+        future.cause().message.contains("Booking not found with id: 99")
     }
 
-    def "save should perform insert when ID is null"() {
+    def "save should perform insert returning the generated row when ID is null"() {
         given:
         def booking = new Booking(
                 bookingReference: "REF-321",
@@ -131,57 +200,30 @@ class BookingRepositoryImplSpec extends Specification {
                 totalAmount: new BigDecimal("200.00")
         )
 
-        pool.getConnection() >> Future.succeededFuture(connection)
-
         def insertPQ = Mock(PreparedQuery)
         def insertRS = Mock(RowSet)
+        def insertIter = Mock(RowIterator)
+        def insertRow = Mock(Row)
 
         connection.preparedQuery({ sql ->
-            sql?.trim()?.toLowerCase()?.startsWith("insert into bookings")
+            sql?.trim()?.toLowerCase()?.startsWith("insert into bookings") &&
+                    sql?.toLowerCase()?.endsWith("returning *")
         } as String) >> insertPQ
 
         insertPQ.execute(_ as Tuple) >> Future.succeededFuture(insertRS)
-
-        def lastValQuery = Mock(Query)
-        def lastValRS = Mock(RowSet)
-        def lastValIter = Mock(RowIterator)
-        def lastValRow = Mock(Row)
-
-        connection.query({ sql ->
-            sql?.toLowerCase()?.contains("lastval")
-        } as String) >> lastValQuery
-
-        lastValQuery.execute() >> Future.succeededFuture(lastValRS)
-
-        lastValRS.iterator() >> lastValIter
-        lastValIter.hasNext() >> true
-        lastValIter.next() >> lastValRow
-        lastValRow.getLong("id") >> 777L
-
-        def selectPQ = Mock(PreparedQuery)
-        def selectRS = Mock(RowSet)
-        def selectIter = Mock(RowIterator)
-        def selectRow = Mock(Row)
-
-        connection.preparedQuery({ sql ->
-            sql?.toLowerCase()?.contains("from bookings") &&
-                    sql?.toLowerCase()?.contains("where id")
-        } as String) >> selectPQ
-
-        selectPQ.execute(_ as Tuple) >> Future.succeededFuture(selectRS)
-        selectRS.iterator() >> selectIter
-        selectIter.hasNext() >>> [true, false]
-        selectIter.next() >> selectRow
-
-        selectRow.getLong("id") >> 777L
-        selectRow.getString("booking_reference") >> "REF-321"
-        selectRow.getLong("passenger_id") >> 33L
-        selectRow.getLong("flight_id") >> 44L
-        selectRow.getString("seat_number") >> "14C"
-        selectRow.getString("status") >> "CONFIRMED"
-        selectRow.get(BigDecimal.class, "total_amount") >> new BigDecimal("200.00")
-        selectRow.get(_ as Class, _ as String) >> OffsetDateTime.now()
-        selectRow.getValue(_ as String) >> OffsetDateTime.now()
+        insertRS.iterator() >> insertIter
+        insertIter.hasNext() >>> [true, false]
+        insertIter.next() >> insertRow
+
+        insertRow.getLong("id") >> 777L
+        insertRow.getString("booking_reference") >> "REF-321"
+        insertRow.getLong("passenger_id") >> 33L
+        insertRow.getLong("flight_id") >> 44L
+        insertRow.getString("seat_number") >> "14C"
+        insertRow.getString("status") >> "CONFIRMED"
+        insertRow.get(BigDecimal.class, "total_amount") >> new BigDecimal("200.00")
+        insertRow.get(_ as Class, _ as String) >> OffsetDateTime.now()
+        insertRow.getValue(_ as String) >> OffsetDateTime.now()
 
         when:
         def future = repository.save(connection, booking)
@@ -190,6 +232,7 @@ class BookingRepositoryImplSpec extends Specification {
         future.succeeded()
         future.result().id == 777L
         future.result().bookingReference == "REF-321"
+        0 * connection.query(_)
     }
 
     def "save(Booking) should get connection, delegate to save(conn, booking), and close connection (update path)"() {
@@ -201,19 +244,12 @@ class BookingRepositoryImplSpec extends Specification {
                 totalAmount: new BigDecimal("150.00")
         )
 
-        pool.getConnection() >> Future.succeededFuture(connection)
-
         def updatePQ = Mock(PreparedQuery)
-        def selectPQ = Mock(PreparedQuery)
         def rs = Mock(RowSet)
         def it = Mock(RowIterator)
 
-        connection.preparedQuery(BookingRepositoryImpl.SQL_UPDATE) >> updatePQ
-        connection.preparedQuery(BookingRepositoryImpl.SQL_SELECT_BY_ID) >> selectPQ
-
-        updatePQ.execute(_ as Tuple) >> Future.succeededFuture(Mock(RowSet)) // update OK
-
-        selectPQ.execute(_ as Tuple) >> Future.succeededFuture(rs)
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_UPDATE)) >> updatePQ
+        updatePQ.execute(_ as Tuple) >> Future.succeededFuture(rs)
         rs.iterator() >> it
         it.hasNext() >>> [true, false]
         it.next() >> row
@@ -240,52 +276,20 @@ class BookingRepositoryImplSpec extends Specification {
                 totalAmount: new BigDecimal("300.00")
         )
 
-        pool.getConnection() >> Future.succeededFuture(connection)
-
         def insertPQ = Mock(PreparedQuery)
-        connection.preparedQuery({ sql ->
-            sql?.trim()?.toLowerCase()?.startsWith("insert into bookings")
-        } as String) >> insertPQ
-        insertPQ.execute(_ as Tuple) >> Future.succeededFuture(Mock(RowSet))
-
-        def lastValQuery = Mock(Query)
-        def lastValRS = Mock(RowSet)
-        def lastValIter = Mock(RowIterator)
-        def lastValRow = Mock(Row)
-
-        connection.query({ sql ->
-            sql?.toLowerCase()?.contains("lastval")
-        } as String) >> lastValQuery
-
-        lastValQuery.execute() >> Future.succeededFuture(lastValRS)
-        lastValRS.iterator() >> lastValIter
-        lastValIter.hasNext() >> true
-        lastValIter.next() >> lastValRow
-        lastValRow.getLong("id") >> 555L
+        def insertRS = Mock(RowSet)
+        def insertIter = Mock(RowIterator)
+        def insertRow = Mock(Row)
 
-        def selectPQ = Mock(PreparedQuery)
-        def selectRS = Mock(RowSet)
-        def selectIter = Mock(RowIterator)
-        def selectRow = Mock(Row)
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_INSERT)) >> insertPQ
+        insertPQ.execute(_ as Tuple) >> Future.succeededFuture(insertRS)
+        insertRS.iterator() >> insertIter
+        insertIter.hasNext() >>> [true, false]
+        insertIter.next() >> insertRow
 
-        connection.preparedQuery({ sql ->
-            sql?.toLowerCase()?.contains("from bookings") && sql?.toLowerCase()?.contains("where id")
-        } as String) >> selectPQ
-
-        selectPQ.execute(_ as Tuple) >> Future.succeededFuture(selectRS)
-        selectRS.iterator() >> selectIter
-        selectIter.hasNext() >>> [true, false]
-        selectIter.next() >> selectRow
-
-        selectRow.getLong("id") >> 555L
-        selectRow.getString("booking_reference") >> "R-555"
-        selectRow.getLong("passenger_id") >> 9L
-        selectRow.getLong("flight_id") >> 8L
-        selectRow.getString("seat_number") >> "18A"
-        selectRow.getString("status") >> "CONFIRMED"
-        selectRow.get(BigDecimal.class, "total_amount") >> new BigDecimal("300.00")
-        selectRow.get(_ as Class, _ as String) >> OffsetDateTime.now()
-        selectRow.getValue(_ as String) >> OffsetDateTime.now()
+        insertRow.getLong("id") >> 555L
+        insertRow.getString("booking_reference") >> "R-555"
+        insertRow.getValue(_ as String) >> OffsetDateTime.now()
 
         when:
         def fut = repository.save(booking)
@@ -368,5 +372,191 @@ class BookingRepositoryImplSpec extends Specification {
         fut.cause().message.contains("Failed to query booking")
     }
 
+    def "findByReference should map the matching row"() {
+        given:
+        def selectPQ = Mock(PreparedQuery)
+        def rs = Mock(RowSet)
+        def it = Mock(RowIterator)
+
+        pool.preparedQuery(BookingRepositoryImpl.SQL_SELECT_BY_REFERENCE) >> selectPQ
+        selectPQ.execute({ Tuple t -> t.getString(0) == "REF-123" }) >> Future.succeededFuture(rs)
+
+        rs.iterator() >> it
+        it.hasNext() >>> [true, false]
+        it.next() >> row
+
+        when:
+        def fut = repository.findByReference("REF-123")
+
+        then:
+        fut.succeeded()
+        fut.result().bookingReference == "REF-123"
+    }
+
+    def "findByReference should fail with ENTITY_NOT_FOUND when no row exists"() {
+        given:
+        def selectPQ = Mock(PreparedQuery)
+        def emptyRS = Mock(RowSet)
+        def it = Mock(RowIterator)
+
+        pool.preparedQuery(BookingRepositoryImpl.SQL_SELECT_BY_REFERENCE) >> selectPQ
+        selectPQ.execute(_ as Tuple) >> Future.succeededFuture(emptyRS)
+
+        emptyRS.iterator() >> it
+        it.hasNext() >> false
+
+        when:
+        def fut = repository.findByReference("NOPE")
+
+        then:
+        fut.failed()
+        fut.cause().message.contains("Booking not found with reference: NOPE")
+    }
+
+    def "findByIdempotencyKey should return null when the key was never used"() {
+        given:
+        def selectPQ = Mock(PreparedQuery)
+        def emptyRS = Mock(RowSet)
+        def it = Mock(RowIterator)
+
+        pool.preparedQuery(BookingRepositoryImpl.SQL_SELECT_BY_IDEMPOTENCY_KEY) >> selectPQ
+        selectPQ.execute({ Tuple t -> t.getString(0) == "order-42" }) >> Future.succeededFuture(emptyRS)
+
+        emptyRS.iterator() >> it
+        it.hasNext() >> false
+
+        when:
+        def fut = repository.findByIdempotencyKey("order-42")
+
+        then:
+        fut.succeeded()
+        fut.result() == null
+    }
+
+    def "saveAll should insert all bookings in one batch and collect returned rows"() {
+        given:
+        def batchQuery = Mock(PreparedQuery)
+        def first = Mock(RowSet)
+        def second = Mock(RowSet)
+        def firstIt = Mock(RowIterator)
+        def secondIt = Mock(RowIterator)
+
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_INSERT)) >> batchQuery
 
+        first.iterator() >> firstIt
+        firstIt.hasNext() >>> [true, false]
+        firstIt.next() >> row
+        first.next() >> second
+
+        second.iterator() >> secondIt
+        secondIt.hasNext() >>> [true, false]
+        secondIt.next() >> row
+        second.next() >> null
+
+        when:
+        def future = repository.saveAll(connection, [new Booking(bookingReference: "A"), new Booking(bookingReference: "B")])
+
+        then:
+        1 * batchQuery.executeBatch({ it.size() == 2 }) >> Future.succeededFuture(first)
+        future.succeeded()
+        future.result().size() == 2
+    }
+
+    def "saveAll should insert row by row when the dialect cannot batch returning statements"() {
+        given:
+        def h2Repository = new BookingRepositoryImpl(pool, pool, SqlDialect.H2)
+        def insertQuery = Mock(PreparedQuery)
+        def rs = Mock(RowSet)
+        def it = Mock(RowIterator)
+
+        connection.preparedQuery(SqlDialect.H2.returning(BookingRepositoryImpl.SQL_INSERT)) >> insertQuery
+        rs.iterator() >> it
+        it.hasNext() >> true
+        it.next() >> row
+
+        when:
+        def future = h2Repository.saveAll(connection, [new Booking(), new Booking()])
+
+        then:
+        2 * insertQuery.execute(_ as Tuple) >> Future.succeededFuture(rs)
+        0 * insertQuery.executeBatch(_)
+        future.succeeded()
+        future.result().size() == 2
+    }
+
+    def "saveAll should return an empty list without touching the database"() {
+        when:
+        def future = repository.saveAll(connection, [])
+
+        then:
+        0 * connection.preparedQuery(_)
+        future.succeeded()
+        future.result().isEmpty()
+    }
+
+    def "saveAll should map batch errors via recover"() {
+        given:
+        def batchQuery = Mock(PreparedQuery)
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_INSERT)) >> batchQuery
+        batchQuery.executeBatch(_ as List) >> Future.failedFuture(new RuntimeException("DB failure"))
+
+        when:
+        def future = repository.saveAll(connection, [new Booking()])
+
+        then:
+        future.failed()
+        future.cause().message.contains("Failed to insert bookings")
+    }
+
+    def "streamByPassengerId should map rows through a cursor and release the connection"() {
+        given:
+        def tx = Mock(Transaction)
+        def ps = Mock(PreparedStatement)
+        def rows = Mock(RowStream)
+        def mapped = []
+
+        connection.begin() >> Future.succeededFuture(tx)
+        connection.prepare(BookingRepositoryImpl.SQL_STREAM_BY_PASSENGER) >> Future.succeededFuture(ps)
+        ps.createStream(_ as Integer, _ as Tuple) >> rows
+        rows.handler(_) >> { args -> args[0].handle(row); rows }
+
+        when:
+        def result = repository.streamByPassengerId(10L, { stream ->
+            stream.handler { mapped << it }
+            Future.succeededFuture()
+        })
+
+        then:
+        1 * rows.close() >> Future.succeededFuture()
+        1 * ps.close() >> Future.succeededFuture()
+        1 * tx.rollback() >> Future.succeededFuture()
+        1 * connection.close() >> Future.succeededFuture()
+        result.succeeded()
+        mapped*.id == [1L]
+    }
+
+    def "streamByPassengerId should map errors via recover"() {
+        given:
+        connection.begin() >> Future.failedFuture(new RuntimeException("DB failure"))
+
+        when:
+        def result = repository.streamByPassengerId(10L, { stream -> Future.succeededFuture() })
+
+        then:
+        result.failed()
+        result.cause().message.contains("Failed to stream bookings")
+    }
+
+    def "statement catalog should list the dialect-wrapped SQL each pool runs"() {
+        expect:
+        repository.writeStatements().containsAll([
+                SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_INSERT),
+                SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_CANCEL),
+                SqlDialect.POSTGRES.returning(BookingRepositoryImpl.SQL_CANCEL_BY_FLIGHT),
+                BookingRepositoryImpl.SQL_SELECT_BY_IDEMPOTENCY_KEY])
+        repository.readStatements().containsAll([
+                BookingRepositoryImpl.SQL_SELECT_BY_ID,
+                BookingRepositoryImpl.SQL_SELECT_BY_REFERENCE])
+        !repository.readStatements().contains(BookingRepositoryImpl.SQL_STREAM_BY_PASSENGER)
+    }
 }
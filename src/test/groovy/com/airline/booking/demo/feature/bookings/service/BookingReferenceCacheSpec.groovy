@@ -0,0 +1,122 @@
+package com.airline.booking.demo.feature.bookings.service
+
+import com.airline.booking.demo.common.cache.CacheStats
+import com.airline.booking.demo.feature.bookings.repository.entity.Booking
+import io.vertx.core.Future
+import io.vertx.core.Promise
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+
+import java.util.function.Function
+
+class BookingReferenceCacheSpec extends Specification {
+
+    CacheStats stats = new CacheStats()
+    BookingReferenceCache cache = new BookingReferenceCache(stats, 10)
+    Function<String, Future<Booking>> loader = Mock()
+
+    def "get should load once and then serve from memory"() {
+        given:
+        def booking = new Booking(id: 1L, bookingReference: "REF")
+
+        when:
+        def first = cache.get("REF", loader)
+        def second = cache.get("REF", loader)
+
+        then:
+        1 * loader.apply("REF") >> Future.succeededFuture(booking)
+        first.result().is(booking)
+        second.result().id == 1L
+        stats.hits() == 1
+        stats.misses() == 1
+    }
+
+    def "changing a booking the cache handed out should not change the cached one"() {
+        given:
+        def booking = new Booking(id: 1L, bookingReference: "REF", status: "CONFIRMED")
+        cache.put(booking)
+
+        when:
+        booking.status = "PUT"
+        cache.get("REF", loader).result().status = "SERVED"
+
+        then:
+        cache.get("REF", loader).result().status == "CONFIRMED"
+        0 * loader.apply(_)
+    }
+
+    def "put should make a new booking visible without a load"() {
+        given:
+        cache.put(new Booking(id: 2L, bookingReference: "NEW"))
+
+        when:
+        def result = cache.get("NEW", loader)
+
+        then:
+        0 * loader.apply(_)
+        result.result().id == 2L
+    }
+
+    def "invalidate should drop the entry"() {
+        given:
+        cache.put(new Booking(id: 3L, bookingReference: "OLD"))
+
+        when:
+        cache.invalidate("OLD")
+        cache.get("OLD", loader)
+
+        then:
+        1 * loader.apply("OLD") >> Future.succeededFuture(new Booking(id: 3L, bookingReference: "OLD"))
+        stats.invalidations() == 1
+    }
+
+    def "invalidateAll should drop only the given entries"() {
+        given:
+        cache.put(new Booking(id: 1L, bookingReference: "R1"))
+        cache.put(new Booking(id: 2L, bookingReference: "R2"))
+        cache.put(new Booking(id: 3L, bookingReference: "KEEP"))
+
+        when:
+        cache.invalidateAll(["R1", "R2"])
+        cache.get("R1", loader)
+        cache.get("KEEP", loader)
+
+        then:
+        1 * loader.apply("R1") >> Future.succeededFuture(new Booking(id: 1L, bookingReference: "R1"))
+        0 * loader.apply("KEEP")
+        stats.invalidations() == 1
+    }
+
+    def "a load that raced with an invalidation is not cached"() {
+        given:
+        def pending = Promise.<Booking> promise()
+        loader.apply("REF") >>> [pending.future(), Future.succeededFuture(new Booking(id: 1L, bookingReference: "REF"))]
+
+        when:
+        cache.get("REF", loader)
+        cache.invalidate("REF")
+        pending.complete(new Booking(id: 1L, bookingReference: "REF", status: "CONFIRMED"))
+        cache.get("REF", loader)
+
+        then:
+        stats.misses() == 2
+    }
+
+    def "failed loads are not cached"() {
+        when:
+        def result = cache.get("MISSING", loader)
+
+        then:
+        1 * loader.apply("MISSING") >> Future.failedFuture(new RuntimeException("not found"))
+        result.failed()
+    }
+
+    def "resolveMaxSize should fall back to the default for missing or invalid values"() {
+        expect:
+        BookingReferenceCache.resolveMaxSize(new JsonObject()) == 10_000
+        BookingReferenceCache.resolveMaxSize(new JsonObject().put("cache", new JsonObject()
+                .put("bookingRefs", new JsonObject().put("maxSize", 0)))) == 10_000
+        BookingReferenceCache.resolveMaxSize(new JsonObject().put("cache", new JsonObject()
+                .put("bookingRefs", new JsonObject().put("maxSize", 5)))) == 5
+    }
+}
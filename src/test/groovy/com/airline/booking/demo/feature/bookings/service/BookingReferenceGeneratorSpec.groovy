@@ -0,0 +1,126 @@
+package com.airline.booking.demo.feature.bookings.service
+
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class BookingReferenceGeneratorSpec extends Specification {
+
+    static final long NOW_SEC = 1_760_000_000L
+
+    long now = NOW_SEC
+
+    def "references are 12 characters of Crockford base32"() {
+        given:
+        def generator = new BookingReferenceGenerator(7, { now })
+
+        expect:
+        (1..100).every { generator.next() ==~ /[0-9A-HJKMNP-TV-Z]{12}/ }
+    }
+
+    def "references grow within a second and keep growing when the clock steps back"() {
+        given:
+        def generator = new BookingReferenceGenerator(7, { now })
+
+        when:
+        def first = generator.next()
+        def second = generator.next()
+        now -= 60
+        def third = generator.next()
+
+        then:
+        first < second
+        second < third
+    }
+
+    def "a full counter carries into the next second"() {
+        given:
+        def generator = new BookingReferenceGenerator(7, { now })
+        def refs = [] as Set
+
+        when:
+        (1..(1 << 18) + 10).each { refs << generator.next() }
+
+        then:
+        refs.size() == (1 << 18) + 10
+    }
+
+    def "two nodes never produce the same reference in the same second"() {
+        given:
+        def a = new BookingReferenceGenerator(1, { now })
+        def b = new BookingReferenceGenerator(2, { now })
+
+        expect:
+        a.next() != b.next()
+    }
+
+    def "concurrent callers never get the same reference"() {
+        given:
+        def generator = new BookingReferenceGenerator(7, { System.currentTimeMillis().intdiv(1000) as long })
+        def refs = ConcurrentHashMap.newKeySet()
+        def pool = Executors.newFixedThreadPool(8)
+        def done = new CountDownLatch(8)
+
+        when:
+        8.times {
+            pool.submit {
+                20_000.times { refs << generator.next() }
+                done.countDown()
+            }
+        }
+        done.await(30, TimeUnit.SECONDS)
+
+        then:
+        refs.size() == 160_000
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "node id comes from the bookings block, then NODE_ID"() {
+        expect:
+        BookingReferenceGenerator.resolveNode(bookings([nodeId: 42]), [NODE_ID: "7"]) == 42
+        BookingReferenceGenerator.resolveNode(bookings([requireNodeId: true]), [NODE_ID: " 7 "]) == 7
+        BookingReferenceGenerator.resolveNode(new JsonObject(), [:]) == 0
+    }
+
+    def "a required node id that is missing fails instead of picking one"() {
+        when:
+        BookingReferenceGenerator.resolveNode(bookings([requireNodeId: true]), [:])
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "a non-numeric NODE_ID is rejected"() {
+        when:
+        BookingReferenceGenerator.resolveNode(new JsonObject(), [NODE_ID: "app-3"])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "the generator cannot be built from prod config without a node id"() {
+        when:
+        new BookingReferenceGenerator(bookings([requireNodeId: true]))
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "node ids outside 10 bits are rejected"() {
+        when:
+        new BookingReferenceGenerator(1024, { now })
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private static JsonObject bookings(final Map<String, Object> block) {
+        new JsonObject().put("bookings", new JsonObject(block))
+    }
+}
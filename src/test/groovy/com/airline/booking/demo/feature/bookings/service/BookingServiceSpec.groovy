@@ -1,5 +1,7 @@
 package com.airline.booking.demo.feature.bookings.service
 
+import com.airline.booking.demo.common.cache.CacheStats
+import com.airline.booking.demo.common.cache.IdempotencyStore
 import com.airline.booking.demo.common.db.ReactiveTx
 import com.airline.booking.demo.exception.BusinessServiceException
 import com.airline.booking.demo.exception.dto.ErrorCodeEnum
@@ -9,6 +11,8 @@ import com.airline.booking.demo.feature.bookings.repository.entity.Booking
 import com.airline.booking.demo.feature.bookings.repository.entity.BookingStatus
 import com.airline.booking.demo.feature.flights.repository.FlightRepository
 import com.airline.booking.demo.feature.flights.repository.entity.Flight
+import com.airline.booking.demo.feature.flights.repository.entity.FlightStatus
+import com.airline.booking.demo.feature.flights.service.FlightRouteIndex
 import com.airline.booking.demo.feature.passengers.repository.PassengerRepository
 import com.airline.booking.demo.feature.passengers.repository.entity.Passenger
 import io.vertx.core.Future
@@ -22,8 +26,15 @@ class BookingServiceSpec extends Specification {
     FlightRepository flightRepo = Mock()
     BookingRepository bookingRepo = Mock()
     PassengerRepository passengerRepo = Mock()
+    FlightRouteIndex routeIndex = Mock()
 
-    BookingService service = new BookingService(tx, flightRepo, bookingRepo, passengerRepo)
+    IdempotencyStore<Booking> idempotency = new IdempotencyStore<>(100, 60, new CacheStats())
+
+    BookingReferenceGenerator referenceGenerator = new BookingReferenceGenerator(1, { 1_760_000_000L })
+    BookingReferenceCache referenceCache = new BookingReferenceCache(new CacheStats(), 100)
+
+    BookingService service = new BookingService(tx, flightRepo, bookingRepo, passengerRepo, routeIndex, idempotency,
+            referenceGenerator, referenceCache)
 
     def setup() {
         tx.withTx(_ as Function) >> { Function fn ->
@@ -62,12 +73,12 @@ class BookingServiceSpec extends Specification {
         given:
         def req = new BookingRequest(10L, 20L, "A1")
 
-        passengerRepo.findById(10L) >> Future.succeededFuture(new Passenger(id: 10L))
+        passengerRepo.findById(_, 10L) >> Future.succeededFuture(new Passenger(id: 10L))
 
         def flight = new Flight(id: 20L, availableSeats: 2, price: new BigDecimal("100.00"), flightNumber: "SA123")
-        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(flight)
+        flightRepo.findById(_, 20L) >> Future.succeededFuture(flight)
 
-        flightRepo.save(_, flight) >> Future.succeededFuture(flight)
+        flightRepo.reserveSeat(_, 20L) >> Future.succeededFuture(true)
 
         bookingRepo.save(_, _ as Booking) >> { args ->
             Booking b = args[1]
@@ -79,6 +90,7 @@ class BookingServiceSpec extends Specification {
         def future = service.create(req)
 
         then:
+        1 * routeIndex.adjustSeats(20L, -1)
         future.succeeded()
         with(future.result()) {
             id == 99L
@@ -86,14 +98,42 @@ class BookingServiceSpec extends Specification {
             flightId == 20L
             status == BookingStatus.CONFIRMED.name()
             totalAmount == new BigDecimal("100.00")
-            bookingReference.startsWith("SA123")
+            bookingReference.length() == BookingReferenceGenerator.LENGTH
         }
+        service.getByReference(future.result().bookingReference).result().id == 99L
+        0 * bookingRepo.findByReference(_)
+    }
+
+    def "getByReference loads from the repository once and then serves from the cache"() {
+        given:
+        def booking = new Booking(id: 3L, bookingReference: "0ABC")
+
+        when:
+        def first = service.getByReference("0ABC")
+        def second = service.getByReference("0ABC")
+
+        then:
+        1 * bookingRepo.findByReference("0ABC") >> Future.succeededFuture(booking)
+        first.result().is(booking)
+        second.result().id == 3L
+    }
+
+    def "getByReference fails"() {
+        given:
+        def ex = new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND, "no booking")
+        bookingRepo.findByReference("NOPE") >> Future.failedFuture(ex)
+
+        when:
+        def result = service.getByReference("NOPE")
+
+        then:
+        result.cause() == ex
     }
 
     def "create fails when passenger not found"() {
         given:
         def req = new BookingRequest(10L, 20L, "A1")
-        passengerRepo.findById(10L) >> Future.failedFuture(
+        passengerRepo.findById(_, 10L) >> Future.failedFuture(
                 new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND, "no passenger")
         )
 
@@ -110,9 +150,9 @@ class BookingServiceSpec extends Specification {
         given:
         def req = new BookingRequest(10L, 20L, "A1")
 
-        passengerRepo.findById(10L) >> Future.succeededFuture(new Passenger(id: 10L))
+        passengerRepo.findById(_, 10L) >> Future.succeededFuture(new Passenger(id: 10L))
         def flight = new Flight(id: 20L, availableSeats: 0, price: BigDecimal.TEN, flightNumber: "SA123")
-        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(flight)
+        flightRepo.findById(_, 20L) >> Future.succeededFuture(flight)
 
         when:
         def future = service.create(req)
@@ -123,16 +163,17 @@ class BookingServiceSpec extends Specification {
         future.cause().errorEnum == ErrorCodeEnum.INVALID_PARAM
     }
 
-    def "create fails when flightRepo.save fails"() {
+    def "create fails when reserveSeat fails"() {
         given:
         def req = new BookingRequest(10L, 20L, "A1")
 
-        passengerRepo.findById(10L) >> Future.succeededFuture(new Passenger(id: 10L))
+        passengerRepo.findById(_, 10L) >> Future.succeededFuture(new Passenger(id: 10L))
 
         def flight = new Flight(id: 20L, availableSeats: 1, price: BigDecimal.TEN, flightNumber: "SA123")
-        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(flight)
+        flightRepo.findById(_, 20L) >> Future.succeededFuture(flight)
 
-        flightRepo.save(_, flight) >> Future.failedFuture(new RuntimeException("flight update failed"))
+        bookingRepo.save(_, _ as Booking) >> { args -> Future.succeededFuture(args[1]) }
+        flightRepo.reserveSeat(_, 20L) >> Future.failedFuture(new RuntimeException("flight update failed"))
 
         when:
         def future = service.create(req)
@@ -142,16 +183,39 @@ class BookingServiceSpec extends Specification {
         future.cause().message == "flight update failed"
     }
 
+    def "create fails when the seat is taken by a concurrent booking"() {
+        given:
+        def req = new BookingRequest(10L, 20L, "A1")
+
+        passengerRepo.findById(_, 10L) >> Future.succeededFuture(new Passenger(id: 10L))
+
+        def flight = new Flight(id: 20L, availableSeats: 1, price: BigDecimal.TEN, flightNumber: "SA123")
+        flightRepo.findById(_, 20L) >> Future.succeededFuture(flight)
+
+        bookingRepo.save(_, _ as Booking) >> { args -> Future.succeededFuture(args[1]) }
+        flightRepo.reserveSeat(_, 20L) >> Future.succeededFuture(false)
+
+        when:
+        def future = service.create(req)
+
+        then:
+        future.failed()
+        future.cause() instanceof BusinessServiceException
+        future.cause().errorEnum == ErrorCodeEnum.INVALID_PARAM
+        future.cause().message == "No seats available for flight 20"
+        0 * routeIndex.adjustSeats(_, _)
+    }
+
     def "create fails when bookingRepo.save fails"() {
         given:
         def req = new BookingRequest(10L, 20L, "A1")
 
-        passengerRepo.findById(10L) >> Future.succeededFuture(new Passenger(id: 10L))
+        passengerRepo.findById(_, 10L) >> Future.succeededFuture(new Passenger(id: 10L))
 
         def flight = new Flight(id: 20L, availableSeats: 1, price: BigDecimal.TEN, flightNumber: "SA123")
-        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(flight)
+        flightRepo.findById(_, 20L) >> Future.succeededFuture(flight)
 
-        flightRepo.save(_, flight) >> Future.succeededFuture(flight)
+        flightRepo.reserveSeat(_, 20L) >> Future.succeededFuture(true)
         bookingRepo.save(_, _ as Booking) >> Future.failedFuture(new RuntimeException("booking save failed"))
 
         when:
@@ -160,56 +224,237 @@ class BookingServiceSpec extends Specification {
         then:
         future.failed()
         future.cause().message == "booking save failed"
+        0 * flightRepo.reserveSeat(_, _)
     }
 
+    def "create with an idempotency key books once and replays the result for a retry"() {
+        given:
+        def req = new BookingRequest(10L, 20L, "A1")
+
+        passengerRepo.findById(_, 10L) >> Future.succeededFuture(new Passenger(id: 10L))
+        flightRepo.findById(_, 20L) >> Future.succeededFuture(
+                new Flight(id: 20L, availableSeats: 2, price: BigDecimal.TEN, flightNumber: "SA123"))
+        flightRepo.reserveSeat(_, 20L) >> Future.succeededFuture(true)
+
+        when:
+        def first = service.create(req, "key-1")
+        def retry = service.create(req, "key-1")
 
-    def "cancel succeeds and sets status to CANCELLED"() {
+        then:
+        1 * bookingRepo.findByIdempotencyKey("key-1") >> Future.succeededFuture(null)
+        1 * bookingRepo.save(_, _ as Booking) >> { args ->
+            Booking b = args[1]
+            b.setId(99L)
+            Future.succeededFuture(b)
+        }
+        first.succeeded()
+        first.result().idempotencyKey == "key-1"
+        retry.result().is(first.result())
+    }
+
+    def "create with an idempotency key returns the stored booking when only the database remembers it"() {
         given:
-        def booking = new Booking(id: 10L, status: BookingStatus.CONFIRMED.name())
-        bookingRepo.findById(_, 10L) >> Future.succeededFuture(booking)
-        bookingRepo.save(_, _ as Booking) >> { args -> Future.succeededFuture(args[1]) }
+        def req = new BookingRequest(10L, 20L, "A1")
+        def stored = new Booking(id: 5L, passengerId: 10L, flightId: 20L, seatNumber: "A1")
+        bookingRepo.findByIdempotencyKey("key-2") >> Future.succeededFuture(stored)
+
+        when:
+        def future = service.create(req, "key-2")
+
+        then:
+        future.result().is(stored)
+        0 * bookingRepo.save(_, _)
+        0 * tx.withTx(_)
+    }
+
+    def "create with an idempotency key rejects a stored booking for another seat"() {
+        given:
+        def req = new BookingRequest(10L, 20L, "A1")
+        bookingRepo.findByIdempotencyKey("key-3") >> Future.succeededFuture(
+                new Booking(id: 5L, passengerId: 10L, flightId: 20L, seatNumber: "B2"))
+
+        when:
+        def future = service.create(req, "key-3")
+
+        then:
+        future.failed()
+        future.cause().errorEnum == ErrorCodeEnum.CONFLICT
+        0 * bookingRepo.save(_, _)
+    }
+
+    def "cancel flips the status and releases the seat in the same transaction"() {
+        given:
+        referenceCache.put(new Booking(id: 10L, bookingReference: "R1", status: BookingStatus.CONFIRMED.name()))
+
+        when:
+        def future = service.cancel(10L)
+        def lookup = service.getByReference("R1")
+
+        then:
+        1 * bookingRepo.cancel(_, 10L) >> Future.succeededFuture(
+                new Booking(id: 10L, flightId: 20L, bookingReference: "R1", status: BookingStatus.CANCELLED.name()))
+        1 * flightRepo.releaseSeats(_, 20L, 1) >> Future.succeededFuture(true)
+        1 * routeIndex.adjustSeats(20L, 1)
+        1 * bookingRepo.findByReference("R1") >> Future.succeededFuture(
+                new Booking(id: 10L, bookingReference: "R1", status: BookingStatus.CANCELLED.name()))
+        0 * bookingRepo.save(_, _)
+        future.succeeded()
+        lookup.result().status == BookingStatus.CANCELLED.name()
+    }
+
+    def "cancel of an already cancelled booking succeeds without releasing another seat"() {
+        given:
+        bookingRepo.cancel(_, 10L) >> Future.succeededFuture(null)
+        bookingRepo.findById(_, 10L) >> Future.succeededFuture(
+                new Booking(id: 10L, flightId: 20L, status: BookingStatus.CANCELLED.name()))
 
         when:
         def future = service.cancel(10L)
 
         then:
         future.succeeded()
-        booking.status == BookingStatus.CANCELLED.name()
+        0 * flightRepo.releaseSeats(_, _, _)
+        0 * routeIndex.adjustSeats(_, _)
     }
 
     def "cancel fails when booking not found"() {
         given:
-        bookingRepo.findById(_, 10L) >> Future.failedFuture(
-                new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND, "no booking")
-        )
+        def ex = new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND, "no booking")
+        bookingRepo.cancel(_, 10L) >> Future.succeededFuture(null)
+        bookingRepo.findById(_, 10L) >> Future.failedFuture(ex)
 
         when:
         def future = service.cancel(10L)
 
         then:
-        future.failed()
-        future.cause() instanceof BusinessServiceException
+        future.cause() == ex
+        0 * flightRepo.releaseSeats(_, _, _)
     }
 
+    def "cancel fails when the seat cannot be released"() {
+        given:
+        bookingRepo.cancel(_, 10L) >> Future.succeededFuture(new Booking(id: 10L, flightId: 20L))
+        flightRepo.releaseSeats(_, 20L, 1) >> Future.failedFuture(new RuntimeException("release failed"))
 
-    def "findByPassenger succeeds"() {
+        when:
+        def future = service.cancel(10L)
+
+        then:
+        future.cause().message == "release failed"
+        0 * routeIndex.adjustSeats(_, _)
+    }
+
+    def "cancelFlight locks the flight, cancels every booking, returns their seats and cancels the flight"() {
+        given:
+        referenceCache.put(new Booking(id: 1L, bookingReference: "R1"))
+        referenceCache.put(new Booking(id: 9L, bookingReference: "OTHER"))
+        def cancelled = new Flight(id: 20L, availableSeats: 180, status: FlightStatus.CANCELED.name())
+
+        when:
+        def future = service.cancelFlight(20L)
+        service.getByReference("R1")
+        service.getByReference("OTHER")
+
+        then:
+        1 * flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(new Flight(id: 20L))
+
+        then:
+        1 * bookingRepo.cancelByFlightId(_, 20L) >> Future.succeededFuture(["R1", "R2", "R3"])
+
+        then:
+        1 * flightRepo.releaseSeats(_, 20L, 3) >> Future.succeededFuture(true)
+
+        then:
+        1 * flightRepo.cancel(_, 20L) >> Future.succeededFuture(cancelled)
+        1 * routeIndex.upsert(cancelled)
+        0 * routeIndex.adjustSeats(_, _)
+        1 * bookingRepo.findByReference("R1") >> Future.succeededFuture(new Booking(id: 1L, bookingReference: "R1"))
+        0 * bookingRepo.findByReference("OTHER")
+        future.result() == 3
+    }
+
+    def "cancelFlight still cancels the flight when nothing was booked"() {
+        given:
+        def cancelled = new Flight(id: 20L, status: FlightStatus.CANCELED.name())
+        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(new Flight(id: 20L))
+        bookingRepo.cancelByFlightId(_, 20L) >> Future.succeededFuture([])
+
+        when:
+        def future = service.cancelFlight(20L)
+
+        then:
+        future.result() == 0
+        0 * flightRepo.releaseSeats(_, _, _)
+        1 * flightRepo.cancel(_, 20L) >> Future.succeededFuture(cancelled)
+        1 * routeIndex.upsert(cancelled)
+    }
+
+    def "cancelFlight fails for an unknown flight"() {
+        given:
+        def ex = new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND, "no flight")
+        flightRepo.findByIdForUpdate(_, 99L) >> Future.failedFuture(ex)
+
+        when:
+        def future = service.cancelFlight(99L)
+
+        then:
+        future.cause() == ex
+        0 * bookingRepo.cancelByFlightId(_, _)
+        0 * flightRepo.cancel(_, _)
+        0 * routeIndex.upsert(_)
+    }
+
+    def "cancelFlight leaves the index alone when the transaction fails"() {
+        given:
+        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(new Flight(id: 20L))
+        bookingRepo.cancelByFlightId(_, 20L) >> Future.succeededFuture(["R1"])
+        flightRepo.releaseSeats(_, 20L, 1) >> Future.succeededFuture(true)
+        flightRepo.cancel(_, 20L) >> Future.failedFuture(new RuntimeException("cancel failed"))
+
+        when:
+        def future = service.cancelFlight(20L)
+
+        then:
+        future.cause().message == "cancel failed"
+        0 * routeIndex.upsert(_)
+    }
+
+    def "create fails without writing when the flight is cancelled"() {
+        given:
+        passengerRepo.findById(_, 10L) >> Future.succeededFuture(new Passenger(id: 10L))
+        flightRepo.findById(_, 20L) >> Future.succeededFuture(
+                new Flight(id: 20L, availableSeats: 5, status: FlightStatus.CANCELED.name()))
+
+        when:
+        def future = service.create(new BookingRequest(10L, 20L, "A1"))
+
+        then:
+        future.cause() instanceof BusinessServiceException
+        future.cause().errorEnum == ErrorCodeEnum.CONFLICT
+        future.cause().message == "Flight 20 is cancelled"
+        0 * bookingRepo.save(_, _)
+        0 * flightRepo.reserveSeat(_, _)
+    }
+
+    def "streamByPassenger streams without opening a service transaction"() {
         given:
-        bookingRepo.findByPassengerId(_, 99L) >> Future.succeededFuture([new Booking(id: 1L), new Booking(id: 2L)])
+        def consumer = { s -> Future.succeededFuture() } as Function
 
         when:
-        def future = service.findByPassenger(99L)
+        def future = service.streamByPassenger(99L, consumer)
 
         then:
+        1 * bookingRepo.streamByPassengerId(99L, consumer) >> Future.succeededFuture()
+        0 * tx.withTx(_)
         future.succeeded()
-        future.result().size() == 2
     }
 
-    def "findByPassenger fails"() {
+    def "streamByPassenger fails"() {
         given:
-        bookingRepo.findByPassengerId(_, 99L) >> Future.failedFuture(new RuntimeException("db error"))
+        bookingRepo.streamByPassengerId(99L, _) >> Future.failedFuture(new RuntimeException("db error"))
 
         when:
-        def future = service.findByPassenger(99L)
+        def future = service.streamByPassenger(99L, { s -> Future.succeededFuture() } as Function)
 
         then:
         future.failed()
@@ -220,12 +465,12 @@ class BookingServiceSpec extends Specification {
         given:
         def req = new BookingRequest(10L, 20L, "A1")
 
-        passengerRepo.findById(10L) >> Future.succeededFuture(new Passenger(id: 10L))
+        passengerRepo.findById(_, 10L) >> Future.succeededFuture(new Passenger(id: 10L))
 
         def flight = new Flight(id: 20L, availableSeats: 1, price: null, flightNumber: "SA123")
-        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(flight)
+        flightRepo.findById(_, 20L) >> Future.succeededFuture(flight)
 
-        flightRepo.save(_, flight) >> Future.succeededFuture(flight)
+        flightRepo.reserveSeat(_, 20L) >> Future.succeededFuture(true)
 
         bookingRepo.save(_, _ as Booking) >> { args ->
             Booking b = args[1]
@@ -242,26 +487,105 @@ class BookingServiceSpec extends Specification {
         booking.id == 200L
         booking.totalAmount == BigDecimal.ZERO
         booking.status == BookingStatus.CONFIRMED.name()
-        booking.bookingReference.startsWith("SA123")
+        booking.bookingReference.length() == BookingReferenceGenerator.LENGTH
     }
 
-    def "cancel should fail when save() fails and log error branch is hit"() {
+    def "createBatch books accepted items in one transaction and reports per-item failures"() {
         given:
-        def booking = new Booking(id: 10L, status: BookingStatus.CONFIRMED.name())
+        def requests = [
+                new BookingRequest(10L, 20L, "A1"),
+                new BookingRequest(11L, 20L, "A2"),
+                new BookingRequest(10L, 20L, "A3"),
+                new BookingRequest(10L, 30L, "B1")
+        ]
+
+        1 * passengerRepo.findExistingIds(_, [10L, 11L] as Set) >> Future.succeededFuture([10L] as Set)
+        0 * passengerRepo.findById(_)
+
+        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(
+                new Flight(id: 20L, availableSeats: 1, price: BigDecimal.TEN, flightNumber: "SA123"))
+        flightRepo.findByIdForUpdate(_, 30L) >> Future.failedFuture(
+                new BusinessServiceException(ErrorCodeEnum.ENTITY_NOT_FOUND, "no flight"))
+
+        when:
+        def future = service.createBatch(requests)
 
-        bookingRepo.findById(_, 10L) >> Future.succeededFuture(booking)
-        bookingRepo.save(_, _ as Booking) >> {
-            return Future.failedFuture(new RuntimeException("save failed"))
+        then:
+        1 * bookingRepo.saveAll(_, { it.size() == 1 }) >> { args ->
+            List<Booking> bookings = args[1]
+            bookings[0].id = 1L
+            Future.succeededFuture(bookings)
         }
+        1 * flightRepo.reserveSeats(_, [(20L): 1]) >> Future.succeededFuture(true)
+        1 * routeIndex.adjustSeats(20L, -1)
+
+        future.succeeded()
+        def results = future.result()
+        results*.index == [0, 1, 2, 3]
+        results[0].succeeded()
+        results[0].booking().bookingReference.length() == BookingReferenceGenerator.LENGTH
+        results[1].error() == "Passenger not found with id: 11"
+        results[2].error() == "No seats available for flight 20"
+        results[3].error() == "Flight not found with id: 30"
+    }
+
+    def "createBatch rejects items for a cancelled flight"() {
+        given:
+        passengerRepo.findExistingIds(_, [10L] as Set) >> Future.succeededFuture([10L] as Set)
+        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(
+                new Flight(id: 20L, availableSeats: 5, status: FlightStatus.CANCELED.name()))
 
         when:
-        def future = service.cancel(10L)
+        def future = service.createBatch([new BookingRequest(10L, 20L, "A1")])
+
+        then:
+        0 * bookingRepo.saveAll(_, _)
+        future.result()[0].error() == "Flight 20 is cancelled"
+    }
+
+    def "createBatch skips writes when no item can be booked"() {
+        given:
+        passengerRepo.findExistingIds(_, [10L] as Set) >> Future.succeededFuture([10L] as Set)
+        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(
+                new Flight(id: 20L, availableSeats: 0, flightNumber: "SA123"))
+
+        when:
+        def future = service.createBatch([new BookingRequest(10L, 20L, "A1")])
+
+        then:
+        0 * bookingRepo.saveAll(_, _)
+        0 * flightRepo.reserveSeats(_, _)
+        future.succeeded()
+        !future.result()[0].succeeded()
+    }
+
+    def "createBatch fails the whole batch when seats cannot be reserved"() {
+        given:
+        passengerRepo.findExistingIds(_, [10L] as Set) >> Future.succeededFuture([10L] as Set)
+        flightRepo.findByIdForUpdate(_, 20L) >> Future.succeededFuture(
+                new Flight(id: 20L, availableSeats: 5, flightNumber: "SA123"))
+        bookingRepo.saveAll(_, _ as List) >> { args -> Future.succeededFuture(args[1]) }
+        flightRepo.reserveSeats(_, _ as Map) >> Future.succeededFuture(false)
+
+        when:
+        def future = service.createBatch([new BookingRequest(10L, 20L, "A1")])
 
         then:
         future.failed()
-        future.cause().message == "save failed"
-        booking.status == BookingStatus.CANCELLED.name()
+        future.cause() instanceof BusinessServiceException
+        future.cause().errorEnum == ErrorCodeEnum.CONFLICT
     }
 
+    def "createBatch propagates unexpected passenger lookup errors"() {
+        given:
+        passengerRepo.findExistingIds(_, [10L] as Set) >> Future.failedFuture(new RuntimeException("db down"))
+
+        when:
+        def future = service.createBatch([new BookingRequest(10L, 20L, "A1")])
 
+        then:
+        0 * flightRepo.findByIdForUpdate(_, _)
+        future.failed()
+        future.cause().message == "db down"
+    }
 }
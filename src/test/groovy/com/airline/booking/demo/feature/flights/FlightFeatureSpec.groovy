@@ -13,7 +13,6 @@ import spock.lang.Subject
 class FlightFeatureSpec extends Specification {
 
     Router router = Mock()
-    Route routeWildcard = Mock()
     Route routeSearch = Mock()
     Route routeGetById = Mock()
     Route routePost = Mock()
@@ -31,11 +30,7 @@ class FlightFeatureSpec extends Specification {
         when: "The feature is initialized"
         feature.init(router)
 
-        then: "BodyHandler is registered on the wildcard route"
-        1 * router.route("/flights*") >> routeWildcard
-        1 * routeWildcard.handler(_ as BodyHandler) >> routeWildcard
-
-        and: "GET search route is registered"
+        then: "GET search route is registered"
         1 * router.get("/flights/search") >> routeSearch
         1 * routeSearch.handler(_ as Handler) >> routeSearch
 
@@ -47,6 +42,7 @@ class FlightFeatureSpec extends Specification {
         1 * requestValidationHandler.validate(FlightRequest.class) >> validationHandler
         1 * router.post("/flights") >> routePost
 
+        1 * routePost.handler(_ as BodyHandler) >> routePost
         1 * routePost.handler(validationHandler) >> routePost
 
         1 * routePost.handler(_ as Handler) >> routePost
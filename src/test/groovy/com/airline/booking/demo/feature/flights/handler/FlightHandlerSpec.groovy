@@ -5,14 +5,24 @@ import com.airline.booking.demo.exception.BusinessServiceException
 import com.airline.booking.demo.exception.dto.ErrorCodeEnum
 import com.airline.booking.demo.feature.flights.dto.FlightRequest
 import com.airline.booking.demo.feature.flights.mapper.FlightMapper
+import com.airline.booking.demo.feature.flights.repository.FlightCursor
+import com.airline.booking.demo.feature.flights.repository.FlightSearchCriteria
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField
 import com.airline.booking.demo.feature.flights.repository.entity.Flight
+import com.airline.booking.demo.feature.flights.service.FlightPage
 import com.airline.booking.demo.feature.flights.service.FlightService
+import com.airline.booking.demo.feature.flights.service.FlightSummary
 import io.netty.handler.codec.http.HttpResponseStatus
 import io.vertx.core.Future
+import io.vertx.core.buffer.Buffer
 import io.vertx.core.http.HttpServerResponse
+import io.vertx.core.json.JsonArray
+import io.vertx.core.json.JsonObject
 import io.vertx.ext.web.RoutingContext
 import spock.lang.Specification
 
+import java.time.LocalDate
+import java.time.LocalDateTime
 import java.time.OffsetDateTime
 
 class FlightHandlerSpec extends Specification {
@@ -83,19 +93,25 @@ class FlightHandlerSpec extends Specification {
         given:
         ctx.queryParam("from") >> ["JNB"]
         ctx.queryParam("to") >> ["CPT"]
+        ctx.queryParam(_) >> []
 
         def flights = [
-                new Flight(id: 1L, departureTime: OffsetDateTime.now(), arrivalTime: OffsetDateTime.now()),
-                new Flight(id: 2L, departureTime: OffsetDateTime.now(), arrivalTime: OffsetDateTime.now())
+                FlightSummary.of(new Flight(id: 1L, departureTime: OffsetDateTime.now(), arrivalTime: OffsetDateTime.now())),
+                FlightSummary.of(new Flight(id: 2L, departureTime: OffsetDateTime.now(), arrivalTime: OffsetDateTime.now()))
         ]
 
         service.search("JNB", "CPT") >> Future.succeededFuture(flights)
+        ctx.response() >> response
+        String body = null
 
         when:
         handler.search(ctx)
 
         then:
-        1 * ctx.json(_ as List)
+        1 * response.putHeader("content-type", _ as String)
+        1 * response.end(_ as Buffer) >> { Buffer b -> body = b.toString(); Future.succeededFuture() }
+        new JsonArray(body)*.getLong("id") == [1L, 2L]
+        0 * ctx.fail(_)
     }
 
     def "create should return 201 and json response"() {
@@ -158,4 +174,109 @@ class FlightHandlerSpec extends Specification {
         then:
         1 * ctx.fail(_ as IllegalStateException)
     }
+
+    def "search should return a keyset page when paging parameters are present"() {
+        given:
+        def cursor = new FlightCursor(LocalDateTime.parse("2026-02-10T10:00"), 5L)
+        ctx.queryParam("from") >> ["JNB"]
+        ctx.queryParam("to") >> ["CPT"]
+        ctx.queryParam("limit") >> ["2"]
+        ctx.queryParam("cursor") >> [cursor.encode()]
+        ctx.queryParam("departureFrom") >> ["2026-02-10"]
+        ctx.queryParam("fields") >> ["id, flightNumber"]
+        ctx.queryParam(_) >> []
+
+        def flight = new Flight(id: 6L, flightNumber: "SA6", departureTime: OffsetDateTime.now())
+        def page = new FlightPage([flight], null)
+        ctx.response() >> response
+        String body = null
+
+        when:
+        handler.search(ctx)
+
+        then:
+        1 * service.searchPage({ FlightSearchCriteria c ->
+            c.from() == "JNB" && c.to() == "CPT" && c.limit() == 2 && c.after() == cursor &&
+                    c.departureFrom() == LocalDate.parse("2026-02-10") && c.departureTo() == null &&
+                    c.fields() == EnumSet.of(FlightField.ID, FlightField.FLIGHT_NUMBER)
+        }) >> Future.succeededFuture(page)
+        1 * response.end(_ as Buffer) >> { Buffer b -> body = b.toString(); Future.succeededFuture() }
+        new JsonObject(body).map == [items: [[id: 6, flightNumber: "SA6"]], nextCursor: null]
+        0 * service.search(_, _)
+    }
+
+    def "search should default the page size when only a date window is given"() {
+        given:
+        ctx.queryParam("from") >> ["JNB"]
+        ctx.queryParam("to") >> ["CPT"]
+        ctx.queryParam("departureTo") >> ["2026-02-12"]
+        ctx.queryParam(_) >> []
+        ctx.response() >> response
+        response.end(_ as Buffer) >> Future.succeededFuture()
+
+        when:
+        handler.search(ctx)
+
+        then:
+        1 * service.searchPage({ it.limit() == 50 && it.fields() == FlightField.ALL }) >>
+                Future.succeededFuture(new FlightPage([], null))
+    }
+
+    def "search should stream rows when stream=true"() {
+        given:
+        ctx.queryParam("from") >> ["JNB"]
+        ctx.queryParam("to") >> ["CPT"]
+        ctx.queryParam("stream") >> ["true"]
+        ctx.queryParam(_) >> []
+        ctx.response() >> response
+
+        when:
+        handler.search(ctx)
+
+        then:
+        1 * service.streamSearch({ it.limit() == null }, _) >> Future.succeededFuture()
+        0 * ctx.fail(_)
+    }
+
+    def "search should reset a stream that fails after the head was written"() {
+        given:
+        ctx.queryParam("from") >> ["JNB"]
+        ctx.queryParam("to") >> ["CPT"]
+        ctx.queryParam("stream") >> ["true"]
+        ctx.queryParam(_) >> []
+        ctx.response() >> response
+        response.headWritten() >> true
+
+        when:
+        handler.search(ctx)
+
+        then:
+        1 * service.streamSearch(_, _) >> Future.failedFuture(new RuntimeException("db gone"))
+        1 * response.reset()
+        0 * ctx.fail(_)
+    }
+
+    def "search should reject invalid paging parameters"() {
+        given:
+        ctx.queryParam("from") >> ["JNB"]
+        ctx.queryParam("to") >> ["CPT"]
+        ctx.queryParam(param) >> [value]
+        ctx.queryParam(_) >> []
+
+        when:
+        handler.search(ctx)
+
+        then:
+        0 * service.searchPage(_)
+        1 * ctx.fail({ it instanceof BusinessServiceException && it.errorEnum == ErrorCodeEnum.INVALID_PARAM })
+
+        where:
+        param           | value
+        "limit"         | "0"
+        "limit"         | "501"
+        "limit"         | "abc"
+        "cursor"        | "not-a-cursor"
+        "departureFrom" | "10/02/2026"
+        "fields"        | "id,seatMap"
+    }
 }
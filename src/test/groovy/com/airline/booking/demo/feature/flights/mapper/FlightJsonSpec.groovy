@@ -0,0 +1,73 @@
+package com.airline.booking.demo.feature.flights.mapper
+
+import com.airline.booking.demo.common.http.PooledJson
+import com.airline.booking.demo.config.JsonConfig
+import com.airline.booking.demo.feature.flights.repository.FlightCursor
+import com.airline.booking.demo.feature.flights.repository.entity.Flight
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField
+import com.airline.booking.demo.feature.flights.repository.entity.FlightStatus
+import com.airline.booking.demo.feature.flights.service.FlightPage
+import com.airline.booking.demo.feature.flights.service.FlightSummary
+import io.vertx.core.json.Json
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.time.OffsetDateTime
+
+class FlightJsonSpec extends Specification {
+
+    def setupSpec() {
+        JsonConfig.register()
+    }
+
+    def flight = new Flight(id: 7L, flightNumber: "SA7", airlineId: 1L, departureAirport: "JNB",
+            arrivalAirport: "CPT", departureTime: OffsetDateTime.parse("2026-02-10T10:00:00Z"),
+            arrivalTime: OffsetDateTime.parse("2026-02-10T12:05:30.5+02:00"), totalSeats: 100,
+            availableSeats: 40, price: new BigDecimal("120.00"), status: FlightStatus.SCHEDULED.name(),
+            createdAt: OffsetDateTime.parse("2026-01-01T08:00:00.123456Z"))
+
+    def "write should render a summary like toJson over the summary fields"() {
+        given:
+        def summary = FlightSummary.of(flight)
+
+        expect:
+        encode(summary) { gen, s -> FlightJson.write(gen, s) } == FlightMapper.toJson(flight, FlightField.SUMMARY).encode()
+        !new JsonObject(encode(summary) { gen, s -> FlightJson.write(gen, s) }).containsKey("totalSeats")
+    }
+
+    def "write should render only the projected fields like toJson"() {
+        given:
+        def fields = EnumSet.of(FlightField.ID, FlightField.ARRIVAL_TIME, FlightField.PRICE, FlightField.UPDATED_AT)
+
+        expect:
+        encode(flight) { gen, f -> FlightJson.write(gen, f, fields) } == FlightMapper.toJson(flight, fields).encode()
+    }
+
+    def "writePage should wrap the items and encode the next cursor"() {
+        given:
+        def page = new FlightPage([flight], FlightCursor.after(flight))
+
+        when:
+        def json = new JsonObject(encode(page) { gen, p -> FlightJson.writePage(gen, p, EnumSet.of(FlightField.ID)) })
+
+        then:
+        json.getJsonArray("items").list == [[id: 7]]
+        FlightCursor.decode(json.getString("nextCursor")) == FlightCursor.after(flight)
+    }
+
+    def "writePage should emit a null cursor on the last page"() {
+        expect:
+        encode(new FlightPage([], null)) { gen, p -> FlightJson.writePage(gen, p, FlightField.ALL) } ==
+                '{"items":[],"nextCursor":null}'
+    }
+
+    private static <T> String encode(T value, com.airline.booking.demo.common.http.JsonEncoder<T> encoder) {
+        def buf = PooledJson.encode(value, encoder)
+        try {
+            return buf.toString(StandardCharsets.UTF_8)
+        } finally {
+            buf.release()
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.airline.booking.demo.feature.flights.mapper
 import com.airline.booking.demo.feature.flights.dto.FlightRequest
 import com.airline.booking.demo.feature.flights.dto.FlightResponse
 import com.airline.booking.demo.feature.flights.repository.entity.Flight
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField
 import com.airline.booking.demo.feature.flights.repository.entity.FlightStatus
 import spock.lang.Specification
 
@@ -108,4 +109,16 @@ class FlightMapperSpec extends Specification {
         then:
         thrown(NullPointerException)
     }
+
+    def "toJson should only render the projected fields"() {
+        given:
+        def now = OffsetDateTime.now(ZoneOffset.UTC)
+        def entity = new Flight(id: 7L, flightNumber: "SA7", departureTime: now, price: new BigDecimal("120.00"))
+
+        when:
+        def json = FlightMapper.toJson(entity, EnumSet.of(FlightField.FLIGHT_NUMBER, FlightField.DEPARTURE_TIME))
+
+        then:
+        json.map == [flightNumber: "SA7", departureTime: now.toString()]
+    }
 }
@@ -1,12 +1,19 @@
 package com.airline.booking.demo.feature.flights.repository.impl
 
+import com.airline.booking.demo.common.db.SqlDialect
 import com.airline.booking.demo.exception.BusinessServiceException
+import com.airline.booking.demo.exception.dto.ErrorCodeEnum
+import com.airline.booking.demo.feature.flights.repository.FlightCursor
+import com.airline.booking.demo.feature.flights.repository.FlightSearchCriteria
 import com.airline.booking.demo.feature.flights.repository.entity.Flight
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField
 import io.vertx.core.Future
 import io.vertx.sqlclient.*
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.time.LocalDate
+import java.time.LocalDateTime
 import java.time.OffsetDateTime
 
 class FlightRepositoryImplSpec extends Specification {
@@ -20,7 +27,7 @@ class FlightRepositoryImplSpec extends Specification {
     Row row = Mock(Row)
 
     @Subject
-    FlightRepositoryImpl repository = new FlightRepositoryImpl(pool)
+    FlightRepositoryImpl repository = new FlightRepositoryImpl(pool, pool, SqlDialect.POSTGRES)
 
     def setup() {
         pool.preparedQuery(_ as String) >> preparedQuery
@@ -62,7 +69,7 @@ class FlightRepositoryImplSpec extends Specification {
         result.result().flightNumber == "VN123"
     }
 
-    def "findByRoute should map multiple rows using forEach"() {
+    def "findSummariesByRoute should map multiple rows using forEach"() {
         given: "A RowSet that triggers the consumer twice"
         rowSet.forEach(_) >> { args ->
             def consumer = args[0]
@@ -75,7 +82,7 @@ class FlightRepositoryImplSpec extends Specification {
         rowIterator.next() >> row
 
         when: "Finding by route"
-        def result = repository.findByRoute("SGN", "BKK")
+        def result = repository.findSummariesByRoute("SGN", "BKK")
 
         then: "The future succeeds and contains a list of 2 flights"
         result.succeeded()
@@ -83,6 +90,70 @@ class FlightRepositoryImplSpec extends Specification {
         result.result()[0].departureAirport == "SGN"
     }
 
+    def "summary queries should select only the summary columns"() {
+        given:
+        def query = Mock(Query)
+        def selected = []
+
+        when:
+        repository.findSummariesByRoute("SGN", "BKK")
+        repository.findAllSummaries()
+
+        then:
+        1 * pool.preparedQuery(_ as String) >> { String sql -> selected << sql; preparedQuery }
+        1 * pool.query(_ as String) >> { String sql -> selected << sql; query }
+        query.execute() >> Future.succeededFuture(rowSet)
+        selected.every { !it.contains("*") && !it.contains("total_seats") && !it.contains("created_at") }
+        selected.every { it.contains("available_seats") && it.contains("departure_airport") }
+    }
+
+    def "findSummariesByRoute should leave the columns it does not select unset"() {
+        given:
+        rowSet.iterator() >> rowIterator
+        rowIterator.hasNext() >>> [true, false]
+        rowIterator.next() >> row
+
+        when:
+        def flight = repository.findSummariesByRoute("SGN", "BKK").result()[0]
+
+        then:
+        flight.availableSeats == 50
+        flight.totalSeats == null
+        flight.createdAt == null
+    }
+
+    def "findAllSummaries should map every flight"() {
+        given:
+        def query = Mock(Query)
+        pool.query(FlightRepositoryImpl.SQL_SELECT_ALL_SUMMARIES) >> query
+        query.execute() >> Future.succeededFuture(rowSet)
+
+        rowSet.iterator() >> rowIterator
+        rowIterator.hasNext() >>> [true, true, false]
+        rowIterator.next() >> row
+
+        when:
+        def result = repository.findAllSummaries()
+
+        then:
+        result.succeeded()
+        result.result().size() == 2
+    }
+
+    def "findAllSummaries should map DB errors via recover()"() {
+        given:
+        def query = Mock(Query)
+        pool.query(FlightRepositoryImpl.SQL_SELECT_ALL_SUMMARIES) >> query
+        query.execute() >> Future.failedFuture(new RuntimeException("DB failure"))
+
+        when:
+        def result = repository.findAllSummaries()
+
+        then:
+        result.failed()
+        result.cause().message.contains("Failed to fetch flights")
+    }
+
     def "findByIdForUpdate should succeed when called with a connection"() {
         given:
         connection.preparedQuery(_ as String) >> preparedQuery
@@ -117,7 +188,7 @@ class FlightRepositoryImplSpec extends Specification {
         result.result().id == 100L
     }
 
-    def "save should perform insert when ID is null"() {
+    def "save should perform insert returning the generated row when ID is null"() {
         given:
         Flight flight = new Flight(
                 flightNumber: "VN123",
@@ -130,71 +201,53 @@ class FlightRepositoryImplSpec extends Specification {
                 status: "SCHEDULED"
         )
 
-        pool.getConnection() >> Future.succeededFuture(connection)
-
         def insertPQ = Mock(PreparedQuery)
         def insertRS = Mock(RowSet)
+        def insertIter = Mock(RowIterator)
+        def insertRow = Mock(Row)
 
-        connection.preparedQuery({ String sql ->
-            sql?.toLowerCase()?.startsWith("insert into flights")
-        } as String) >> insertPQ
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(FlightRepositoryImpl.SQL_INSERT)) >> insertPQ
 
         insertPQ.execute(_ as Tuple) >> Future.succeededFuture(insertRS)
+        insertRS.iterator() >> insertIter
+        insertIter.hasNext() >>> [true, false]
+        insertIter.next() >> insertRow
+
+        insertRow.getLong("id") >> 777L
+        insertRow.getString("flight_number") >> "VN123"
+        insertRow.getLong("airline_id") >> 1L
+        insertRow.getString("departure_airport") >> "SGN"
+        insertRow.getString("arrival_airport") >> "BKK"
+        insertRow.getInteger("available_seats") >> 50
+        insertRow.getInteger("total_seats") >> 200
+        insertRow.getString("status") >> "SCHEDULED"
+        insertRow.getValue(_ as String) >> OffsetDateTime.now()
 
-        def lastValQuery = Mock(Query)
-        def lastValRS = Mock(RowSet)
-        def lastValIter = Mock(RowIterator)
-        def lastValRow = Mock(Row)
-
-        connection.query(_ as String) >> { String sql ->
-            assert sql.toLowerCase().contains("lastval")
-            return lastValQuery
-        }
+        when:
+        def result = repository.save(flight)
 
-        lastValQuery.execute() >> Future.succeededFuture(lastValRS)
+        then:
+        result.succeeded()
+        result.result().id == 777L
+        result.result().flightNumber == "VN123"
+        0 * connection.query(_)
+    }
 
-        lastValRS.iterator() >> lastValIter
-        lastValIter.hasNext() >> true
-        lastValIter.next() >> lastValRow
-        lastValRow.getLong("id") >> 777L
+    def "save should fail with ENTITY_NOT_FOUND when updating a missing flight"() {
+        given:
+        Flight flight = new Flight(id: 999L, flightNumber: "VN123")
 
-        def selectPQ = Mock(PreparedQuery)
-        def selectRS = Mock(RowSet)
-        def selectIter = Mock(RowIterator)
-        def selectRow = Mock(Row)
-
-        connection.preparedQuery({ String sql ->
-            sql?.toLowerCase()?.contains("from flights") && sql?.toLowerCase()?.contains("where id")
-        } as String) >> selectPQ
-
-        selectPQ.execute(_ as Tuple) >> Future.succeededFuture(selectRS)
-
-        selectRS.iterator() >> selectIter
-        selectIter.hasNext() >>> [true, false]
-        selectIter.next() >> selectRow
-
-        selectRow.getLong("id") >> 777L
-        selectRow.getString("flight_number") >> "VN123"
-        selectRow.getLong("airline_id") >> 1L
-        selectRow.getString("departure_airport") >> "SGN"
-        selectRow.getString("arrival_airport") >> "BKK"
-        selectRow.getInteger("available_seats") >> 50
-        selectRow.getInteger("total_seats") >> 200
-        selectRow.getString("status") >> "SCHEDULED"
-        selectRow.get(BigDecimal.class, "price") >> new BigDecimal("250.00")
-        selectRow.get(_ as Class, _ as String) >> { Class clazz, String col ->
-            if (clazz == BigDecimal) return new BigDecimal("250.00")
-            return OffsetDateTime.now()
-        }
-        selectRow.getValue(_ as String) >> OffsetDateTime.now()
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(FlightRepositoryImpl.SQL_UPDATE)) >> preparedQuery
+        rowSet.iterator() >> rowIterator
+        rowIterator.hasNext() >> false
 
         when:
         def result = repository.save(flight)
 
         then:
-        result.succeeded()
-        result.result().id == 777L
-        result.result().flightNumber == "VN123"
+        result.failed()
+        result.cause() instanceof BusinessServiceException
+        result.cause().message.contains("Flight not found with id: 999")
     }
 
 
@@ -236,4 +289,295 @@ class FlightRepositoryImplSpec extends Specification {
         fut.cause().message.contains("Flight not found with id: 999")
     }
 
+    def "reserveSeat should succeed when one row is decremented"() {
+        given:
+        connection.preparedQuery(FlightRepositoryImpl.SQL_RESERVE_SEAT) >> preparedQuery
+        rowSet.rowCount() >> 1
+
+        when:
+        def fut = repository.reserveSeat(connection, 100L)
+
+        then:
+        fut.succeeded()
+        fut.result()
+    }
+
+    def "reserveSeat should return false when no seats are left"() {
+        given:
+        connection.preparedQuery(FlightRepositoryImpl.SQL_RESERVE_SEAT) >> preparedQuery
+        rowSet.rowCount() >> 0
+
+        when:
+        def fut = repository.reserveSeat(connection, 100L)
+
+        then:
+        fut.succeeded()
+        !fut.result()
+    }
+
+    def "reserve statements should skip cancelled flights"() {
+        given:
+        def singlePQ = Mock(PreparedQuery)
+        def batchPQ = Mock(PreparedQuery)
+        connection.preparedQuery(FlightRepositoryImpl.SQL_RESERVE_SEAT) >> singlePQ
+        connection.preparedQuery(FlightRepositoryImpl.SQL_RESERVE_SEATS) >> batchPQ
+        rowSet.rowCount() >> 1
+
+        when:
+        repository.reserveSeat(connection, 100L)
+        repository.reserveSeats(connection, [(100L): 2])
+
+        then:
+        FlightRepositoryImpl.SQL_RESERVE_SEAT.contains("status <> ?")
+        FlightRepositoryImpl.SQL_RESERVE_SEATS.contains("status <> ?")
+        1 * singlePQ.execute({ Tuple t -> t.getLong(0) == 100L && t.getString(1) == "CANCELED" }) >> Future.succeededFuture(rowSet)
+        1 * batchPQ.executeBatch({ List<Tuple> b -> b[0].getString(3) == "CANCELED" }) >> Future.succeededFuture(rowSet)
+    }
+
+    def "releaseSeats should add the seats back in one statement"() {
+        given:
+        def updatePQ = Mock(PreparedQuery)
+        connection.preparedQuery(FlightRepositoryImpl.SQL_RELEASE_SEATS) >> updatePQ
+        rowSet.rowCount() >> 1
+
+        when:
+        def fut = repository.releaseSeats(connection, 100L, 400)
+
+        then:
+        1 * updatePQ.execute({ Tuple t -> t.getInteger(0) == 400 && t.getLong(1) == 100L }) >> Future.succeededFuture(rowSet)
+        fut.succeeded()
+        fut.result()
+        FlightRepositoryImpl.SQL_RELEASE_SEATS.contains("LEAST(total_seats, available_seats + ?)")
+    }
+
+    def "cancel should set the status and return the updated row"() {
+        given:
+        def cancelPQ = Mock(PreparedQuery)
+        connection.preparedQuery(SqlDialect.POSTGRES.returning(FlightRepositoryImpl.SQL_CANCEL)) >> cancelPQ
+        rowSet.iterator() >> rowIterator
+        rowIterator.hasNext() >>> [true, false]
+        rowIterator.next() >> row
+
+        when:
+        def fut = repository.cancel(connection, 100L)
+
+        then:
+        1 * cancelPQ.execute({ Tuple t -> t.getString(0) == "CANCELED" && t.getLong(1) == 100L }) >> Future.succeededFuture(rowSet)
+        fut.result().id == 100L
+        repository.writeStatements().contains(SqlDialect.POSTGRES.returning(FlightRepositoryImpl.SQL_CANCEL))
+    }
+
+    def "cancel should fail with ENTITY_NOT_FOUND for a missing flight"() {
+        given:
+        def cancelPQ = Mock(PreparedQuery)
+        connection.preparedQuery(_ as String) >> cancelPQ
+        cancelPQ.execute(_ as Tuple) >> Future.succeededFuture(rowSet)
+        rowSet.iterator() >> rowIterator
+        rowIterator.hasNext() >> false
+
+        when:
+        def fut = repository.cancel(connection, 999L)
+
+        then:
+        fut.cause() instanceof BusinessServiceException
+        fut.cause().errorEnum == ErrorCodeEnum.ENTITY_NOT_FOUND
+    }
+
+    def "reserveSeat should map DB errors via recover()"() {
+        given:
+        def updatePQ = Mock(PreparedQuery)
+        connection.preparedQuery(FlightRepositoryImpl.SQL_RESERVE_SEAT) >> updatePQ
+        updatePQ.execute(_ as Tuple) >> Future.failedFuture(new RuntimeException("DB failure"))
+
+        when:
+        def fut = repository.reserveSeat(connection, 100L)
+
+        then:
+        fut.failed()
+        fut.cause().message.contains("Failed to reserve seat")
+    }
+
+    def "reserveSeats should succeed when every flight is decremented"() {
+        given:
+        def batchPQ = Mock(PreparedQuery)
+        def first = Mock(RowSet)
+        def second = Mock(RowSet)
+        connection.preparedQuery(FlightRepositoryImpl.SQL_RESERVE_SEATS) >> batchPQ
+        first.rowCount() >> 1
+        first.next() >> second
+        second.rowCount() >> 1
+        second.next() >> null
+
+        when:
+        def fut = repository.reserveSeats(connection, [(100L): 2, (200L): 1])
+
+        then:
+        1 * batchPQ.executeBatch({ it.size() == 2 }) >> Future.succeededFuture(first)
+        fut.succeeded()
+        fut.result()
+    }
+
+    def "reserveSeats should return false when a flight lacks seats"() {
+        given:
+        def batchPQ = Mock(PreparedQuery)
+        def first = Mock(RowSet)
+        def second = Mock(RowSet)
+        connection.preparedQuery(FlightRepositoryImpl.SQL_RESERVE_SEATS) >> batchPQ
+        batchPQ.executeBatch(_ as List) >> Future.succeededFuture(first)
+        first.rowCount() >> 1
+        first.next() >> second
+        second.rowCount() >> 0
+        second.next() >> null
+
+        when:
+        def fut = repository.reserveSeats(connection, [(100L): 2, (200L): 1])
+
+        then:
+        fut.succeeded()
+        !fut.result()
+    }
+
+    def "reserveSeats should map DB errors via recover()"() {
+        given:
+        def batchPQ = Mock(PreparedQuery)
+        connection.preparedQuery(FlightRepositoryImpl.SQL_RESERVE_SEATS) >> batchPQ
+        batchPQ.executeBatch(_ as List) >> Future.failedFuture(new RuntimeException("DB failure"))
+
+        when:
+        def fut = repository.reserveSeats(connection, [(100L): 1])
+
+        then:
+        fut.failed()
+        fut.cause().message.contains("Failed to reserve seats")
+    }
+
+    def "search should build a keyset query with window, cursor, limit and projection"() {
+        given:
+        def criteria = new FlightSearchCriteria("SGN", "BKK",
+                LocalDate.parse("2026-02-10"), LocalDate.parse("2026-02-12"),
+                new FlightCursor(LocalDateTime.parse("2026-02-10T10:00"), 7L), 3,
+                EnumSet.of(FlightField.FLIGHT_NUMBER))
+        String sql = null
+        Tuple params = null
+
+        rowSet.iterator() >> rowIterator
+        rowIterator.hasNext() >>> [true, false]
+        rowIterator.next() >> row
+
+        when:
+        def result = repository.search(criteria)
+
+        then:
+        1 * pool.preparedQuery(_ as String) >> { String s -> sql = s; preparedQuery }
+        1 * preparedQuery.execute(_ as Tuple) >> { Tuple t -> params = t; Future.succeededFuture(rowSet) }
+
+        sql == "SELECT id, flight_number, departure_time FROM flights WHERE departure_airport = ? AND arrival_airport = ?" +
+                " AND departure_time >= ? AND departure_time < ? AND (departure_time, id) > (?, ?)" +
+                " ORDER BY departure_time, id LIMIT ?"
+        params.size() == 7
+        params.getValue(3) == LocalDateTime.parse("2026-02-13T00:00")
+        params.getValue(6) == 3
+
+        result.succeeded()
+        with(result.result()[0]) {
+            id == 100L
+            flightNumber == "VN123"
+            departureAirport == null
+        }
+    }
+
+    def "search should leave optional clauses out"() {
+        given:
+        def criteria = new FlightSearchCriteria("SGN", "BKK", null, null, null, null, FlightField.ALL)
+        String sql = null
+        rowSet.iterator() >> rowIterator
+        rowIterator.hasNext() >> false
+
+        when:
+        repository.search(criteria)
+
+        then:
+        1 * pool.preparedQuery(_ as String) >> { String s -> sql = s; preparedQuery }
+        !sql.contains("LIMIT")
+        !sql.contains("departure_time >=")
+        sql.endsWith("ORDER BY departure_time, id")
+    }
+
+    def "search should map DB errors via recover()"() {
+        given:
+        def failingPQ = Mock(PreparedQuery)
+        pool.preparedQuery(_ as String) >> failingPQ
+        failingPQ.execute(_ as Tuple) >> Future.failedFuture(new RuntimeException("DB failure"))
+
+        when:
+        def result = new FlightRepositoryImpl(pool, pool, SqlDialect.POSTGRES)
+                .search(new FlightSearchCriteria("SGN", "BKK", null, null, null, 1, FlightField.ALL))
+
+        then:
+        result.failed()
+        result.cause().message.contains("Failed to search flights")
+    }
+
+    def "stream should run the cursor in a transaction and release everything afterwards"() {
+        given:
+        def tx = Mock(Transaction)
+        def ps = Mock(PreparedStatement)
+        def rows = Mock(RowStream)
+        def criteria = new FlightSearchCriteria("SGN", "BKK", null, null, null, null, FlightField.ALL)
+
+        connection.begin() >> Future.succeededFuture(tx)
+        connection.prepare(_ as String) >> Future.succeededFuture(ps)
+        ps.createStream(_ as Integer, _ as Tuple) >> rows
+
+        when:
+        def result = repository.stream(criteria, { s -> Future.succeededFuture() })
+
+        then:
+        1 * rows.close() >> Future.succeededFuture()
+        1 * ps.close() >> Future.succeededFuture()
+        1 * tx.rollback() >> Future.succeededFuture()
+        1 * connection.close() >> Future.succeededFuture()
+        result.succeeded()
+    }
+
+    def "stream should map consumer failures and still close the connection"() {
+        given:
+        def tx = Mock(Transaction)
+        def ps = Mock(PreparedStatement)
+        def rows = Mock(RowStream)
+
+        connection.begin() >> Future.succeededFuture(tx)
+        connection.prepare(_ as String) >> Future.succeededFuture(ps)
+        ps.createStream(_ as Integer, _ as Tuple) >> rows
+        rows.close() >> Future.succeededFuture()
+        ps.close() >> Future.succeededFuture()
+        tx.rollback() >> Future.succeededFuture()
+
+        when:
+        def result = repository.stream(
+                new FlightSearchCriteria("SGN", "BKK", null, null, null, null, FlightField.ALL),
+                { s -> Future.failedFuture(new RuntimeException("client went away")) })
+
+        then:
+        1 * connection.close() >> Future.succeededFuture()
+        result.failed()
+        result.cause().message.contains("Failed to stream flights")
+    }
+
+    def "readStatements should include the SQL a first search page sends"() {
+        given:
+        def criteria = new FlightSearchCriteria("SGN", "BKK", null, null, null, 20, FlightField.ALL)
+        String sql = null
+        rowSet.iterator() >> rowIterator
+        rowIterator.hasNext() >> false
+
+        when:
+        repository.search(criteria)
+
+        then:
+        1 * pool.preparedQuery(_ as String) >> { String s -> sql = s; preparedQuery }
+        repository.readStatements().contains(sql)
+        repository.writeStatements().contains(SqlDialect.POSTGRES.returning(FlightRepositoryImpl.SQL_INSERT))
+        repository.writeStatements().contains(FlightRepositoryImpl.SQL_SELECT_FOR_UPDATE)
+    }
 }
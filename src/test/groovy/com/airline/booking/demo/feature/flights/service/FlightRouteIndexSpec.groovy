@@ -0,0 +1,196 @@
+package com.airline.booking.demo.feature.flights.service
+
+import com.airline.booking.demo.common.cache.CacheStats
+import com.airline.booking.demo.feature.flights.repository.FlightRepository
+import com.airline.booking.demo.feature.flights.repository.entity.Flight
+import io.vertx.core.Future
+import io.vertx.core.Promise
+import io.vertx.core.json.JsonObject
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.OffsetDateTime
+import java.util.concurrent.TimeUnit
+
+class FlightRouteIndexSpec extends Specification {
+
+    FlightRepository flightRepo = Mock()
+    CacheStats stats = new CacheStats()
+    long now = 0L
+
+    @Subject
+    FlightRouteIndex index = new FlightRouteIndex(flightRepo, stats, new JsonObject().put("ttlMs", 1000), { now })
+
+    def base = OffsetDateTime.parse("2026-05-01T08:00:00Z")
+
+    private Flight flight(Long id, String from, String to, int hoursLater, int seats = 10) {
+        new Flight(id: id, departureAirport: from, arrivalAirport: to,
+                departureTime: base.plusHours(hoursLater), arrivalTime: base.plusHours(hoursLater + 2),
+                availableSeats: seats, totalSeats: seats)
+    }
+
+    def "warm should group flights by route sorted by departure time"() {
+        given:
+        flightRepo.findAllSummaries() >> Future.succeededFuture([
+                flight(1L, "JNB", "CPT", 5),
+                flight(2L, "JNB", "CPT", 1),
+                flight(3L, "CPT", "JNB", 2)
+        ])
+
+        when:
+        index.warm()
+        def result = index.search("JNB", "CPT")
+
+        then:
+        0 * flightRepo.findSummariesByRoute(_, _)
+        result.result()*.id() == [2L, 1L]
+        stats.hits() == 1
+    }
+
+    def "search should load a route once and serve it from memory until the ttl expires"() {
+        when:
+        index.search("JNB", "CPT")
+        now = TimeUnit.MILLISECONDS.toNanos(999)
+        index.search("JNB", "CPT")
+
+        then:
+        1 * flightRepo.findSummariesByRoute("JNB", "CPT") >> Future.succeededFuture([flight(1L, "JNB", "CPT", 1)])
+        stats.misses() == 1
+        stats.hits() == 1
+
+        when:
+        now = TimeUnit.MILLISECONDS.toNanos(1000)
+        def reloaded = index.search("JNB", "CPT")
+
+        then:
+        1 * flightRepo.findSummariesByRoute("JNB", "CPT") >> Future.succeededFuture([flight(1L, "JNB", "CPT", 1, 3)])
+        reloaded.result()[0].availableSeats() == 3
+        stats.expirations() == 1
+        stats.evictions() == 0
+    }
+
+    def "concurrent misses on a route should share one database load"() {
+        given:
+        def pending = Promise.<List<Flight>> promise()
+
+        when:
+        def first = index.search("JNB", "CPT")
+        def second = index.search("JNB", "CPT")
+        pending.complete([flight(1L, "JNB", "CPT", 1)])
+
+        then:
+        1 * flightRepo.findSummariesByRoute("JNB", "CPT") >> pending.future()
+        first.result()*.id() == [1L]
+        second.result()*.id() == [1L]
+        stats.misses() == 2
+
+        when: "the next miss after the load finished goes to the database again"
+        now = TimeUnit.MILLISECONDS.toNanos(1000)
+        index.search("JNB", "CPT")
+
+        then:
+        1 * flightRepo.findSummariesByRoute("JNB", "CPT") >> Future.succeededFuture([])
+    }
+
+    def "a reload should stop tracking flights that left the route"() {
+        given:
+        flightRepo.findSummariesByRoute("JNB", "CPT") >>> [
+                Future.succeededFuture([flight(1L, "JNB", "CPT", 1), flight(2L, "JNB", "CPT", 2)]),
+                Future.succeededFuture([flight(2L, "JNB", "CPT", 2)])
+        ]
+        index.search("JNB", "CPT")
+
+        when:
+        now = TimeUnit.MILLISECONDS.toNanos(1000)
+        index.search("JNB", "CPT")
+
+        then:
+        index.mappedFlights() == 1
+    }
+
+    def "upsert should not track a flight on a route that is not indexed"() {
+        given:
+        flightRepo.findSummariesByRoute("JNB", "CPT") >> Future.succeededFuture([flight(1L, "JNB", "CPT", 1)])
+        index.search("JNB", "CPT")
+
+        when:
+        index.upsert(flight(1L, "CPT", "DUR", 1))
+        index.upsert(flight(2L, "CPT", "DUR", 1))
+
+        then:
+        index.mappedFlights() == 0
+        index.search("JNB", "CPT").result().isEmpty()
+    }
+
+    def "search should cache routes without flights"() {
+        when:
+        index.search("AAA", "BBB")
+        def second = index.search("AAA", "BBB")
+
+        then:
+        1 * flightRepo.findSummariesByRoute("AAA", "BBB") >> Future.succeededFuture([])
+        second.result().isEmpty()
+    }
+
+    def "search should not cache failures"() {
+        when:
+        def first = index.search("JNB", "CPT")
+        index.search("JNB", "CPT")
+
+        then:
+        2 * flightRepo.findSummariesByRoute("JNB", "CPT") >> Future.failedFuture(new RuntimeException("db down"))
+        first.failed()
+    }
+
+    def "search should stop indexing new routes beyond the cap"() {
+        given:
+        def capped = new FlightRouteIndex(flightRepo, stats, new JsonObject().put("maxRoutes", 1), { now })
+
+        when:
+        capped.search("JNB", "CPT")
+        capped.search("CPT", "DUR")
+        capped.search("CPT", "DUR")
+
+        then:
+        1 * flightRepo.findSummariesByRoute("JNB", "CPT") >> Future.succeededFuture([])
+        2 * flightRepo.findSummariesByRoute("CPT", "DUR") >> Future.succeededFuture([])
+    }
+
+    def "upsert should add a new flight to an indexed route in departure order"() {
+        given:
+        flightRepo.findSummariesByRoute("JNB", "CPT") >> Future.succeededFuture([flight(1L, "JNB", "CPT", 5)])
+        index.search("JNB", "CPT")
+
+        when:
+        index.upsert(flight(2L, "JNB", "CPT", 1))
+
+        then:
+        index.search("JNB", "CPT").result()*.id() == [2L, 1L]
+    }
+
+    def "upsert should move a flight whose route changed"() {
+        given:
+        flightRepo.findAllSummaries() >> Future.succeededFuture([flight(1L, "JNB", "CPT", 1), flight(2L, "CPT", "DUR", 1)])
+        index.warm()
+
+        when:
+        index.upsert(flight(1L, "CPT", "DUR", 3))
+
+        then:
+        index.search("JNB", "CPT").result().isEmpty()
+        index.search("CPT", "DUR").result()*.id() == [2L, 1L]
+    }
+
+    def "adjustSeats should update the indexed seat count"() {
+        given:
+        flightRepo.findSummariesByRoute("JNB", "CPT") >> Future.succeededFuture([flight(1L, "JNB", "CPT", 1, 10)])
+        index.search("JNB", "CPT")
+
+        when:
+        index.adjustSeats(1L, -2)
+        index.adjustSeats(99L, -1)
+
+        then:
+        index.search("JNB", "CPT").result()[0].availableSeats() == 8
+    }
+}
@@ -5,18 +5,24 @@ import com.airline.booking.demo.exception.dto.ErrorCodeEnum
 import com.airline.booking.demo.feature.airlines.repository.AirlineRepository
 import com.airline.booking.demo.feature.airlines.repository.entity.Airline
 import com.airline.booking.demo.feature.flights.dto.FlightRequest
+import com.airline.booking.demo.feature.flights.repository.FlightCursor
 import com.airline.booking.demo.feature.flights.repository.FlightRepository
+import com.airline.booking.demo.feature.flights.repository.FlightSearchCriteria
 import com.airline.booking.demo.feature.flights.repository.entity.Flight
+import com.airline.booking.demo.feature.flights.repository.entity.FlightField
 import com.airline.booking.demo.feature.flights.repository.entity.FlightStatus
 import io.vertx.core.Future
 import spock.lang.Specification
 
+import java.time.OffsetDateTime
+
 class FlightServiceSpec extends Specification {
 
     FlightRepository flightRepo = Mock()
     AirlineRepository airlineRepo = Mock()
+    FlightRouteIndex routeIndex = Mock()
 
-    FlightService service = new FlightService(flightRepo, airlineRepo)
+    FlightService service = new FlightService(flightRepo, airlineRepo, routeIndex)
 
     def "getById should return flight when found"() {
         given:
@@ -43,16 +49,17 @@ class FlightServiceSpec extends Specification {
         future.cause() == ex
     }
 
-    def "search should return list"() {
+    def "search should be served by the route index"() {
         given:
-        def flights = [new Flight(), new Flight()]
-        flightRepo.findByRoute("JNB", "CPT") >> Future.succeededFuture(flights)
+        def flights = [FlightSummary.of(new Flight(id: 1L)), FlightSummary.of(new Flight(id: 2L))]
+        routeIndex.search("JNB", "CPT") >> Future.succeededFuture(flights)
 
         when:
         def result = service.search("JNB", "CPT").result()
 
         then:
         result.size() == 2
+        0 * flightRepo.findSummariesByRoute(_, _)
     }
 
     def "create should save flight when airline exists"() {
@@ -76,6 +83,7 @@ class FlightServiceSpec extends Specification {
         def result = service.create(req).result()
 
         then:
+        1 * routeIndex.upsert({ it.flightNumber == "SA123" })
         result.availableSeats == 100
         result.status == FlightStatus.SCHEDULED.name() || result.status == null
         result.flightNumber == "SA123"
@@ -105,6 +113,7 @@ class FlightServiceSpec extends Specification {
         then:
         future.failed()
         future.cause() == ex
+        0 * routeIndex.upsert(_)
     }
 
     def "create should keep existing seat and status values"() {
@@ -134,4 +143,45 @@ class FlightServiceSpec extends Specification {
         result.availableSeats == 50
         result.status == FlightStatus.SCHEDULED.name()
     }
+
+    def "searchPage should fetch one extra row and return a cursor after the last item"() {
+        given:
+        def base = OffsetDateTime.parse("2026-02-10T10:00:00Z")
+        def flights = (1..3).collect { new Flight(id: it as Long, departureTime: base.plusHours(it)) }
+        def criteria = new FlightSearchCriteria("JNB", "CPT", null, null, null, 2, FlightField.ALL)
+
+        when:
+        def page = service.searchPage(criteria).result()
+
+        then:
+        1 * flightRepo.search({ it.limit() == 3 }) >> Future.succeededFuture(flights)
+        page.flights()*.id == [1L, 2L]
+        page.next() == FlightCursor.after(flights[1])
+    }
+
+    def "searchPage should not return a cursor on the last page"() {
+        given:
+        def criteria = new FlightSearchCriteria("JNB", "CPT", null, null, null, 2, FlightField.ALL)
+        flightRepo.search(_) >> Future.succeededFuture([new Flight(id: 1L)])
+
+        when:
+        def page = service.searchPage(criteria).result()
+
+        then:
+        page.flights().size() == 1
+        page.next() == null
+    }
+
+    def "streamSearch should hand the consumer to the repository"() {
+        given:
+        def criteria = new FlightSearchCriteria("JNB", "CPT", null, null, null, null, FlightField.ALL)
+        def consumer = { s -> Future.succeededFuture() } as java.util.function.Function
+
+        when:
+        def result = service.streamSearch(criteria, consumer)
+
+        then:
+        1 * flightRepo.stream(criteria, consumer) >> Future.succeededFuture()
+        result.succeeded()
+    }
 }
@@ -13,7 +13,6 @@ import spock.lang.Subject
 class PassengerFeatureSpec extends Specification {
 
     Router router = Mock()
-    Route routeWildcard = Mock()
     Route routePost = Mock()
     Route routeGetBookings = Mock()
 
@@ -30,14 +29,11 @@ class PassengerFeatureSpec extends Specification {
         when: "The feature is initialized"
         feature.init(router)
 
-        then: "BodyHandler is registered on the wildcard route"
-        1 * router.route("/passengers*") >> routeWildcard
-        1 * routeWildcard.handler(_ as BodyHandler) >> routeWildcard
-
-        and: "POST route is registered with validation and create handler"
+        then: "POST route is registered with validation and create handler"
         1 * requestValidationHandler.validate(PassengerRequest.class) >> validationHandler
         1 * router.post("/passengers") >> routePost
 
+        1 * routePost.handler(_ as BodyHandler) >> routePost
         1 * routePost.handler(validationHandler) >> routePost
         1 * routePost.handler(_ as Handler) >> routePost
 
@@ -1,6 +1,7 @@
 package com.airline.booking.demo.feature.passengers.handler
 
 import com.airline.booking.demo.exception.BusinessServiceException
+import com.airline.booking.demo.feature.bookings.repository.entity.Booking
 import com.airline.booking.demo.feature.bookings.service.BookingService
 import com.airline.booking.demo.feature.passengers.dto.PassengerRequest
 import com.airline.booking.demo.feature.passengers.mapper.PassengerMapper
@@ -8,10 +9,16 @@ import com.airline.booking.demo.feature.passengers.repository.entity.Passenger
 import com.airline.booking.demo.feature.passengers.service.PassengerService
 import io.netty.handler.codec.http.HttpResponseStatus
 import io.vertx.core.Future
+import io.vertx.core.Handler
+import io.vertx.core.http.HttpHeaders
+import io.vertx.core.http.HttpServerRequest
 import io.vertx.core.http.HttpServerResponse
+import io.vertx.core.streams.ReadStream
 import io.vertx.ext.web.RoutingContext
 import spock.lang.Specification
 
+import java.util.function.Function
+
 class PassengerHandlerSpec extends Specification {
 
     BookingService bookingService = Mock()
@@ -20,18 +27,73 @@ class PassengerHandlerSpec extends Specification {
 
     RoutingContext ctx = Mock()
     def response = Mock(HttpServerResponse)
+    def request = Mock(HttpServerRequest)
+
+    // Emits two bookings as soon as a handler is attached, then ends
+    ReadStream<Booking> bookings = Stub() {
+        Handler<Void> end = null
+        endHandler(_) >> { Handler<Void> h -> end = h; null }
+        handler(_) >> { Handler<Booking> h ->
+            h.handle(new Booking(id: 1L))
+            h.handle(new Booking(id: 2L))
+            end.handle(null)
+            null
+        }
+    }
 
-    def "getBookings should return JSON list when passenger exists"() {
+    def "getBookings should stream a JSON array when passenger exists"() {
         given:
         ctx.pathParam("id") >> "10"
+        ctx.request() >> request
+        ctx.response() >> response
         passengerService.getById(10L) >> Future.succeededFuture(new Passenger(id: 10L))
-        bookingService.findByPassenger(10L) >> Future.succeededFuture([[:], [:]])
 
         when:
         handler.getBookings(ctx)
 
         then:
-        1 * ctx.json(_ as List)
+        1 * bookingService.streamByPassenger(10L, _) >> { Long id, Function consumer ->
+            consumer.apply(bookings)
+        }
+        1 * response.putHeader("content-type", { it.contains("application/json") })
+        1 * response.end({ it.toString().startsWith("[{") && it.toString().endsWith("}]") }) >> Future.succeededFuture()
+        0 * ctx.fail(_)
+    }
+
+    def "getBookings should stream NDJSON when the client asks for it"() {
+        given:
+        ctx.pathParam("id") >> "10"
+        ctx.request() >> request
+        ctx.response() >> response
+        request.getHeader(HttpHeaders.ACCEPT) >> "application/x-ndjson"
+        passengerService.getById(10L) >> Future.succeededFuture(new Passenger(id: 10L))
+
+        when:
+        handler.getBookings(ctx)
+
+        then:
+        1 * bookingService.streamByPassenger(10L, _) >> { Long id, Function consumer ->
+            consumer.apply(bookings)
+        }
+        1 * response.putHeader("content-type", "application/x-ndjson")
+        1 * response.end({ it.toString().count("\n") == 2 && !it.toString().startsWith("[") }) >> Future.succeededFuture()
+    }
+
+    def "getBookings should reset the response when the stream breaks midway"() {
+        given:
+        ctx.pathParam("id") >> "10"
+        ctx.request() >> request
+        ctx.response() >> response
+        response.headWritten() >> true
+        passengerService.getById(10L) >> Future.succeededFuture(new Passenger(id: 10L))
+        bookingService.streamByPassenger(10L, _) >> Future.failedFuture(new RuntimeException("cursor lost"))
+
+        when:
+        handler.getBookings(ctx)
+
+        then:
+        1 * response.reset()
+        0 * ctx.fail(_)
     }
 
     def "getBookings should fail on invalid id"() {
@@ -48,6 +110,8 @@ class PassengerHandlerSpec extends Specification {
     def "getBookings should call ctx.fail when passenger lookup fails"() {
         given:
         ctx.pathParam("id") >> "10"
+        ctx.request() >> request
+        ctx.response() >> response
         def ex = new RuntimeException("notfound")
         passengerService.getById(10L) >> Future.failedFuture(ex)
 
@@ -1,5 +1,6 @@
 package com.airline.booking.demo.feature.passengers.repository.impl
 
+import com.airline.booking.demo.common.db.SqlDialect
 import com.airline.booking.demo.feature.passengers.repository.entity.Passenger
 import io.vertx.core.Future
 import io.vertx.sqlclient.*
@@ -19,7 +20,7 @@ class PassengerRepositoryImplSpec extends Specification {
     Row row = Mock(Row)
 
     @Subject
-    PassengerRepositoryImpl repository = new PassengerRepositoryImpl(pool)
+    PassengerRepositoryImpl repository = new PassengerRepositoryImpl(pool, pool, SqlDialect.POSTGRES)
 
     def setup() {
         pool.preparedQuery(_ as String) >> preparedQuery
@@ -55,20 +56,48 @@ class PassengerRepositoryImplSpec extends Specification {
         result.result().email == "john@example.com"
     }
 
+    def "findById on a connection should query that connection, not the read pool"() {
+        when:
+        def result = repository.findById(connection, 100L)
+
+        then:
+        result.result().id == 100L
+        1 * connection.preparedQuery(PassengerRepositoryImpl.SQL_SELECT_BY_ID) >> preparedQuery
+        0 * pool.preparedQuery(_)
+    }
+
+    def "findExistingIds should look up the whole set in one array-bound query"() {
+        when:
+        def result = repository.findExistingIds(connection, [100L, 101L] as Set)
+
+        then:
+        1 * connection.preparedQuery(PassengerRepositoryImpl.SQL_SELECT_EXISTING_IDS) >> preparedQuery
+        1 * preparedQuery.execute({ Tuple t -> t.size() == 1 && (t.getValue(0) as Long[]) as Set == [100L, 101L] as Set }) >>
+                Future.succeededFuture(rowSet)
+        result.result() == [100L] as Set
+    }
+
+    def "findExistingIds should not query for an empty set"() {
+        when:
+        def result = repository.findExistingIds(connection, [] as Set)
+
+        then:
+        0 * connection.preparedQuery(_)
+        result.result().isEmpty()
+    }
+
     def "save should perform insert and return generated passenger when ID is null"() {
         given: "new passenger"
         Passenger p = new Passenger(firstName: "New")
 
-        connection.query(_ as String) >> Mock(Query) {
-            execute() >> Future.succeededFuture(rowSet)
-        }
-
         when:
         def result = repository.save(p)
 
         then:
         result.succeeded()
         result.result().id == 100L
+        1 * connection.preparedQuery(SqlDialect.POSTGRES.returning(PassengerRepositoryImpl.SQL_INSERT)) >> preparedQuery
+        0 * connection.query(_)
         1 * connection.close() >> Future.succeededFuture()
     }
 